@@ -15,6 +15,7 @@
  */
 package org.commonjava.indy.content.index;
 
+import org.commonjava.indy.content.index.warmer.WarmerCheckpoint;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.subsys.infinispan.BasicCacheHandle;
 import org.commonjava.indy.subsys.infinispan.CacheHandle;
@@ -82,4 +83,16 @@ public class ContentIndexCacheProducer
     {
         return cacheProducer.getCache( "content-index" );
     }
+
+    /**
+     * Cache which is used to store the checkpoints of the content index warmer, per concrete store key. It should be
+     * persisted the same way as "content-index", so checkpoints never outlive the index entries they stand for.
+     */
+    @ContentIndexWarmerCache
+    @Produces
+    @ApplicationScoped
+    public CacheHandle<String, WarmerCheckpoint> contentIndexWarmerCacheCfg()
+    {
+        return cacheProducer.getCache( "content-index-warmer" );
+    }
 }
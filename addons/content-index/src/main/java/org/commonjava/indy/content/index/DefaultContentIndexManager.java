@@ -18,11 +18,14 @@ package org.commonjava.indy.content.index;
 import org.commonjava.indy.action.IndyLifecycleException;
 import org.commonjava.indy.action.ShutdownAction;
 import org.commonjava.indy.content.index.conf.ContentIndexConfig;
+import org.commonjava.indy.content.index.warmer.WarmerCheckpoint;
+import org.commonjava.indy.data.IndyDataException;
 import org.commonjava.indy.data.StoreDataManager;
 import org.commonjava.indy.measure.annotation.Measure;
 import org.commonjava.indy.model.core.ArtifactStore;
 import org.commonjava.indy.model.core.Group;
 import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.model.core.StoreType;
 import org.commonjava.indy.subsys.infinispan.BasicCacheHandle;
 import org.commonjava.indy.subsys.infinispan.CacheHandle;
 import org.commonjava.indy.util.LocationUtils;
@@ -73,6 +76,10 @@ public class DefaultContentIndexManager
     @Inject
     private CacheHandle<IndexedStorePath, IndexedStorePath> contentIndex;
 
+    @ContentIndexWarmerCache
+    @Inject
+    private CacheHandle<String, WarmerCheckpoint> warmerCheckpoints;
+
 /*
     @Inject
     private NFCContentListener listener;
@@ -323,6 +330,27 @@ public class DefaultContentIndexManager
                                                       .build() );
 
         logger.debug( "Cleared all indices with group: {}, size: {}", sk, total );
+
+        if ( sk.getType() == StoreType.group )
+        {
+            // the group entries came from its members, so they have to be walked again to restore them
+            try
+            {
+                storeDataManager.query()
+                                .packageType( sk.getPackageType() )
+                                .getOrderedConcreteStoresInGroup( sk.getName() )
+                                .forEach( member -> resetWarmerCheckpoint( member.getKey() ) );
+            }
+            catch ( IndyDataException e )
+            {
+                logger.warn( String.format( "Failed to reset content index warmer checkpoints for members of: %s. Reason: %s",
+                                            sk, e.getMessage() ), e );
+            }
+        }
+        else
+        {
+            resetWarmerCheckpoint( sk );
+        }
     }
 
     @Override
@@ -351,6 +379,19 @@ public class DefaultContentIndexManager
                                                       .build() );
 
         logger.debug( "Cleared all indices with origin: {}, size: {}", osk, total );
+
+        resetWarmerCheckpoint( osk );
+    }
+
+    /**
+     * Once index entries of a concrete store are cleared, the warmer must not trust its checkpoint for that store.
+     */
+    private void resetWarmerCheckpoint( final StoreKey key )
+    {
+        if ( warmerCheckpoints != null )
+        {
+            warmerCheckpoints.remove( key.toString() );
+        }
     }
 
     private long iterateRemove( final Supplier<Query> queryFunction )
@@ -408,6 +449,8 @@ public class DefaultContentIndexManager
                                                       .build() );
 
         logger.trace( "Cleared all indices with origin: {} and group: {}, size: {}", osk, sk, total );
+
+        resetWarmerCheckpoint( osk );
     }
 
     /**
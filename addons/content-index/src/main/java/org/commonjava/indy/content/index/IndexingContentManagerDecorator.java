@@ -43,6 +43,7 @@ import javax.decorator.Decorator;
 import javax.decorator.Delegate;
 import javax.enterprise.inject.Any;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -735,6 +736,45 @@ public abstract class IndexingContentManagerDecorator
         Logger logger = LoggerFactory.getLogger( getClass() );
         logger.trace( "Storing: {} in: {} from indexing level", path, store.getKey() );
         Transfer transfer = delegate.store( store, path, stream, op, eventMetadata );
+        indexStored( store, path, transfer, eventMetadata );
+        return transfer;
+    }
+
+    @Override
+    @Measure
+    public Transfer copy( final Transfer source, final ArtifactStore store, final String path,
+                          final TransferOperation op, final EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
+        if ( !indexCfg.isEnabled() )
+        {
+            return delegate.copy( source, store, path, op, eventMetadata );
+        }
+
+        if ( store.getType() == StoreType.group )
+        {
+            // let the group store() above pick the member and index it
+            try (InputStream stream = source.openInputStream( true ))
+            {
+                return store( store, path, stream, op, eventMetadata );
+            }
+            catch ( IOException e )
+            {
+                throw new IndyWorkflowException( "Failed to read: %s. Reason: %s", e, source, e.getMessage() );
+            }
+        }
+
+        Logger logger = LoggerFactory.getLogger( getClass() );
+        logger.trace( "Copying: {} to: {} in: {} from indexing level", source, path, store.getKey() );
+        Transfer transfer = delegate.copy( source, store, path, op, eventMetadata );
+        indexStored( store, path, transfer, eventMetadata );
+        return transfer;
+    }
+
+    private void indexStored( final ArtifactStore store, final String path, final Transfer transfer,
+                              final EventMetadata eventMetadata )
+    {
+        Logger logger = LoggerFactory.getLogger( getClass() );
         if ( transfer != null )
         {
             if ( indexCfg.isEnabled() )
@@ -775,7 +815,6 @@ public abstract class IndexingContentManagerDecorator
                 } ) );
             }
         }
-        return transfer;
     }
 
     @Override
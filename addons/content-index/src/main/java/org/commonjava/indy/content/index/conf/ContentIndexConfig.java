@@ -35,6 +35,10 @@ public class ContentIndexConfig
 
     public static final String ENABLE_INDEX_WARMER = "index.warmer.enabled";
 
+    public static final String INDEX_WARMER_BATCH_SIZE = "index.warmer.batch.size";
+
+    public static final String ENABLE_INDEX_WARMER_CHECKPOINTS = "index.warmer.checkpoints.enabled";
+
     private static final String ENABLE = "enabled";
 
     private static final Boolean DEFAULT_AUTHORITATIVE_INDEXES = Boolean.FALSE;
@@ -43,12 +47,20 @@ public class ContentIndexConfig
 
     private static final Boolean DEFAULT_ENABLED = Boolean.FALSE;
 
+    private static final int DEFAULT_WARMER_BATCH_SIZE = 1000;
+
+    private static final boolean DEFAULT_WARMER_CHECKPOINTS_ENABLED = true;
+
     private Boolean authoritativeIndex;
 
     private Boolean warmerEnabled;
 
     private Boolean enabled;
 
+    private Integer warmerBatchSize;
+
+    private Boolean warmerCheckpointsEnabled;
+
     public ContentIndexConfig()
     {
     }
@@ -80,6 +92,28 @@ public class ContentIndexConfig
         this.warmerEnabled = warmerEnabled;
     }
 
+    public int getWarmerBatchSize()
+    {
+        return warmerBatchSize == null ? DEFAULT_WARMER_BATCH_SIZE : warmerBatchSize;
+    }
+
+    @ConfigName( ContentIndexConfig.INDEX_WARMER_BATCH_SIZE )
+    public void setWarmerBatchSize( Integer warmerBatchSize )
+    {
+        this.warmerBatchSize = warmerBatchSize;
+    }
+
+    public boolean isWarmerCheckpointsEnabled()
+    {
+        return warmerCheckpointsEnabled == null ? DEFAULT_WARMER_CHECKPOINTS_ENABLED : warmerCheckpointsEnabled;
+    }
+
+    @ConfigName( ContentIndexConfig.ENABLE_INDEX_WARMER_CHECKPOINTS )
+    public void setWarmerCheckpointsEnabled( Boolean warmerCheckpointsEnabled )
+    {
+        this.warmerCheckpointsEnabled = warmerCheckpointsEnabled;
+    }
+
     @Override
     public String getDefaultConfigFileName()
     {
@@ -15,33 +15,64 @@
  */
 package org.commonjava.indy.content.index.warmer;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import org.commonjava.cdi.util.weft.ExecutorConfig;
 import org.commonjava.cdi.util.weft.WeftManaged;
 import org.commonjava.indy.IndyWorkflowException;
 import org.commonjava.indy.content.DownloadManager;
 import org.commonjava.indy.content.index.ContentIndexManager;
+import org.commonjava.indy.content.index.ContentIndexWarmerCache;
 import org.commonjava.indy.content.index.conf.ContentIndexConfig;
 import org.commonjava.indy.data.IndyDataException;
 import org.commonjava.indy.data.StoreDataManager;
+import org.commonjava.indy.metrics.IndyMetricsManager;
 import org.commonjava.indy.model.core.ArtifactStore;
 import org.commonjava.indy.model.core.Group;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.model.core.StoreType;
+import org.commonjava.indy.subsys.infinispan.CacheHandle;
+import org.commonjava.maven.galley.model.SpecialPathInfo;
 import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.spi.io.SpecialPathManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Loads the content index from storage at startup. Each concrete store is walked directory by directory in a stable
+ * order, and what's found is indexed in batches, both in the store itself and in every group containing it, so at most
+ * one batch per store is held in memory. After each batch a {@link WarmerCheckpoint} records the last path indexed, so
+ * a restart skips finished stores and resumes the others, walking their last batch again. Both the index and the
+ * checkpoints may be written behind, in no particular order, so a checkpoint is only trusted if its resume path, its
+ * last path and a sample of paths from the earlier batches all made it into the index.
+ */
 @ApplicationScoped
 public class ContentIndexWarmer
 {
+    private static final String METRIC_NAME = "content-index-warmer";
+
+    private static final int PATH_LOCK_STRIPES = 256;
+
+    private static final int CHECKPOINT_SAMPLES = 32;
+
     @Inject
     private ContentIndexManager indexManager;
 
@@ -54,6 +85,16 @@ public class ContentIndexWarmer
     @Inject
     private DownloadManager downloadManager;
 
+    @Inject
+    private SpecialPathManager specialPathManager;
+
+    @Inject
+    @ContentIndexWarmerCache
+    private CacheHandle<String, WarmerCheckpoint> checkpoints;
+
+    @Inject
+    private IndyMetricsManager metricsManager;
+
     @WeftManaged
     @ExecutorConfig( named = "content-index-warmer", priority = 6, threads = 12 )
     @Inject
@@ -61,112 +102,489 @@ public class ContentIndexWarmer
 
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
+    private final Object[] pathLocks = new Object[PATH_LOCK_STRIPES];
+
+    private final AtomicInteger storesTotal = new AtomicInteger();
+
+    private final AtomicInteger storesDone = new AtomicInteger();
+
+    private final AtomicInteger storesSkipped = new AtomicInteger();
+
+    private final AtomicInteger pathsIndexed = new AtomicInteger();
+
+    private Meter pathsMeter;
+
+    @PostConstruct
+    public void init()
+    {
+        for ( int i = 0; i < pathLocks.length; i++ )
+        {
+            pathLocks[i] = new Object();
+        }
+
+        Map<String, Gauge<Integer>> gauges = new HashMap<>();
+        gauges.put( "stores.total", storesTotal::get );
+        gauges.put( "stores.done", storesDone::get );
+        gauges.put( "stores.skipped", storesSkipped::get );
+        gauges.put( "paths", pathsIndexed::get );
+        metricsManager.addGauges( getClass(), "warmCaches", gauges );
+
+        pathsMeter = metricsManager.getMeter( name( metricsManager.getConfig().getNodePrefix(), METRIC_NAME, "paths" ) );
+    }
+
     public void warmCaches()
     {
-        if ( indexConfig.isWarmerEnabled() )
+        if ( !indexConfig.isEnabled() )
+        {
+            // nothing keeps the index in step with storage while it's disabled, so no checkpoint can be trusted later
+            logger.info( "Content index is not enabled, dropping content index warmer checkpoints." );
+            clearCheckpoints();
+        }
+        else if ( indexConfig.isWarmerEnabled() )
         {
             logger.info( "Content index warmer enabled, will load all indexes from existed repos." );
-            executor.submit( () -> {
-                boolean oldAuthIdx = indexConfig.isAuthoritativeIndex();
-                indexConfig.setAuthoritativeIndex( false );
+            executor.submit( this::warm );
+        }
+        else
+        {
+            logger.info( "Content index warmer is not enabled." );
+        }
+    }
+
+    private void warm()
+    {
+        boolean oldAuthIdx = indexConfig.isAuthoritativeIndex();
+        indexConfig.setAuthoritativeIndex( false );
+        try
+        {
+            long begin = System.currentTimeMillis();
+
+            List<ArtifactStore> concreteStores =
+                    storeDataManager.query().storeTypes( StoreType.hosted, StoreType.remote ).getAll();
+            Membership membership = loadMembership();
+            dropStaleCheckpoints( concreteStores );
+
+            storesTotal.set( concreteStores.size() );
+            storesDone.set( 0 );
+            storesSkipped.set( 0 );
+            pathsIndexed.set( 0 );
+
+            CountDownLatch latch = new CountDownLatch( concreteStores.size() );
+            concreteStores.forEach( store -> executor.submit( () -> {
                 try
                 {
-                    Map<StoreKey, List<Transfer>> transferMap = new ConcurrentHashMap<>();
-
-                    try
-                    {
-                        List<ArtifactStore> concreteStores =
-                                storeDataManager.query().storeTypes( StoreType.hosted, StoreType.remote ).getAll();
-
-                        CountDownLatch latch = new CountDownLatch( concreteStores.size() );
-
-                        concreteStores.forEach( store -> executor.submit( () -> {
-                            try
-                            {
-                                List<Transfer> transfers =
-                                        downloadManager.listRecursively( store.getKey(), DownloadManager.ROOT_PATH );
-                                transferMap.put( store.getKey(), transfers );
-                                transfers.forEach( t -> indexManager.indexTransferIn( t, store.getKey() ) );
-                            }
-                            catch ( IndyWorkflowException e )
-                            {
-                                logger.warn( "Failed to retrieve root directory of storage for: " + store.getKey(), e );
-                            }
-                            finally
-                            {
-                                latch.countDown();
-                            }
-                        } ) );
-
-                        try
-                        {
-                            latch.await();
-                        }
-                        catch ( InterruptedException e )
-                        {
-                            logger.info(
-                                    "Manager thread interrupted while waiting for concrete store indexing to complete." );
-                            return;
-                        }
-
-                        List<Group> groups = storeDataManager.query().storeType( Group.class ).getAll();
-                        CountDownLatch groupLatch = new CountDownLatch( groups.size() );
-
-                        groups.forEach( g -> executor.submit( () -> {
-                            StoreKey gkey = g.getKey();
-
-                            try
-                            {
-                                List<ArtifactStore> stores = storeDataManager.query().getOrderedConcreteStoresInGroup( g.getName() );
-
-                                stores.forEach( s -> {
-                                    List<Transfer> txfrs = transferMap.get( s.getKey() );
-                                    txfrs.forEach( t -> {
-                                        if ( indexManager.getIndexedStoreKey( gkey, t.getPath() ) == null )
-                                        {
-                                            indexManager.indexTransferIn( t, gkey );
-                                        }
-                                    } );
-                                } );
-                            }
-                            catch ( IndyDataException e )
-                            {
-                                logger.warn( "Failed to get ordered concrete stores for group: " + g.getName(), e );
-                            }
-                            finally
-                            {
-                                groupLatch.countDown();
-                            }
-                        } ) );
-
-                        try
-                        {
-                            groupLatch.await();
-                        }
-                        catch ( InterruptedException e )
-                        {
-                            logger.info( "Manager thread interrupted while waiting for group indexing to complete." );
-                            return;
-                        }
-
-                    }
-                    catch ( IndyDataException e )
-                    {
-                        logger.warn( "Content index warm-up failed: %s", e, e.getMessage() );
-                    }
-
-                    logger.info( "Content index cache has been re-established." );
+                    warmStore( store, membership );
+                }
+                catch ( IndyWorkflowException e )
+                {
+                    logger.warn( "Failed to index storage for: " + store.getKey(), e );
                 }
                 finally
                 {
-                    indexConfig.setAuthoritativeIndex( oldAuthIdx );
+                    latch.countDown();
+                }
+            } ) );
+
+            try
+            {
+                latch.await();
+            }
+            catch ( InterruptedException e )
+            {
+                logger.info( "Manager thread interrupted while waiting for store indexing to complete." );
+                return;
+            }
+
+            logger.info( "Content index cache has been re-established. Indexed {} paths from {} stores ({} already done) "
+                                 + "in {} ms.", pathsIndexed.get(), storesDone.get(), storesSkipped.get(),
+                         System.currentTimeMillis() - begin );
+        }
+        catch ( IndyDataException e )
+        {
+            logger.warn( "Content index warm-up failed: " + e.getMessage(), e );
+        }
+        finally
+        {
+            indexConfig.setAuthoritativeIndex( oldAuthIdx );
+        }
+    }
+
+    private void warmStore( final ArtifactStore store, final Membership membership )
+            throws IndyWorkflowException
+    {
+        StoreKey key = store.getKey();
+        WarmerCheckpoint checkpoint = indexConfig.isWarmerCheckpointsEnabled() ? checkpoints.get( key.toString() ) : null;
+        if ( checkpoint != null && !isTrusted( key, checkpoint ) )
+        {
+            logger.info( "Content index of: {} is missing paths from its warmer checkpoint: {}, warming it from the "
+                                 + "start.", key, checkpoint );
+            checkpoint = null;
+        }
+
+        if ( checkpoint != null && checkpoint.isComplete() )
+        {
+            logger.debug( "Content index of: {} was already warmed, skipping.", key );
+            storesSkipped.incrementAndGet();
+            storesDone.incrementAndGet();
+            return;
+        }
+
+        String resumeAfter = checkpoint == null ? null : checkpoint.getResumeAfter();
+        if ( resumeAfter != null )
+        {
+            logger.info( "Resuming content index warm-up of: {} after: {}", key, resumeAfter );
+        }
+
+        StoreWalk walk = resumeAfter == null ?
+                new StoreWalk( key, membership.getGroupRanks( key ), null, Collections.emptyList(), 0 ) :
+                new StoreWalk( key, membership.getGroupRanks( key ), resumeAfter, checkpoint.getSamples(),
+                               checkpoint.getBatches() );
+
+        walk( downloadManager.getStorageReference( store, DownloadManager.ROOT_PATH ), walk );
+        walk.flush();
+
+        if ( indexConfig.isWarmerCheckpointsEnabled() )
+        {
+            checkpoints.put( key.toString(),
+                             new WarmerCheckpoint( null, walk.getLastIndexed(), walk.getSamples(),
+                                                   walk.getBatches(), true ) );
+        }
+
+        storesDone.incrementAndGet();
+        logger.debug( "Content index of: {} warmed, {} paths indexed in total so far.", key, pathsIndexed.get() );
+    }
+
+    /**
+     * Depth-first, with children in name order, so the visiting order matches {@link #comparePaths(String[], String[])}
+     * and a checkpoint path tells exactly which directories and files are done.
+     */
+    private void walk( final Transfer dir, final StoreWalk walk )
+            throws IndyWorkflowException
+    {
+        if ( !dir.isDirectory() || !walk.mayContainPending( dir.getPath() ) )
+        {
+            return;
+        }
+
+        final String[] children;
+        try
+        {
+            children = dir.list();
+        }
+        catch ( final IOException e )
+        {
+            throw new IndyWorkflowException( "Failed to list children of: %s. Reason: %s", e, dir, e.getMessage() );
+        }
+
+        if ( children == null )
+        {
+            return;
+        }
+
+        List<String> names = new ArrayList<>( children.length );
+        for ( final String child : children )
+        {
+            names.add( child.endsWith( "/" ) ? child.substring( 0, child.length() - 1 ) : child );
+        }
+        Collections.sort( names );
+
+        for ( final String name : names )
+        {
+            Transfer child = dir.getChild( name );
+            if ( child.isDirectory() )
+            {
+                walk( child, walk );
+            }
+            else if ( walk.isPending( child.getPath() ) )
+            {
+                SpecialPathInfo spi = specialPathManager.getSpecialPathInfo( child.getPath() );
+                if ( spi == null || spi.isListable() )
+                {
+                    walk.add( child.getPath() );
                 }
+            }
+        }
+    }
 
+    /**
+     * Index one path in its origin store, and in each group containing that store unless a member that comes earlier
+     * in the group already provides it. Paths are locked in stripes, since stores are warmed concurrently.
+     */
+    private void indexPath( final String path, final StoreKey origin, final Map<StoreKey, Map<StoreKey, Integer>> groupRanks )
+    {
+        synchronized ( pathLocks[( path.hashCode() & 0x7fffffff ) % pathLocks.length] )
+        {
+            List<StoreKey> groups = new ArrayList<>( groupRanks.size() );
+            groupRanks.forEach( ( gkey, ranks ) -> {
+                StoreKey indexed = indexManager.getIndexedStoreKey( gkey, path );
+                if ( indexed == null || ( !indexed.equals( origin ) && rank( ranks, origin ) < rank( ranks, indexed ) ) )
+                {
+                    groups.add( gkey );
+                }
             } );
+
+            indexManager.indexPathInStores( path, origin, groups.toArray( new StoreKey[groups.size()] ) );
         }
-        else
+    }
+
+    private static int rank( final Map<StoreKey, Integer> ranks, final StoreKey key )
+    {
+        Integer rank = ranks.get( key );
+        return rank == null ? Integer.MAX_VALUE : rank;
+    }
+
+    /**
+     * Whether the paths a checkpoint names are in the index of its origin store. The index is preloaded from its
+     * persistent store, so this tells if the index entries written up to the checkpoint survived, at least as far as
+     * the samples go.
+     */
+    private boolean isTrusted( final StoreKey key, final WarmerCheckpoint checkpoint )
+    {
+        List<String> samples = checkpoint.getSamples();
+        return samples != null && isIndexed( key, checkpoint.getResumeAfter() )
+                && isIndexed( key, checkpoint.getLastPath() ) && samples.stream().allMatch( path -> isIndexed( key, path ) );
+    }
+
+    private boolean isIndexed( final StoreKey key, final String path )
+    {
+        return path == null || indexManager.getIndexedStoreKey( key, path ) != null;
+    }
+
+    private void clearCheckpoints()
+    {
+        checkpoints.executeCache( cache -> {
+            cache.clear();
+            return null;
+        } );
+    }
+
+    private void dropStaleCheckpoints( final List<ArtifactStore> concreteStores )
+    {
+        if ( !indexConfig.isWarmerCheckpointsEnabled() )
         {
-            logger.info( "Content index warmer is not enabled." );
+            clearCheckpoints();
+            return;
+        }
+
+        Set<String> current = new HashSet<>();
+        concreteStores.forEach( store -> current.add( store.getKey().toString() ) );
+
+        Set<String> stale = checkpoints.executeCache( cache -> {
+            Set<String> keys = new HashSet<>( cache.keySet() );
+            keys.removeAll( current );
+            return keys;
+        } );
+        stale.forEach( checkpoints::remove );
+    }
+
+    private Membership loadMembership()
+            throws IndyDataException
+    {
+        Membership membership = new Membership();
+        for ( Group group : storeDataManager.query().storeType( Group.class ).getAll() )
+        {
+            List<ArtifactStore> members = storeDataManager.query()
+                                                          .packageType( group.getPackageType() )
+                                                          .getOrderedConcreteStoresInGroup( group.getName() );
+            membership.addGroup( group.getKey(), members );
+        }
+
+        return membership;
+    }
+
+    static String[] segments( final String path )
+    {
+        return Arrays.stream( path.split( "/" ) ).filter( s -> !s.isEmpty() ).toArray( String[]::new );
+    }
+
+    /**
+     * Compare two paths segment by segment, which is the order the walk visits files in.
+     */
+    static int comparePaths( final String[] first, final String[] second )
+    {
+        int len = Math.min( first.length, second.length );
+        for ( int i = 0; i < len; i++ )
+        {
+            int comp = first[i].compareTo( second[i] );
+            if ( comp != 0 )
+            {
+                return comp;
+            }
+        }
+
+        return first.length - second.length;
+    }
+
+    /**
+     * Whether a directory can hold anything the walk hasn't indexed yet, given the last path it indexed.
+     */
+    static boolean mayContainAfter( final String[] dir, final String[] last )
+    {
+        if ( dir.length <= last.length )
+        {
+            boolean prefix = true;
+            for ( int i = 0; prefix && i < dir.length; i++ )
+            {
+                prefix = dir[i].equals( last[i] );
+            }
+
+            if ( prefix )
+            {
+                return true;
+            }
+        }
+
+        return comparePaths( dir, last ) > 0;
+    }
+
+    /**
+     * Offer a path of the given batch (counted from 0) as a checkpoint sample. The samples are taken from every
+     * {@link #sampleStride(int)}-th batch; whenever the stride doubles every other sample goes, so there are never more
+     * than {@link #CHECKPOINT_SAMPLES} and they stay evenly spread over the whole walk.
+     */
+    static void addSample( final List<String> samples, final int batch, final String path )
+    {
+        int stride = sampleStride( batch );
+        if ( batch > 0 && stride != sampleStride( batch - 1 ) )
+        {
+            for ( int i = samples.size() - 1; i > 0; i-- )
+            {
+                if ( i % 2 == 1 )
+                {
+                    samples.remove( i );
+                }
+            }
+        }
+
+        if ( batch % stride == 0 )
+        {
+            samples.add( path );
+        }
+    }
+
+    static int sampleStride( final int batch )
+    {
+        int stride = 1;
+        while ( batch / stride >= CHECKPOINT_SAMPLES )
+        {
+            stride *= 2;
+        }
+
+        return stride;
+    }
+
+    /**
+     * Group membership snapshot taken at the start of the warm-up: for each concrete store, the groups containing it
+     * (directly or not), with the rank of each concrete member inside those groups.
+     */
+    private static final class Membership
+    {
+        private final Map<StoreKey, Map<StoreKey, Map<StoreKey, Integer>>> byMember = new HashMap<>();
+
+        void addGroup( final StoreKey group, final List<ArtifactStore> orderedMembers )
+        {
+            Map<StoreKey, Integer> ranks = new HashMap<>();
+            for ( int i = 0; i < orderedMembers.size(); i++ )
+            {
+                ranks.putIfAbsent( orderedMembers.get( i ).getKey(), i );
+            }
+
+            ranks.keySet().forEach( member -> byMember.computeIfAbsent( member, k -> new HashMap<>() ).put( group, ranks ) );
+        }
+
+        Map<StoreKey, Map<StoreKey, Integer>> getGroupRanks( final StoreKey member )
+        {
+            Map<StoreKey, Map<StoreKey, Integer>> groups = byMember.get( member );
+            return groups == null ? Collections.emptyMap() : groups;
+        }
+    }
+
+    /**
+     * State of the walk through one store: where to resume, and the batch waiting to be indexed.
+     */
+    private final class StoreWalk
+    {
+        private final StoreKey key;
+
+        private final Map<StoreKey, Map<StoreKey, Integer>> groupRanks;
+
+        private final String[] resumeAfter;
+
+        private final List<String> batch;
+
+        private final List<String> samples;
+
+        private String lastIndexed;
+
+        private int batches;
+
+        StoreWalk( final StoreKey key, final Map<StoreKey, Map<StoreKey, Integer>> groupRanks,
+                   final String resumeAfter, final List<String> samples, final int batches )
+        {
+            this.key = key;
+            this.groupRanks = groupRanks;
+            this.resumeAfter = resumeAfter == null ? null : segments( resumeAfter );
+            this.lastIndexed = resumeAfter;
+            this.samples = new ArrayList<>( samples );
+            this.batches = batches;
+            this.batch = new ArrayList<>( indexConfig.getWarmerBatchSize() );
+        }
+
+        String getLastIndexed()
+        {
+            return lastIndexed;
+        }
+
+        List<String> getSamples()
+        {
+            return new ArrayList<>( samples );
+        }
+
+        int getBatches()
+        {
+            return batches;
+        }
+
+        boolean mayContainPending( final String dir )
+        {
+            return resumeAfter == null || mayContainAfter( segments( dir ), resumeAfter );
+        }
+
+        boolean isPending( final String path )
+        {
+            return resumeAfter == null || comparePaths( segments( path ), resumeAfter ) > 0;
+        }
+
+        void add( final String path )
+        {
+            batch.add( path );
+            if ( batch.size() >= indexConfig.getWarmerBatchSize() )
+            {
+                flush();
+            }
+        }
+
+        void flush()
+        {
+            if ( batch.isEmpty() )
+            {
+                return;
+            }
+
+            batch.forEach( path -> indexPath( path, key, groupRanks ) );
+
+            String last = batch.get( batch.size() - 1 );
+            if ( indexConfig.isWarmerCheckpointsEnabled() )
+            {
+                // resume after the batch before this one, in case this batch's entries are still queued for writing
+                checkpoints.put( key.toString(), new WarmerCheckpoint( lastIndexed, last, getSamples(), batches, false ) );
+            }
+            lastIndexed = last;
+            addSample( samples, batches++, batch.get( 0 ) );
+
+            pathsIndexed.addAndGet( batch.size() );
+            pathsMeter.mark( batch.size() );
+            batch.clear();
         }
     }
 }
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.content.index.warmer;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * How far the {@link ContentIndexWarmer} got in one concrete store: the last path indexed, in walk order, or complete.
+ * A resume starts after the last path of the batch before, so the last batch is always walked again.
+ * <p>
+ * The index may be written behind in any order, so the checkpoint also carries a sample of paths spread over the
+ * batches already walked. It is only trusted if the resume path, the last path and every sample are indexed.
+ */
+public final class WarmerCheckpoint
+        implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final String resumeAfter;
+
+    private final String lastPath;
+
+    private final List<String> samples;
+
+    private final int batches;
+
+    private final boolean complete;
+
+    public WarmerCheckpoint( final String resumeAfter, final String lastPath, final List<String> samples,
+                             final int batches, final boolean complete )
+    {
+        this.resumeAfter = resumeAfter;
+        this.lastPath = lastPath;
+        this.samples = samples;
+        this.batches = batches;
+        this.complete = complete;
+    }
+
+    public String getResumeAfter()
+    {
+        return resumeAfter;
+    }
+
+    public String getLastPath()
+    {
+        return lastPath;
+    }
+
+    /**
+     * Null for checkpoints written before samples were kept, which can't be verified.
+     */
+    public List<String> getSamples()
+    {
+        return samples;
+    }
+
+    /**
+     * Batches covered by the samples, which is also the number of the batch a resume walks again.
+     */
+    public int getBatches()
+    {
+        return batches;
+    }
+
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WarmerCheckpoint{resumeAfter='" + resumeAfter + "', lastPath='" + lastPath + "', samples=" + samples
+                + ", batches=" + batches + ", complete=" + complete + '}';
+    }
+}
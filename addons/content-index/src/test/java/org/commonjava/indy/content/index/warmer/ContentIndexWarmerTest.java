@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.content.index.warmer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.commonjava.indy.content.index.warmer.ContentIndexWarmer.addSample;
+import static org.commonjava.indy.content.index.warmer.ContentIndexWarmer.comparePaths;
+import static org.commonjava.indy.content.index.warmer.ContentIndexWarmer.mayContainAfter;
+import static org.commonjava.indy.content.index.warmer.ContentIndexWarmer.segments;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ContentIndexWarmerTest
+{
+    @Test
+    public void pathOrderMatchesWalkOrder()
+    {
+        // the walk visits "org/b" before "org/b-c"; plain string order would not
+        List<String> walked = Arrays.asList( "org/a.jar", "org/b/x.pom", "org/b/y/z.jar", "org/b-c/x.pom", "org/c.pom" );
+
+        List<String> sorted = new ArrayList<>( walked );
+        sorted.sort( ( a, b ) -> comparePaths( segments( a ), segments( b ) ) );
+
+        assertThat( sorted, equalTo( walked ) );
+    }
+
+    @Test
+    public void resumeOnlyDescendsIntoPendingDirectories()
+    {
+        String[] last = segments( "org/b/y/z.jar" );
+
+        assertThat( mayContainAfter( segments( "/" ), last ), equalTo( true ) );
+        assertThat( mayContainAfter( segments( "org/b/" ), last ), equalTo( true ) );
+        assertThat( mayContainAfter( segments( "org/b/y" ), last ), equalTo( true ) );
+        assertThat( mayContainAfter( segments( "org/b-c" ), last ), equalTo( true ) );
+        assertThat( mayContainAfter( segments( "org/a" ), last ), equalTo( false ) );
+        assertThat( mayContainAfter( segments( "org/b/x" ), last ), equalTo( false ) );
+    }
+
+    @Test
+    public void checkpointSamplesStaySpreadOverTheWalk()
+    {
+        List<String> samples = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            addSample( samples, i, "batch/" + i );
+        }
+
+        List<String> expected = new ArrayList<>();
+        for ( int i = 0; i < 1000; i += 32 )
+        {
+            expected.add( "batch/" + i );
+        }
+
+        assertThat( samples, equalTo( expected ) );
+    }
+}
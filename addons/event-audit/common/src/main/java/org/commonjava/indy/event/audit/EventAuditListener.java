@@ -16,6 +16,7 @@
 package org.commonjava.indy.event.audit;
 
 import org.commonjava.indy.IndyWorkflowException;
+import org.commonjava.indy.change.event.AsyncFileEvent;
 import org.commonjava.indy.conf.IndyConfiguration;
 import org.commonjava.indy.content.ContentDigester;
 import org.commonjava.indy.content.DownloadManager;
@@ -84,7 +85,22 @@ public class EventAuditListener
 
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
-    public void onFileAccess( @Observes final FileAccessEvent event )
+    /**
+     * Auditing doesn't need to hold up the request, so file events are observed through {@link AsyncFileEvent}.
+     */
+    public void onFileEvent( @Observes final AsyncFileEvent event )
+    {
+        if ( event.getEvent() instanceof FileAccessEvent )
+        {
+            onFileAccess( (FileAccessEvent) event.getEvent() );
+        }
+        else if ( event.getEvent() instanceof FileStorageEvent )
+        {
+            onFileUpload( (FileStorageEvent) event.getEvent() );
+        }
+    }
+
+    public void onFileAccess( final FileAccessEvent event )
     {
 
         if ( !eventAuditConfig.isEnabled() )
@@ -97,7 +113,7 @@ public class EventAuditListener
 
     }
 
-    public void onFileUpload( @Observes final FileStorageEvent event )
+    public void onFileUpload( final FileStorageEvent event )
     {
 
         if ( !eventAuditConfig.isEnabled() )
@@ -35,6 +35,8 @@ public class FoloConfig
 
     private Boolean trackGroupContent;
 
+    private Boolean recordBuffer;
+
     public FoloConfig()
     {
     }
@@ -71,6 +73,22 @@ public class FoloConfig
         return trackGroupContent;
     }
 
+    public boolean isRecordBufferEnabled()
+    {
+        return Boolean.TRUE.equals( recordBuffer );
+    }
+
+    @ConfigName( "record.buffer.enabled" )
+    public void setRecordBuffer( final Boolean recordBuffer )
+    {
+        this.recordBuffer = recordBuffer;
+    }
+
+    public Boolean getRecordBuffer()
+    {
+        return recordBuffer;
+    }
+
     @Override
     public String getDefaultConfigFileName()
     {
@@ -18,6 +18,7 @@ package org.commonjava.indy.folo.data;
 import org.commonjava.indy.IndyWorkflowException;
 import org.commonjava.indy.folo.change.FoloBackupListener;
 import org.commonjava.indy.folo.change.FoloExpirationWarningListener;
+import org.commonjava.indy.folo.conf.FoloConfig;
 import org.commonjava.indy.folo.model.StoreEffect;
 import org.commonjava.indy.folo.model.TrackedContent;
 import org.commonjava.indy.folo.model.TrackedContentEntry;
@@ -35,22 +36,54 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.commonjava.indy.measure.annotation.MetricNamed.DEFAULT;
 
+/**
+ * Tracking entries go through a buffer per {@link TrackingKey}, so recordings for different builds never contend with
+ * each other. By default the buffer is written through: every entry is in the in-progress cache before
+ * {@link #recordArtifact(TrackedContentEntry)} returns.
+ * <p>
+ * With {@link FoloConfig#isRecordBufferEnabled()}, the buffer is flushed to the in-progress cache in batches instead:
+ * when it grows to {@link #FLUSH_BATCH_SIZE} entries, periodically from a timer, before anything reads the in-progress
+ * entries of that key (sealing included), and on shutdown. The buffers only live in the memory of this node, so if it
+ * crashes, entries recorded in the last flush period ({@link #FLUSH_PERIOD_MILLIS}) and not yet flushed by the batch
+ * size are lost.
+ */
 @ApplicationScoped
 public class FoloRecordCache
 {
 
+    private static final int FLUSH_BATCH_SIZE = 64;
+
+    private static final long FLUSH_PERIOD_MILLIS = 5000;
+
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
+    private final Map<TrackingKey, InProgressBuffer> inProgressBuffers = new ConcurrentHashMap<>();
+
+    private Timer flushTimer;
+
+    private boolean bufferRecords;
+
+    @Inject
+    private FoloConfig foloConfig;
+
     @FoloInprogressCache
     @Inject
     private CacheHandle<TrackedContentEntry, TrackedContentEntry> inProgressRecordCache;
@@ -81,13 +114,50 @@ public class FoloRecordCache
             cache.addListener( expirationWarningListener );
             return null;
         } );
+
+        bufferRecords = foloConfig.isRecordBufferEnabled();
+        if ( !bufferRecords )
+        {
+            return;
+        }
+
+        flushTimer = new Timer( "Folo-Record-Flusher", true );
+        flushTimer.schedule( new TimerTask()
+        {
+            @Override
+            public void run()
+            {
+                flushAll( true );
+            }
+        }, FLUSH_PERIOD_MILLIS, FLUSH_PERIOD_MILLIS );
+    }
+
+    @PreDestroy
+    private void stop()
+    {
+        if ( flushTimer != null )
+        {
+            flushTimer.cancel();
+        }
+
+        flushAll( false );
     }
 
     public FoloRecordCache( final Cache<TrackedContentEntry, TrackedContentEntry> inProgressRecordCache,
                             final Cache<TrackingKey, TrackedContent> sealedRecordCache )
+    {
+        this( inProgressRecordCache, sealedRecordCache, false );
+    }
+
+    /**
+     * No flush timer is started here, buffered entries are flushed by batch size and before reads.
+     */
+    public FoloRecordCache( final Cache<TrackedContentEntry, TrackedContentEntry> inProgressRecordCache,
+                            final Cache<TrackingKey, TrackedContent> sealedRecordCache, final boolean bufferRecords )
     {
         this.inProgressRecordCache = new CacheHandle("folo-in-progress", inProgressRecordCache);
         this.sealedRecordCache = new CacheHandle( "folo-sealed", sealedRecordCache );
+        this.bufferRecords = bufferRecords;
     }
 
     /**
@@ -97,64 +167,101 @@ public class FoloRecordCache
      * @return True if a new record was stored, otherwise false
      */
     @Measure
-    public synchronized boolean recordArtifact( final TrackedContentEntry entry )
+    public boolean recordArtifact( final TrackedContentEntry entry )
             throws FoloContentException,IndyWorkflowException
     {
-        if ( sealedRecordCache.containsKey( entry.getTrackingKey() ) )
+        final TrackingKey trackingKey = entry.getTrackingKey();
+        while ( true )
         {
-            throw new FoloContentException( "Tracking record: {} is already sealed!", entry.getTrackingKey() );
-        }
-
-        Logger logger = LoggerFactory.getLogger( getClass() );
-        logger.debug( "Adding tracking entry: {}", entry );
-        return inProgressRecordCache.executeCache( (cache)->{
-            TrackedContentEntry existing = cache.get( entry );
-            if ( existing != null )
-            {
-                existing.merge( entry );
-                cache.put( existing, existing );
-            }
-            else
+            InProgressBuffer buffer = inProgressBuffers.computeIfAbsent( trackingKey, k -> new InProgressBuffer() );
+            synchronized ( buffer )
             {
-                cache.put( entry, entry );
-            }
+                if ( buffer.closed )
+                {
+                    // sealed or deleted concurrently, look again
+                    continue;
+                }
+
+                if ( !buffer.verified )
+                {
+                    if ( sealedRecordCache.containsKey( trackingKey ) )
+                    {
+                        closeBuffer( trackingKey, buffer );
+                        throw new FoloContentException( "Tracking record: {} is already sealed!", trackingKey );
+                    }
+                    buffer.verified = true;
+                }
+
+                logger.debug( "Adding tracking entry: {}", entry );
+                TrackedContentEntry pending = buffer.pending.get( entry );
+                if ( pending != null )
+                {
+                    pending.merge( entry );
+                }
+                else
+                {
+                    buffer.pending.put( entry, entry );
+                }
+
+                if ( !bufferRecords )
+                {
+                    // write through; without a flush timer to evict it, the buffer goes too, and the next recording
+                    // checks the sealed cache again. A failed write is reported to the caller, not retried later.
+                    try
+                    {
+                        flush( trackingKey, buffer );
+                    }
+                    finally
+                    {
+                        closeBuffer( trackingKey, buffer );
+                    }
+                }
+                else if ( buffer.pending.size() >= FLUSH_BATCH_SIZE )
+                {
+                    flush( trackingKey, buffer );
+                }
 
-            return true;
-        } );
+                return true;
+            }
+        }
     }
 
     @Measure
-    public synchronized void delete( final TrackingKey key )
+    public void delete( final TrackingKey key )
     {
-        sealedRecordCache.remove( key );
-        inProgressByTrackingKey( key, (qb, ch)->{
-            qb.build().list().forEach( item -> ch.execute( cache -> cache.remove( item ) ) );
-            return false;
+        withClosedBuffer( key, false, () -> {
+            sealedRecordCache.remove( key );
+            inProgressByTrackingKey( key, (qb, ch)->{
+                qb.build().list().forEach( item -> ch.execute( cache -> cache.remove( item ) ) );
+                return false;
+            } );
+            return null;
         } );
     }
 
-    public synchronized void replaceTrackingRecord( final TrackedContent record )
+    public void replaceTrackingRecord( final TrackedContent record )
     {
-        sealedRecordCache.put( record.getKey(), record );
+        withClosedBuffer( record.getKey(), true, () -> sealedRecordCache.put( record.getKey(), record ) );
     }
 
-    public synchronized boolean hasRecord( final TrackingKey key )
+    public boolean hasRecord( final TrackingKey key )
     {
         return hasSealedRecord( key ) || hasInProgressRecord( key );
     }
 
-    public synchronized boolean hasSealedRecord( final TrackingKey key )
+    public boolean hasSealedRecord( final TrackingKey key )
     {
         return sealedRecordCache.containsKey( key );
     }
 
     @Measure
-    public synchronized boolean hasInProgressRecord( final TrackingKey key )
+    public boolean hasInProgressRecord( final TrackingKey key )
     {
+        flush( key );
         return !sealedRecordCache.containsKey( key ) && inProgressByTrackingKey( key, (qb, cacheHandle)->qb.build().getResultSize() > 0);
     }
 
-    public synchronized TrackedContent get( final TrackingKey key )
+    public TrackedContent get( final TrackingKey key )
     {
         return sealedRecordCache.get( key );
     }
@@ -171,6 +278,21 @@ public class FoloRecordCache
             return record;
         }
 
+        // stop recording for this key and push whatever is still buffered, then seal from the in-progress cache
+        return withClosedBuffer( trackingKey, true, () -> {
+            TrackedContent sealed = sealedRecordCache.get( trackingKey );
+            if ( sealed != null )
+            {
+                logger.debug( "Tracking record: {} sealed concurrently! Returning sealed record.", trackingKey );
+                return sealed;
+            }
+
+            return sealInProgress( trackingKey );
+        } );
+    }
+
+    private TrackedContent sealInProgress( final TrackingKey trackingKey )
+    {
         logger.debug( "Listing unsealed tracking record entries for: {}...", trackingKey );
         return inProgressByTrackingKey( trackingKey, (qb, cacheHandle)-> {
             Query query = qb.build();
@@ -204,6 +326,7 @@ public class FoloRecordCache
 
     public Set<TrackingKey> getInProgressTrackingKey()
     {
+        flushAll( false );
         return inProgressRecordCache.execute( BasicCache::keySet )
                                     .stream()
                                     .map( TrackedContentEntry::getTrackingKey )
@@ -237,6 +360,134 @@ public class FoloRecordCache
 
     public void addSealedRecord( TrackedContent record )
     {
-        sealedRecordCache.put( record.getKey(), record );
+        withClosedBuffer( record.getKey(), true, () -> sealedRecordCache.put( record.getKey(), record ) );
+    }
+
+    /**
+     * Run the operation while holding the buffer of the given key, so no entry can be recorded for it in the meantime,
+     * then close the buffer. Recordings that come after will find a new buffer and check the sealed cache again.
+     */
+    private <R> R withClosedBuffer( final TrackingKey key, final boolean flushPending, final Supplier<R> operation )
+    {
+        InProgressBuffer buffer = inProgressBuffers.computeIfAbsent( key, k -> new InProgressBuffer() );
+        synchronized ( buffer )
+        {
+            if ( flushPending )
+            {
+                flush( key, buffer );
+            }
+
+            try
+            {
+                return operation.get();
+            }
+            finally
+            {
+                // recordings blocked on this buffer will retry with a new one, and see the result of the operation
+                closeBuffer( key, buffer );
+            }
+        }
+    }
+
+    private void flush( final TrackingKey key )
+    {
+        InProgressBuffer buffer = inProgressBuffers.get( key );
+        if ( buffer != null )
+        {
+            synchronized ( buffer )
+            {
+                flush( key, buffer );
+            }
+        }
+    }
+
+    /**
+     * Flush every buffer. Optionally drop the buffers that had nothing to flush, so keys for builds that will never
+     * be sealed don't stay around forever.
+     * <p>
+     * A failed flush is only logged: the entries stay pending for the next attempt, and the other keys are still
+     * flushed. Letting the exception escape would also cancel the flush timer for good.
+     */
+    private void flushAll( final boolean evictIdle )
+    {
+        new HashSet<>( inProgressBuffers.keySet() ).forEach( key -> {
+            InProgressBuffer buffer = inProgressBuffers.get( key );
+            if ( buffer != null )
+            {
+                synchronized ( buffer )
+                {
+                    if ( buffer.pending.isEmpty() )
+                    {
+                        if ( evictIdle )
+                        {
+                            closeBuffer( key, buffer );
+                        }
+                    }
+                    else
+                    {
+                        try
+                        {
+                            flush( key, buffer );
+                        }
+                        catch ( RuntimeException e )
+                        {
+                            logger.error( String.format( "Failed to flush %d tracking entries for: %s, will retry.",
+                                                         buffer.pending.size(), key ), e );
+                        }
+                    }
+                }
+            }
+        } );
+    }
+
+    // caller must hold the buffer monitor
+    private void flush( final TrackingKey key, final InProgressBuffer buffer )
+    {
+        if ( buffer.pending.isEmpty() )
+        {
+            return;
+        }
+
+        logger.debug( "Flushing {} tracking entries for: {}", buffer.pending.size(), key );
+        inProgressRecordCache.executeCache( ( cache ) -> {
+            Map<TrackedContentEntry, TrackedContentEntry> existing = cache.getAll( buffer.pending.keySet() );
+            Map<TrackedContentEntry, TrackedContentEntry> updates = new HashMap<>( buffer.pending.size() );
+            buffer.pending.values().forEach( entry -> {
+                TrackedContentEntry stored = existing.get( entry );
+                if ( stored != null )
+                {
+                    stored.merge( entry );
+                    updates.put( stored, stored );
+                }
+                else
+                {
+                    updates.put( entry, entry );
+                }
+            } );
+
+            cache.putAll( updates );
+            return null;
+        } );
+
+        buffer.pending.clear();
+    }
+
+    // caller must hold the buffer monitor
+    private void closeBuffer( final TrackingKey key, final InProgressBuffer buffer )
+    {
+        buffer.closed = true;
+        buffer.pending.clear();
+        inProgressBuffers.remove( key, buffer );
+    }
+
+    private static final class InProgressBuffer
+    {
+        private final Map<TrackedContentEntry, TrackedContentEntry> pending = new HashMap<>();
+
+        // the sealed cache was checked for this key when the buffer was first used
+        private boolean verified;
+
+        // the buffer was sealed, deleted or evicted, and cannot take more entries
+        private boolean closed;
     }
 }
@@ -37,6 +37,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class FoloRecordCacheTest
 {
@@ -147,6 +148,53 @@ public class FoloRecordCacheTest
         assertThat( cache.get( key ), nullValue() );
     }
 
+    @Test
+    public void sealIncludesAllBufferedEntriesAndRejectsLaterOnes()
+            throws Exception
+    {
+        cache = new FoloRecordCache( inProgress, sealed, true );
+
+        final TrackingKey key = newKey();
+        final int count = 150;
+        for ( int i = 0; i < count; i++ )
+        {
+            cache.recordArtifact( new TrackedContentEntry( key, new StoreKey( StoreType.remote, "foo" ),
+                                                           AccessChannel.MAVEN_REPO, "", "/path/" + i,
+                                                           StoreEffect.DOWNLOAD, 128L, "", "", "" ) );
+        }
+
+        TrackedContent record = cache.seal( key );
+        assertThat( record.getDownloads().size(), equalTo( count ) );
+        assertThat( cache.hasInProgressRecord( key ), equalTo( false ) );
+
+        try
+        {
+            cache.recordArtifact( new TrackedContentEntry( key, new StoreKey( StoreType.remote, "foo" ),
+                                                           AccessChannel.MAVEN_REPO, "", "/path/late",
+                                                           StoreEffect.DOWNLOAD, 128L, "", "", "" ) );
+            fail( "Recording into a sealed record should fail" );
+        }
+        catch ( FoloContentException e )
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void recordArtifactWritesThroughByDefault()
+            throws Exception
+    {
+        final TrackingKey key = newKey();
+        final TrackedContentEntry entry =
+                new TrackedContentEntry( key, new StoreKey( StoreType.remote, "foo" ), AccessChannel.MAVEN_REPO, "",
+                                         "/path", StoreEffect.DOWNLOAD, 128L, "", "", "" );
+
+        cache.recordArtifact( entry );
+
+        // nothing flushed it, it is in the in-progress cache already
+        assertThat( inProgress.containsKey( entry ), equalTo( true ) );
+    }
+
     @Test
     public void getRecordReturnsNullIfNoneExists()
             throws Exception
@@ -44,6 +44,14 @@ public class HttproxConfig
 
     private static final int DEFAULT_MITM_SO_TIMEOUT_MINUTES = 30;
 
+    private static final int DEFAULT_MITM_KEEPALIVE_TIMEOUT_SECONDS = 30;
+
+    private static final int DEFAULT_MITM_SSL_CONTEXT_CACHE_SIZE = 512;
+
+    private static final int DEFAULT_TUNNEL_THREADS_MAX = 1024;
+
+    private static final boolean DEFAULT_TUNNEL_VIRTUAL_THREADS = false;
+
     private String proxyRealm;
 
     private Boolean enabled;
@@ -68,6 +76,14 @@ public class HttproxConfig
 
     private Integer MITMSoTimeoutMinutes;
 
+    private Integer MITMKeepAliveTimeoutSeconds;
+
+    private Integer MITMSSLContextCacheSize;
+
+    private Integer tunnelThreadsMax;
+
+    private Boolean tunnelVirtualThreads;
+
     public TrackingType getTrackingType()
     {
         return TrackingType.valueOf( trackingType == null ? DEFAULT_TRACKING_TYPE : trackingType.toUpperCase() );
@@ -218,4 +234,50 @@ public class HttproxConfig
     {
         this.MITMSoTimeoutMinutes = MITMSoTimeoutMinutes;
     }
+
+    public Integer getMITMKeepAliveTimeoutSeconds()
+    {
+        return MITMKeepAliveTimeoutSeconds == null ?
+                DEFAULT_MITM_KEEPALIVE_TIMEOUT_SECONDS :
+                MITMKeepAliveTimeoutSeconds;
+    }
+
+    @ConfigName( "MITM.keepalive.timeout.seconds" )
+    public void setMITMKeepAliveTimeoutSeconds( Integer MITMKeepAliveTimeoutSeconds )
+    {
+        this.MITMKeepAliveTimeoutSeconds = MITMKeepAliveTimeoutSeconds;
+    }
+
+    public Integer getMITMSSLContextCacheSize()
+    {
+        return MITMSSLContextCacheSize == null ? DEFAULT_MITM_SSL_CONTEXT_CACHE_SIZE : MITMSSLContextCacheSize;
+    }
+
+    @ConfigName( "MITM.ssl.context.cache.size" )
+    public void setMITMSSLContextCacheSize( Integer MITMSSLContextCacheSize )
+    {
+        this.MITMSSLContextCacheSize = MITMSSLContextCacheSize;
+    }
+
+    public Integer getTunnelThreadsMax()
+    {
+        return tunnelThreadsMax == null ? DEFAULT_TUNNEL_THREADS_MAX : tunnelThreadsMax;
+    }
+
+    @ConfigName( "tunnel.threads.max" )
+    public void setTunnelThreadsMax( Integer tunnelThreadsMax )
+    {
+        this.tunnelThreadsMax = tunnelThreadsMax;
+    }
+
+    public boolean isTunnelVirtualThreads()
+    {
+        return tunnelVirtualThreads == null ? DEFAULT_TUNNEL_VIRTUAL_THREADS : tunnelVirtualThreads;
+    }
+
+    @ConfigName( "tunnel.virtual.threads" )
+    public void setTunnelVirtualThreads( Boolean tunnelVirtualThreads )
+    {
+        this.tunnelVirtualThreads = tunnelVirtualThreads;
+    }
 }
@@ -91,6 +91,9 @@ public class ProxyAcceptHandler
     @Inject
     private GoldenSignalsMetricSet sliMetricSet;
 
+    @Inject
+    private ProxyTunnelExecutor tunnelExecutor;
+
     protected ProxyAcceptHandler()
     {
     }
@@ -111,6 +114,7 @@ public class ProxyAcceptHandler
         this.metricsConfig = metricsConfig;
         this.metricRegistry = metricRegistry;
         this.cacheProducer = cacheProducer;
+        this.tunnelExecutor = new ProxyTunnelExecutor( config );
     }
 
     public ProxyRepositoryCreator createRepoCreator()
@@ -172,7 +176,8 @@ public class ProxyAcceptHandler
         final ProxyResponseWriter writer =
                         new ProxyResponseWriter( config, storeManager, contentController, proxyAuthenticator,
                                                  cacheProvider, mdcManager, creator, accepted,
-                                                 metricsConfig, metricRegistry, sliMetricSet, cacheProducer, start );
+                                                 metricsConfig, metricRegistry, sliMetricSet, cacheProducer,
+                                                 tunnelExecutor, start );
 
         logger.debug( "Setting writer: {}", writer );
         sink.getWriteSetter().set( writer );
@@ -25,6 +25,7 @@ import org.commonjava.indy.httprox.util.HttpConduitWrapper;
 import org.commonjava.indy.httprox.util.ProxyMeter;
 import org.commonjava.indy.httprox.util.ProxyResponseHelper;
 import org.commonjava.indy.httprox.util.OutputStreamSinkChannel;
+import org.commonjava.indy.httprox.util.ResponseFramingOutputStream;
 import org.commonjava.indy.model.core.ArtifactStore;
 import org.commonjava.indy.subsys.http.util.UserPass;
 import org.commonjava.maven.galley.spi.cache.CacheProvider;
@@ -39,9 +40,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.channels.SocketChannel;
@@ -49,18 +52,17 @@ import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static java.lang.Integer.parseInt;
 import static javax.ws.rs.HttpMethod.GET;
 import static javax.ws.rs.HttpMethod.HEAD;
-import static org.commonjava.propulsor.boot.PortFinder.findOpenPort;
 import static org.commonjava.indy.httprox.util.CertUtils.createKeyStore;
 import static org.commonjava.indy.httprox.util.CertUtils.createSignedCertificateAndKey;
 import static org.commonjava.indy.httprox.util.CertUtils.getPrivateKey;
@@ -75,8 +77,6 @@ public class ProxyMITMSSLServer implements Runnable
 {
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
-    private static final int FIND_OPEN_PORT_MAX_RETRIES = 16;
-
     private static final int GET_SOCKET_CHANNEL_MAX_RETRIES = 32;
 
     private static final int GET_SOCKET_CHANNEL_WAIT_TIME_IN_MILLISECONDS = 500;
@@ -137,38 +137,43 @@ public class ProxyMITMSSLServer implements Runnable
 
     private char[] keystorePassword = "password".toCharArray(); // keystore password can not be null
 
-    // TODO: What are the memory footprint implications of this? It seems like these will never be purged.
-    private static Map<String, KeyStore> keystoreMap = new ConcurrentHashMap(); // cache keystore, key: hostname
+    // initialized SSL contexts holding the generated certificate for each host, least recently used first
+    private static final Map<String, SSLContext> sslContexts = new LinkedHashMap<>( 16, 0.75f, true );
 
     /**
-     * Generate the keystore on-the-fly and initiate SSL socket factory.
+     * Get the SSL context for the host from the LRU cache, or generate its certificate and initialize a new one. The
+     * cache is bounded by <code>MITM.ssl.context.cache.size</code>.
      */
-    private SSLServerSocketFactory getSSLServerSocketFactory( String host ) throws Exception
+    private SSLContext getSSLContext( String host ) throws Exception
     {
-        AtomicReference<Exception> err = new AtomicReference<>();
-        KeyStore ks = keystoreMap.computeIfAbsent( host, (k) -> {
-            try
-            {
-                return getKeyStore(k);
-            }
-            catch ( Exception e )
+        synchronized ( sslContexts )
+        {
+            SSLContext sc = sslContexts.get( host );
+            if ( sc != null )
             {
-                err.set( e );
+                return sc;
             }
-            return null;
-        } );
-
-        if ( ks == null || err.get() != null )
-        {
-            throw err.get();
         }
 
+        // generating the certificate is slow, so don't hold the lock for it; a concurrent duplicate is harmless
         KeyManagerFactory kmf = KeyManagerFactory.getInstance( KeyManagerFactory.getDefaultAlgorithm() );
-        kmf.init( ks, keystorePassword );
+        kmf.init( getKeyStore( host ), keystorePassword );
 
         SSLContext sc = SSLContext.getInstance( "TLS" );
         sc.init( kmf.getKeyManagers(), null, null );
-        return sc.getServerSocketFactory();
+
+        synchronized ( sslContexts )
+        {
+            sslContexts.put( host, sc );
+            Iterator<String> it = sslContexts.keySet().iterator();
+            while ( sslContexts.size() > config.getMITMSSLContextCacheSize() && it.hasNext() )
+            {
+                it.next();
+                it.remove();
+            }
+        }
+
+        return sc;
     }
 
     private KeyStore getKeyStore( String host ) throws Exception
@@ -190,14 +195,13 @@ public class ProxyMITMSSLServer implements Runnable
 
     private void execute() throws Exception
     {
-        ProxyMeter meter = null;
-        SSLServerSocketFactory sslServerSocketFactory = getSSLServerSocketFactory( host );
-
-        serverPort = findOpenPort( FIND_OPEN_PORT_MAX_RETRIES );
+        SSLServerSocketFactory sslServerSocketFactory = getSSLContext( host ).getServerSocketFactory();
 
-        // TODO: What is the performance implication of opening a new server socket each time? Should we try to cache these?
-        try ( ServerSocket sslServerSocket = sslServerSocketFactory.createServerSocket( serverPort ) )
+        // bind an ephemeral loopback port, rather than probing for an open one; only the tunnel connects to it
+        try ( ServerSocket sslServerSocket = sslServerSocketFactory.createServerSocket( 0, 1,
+                                                                                        InetAddress.getLoopbackAddress() ) )
         {
+            serverPort = sslServerSocket.getLocalPort();
 
             sslServerSocket.setSoTimeout( ACCEPT_SOCKET_WAIT_TIME_IN_MILLISECONDS ); //in case the response handler times out
             started = true;
@@ -207,58 +211,23 @@ public class ProxyMITMSSLServer implements Runnable
                 try ( Socket socket = sslServerSocket.accept() )
                 {
                     logger.debug( "MITM server started, {}", sslServerSocket );
-                    long startNanos = System.nanoTime();
-                    String method = null;
-                    String requestLine = null;
-
-                    meter = meterTemplate.copy( startNanos, method, requestLine );
 
                     socket.setSoTimeout( (int) TimeUnit.MINUTES.toMillis( config.getMITMSoTimeoutMinutes() ) );
 
                     logger.debug( "MITM server accepted" );
-                    try ( BufferedReader in = new BufferedReader( new InputStreamReader( socket.getInputStream() ) ) )
+                    try ( BufferedReader in = new BufferedReader( new InputStreamReader( socket.getInputStream() ) );
+                          ResponseFramingOutputStream out = new ResponseFramingOutputStream( socket.getOutputStream() ) )
                     {
-
-                        // TODO: Should we implement a while loop around this with some sort of read timeout, in case multiple requests are inlined?
-                        // In principle, any sort of network communication is permitted over this port, but even if we restrict this to
-                        // HTTPS only, couldn't there be multiple requests over the port at a time?
-                        String path = null;
-                        StringBuilder sb = new StringBuilder();
-                        String line;
-                        while ( ( line = in.readLine() ) != null )
+                        // serve requests until the client closes the connection, asks us to, goes idle, or a response
+                        // can't be framed for reuse
+                        int served = 0;
+                        while ( !isCancelled && serveRequest( in, out, served > 0 ) )
                         {
-                            sb.append( line + "\n" );
-                            if ( line.startsWith( GET ) || line.startsWith( HEAD ) ) // only care about GET/HEAD
-                            {
-                                String[] toks = line.split("\\s+");
-                                method = toks[0];
-                                path = toks[1];
-                                requestLine = line;
-                            }
-                            else if ( line.isEmpty() )
-                            {
-                                logger.debug( "Get empty line and break" );
-                                break;
-                            }
-                        }
-
-                        logger.debug( "Request:\n{}", sb.toString() );
-
-                        if ( path != null )
-                        {
-                            try
-                            {
-                                transferRemote( socket, host, port, method, path, meter );
-                            }
-                            catch ( Exception e )
-                            {
-                                logger.error( "Transfer remote failed", e );
-                            }
-                        }
-                        else
-                        {
-                            logger.debug( "MITM server failed to get request from client" );
+                            served++;
+                            socket.setSoTimeout(
+                                    (int) TimeUnit.SECONDS.toMillis( config.getMITMKeepAliveTimeoutSeconds() ) );
                         }
+                        logger.debug( "MITM server done after {} kept-alive request(s)", served );
                     }
                 }
             }
@@ -266,16 +235,102 @@ public class ProxyMITMSSLServer implements Runnable
         }
         finally
         {
-            if (meter != null)
-            {
-                meter.reportResponseSummary();
-            }
             isCancelled = false;
             started = false;
         }
     }
 
-    private void transferRemote( Socket socket, String host, int port, String method, String path,
+    /**
+     * Read one request from the TLS connection and write its response.
+     *
+     * @return true if the connection can be used for another request
+     */
+    private boolean serveRequest( final BufferedReader in, final ResponseFramingOutputStream out,
+                                  final boolean keptAlive )
+            throws IOException
+    {
+        String method = null;
+        String path = null;
+        String requestLine = null;
+        boolean keepAlive = false;
+
+        StringBuilder sb = new StringBuilder();
+        try
+        {
+            String line;
+            while ( ( line = in.readLine() ) != null )
+            {
+                sb.append( line + "\n" );
+                if ( line.startsWith( GET ) || line.startsWith( HEAD ) ) // only care about GET/HEAD
+                {
+                    String[] toks = line.split("\\s+");
+                    method = toks[0];
+                    path = toks[1];
+                    requestLine = line;
+                    keepAlive = toks.length > 2 && "HTTP/1.1".equals( toks[2] );
+                }
+                else if ( line.isEmpty() )
+                {
+                    if ( sb.length() == 1 )
+                    {
+                        // tolerate a stray line break between pipelined requests
+                        sb.setLength( 0 );
+                        continue;
+                    }
+                    logger.debug( "Get empty line and break" );
+                    break;
+                }
+                else if ( line.regionMatches( true, 0, "Connection:", 0, 11 ) && line.toLowerCase()
+                                                                                      .contains( "close" ) )
+                {
+                    keepAlive = false;
+                }
+            }
+        }
+        catch ( SocketTimeoutException e )
+        {
+            if ( keptAlive && sb.length() == 0 )
+            {
+                logger.debug( "Kept-alive MITM connection idle, closing" );
+                return false;
+            }
+            throw e;
+        }
+
+        if ( sb.length() == 0 )
+        {
+            logger.debug( "MITM client closed the connection" );
+            return false;
+        }
+
+        logger.debug( "Request:\n{}", sb.toString() );
+
+        if ( path == null )
+        {
+            logger.debug( "MITM server failed to get request from client" );
+            return false;
+        }
+
+        ProxyMeter meter = meterTemplate.copy( System.nanoTime(), method, requestLine );
+        out.reset();
+        try
+        {
+            transferRemote( out, host, port, method, path, meter );
+        }
+        catch ( Exception e )
+        {
+            logger.error( "Transfer remote failed", e );
+            return false;
+        }
+        finally
+        {
+            meter.reportResponseSummary();
+        }
+
+        return keepAlive && out.isReusable( HEAD.equals( method ) );
+    }
+
+    private void transferRemote( OutputStream out, String host, int port, String method, String path,
                                  final ProxyMeter meter ) throws Exception
     {
         String protocol = "https";
@@ -287,15 +342,13 @@ public class ProxyMITMSSLServer implements Runnable
         logger.debug( "Requesting remote URL: {}", remoteUrl.toString() );
 
         ArtifactStore store = proxyResponseHelper.getArtifactStore( trackingId, remoteUrl );
-        try (OutputStream out = socket.getOutputStream())
-        {
-            HttpConduitWrapper http =
-                            new HttpConduitWrapper( new OutputStreamSinkChannel( out ), null, contentController,
-                                                    cacheProvider );
-            proxyResponseHelper.transfer( http, store, remoteUrl.getPath(), GET_METHOD.equals( method ),
-                                          proxyUserPass, meter );
-            http.close();
-        }
+        // the socket stays open for further requests, so only flush the response
+        HttpConduitWrapper http =
+                        new HttpConduitWrapper( new OutputStreamSinkChannel( out ), null, contentController,
+                                                cacheProvider );
+        proxyResponseHelper.transfer( http, store, remoteUrl.getPath(), GET_METHOD.equals( method ),
+                                      proxyUserPass, meter );
+        http.close();
     }
 
     public SocketChannel getSocketChannel() throws InterruptedException, ExecutionException
@@ -326,9 +379,9 @@ public class ProxyMITMSSLServer implements Runnable
 
     private SocketChannel openSocketChannelToMITM() throws IOException
     {
-        logger.debug( "Open socket channel to MITM server, localhost:{}", serverPort );
+        logger.debug( "Open socket channel to MITM server, loopback:{}", serverPort );
 
-        InetSocketAddress target = new InetSocketAddress( "localhost", serverPort );
+        InetSocketAddress target = new InetSocketAddress( InetAddress.getLoopbackAddress(), serverPort );
         return SocketChannel.open( target );
     }
 
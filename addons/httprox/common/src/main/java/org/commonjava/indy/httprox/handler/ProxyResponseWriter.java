@@ -55,8 +55,7 @@ import java.io.IOException;
 import java.net.SocketAddress;
 import java.net.URL;
 import java.nio.channels.SocketChannel;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -124,19 +123,18 @@ public final class ProxyResponseWriter
 
     private final String cls; // short class name for metrics
 
-    private final ThreadPoolExecutor tunnelAndMITMExecutor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+    // runs tunnels and MITM servers; shared by all connections
+    private final ProxyTunnelExecutor tunnelAndMITMExecutor;
 
     private boolean summaryReported;
 
-    // run short-living tunnels and MITM servers
-
     public ProxyResponseWriter( final HttproxConfig config, final StoreDataManager storeManager,
                                 final ContentController contentController,
                                 final KeycloakProxyAuthenticator proxyAuthenticator, final CacheProvider cacheProvider,
                                 final MDCManager mdcManager, final ProxyRepositoryCreator repoCreator,
                                 final StreamConnection accepted, final IndyMetricsConfig metricsConfig,
                                 final MetricRegistry metricRegistry, final GoldenSignalsMetricSet sliMetricSet,
-                                final CacheProducer cacheProducer,
+                                final CacheProducer cacheProducer, final ProxyTunnelExecutor tunnelExecutor,
                                 final long start )
     {
         this.config = config;
@@ -154,6 +152,7 @@ public final class ProxyResponseWriter
         startNanos = start;
         this.cls = ClassUtils.getAbbreviatedName( getClass().getName(), 1 ); // e.g., foo.bar.ClassA -> f.b.ClassA
         this.proxyAuthCache = cacheProducer.getCache( HTTP_PROXY_AUTH_CACHE );
+        this.tunnelAndMITMExecutor = tunnelExecutor;
     }
 
     public void setProxyRequestReader( ProxyRequestReader proxyRequestReader )
@@ -343,25 +342,65 @@ public final class ProxyResponseWriter
                                     // After this, the proxy simply opens a plain socket to the target server and relays
                                     // everything between the initial client and the target server (including the TLS handshake).
 
-                                    SocketChannel socketChannel;
-
-                                    ProxyMITMSSLServer svr =
-                                            new ProxyMITMSSLServer( host, port, trackingId, proxyUserPass,
-                                                                    proxyResponseHelper, contentController,
-                                                                    cacheProvider, config, meter );
-                                    tunnelAndMITMExecutor.submit( svr );
-                                    socketChannel = svr.getSocketChannel();
-
-                                    if ( socketChannel == null )
+                                    // the MITM server and the tunnel both have to run before the client can go on, so
+                                    // refuse the CONNECT unless there are threads for both right now
+                                    ProxyTunnelExecutor.Reservation threads;
+                                    try
+                                    {
+                                        threads = tunnelAndMITMExecutor.reserve( 2 );
+                                    }
+                                    catch ( RejectedExecutionException e )
                                     {
-                                        logger.debug( "Failed to get MITM socket channel" );
-                                        http.writeStatus( ApplicationStatus.SERVER_ERROR );
-                                        svr.stop();
+                                        logger.warn( "Refusing CONNECT to {}: {}", uri, e.getMessage() );
+                                        http.writeStatus( ApplicationStatus.SERVICE_UNAVAILABLE );
                                         break;
                                     }
 
-                                    sslTunnel = new ProxySSLTunnel( sinkChannel, socketChannel, config );
-                                    tunnelAndMITMExecutor.submit( sslTunnel );
+                                    try (ProxyTunnelExecutor.Reservation reserved = threads)
+                                    {
+                                        SocketChannel socketChannel;
+
+                                        ProxyMITMSSLServer svr =
+                                                new ProxyMITMSSLServer( host, port, trackingId, proxyUserPass,
+                                                                        proxyResponseHelper, contentController,
+                                                                        cacheProvider, config, meter );
+                                        try
+                                        {
+                                            reserved.execute( svr );
+                                        }
+                                        catch ( RejectedExecutionException e )
+                                        {
+                                            logger.warn( "Refusing CONNECT to {}: {}", uri, e.getMessage() );
+                                            http.writeStatus( ApplicationStatus.SERVICE_UNAVAILABLE );
+                                            break;
+                                        }
+
+                                        socketChannel = svr.getSocketChannel();
+
+                                        if ( socketChannel == null )
+                                        {
+                                            logger.debug( "Failed to get MITM socket channel" );
+                                            http.writeStatus( ApplicationStatus.SERVER_ERROR );
+                                            svr.stop();
+                                            break;
+                                        }
+
+                                        sslTunnel = new ProxySSLTunnel( sinkChannel, socketChannel, config );
+                                        try
+                                        {
+                                            reserved.execute( sslTunnel );
+                                        }
+                                        catch ( RejectedExecutionException e )
+                                        {
+                                            logger.warn( "Refusing CONNECT to {}: {}", uri, e.getMessage() );
+                                            http.writeStatus( ApplicationStatus.SERVICE_UNAVAILABLE );
+                                            svr.stop();
+                                            socketChannel.close();
+                                            sslTunnel = null;
+                                            break;
+                                        }
+                                    }
+
                                     proxyRequestReader.setProxySSLTunnel( sslTunnel ); // client input will be directed to target socket
 
                                     // When all is ready, send the 200 to client. Client send the SSL handshake to reader,
@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.httprox.handler;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.commonjava.indy.httprox.conf.HttproxConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the SSL tunnels and MITM servers of all httprox connections, at most <code>tunnel.threads.max</code> of them at
+ * once. A CONNECT needs both of its tasks running before it can answer, so callers {@link #reserve(int)} a thread for
+ * each of them up front; if there aren't enough free threads right now the reservation is rejected with a
+ * {@link RejectedExecutionException}, which the caller turns into an error response. Nothing ever waits in a queue.
+ * <p>
+ * With <code>tunnel.virtual.threads</code> enabled and a JVM that has virtual threads, each task gets its own virtual
+ * thread, so tunnels parked on socket I/O don't each hold a platform thread stack. On older JVMs this falls back to the
+ * platform thread pool.
+ */
+@ApplicationScoped
+public class ProxyTunnelExecutor
+        implements MetricSet
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    @Inject
+    private HttproxConfig config;
+
+    private ExecutorService executor;
+
+    private Semaphore free;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    protected ProxyTunnelExecutor()
+    {
+    }
+
+    public ProxyTunnelExecutor( final HttproxConfig config )
+    {
+        this.config = config;
+        start();
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        final int maxThreads = Math.max( 1, config.getTunnelThreadsMax() );
+        free = new Semaphore( maxThreads );
+
+        if ( config.isTunnelVirtualThreads() )
+        {
+            executor = newVirtualThreadExecutor();
+            if ( executor != null )
+            {
+                logger.info( "Running httprox tunnels on virtual threads, {} at a time", maxThreads );
+                return;
+            }
+        }
+
+        // reservations keep the running tasks within the core size, so the queue only bridges the moment between a
+        // task finishing and its thread taking the next one
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor( maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                                                          new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread( r, "httprox-tunnel-" + counter.incrementAndGet() );
+            t.setDaemon( true );
+            return t;
+        } );
+        pool.allowCoreThreadTimeOut( true );
+        executor = pool;
+
+        logger.info( "Running httprox tunnels on up to {} threads", maxThreads );
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        if ( executor != null )
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserve a thread for each of the given number of tasks, so they all start as soon as they're executed through
+     * the returned reservation. Threads that end up unused have to be given back by closing it.
+     *
+     * @throws RejectedExecutionException if fewer than the given number of threads are free right now
+     */
+    public Reservation reserve( final int tasks )
+    {
+        if ( !free.tryAcquire( tasks ) )
+        {
+            rejected.increment();
+            throw new RejectedExecutionException(
+                    "Too many httprox tunnels: fewer than " + tasks + " of " + config.getTunnelThreadsMax()
+                            + " threads free" );
+        }
+
+        return new Reservation( tasks );
+    }
+
+    private void run( final Runnable task )
+    {
+        try
+        {
+            executor.execute( () -> {
+                try
+                {
+                    active.incrementAndGet();
+                    task.run();
+                }
+                finally
+                {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                    free.release();
+                }
+            } );
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            free.release();
+            throw e;
+        }
+    }
+
+    public int getActiveCount()
+    {
+        return active.get();
+    }
+
+    public int getFreeCount()
+    {
+        return free.availablePermits();
+    }
+
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+    public long getCompletedCount()
+    {
+        return completed.get();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics()
+    {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put( "active", (Gauge<Integer>) this::getActiveCount );
+        gauges.put( "free", (Gauge<Integer>) this::getFreeCount );
+        gauges.put( "rejected", (Gauge<Long>) this::getRejectedCount );
+        gauges.put( "completed", (Gauge<Long>) this::getCompletedCount );
+        return gauges;
+    }
+
+    /**
+     * Virtual threads need a newer JVM than this code is compiled for, so look the factory method up at runtime.
+     */
+    private ExecutorService newVirtualThreadExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+        }
+        catch ( final ReflectiveOperationException e )
+        {
+            logger.warn( "Virtual threads are not available on this JVM ({}); using platform threads for httprox tunnels",
+                         System.getProperty( "java.version" ) );
+            return null;
+        }
+    }
+
+    /**
+     * Threads reserved by {@link #reserve(int)}. Each {@link #execute(Runnable)} starts a task on one of them right
+     * away; {@link #close()} gives back the ones not used.
+     */
+    public final class Reservation
+            implements Executor, AutoCloseable
+    {
+        private final AtomicInteger remaining;
+
+        private Reservation( final int tasks )
+        {
+            this.remaining = new AtomicInteger( tasks );
+        }
+
+        @Override
+        public void execute( final Runnable task )
+        {
+            if ( remaining.getAndUpdate( n -> n > 0 ? n - 1 : n ) <= 0 )
+            {
+                throw new IllegalStateException( "No reserved httprox tunnel thread left for: " + task );
+            }
+
+            run( task );
+        }
+
+        @Override
+        public void close()
+        {
+            int unused = remaining.getAndSet( 0 );
+            if ( unused > 0 )
+            {
+                free.release( unused );
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.httprox.handler;
+
+import com.codahale.metrics.MetricRegistry;
+import org.commonjava.indy.httprox.conf.HttproxConfig;
+import org.commonjava.indy.metrics.MetricSetProvider;
+import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Registers the active, free, rejected and completed gauges of the httprox tunnel executor, when httprox is enabled.
+ */
+@ApplicationScoped
+public class ProxyTunnelMetricSetProvider
+        implements MetricSetProvider
+{
+    private static final String HTTPROX_TUNNELS = "httprox.tunnels";
+
+    @Inject
+    private ProxyTunnelExecutor tunnelExecutor;
+
+    @Inject
+    private HttproxConfig config;
+
+    @Inject
+    private IndyMetricsConfig metricsConfig;
+
+    @Override
+    public void registerMetricSet( final MetricRegistry registry )
+    {
+        if ( config.isEnabled() )
+        {
+            Logger logger = LoggerFactory.getLogger( getClass() );
+            logger.info( "Adding httprox tunnel executor gauges to registry: {}", registry );
+
+            registry.register( name( metricsConfig.getNodePrefix(), HTTPROX_TUNNELS ), tunnelExecutor );
+        }
+    }
+}
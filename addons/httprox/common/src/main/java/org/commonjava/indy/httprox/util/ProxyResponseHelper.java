@@ -167,7 +167,9 @@ public class ProxyResponseHelper
             ArtifactStoreQuery<RemoteRepository> query =
                             storeManager.query().packageType( GENERIC_PKG_KEY ).storeType( RemoteRepository.class );
 
-            remote = query.stream()
+            // the URL lookup is indexed; keep only exact matches, as httprox creates remotes with these URLs
+            remote = query.getRemoteRepositoryByUrl( baseUrl, false )
+                          .stream()
                           .filter( store -> store.getUrl().equals( baseUrl )
                                           && store.getMetadata( TRACKING_ID ) == null )
                           .findFirst()
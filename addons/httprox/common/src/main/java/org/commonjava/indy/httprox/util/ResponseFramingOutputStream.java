@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.httprox.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Passes an HTTP response through to the underlying stream while watching its framing, so the MITM server can tell
+ * whether the connection is still usable for another request once the response has been written. It is, only when
+ * the whole response head was written, it doesn't say <code>Connection: close</code>, and the body is exactly as long
+ * as its <code>Content-Length</code> (or empty, where HTTP says it has to be).
+ */
+public class ResponseFramingOutputStream
+        extends FilterOutputStream
+{
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+
+    private final ByteArrayOutputStream head = new ByteArrayOutputStream( 512 );
+
+    private boolean headComplete;
+
+    private boolean headTooLarge;
+
+    private int tail; // last four bytes of the head, to spot the blank line that ends it
+
+    private long bodyBytes;
+
+    public ResponseFramingOutputStream( final OutputStream out )
+    {
+        super( out );
+    }
+
+    @Override
+    public void write( final int b )
+            throws IOException
+    {
+        out.write( b );
+        track( b );
+    }
+
+    @Override
+    public void write( final byte[] b, final int off, final int len )
+            throws IOException
+    {
+        out.write( b, off, len );
+        if ( headComplete )
+        {
+            bodyBytes += len;
+        }
+        else
+        {
+            for ( int i = off; i < off + len; i++ )
+            {
+                track( b[i] );
+            }
+        }
+    }
+
+    /**
+     * Start watching the next response.
+     */
+    public void reset()
+    {
+        head.reset();
+        headComplete = false;
+        headTooLarge = false;
+        tail = 0;
+        bodyBytes = 0;
+    }
+
+    /**
+     * @param headRequest whether the response answered a HEAD request, which never has a body
+     * @return true if the response was completely and unambiguously framed, so another request can follow it on the
+     * same connection
+     */
+    public boolean isReusable( final boolean headRequest )
+    {
+        if ( !headComplete || headTooLarge )
+        {
+            return false;
+        }
+
+        String[] lines = new String( head.toByteArray(), ISO_8859_1 ).split( "\r?\n" );
+        if ( lines.length < 1 || !lines[0].startsWith( "HTTP/1.1 " ) )
+        {
+            return false;
+        }
+
+        int status;
+        try
+        {
+            status = Integer.parseInt( lines[0].substring( 9 ).trim().split( " " )[0] );
+        }
+        catch ( final NumberFormatException e )
+        {
+            return false;
+        }
+
+        Long contentLength = null;
+        for ( int i = 1; i < lines.length; i++ )
+        {
+            int idx = lines[i].indexOf( ':' );
+            if ( idx < 1 )
+            {
+                continue;
+            }
+
+            String name = lines[i].substring( 0, idx ).trim();
+            String value = lines[i].substring( idx + 1 ).trim();
+            if ( "Connection".equalsIgnoreCase( name ) && value.toLowerCase().contains( "close" ) )
+            {
+                return false;
+            }
+            else if ( "Transfer-Encoding".equalsIgnoreCase( name ) )
+            {
+                return false;
+            }
+            else if ( "Content-Length".equalsIgnoreCase( name ) )
+            {
+                try
+                {
+                    contentLength = Long.parseLong( value );
+                }
+                catch ( final NumberFormatException e )
+                {
+                    return false;
+                }
+            }
+        }
+
+        if ( headRequest || status == 204 || status == 304 || status < 200 )
+        {
+            return bodyBytes == 0;
+        }
+
+        return contentLength != null && contentLength == bodyBytes;
+    }
+
+    private void track( final int b )
+    {
+        if ( headComplete )
+        {
+            bodyBytes++;
+            return;
+        }
+
+        if ( head.size() >= MAX_HEAD_SIZE )
+        {
+            headTooLarge = true;
+            return;
+        }
+
+        head.write( b );
+
+        tail = ( tail << 8 ) | ( b & 0xff );
+        if ( tail == 0x0d0a0d0a || ( tail & 0xffff ) == 0x0a0a )
+        {
+            headComplete = true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.httprox;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.commonjava.indy.httprox.util.ResponseFramingOutputStream;
+import org.junit.Test;
+
+public class ResponseFramingOutputStreamTest
+{
+    @Test
+    public void completeResponseWithContentLengthIsReusable()
+            throws IOException
+    {
+        ResponseFramingOutputStream out = new ResponseFramingOutputStream( new ByteArrayOutputStream() );
+        out.write( "HTTP/1.1 200 Ok\r\nContent-Length: 5\r\n\r\nhel".getBytes() );
+        assertFalse( out.isReusable( false ) );
+
+        out.write( "lo".getBytes() );
+        assertTrue( out.isReusable( false ) );
+
+        out.reset();
+        out.write( "HTTP/1.1 200 Ok\r\n".getBytes() );
+        assertFalse( out.isReusable( false ) );
+    }
+
+    @Test
+    public void closedOrUnframedResponseIsNotReusable()
+            throws IOException
+    {
+        ResponseFramingOutputStream out = new ResponseFramingOutputStream( new ByteArrayOutputStream() );
+        out.write( "HTTP/1.1 404 Not Found\r\nConnection: close\r\n\r\n".getBytes() );
+        assertFalse( out.isReusable( false ) );
+
+        out.reset();
+        out.write( "HTTP/1.1 200 Ok\r\nContent-Type: text/plain\r\n\r\nhello".getBytes() );
+        assertFalse( out.isReusable( false ) );
+    }
+
+    @Test
+    public void headResponseWithoutBodyIsReusable()
+            throws IOException
+    {
+        ResponseFramingOutputStream out = new ResponseFramingOutputStream( new ByteArrayOutputStream() );
+        out.write( "HTTP/1.1 200 Ok\r\nContent-Length: 5\r\n\r\n".getBytes() );
+        assertTrue( out.isReusable( true ) );
+    }
+}
@@ -69,6 +69,8 @@ public class IndyKojiConfig
 
     public static final long DEFAULT_METADATA_TIMEOUT_SECONDS = 86400;
 
+    public static final long DEFAULT_METADATA_REFRESH_AHEAD_SECONDS = 0;
+
     private static final boolean DEFAULT_TAG_PATTERNS_ENABLED = false;
 
     private static final boolean DEFAULT_PROXY_BINARY_BUILDS = false;
@@ -127,6 +129,8 @@ public class IndyKojiConfig
 
     private Long metadataTimeoutSeconds;
 
+    private Long metadataRefreshAheadSeconds;
+
     private String artifactAuthorityStore;
 
     private Integer connectionPoolTimeoutSeconds;
@@ -522,6 +526,11 @@ public class IndyKojiConfig
                 this.metadataTimeoutSeconds = Long.parseLong( value );
                 break;
             }
+            case "metadata.refresh.ahead.seconds":
+            {
+                this.metadataRefreshAheadSeconds = Long.parseLong( value );
+                break;
+            }
             case "storage.root.url":
             {
                 this.storageRootUrl = value;
@@ -714,6 +723,22 @@ public class IndyKojiConfig
         this.metadataTimeoutSeconds = metadataTimeoutSeconds;
     }
 
+    /**
+     * How long before Koji version metadata expires it is recomputed in the background, while the cached copy is still
+     * served. Zero (the default) disables this, so expired metadata is recomputed by the request that needs it.
+     */
+    public Long getMetadataRefreshAheadSeconds()
+    {
+        return metadataRefreshAheadSeconds == null ?
+                DEFAULT_METADATA_REFRESH_AHEAD_SECONDS :
+                metadataRefreshAheadSeconds;
+    }
+
+    public void setMetadataRefreshAheadSeconds( long metadataRefreshAheadSeconds )
+    {
+        this.metadataRefreshAheadSeconds = metadataRefreshAheadSeconds;
+    }
+
     public String getArtifactAuthorityStore()
     {
         return artifactAuthorityStore;
@@ -75,6 +75,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -87,6 +88,7 @@ import java.util.TimeZone;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
@@ -144,6 +146,15 @@ public class KojiMavenMetadataProvider
     @Inject
     private WeftExecutorService kojiMDService;
 
+    // refreshes run the lookup on kojiMDService themselves, so they need their own threads
+    @WeftManaged
+    @ExecutorConfig( threads=2, priority=4, named="koji-metadata-refresh" )
+    @Inject
+    private WeftExecutorService kojiMDRefreshService;
+
+    // GAs with a refresh-ahead in flight on this node, so concurrent requests schedule it only once
+    private final Map<ProjectRef, Boolean> refreshing = new ConcurrentHashMap<>();
+
     protected KojiMavenMetadataProvider(){}
 
     public KojiMavenMetadataProvider( CacheHandle<ProjectRef, Metadata> versionMetadata, KojiClient kojiClient,
@@ -154,6 +165,7 @@ public class KojiMavenMetadataProvider
         this.buildAuthority = buildAuthority;
         this.kojiConfig = kojiConfig;
         this.kojiMDService = kojiMDService;
+        this.kojiMDRefreshService = kojiMDService;
     }
 
     @PostConstruct
@@ -177,6 +189,16 @@ public class KojiMavenMetadataProvider
         }
 
         logger.info( "Koji metadata expired for GA: {}", e.getKey() );
+        clearGroupMetadata( e.getKey() );
+    }
+
+    /**
+     * Delete the merged metadata for the GA in all Koji-enabled groups, so it's merged again with the current Koji
+     * version metadata.
+     */
+    private void clearGroupMetadata( final ProjectRef ga )
+    {
+        Logger logger = LoggerFactory.getLogger( getClass() );
         try
         {
             Set<Group> affected = storeDataManager.query()
@@ -194,19 +216,19 @@ public class KojiMavenMetadataProvider
 
             if ( !affected.isEmpty() )
             {
-                logger.info( "Triggering metadata cleanup from Koji metadata expiration, for GA: {} in groups: {}", e.getKey(), affected );
-                String path = ArtifactPathUtils.formatMetadataPath( e.getKey(), METADATA_NAME );
+                logger.info( "Triggering metadata cleanup from Koji metadata change, for GA: {} in groups: {}", ga, affected );
+                String path = ArtifactPathUtils.formatMetadataPath( ga, METADATA_NAME );
                 clearPaths( affected, path );
             }
 
         }
         catch ( IndyDataException ex )
         {
-            logger.error( "Failed to clear group metadata for expired Koji metadata: " + e.getKey(), ex );
+            logger.error( "Failed to clear group metadata for changed Koji metadata: " + ga, ex );
         }
         catch ( TransferException ex )
         {
-            logger.error( "Failed to format metadata path for: " + e.getKey(), ex );
+            logger.error( "Failed to format metadata path for: " + ga, ex );
         }
     }
 
@@ -303,6 +325,18 @@ public class KojiMavenMetadataProvider
         }
 
         ProjectRef ga = ref;
+
+        // serve cached metadata without waiting for a lookup in progress, refreshing it ahead of expiry if it's due
+        Metadata cached = versionMetadata.get( ga );
+        if ( cached != null )
+        {
+            if ( isDueForRefresh( cached ) )
+            {
+                refreshAhead( ga, path );
+            }
+            return cached;
+        }
+
         AtomicReference<IndyWorkflowException> wfError = new AtomicReference<>();
         return versionMetadataLocks.lockAnd( ga, kojiConfig.getLockTimeoutSeconds(), k -> {
             Metadata metadata = versionMetadata.get( ga );
@@ -336,10 +370,7 @@ public class KojiMavenMetadataProvider
 
                 if ( metadata != null )
                 {
-                    Metadata md = metadata;
-
-                    // FIXME: Need a way to listen for cache expiration and re-request this?
-                    versionMetadata.execute( ( cache ) -> cache.put( ga, md, kojiConfig.getMetadataTimeoutSeconds(), TimeUnit.SECONDS ) );
+                    cacheVersionMetadata( ga, metadata );
                 }
                 else
                 {
@@ -355,6 +386,110 @@ public class KojiMavenMetadataProvider
         } );
     }
 
+    private void cacheVersionMetadata( final ProjectRef ga, final Metadata md )
+    {
+        versionMetadata.execute( ( cache ) -> cache.put( ga, md, kojiConfig.getMetadataTimeoutSeconds(), TimeUnit.SECONDS ) );
+    }
+
+    /**
+     * Whether refresh-ahead is enabled and the metadata is within its refresh window. The age comes from the
+     * lastUpdated timestamp written by {@link #executeKojiMetadataLookup(ProjectRef, String)}, so it holds for entries
+     * cached by other nodes too.
+     */
+    private boolean isDueForRefresh( final Metadata metadata )
+    {
+        long refreshAheadSeconds = kojiConfig.getMetadataRefreshAheadSeconds();
+        if ( refreshAheadSeconds < 1 || metadata.getVersioning() == null
+                || metadata.getVersioning().getLastUpdated() == null )
+        {
+            return false;
+        }
+
+        Date lastUpdated;
+        try
+        {
+            lastUpdated = new SimpleDateFormat( LAST_UPDATED_FORMAT ).parse( metadata.getVersioning().getLastUpdated() );
+        }
+        catch ( ParseException e )
+        {
+            return false;
+        }
+
+        long refreshAt = lastUpdated.getTime() + TimeUnit.SECONDS.toMillis(
+                kojiConfig.getMetadataTimeoutSeconds() - refreshAheadSeconds );
+
+        return System.currentTimeMillis() >= refreshAt;
+    }
+
+    /**
+     * Recompute the version metadata for the GA in the background and replace the cached copy, unless a refresh for it
+     * is already running here. The GA lock keeps this from overlapping with a lookup by a request, and a copy that is
+     * no longer due (refreshed meanwhile, maybe by another node) is left alone.
+     */
+    private void refreshAhead( final ProjectRef ga, final String path )
+    {
+        if ( refreshing.putIfAbsent( ga, Boolean.TRUE ) != null )
+        {
+            return;
+        }
+
+        Logger logger = LoggerFactory.getLogger( getClass() );
+        logger.debug( "Refreshing Koji version metadata ahead of expiration for: {}", ga );
+        try
+        {
+            kojiMDRefreshService.execute( () -> {
+                try
+                {
+                    versionMetadataLocks.lockAnd( ga, kojiConfig.getLockTimeoutSeconds(), k -> {
+                        Metadata current = versionMetadata.get( ga );
+                        if ( current != null && !isDueForRefresh( current ) )
+                        {
+                            logger.debug( "Koji version metadata for: {} was already refreshed", ga );
+                            return current;
+                        }
+
+                        try
+                        {
+                            Metadata md = executeKojiMetadataLookup( ga, path );
+                            if ( md != null )
+                            {
+                                cacheVersionMetadata( ga, md );
+
+                                // replacing the entry means it won't expire, so clear merged metadata here instead
+                                if ( current == null || current.getVersioning() == null
+                                        || !md.getVersioning().getVersions().equals( current.getVersioning().getVersions() ) )
+                                {
+                                    clearGroupMetadata( ga );
+                                }
+                            }
+                            return md;
+                        }
+                        catch ( IndyWorkflowException | KojiClientException e )
+                        {
+                            logger.warn( String.format(
+                                    "Failed to refresh version metadata for: %s from Koji; keeping the cached copy. Reason: %s",
+                                    ga, e.getMessage() ), e );
+                        }
+
+                        return null;
+                    }, ( k, lock ) -> {
+                        logger.debug( "Koji GA version metadata lock on: '{}' is busy; skipping refresh.", ga );
+                        return false;
+                    } );
+                }
+                finally
+                {
+                    refreshing.remove( ga );
+                }
+            } );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            refreshing.remove( ga );
+            logger.debug( "Koji metadata refresh executor is busy; {} will be recomputed when it expires.", ga );
+        }
+    }
+
     @Measure
     private Metadata executeKojiMetadataLookup(ProjectRef ga, String path )
             throws KojiClientException, IndyWorkflowException
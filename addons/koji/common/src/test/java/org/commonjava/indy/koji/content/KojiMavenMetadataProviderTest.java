@@ -307,6 +307,43 @@ public class KojiMavenMetadataProviderTest
                     CoreMatchers.not( CoreMatchers.equalTo( originalLastUpdated ) ) );
     }
 
+    @Test
+    public void refreshVersionMetadataAheadOfExpiration()
+            throws Exception
+    {
+        kojiConfig.setMetadataTimeoutSeconds( 4 );
+        kojiConfig.setMetadataRefreshAheadSeconds( 3 );
+
+        initKojiClient( "simple-metadata-generate", false );
+
+        StoreKey sk = new StoreKey( MAVEN_PKG_KEY,  group, "public" );
+        String path = "commons-io/commons-io/maven-metadata.xml";
+
+        Metadata metadata = provider.getMetadata( sk, path );
+
+        assertThat( metadata, notNullValue() );
+        String originalLastUpdated = metadata.getVersioning().getLastUpdated();
+
+        Thread.sleep( 1500 );
+
+        // reset to just after getAPIVersion, since this is only called when the client initializes.
+        counter.set( 1 );
+
+        // due for refresh: the cached copy is returned while the refresh runs in the background
+        metadata = provider.getMetadata( sk, path );
+        assertThat( metadata.getVersioning().getLastUpdated(), equalTo( originalLastUpdated ) );
+
+        String lastUpdated = originalLastUpdated;
+        for ( int i = 0; i < 30 && lastUpdated.equals( originalLastUpdated ); i++ )
+        {
+            Thread.sleep( 100 );
+            lastUpdated = provider.getMetadata( sk, path ).getVersioning().getLastUpdated();
+        }
+
+        assertThat( lastUpdated, CoreMatchers.not( CoreMatchers.equalTo( originalLastUpdated ) ) );
+        assertThat( provider.getMetadata( sk, path ).getVersioning().getVersions().size(), equalTo( 2 ) );
+    }
+
     @Rule
     public TemporaryFolder temp = new TemporaryFolder();
 
@@ -129,7 +129,7 @@ public class MetadataMergePomChangeListener
                     {
                         if ( doClear( group, clearPath ) )
                         {
-                            cacheManager.remove( group.getKey(), clearPath );
+                            cacheManager.removeMemberContribution( group.getKey(), clearPath, key );
                         }
                     }
                     logger.info( "Clearing metadata file {} for {} groups affected by {}, timeMillis: {}", clearPath,
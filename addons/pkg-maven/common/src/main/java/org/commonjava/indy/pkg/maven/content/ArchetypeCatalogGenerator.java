@@ -124,6 +124,8 @@ public class ArchetypeCatalogGenerator
                 {
                     throw new IndyWorkflowException( "Failed to write merged archetype catalog to: {}.\nError: {}", e, target, e.getMessage() );
                 }
+
+                helper.registerMergedPath( group, path );
             }
         }
 
@@ -81,6 +81,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -166,6 +167,8 @@ public class MavenMetadataGenerator
 
     private static final int THREAD_WAITING_TIME_SECONDS = 300;
 
+    private static final long CLUSTER_MERGE_POLL_MILLIS = 200;
+
     protected MavenMetadataGenerator()
     {
     }
@@ -174,6 +177,7 @@ public class MavenMetadataGenerator
                                    final XMLInfrastructure xml, final TypeMapper typeMapper,
                                    final MavenMetadataMerger merger, final GroupMergeHelper mergeHelper,
                                    final NotFoundCache nfc, WeftExecutorService mavenMDGeneratorService,
+                                   final MetadataCacheManager cacheManager,
                                    final MergedContentAction... mergedContentActions )
     {
         super( fileManager, storeManager, mergeHelper, nfc, mergedContentActions );
@@ -181,6 +185,7 @@ public class MavenMetadataGenerator
         this.typeMapper = typeMapper;
         this.merger = merger;
         this.mavenMDGeneratorService = mavenMDGeneratorService;
+        this.cacheManager = cacheManager;
         start();
     }
 
@@ -382,11 +387,34 @@ public class MavenMetadataGenerator
         AtomicReference<IndyWorkflowException> wfEx = new AtomicReference<>();
         final String mergePath = toMergePath;
         boolean mergingDone = mergerLocks.ifUnlocked( computeKey(group, toMergePath), p->{
+            final MetadataKey mergeKey = new MetadataKey( group.getKey(), mergePath );
+            final MetadataMergeState flight = new MetadataMergeState( cacheManager.getMergeOwner() );
             try
             {
+                final MetadataInfo published = awaitClusterMerge( mergeKey, flight );
+                if ( published != null )
+                {
+                    logger.debug( "Use metadata merged by another node for metadata file {} in group {}", path,
+                                  group );
+                    try
+                    {
+                        writeGroupMetadata( target, published.getMetadata(), eventMetadata );
+                        helper.writeMergeInfo( published.getMetadataMergeInfo(), group, mergePath );
+                        eventMetadata.set( GROUP_METADATA_GENERATED, true );
+                        putToMetadataCache( group.getKey(), mergePath, published );
+                    }
+                    catch ( final IOException e )
+                    {
+                        logger.error( String.format( "Cannot write consolidated metadata: %s to: %s. Reason: %s", path,
+                                                     group.getKey(), e.getMessage() ), e );
+                    }
+                    return true;
+                }
+
                 logger.debug( "Start metadata generation for metadata file {} in group {}", path, group );
                 List<StoreKey> contributing = new ArrayList<>();
-                final Metadata md = generateGroupMetadata( group, members, contributing, path );
+                Map<StoreKey, Metadata> memberContributions = new HashMap<>();
+                final Metadata md = generateGroupMetadata( group, members, contributing, memberContributions, path );
                 if ( md != null )
                 {
                     final Versioning versioning = md.getVersioning();
@@ -394,29 +422,18 @@ public class MavenMetadataGenerator
                             "Regenerated Metadata for group {} of path {}: latest version: {}, versions: {}",
                             group.getKey(), mergePath, versioning != null ? versioning.getLatest() : null,
                             versioning != null ? versioning.getVersions() : null );
-                    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
                     try
                     {
                         logger.trace( "Regenerate lost metadata, group: {}, path: {}", group.getKey(), path );
-                        new MetadataXpp3Writer().write( baos, md );
-
-                        final byte[] merged = baos.toByteArray();
-                        try (final OutputStream fos = target.openOutputStream( TransferOperation.GENERATE, true,
-                                                                               eventMetadata ))
-                        {
-                            fos.write( merged );
-                        }
-                        catch ( final IOException e )
-                        {
-                            throw new IndyWorkflowException( "Failed to write merged metadata to: {}.\nError: {}", e,
-                                                             target, e.getMessage() );
-                        }
+                        writeGroupMetadata( target, md, eventMetadata );
 
                         String mergeInfo = writeGroupMergeInfo( md, group, contributing, mergePath );
                         eventMetadata.set( GROUP_METADATA_GENERATED, true );
                         MetadataInfo info = new MetadataInfo( md );
                         info.setMetadataMergeInfo( mergeInfo );
+                        info.setMemberContributions( memberContributions );
                         putToMetadataCache( group.getKey(), mergePath, info );
+                        cacheManager.finishMerge( mergeKey, flight, info );
                     }
                     catch ( final IOException e )
                     {
@@ -430,6 +447,11 @@ public class MavenMetadataGenerator
                 wfEx.set( e );
                 return false;
             }
+            finally
+            {
+                // no-op if the result was published, otherwise lets the waiting nodes merge by themselves
+                cacheManager.abortMerge( mergeKey, flight );
+            }
 
             return true;
         }, (p,mergerLock)->{
@@ -476,6 +498,63 @@ public class MavenMetadataGenerator
         return null;
     }
 
+    /**
+     * Wait for the merge of the same group metadata by another node, if there is one. If no other merge is in flight,
+     * the given state is registered so the other nodes wait for this one instead.
+     *
+     * @return the metadata published by the other node, or null if the caller has to merge it
+     */
+    private MetadataInfo awaitClusterMerge( final MetadataKey mergeKey, final MetadataMergeState flight )
+    {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis( THREAD_WAITING_TIME_SECONDS );
+        MetadataMergeState current;
+        while ( ( current = cacheManager.startMerge( mergeKey, flight, THREAD_WAITING_TIME_SECONDS ) ) != null )
+        {
+            if ( current.isDone() )
+            {
+                return current.getResult();
+            }
+
+            if ( System.currentTimeMillis() > deadline )
+            {
+                logger.warn( "Merge of {} by {} is not finished after {}s, merging it locally", mergeKey,
+                             current.getOwner(), THREAD_WAITING_TIME_SECONDS );
+                return null;
+            }
+
+            logger.trace( "Merge of {} is in process by {}, waiting", mergeKey, current.getOwner() );
+            try
+            {
+                Thread.sleep( CLUSTER_MERGE_POLL_MILLIS );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private void writeGroupMetadata( final Transfer target, final Metadata md, final EventMetadata eventMetadata )
+            throws IndyWorkflowException, IOException
+    {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new MetadataXpp3Writer().write( baos, md );
+
+        final byte[] merged = baos.toByteArray();
+        try (final OutputStream fos = target.openOutputStream( TransferOperation.GENERATE, true, eventMetadata ))
+        {
+            fos.write( merged );
+        }
+        catch ( final IOException e )
+        {
+            throw new IndyWorkflowException( "Failed to write merged metadata to: {}.\nError: {}", e, target,
+                                             e.getMessage() );
+        }
+    }
+
     private String computeKey( final Group group, final String path )
     {
         return group.getKey().toString() + "-" + path;
@@ -509,12 +588,18 @@ public class MavenMetadataGenerator
      * 2. read cached from member hosted repos and try to download from member remote repos
      * 3. generate by member hosted repos (list dir trying to find version directories)
      *
+     * If the group metadata was evicted because some members changed, the contributions of the unchanged members are
+     * still kept with the cached group entry. Only the members without a contribution go through 2. and 3., then all
+     * the contributions are re-merged in memory.
+     *
      * @param group
      * @param members concrete store in group
+     * @param memberContributions receives the metadata of each visited member, null if it has nothing to contribute
      * @param path
      */
     private Metadata generateGroupMetadata( final Group group, final List<ArtifactStore> members,
-                                            final List<StoreKey> contributingMembers, final String path )
+                                            final List<StoreKey> contributingMembers,
+                                            final Map<StoreKey, Metadata> memberContributions, final String path )
             throws IndyWorkflowException
     {
 
@@ -530,45 +615,70 @@ public class MavenMetadataGenerator
             toMergePath = normalize( normalize( parentPath( toMergePath ) ), MavenMetadataMerger.METADATA_NAME );
         }
 
-        Metadata meta = getMetaFromCache( group.getKey(), toMergePath );
+        final MetadataInfo cached = getMetaInfoFromCache( group.getKey(), toMergePath );
+        final Map<StoreKey, Metadata> previous = cached != null ? cached.getMemberContributions() : null;
 
-        if ( meta != null )
+        if ( cached != null && cached.getMetadata() != null )
         {
-            return meta;
+            if ( previous != null )
+            {
+                memberContributions.putAll( previous );
+            }
+            return cached.getMetadata();
         }
 
-        Metadata master = new Metadata();
-        master.setVersioning( new Versioning() );
+        Set<ArtifactStore> toVisit = new HashSet<>();
+        members.forEach( member -> {
+            if ( previous != null && previous.containsKey( member.getKey() ) )
+            {
+                memberContributions.put( member.getKey(), previous.get( member.getKey() ) );
+            }
+            else
+            {
+                toVisit.add( member );
+            }
+        } );
+
+        if ( previous != null )
+        {
+            logger.debug( "Incremental metadata merge for {} in group {}, reused: {}, to visit: {}", toMergePath,
+                          group.getKey(), memberContributions.size(), toVisit.size() );
+        }
 
         MetadataIncrementalResult incrementalResult =
-                new MetadataIncrementalResult( new HashSet<>( members ), Collections.emptySet(), master );
+                new MetadataIncrementalResult( toVisit, Collections.emptySet(), memberContributions );
 
         incrementalResult = mergeMissing( group, incrementalResult, toMergePath, "cached", this::retrieveCached );
 
-        contributingMembers.addAll( incrementalResult.merged );
-
         incrementalResult = mergeMissing( group, incrementalResult, toMergePath, "downloaded", this::downloadMissing );
 
-        contributingMembers.addAll( incrementalResult.merged );
-
         incrementalResult = mergeMissing( group, incrementalResult, toMergePath, "generated", this::generateMissing );
 
-        contributingMembers.addAll( incrementalResult.merged );
-
-        if ( metadataProviders != null )
+        if ( !incrementalResult.missing.isEmpty() )
         {
-            master = mergeProviderMetadata( group, incrementalResult.result, toMergePath );
+            logger.warn(
+                    "After download and generation attempts, metadata is still missing from the following stores: {}, size: {}",
+                    incrementalResult.missing, incrementalResult.missing.size() );
+
+            incrementalResult.missing.forEach( store -> memberContributions.put( store.getKey(), null ) );
         }
-        else
+
+        Metadata master = new Metadata();
+        master.setVersioning( new Versioning() );
+
+        for ( final ArtifactStore member : members )
         {
-            master = incrementalResult.result;
+            final Metadata memberMeta = memberContributions.get( member.getKey() );
+            if ( memberMeta != null )
+            {
+                merger.merge( master, memberMeta, group, toMergePath );
+                contributingMembers.add( member.getKey() );
+            }
         }
 
-        if ( !incrementalResult.missing.isEmpty() )
+        if ( metadataProviders != null )
         {
-            logger.warn(
-                    "After download and generation attempts, metadata is still missing from the following stores: {}, size: {}",
-                    incrementalResult.missing, incrementalResult.missing.size() );
+            master = mergeProviderMetadata( group, master, toMergePath );
         }
 
         Versioning versioning = master.getVersioning();
@@ -695,10 +805,10 @@ public class MavenMetadataGenerator
     {
         private final Set<ArtifactStore> missing;
         private final Set<StoreKey> merged;
-        private final Metadata result;
+        private final Map<StoreKey, Metadata> result;
 
         public MetadataIncrementalResult( final Set<ArtifactStore> missing, final Set<StoreKey> merged,
-                                          final Metadata result )
+                                          final Map<StoreKey, Metadata> result )
         {
             this.missing = missing;
             this.merged = merged;
@@ -713,7 +823,12 @@ public class MavenMetadataGenerator
             throws IndyWorkflowException
     {
         Set<ArtifactStore> missing = incrementalResult.missing;
-        Metadata master = incrementalResult.result;
+        Map<StoreKey, Metadata> contributions = incrementalResult.result;
+
+        if ( missing.isEmpty() )
+        {
+            return incrementalResult;
+        }
 
         logger.debug( "Merge member metadata for {}, {}, missing: {}, size: {}", group.getKey(), description,
                       missing, missing.size() );
@@ -737,7 +852,7 @@ public class MavenMetadataGenerator
                     else
                     {
                         included.add( mr.store.getKey() );
-                        merger.merge( master, mr.metadata, group, toMergePath );
+                        contributions.put( mr.store.getKey(), mr.metadata );
                         putToMetadataCache( mr.store.getKey(), toMergePath, new MetadataInfo( mr.metadata ) );
                     }
                 }
@@ -752,7 +867,7 @@ public class MavenMetadataGenerator
             throw new IndyWorkflowException( "Failed to merge downloaded " + description + " member metadata.", e );
         }
 
-        return new MetadataIncrementalResult( resultingMissing, included, master );
+        return new MetadataIncrementalResult( resultingMissing, included, contributions );
     }
 
     private Metadata mergeProviderMetadata( final Group group, final Metadata master,
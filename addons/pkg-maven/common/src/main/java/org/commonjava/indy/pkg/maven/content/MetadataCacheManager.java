@@ -15,9 +15,13 @@
  */
 package org.commonjava.indy.pkg.maven.content;
 
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.commonjava.indy.conf.IndyConfiguration;
 import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.model.core.StoreType;
 import org.commonjava.indy.pkg.maven.content.cache.MavenMetadataCache;
 import org.commonjava.indy.pkg.maven.content.cache.MavenMetadataKeyCache;
+import org.commonjava.indy.pkg.maven.content.cache.MavenMetadataMergeCache;
 import org.commonjava.indy.subsys.infinispan.CacheHandle;
 import org.infinispan.query.Search;
 import org.infinispan.query.dsl.Query;
@@ -28,8 +32,11 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -45,6 +52,19 @@ public class MetadataCacheManager
     @MavenMetadataKeyCache
     private CacheHandle<MetadataKey, MetadataKey> metadataKeyCache;
 
+    /**
+     * Group metadata merges in flight, and their results for a short while after. Replicated when the cluster is
+     * enabled, so only one node merges the same group metadata at a time.
+     */
+    @Inject
+    @MavenMetadataMergeCache
+    private CacheHandle<MetadataKey, MetadataMergeState> mergeCache;
+
+    @Inject
+    private IndyConfiguration indyConfiguration;
+
+    private static final long MERGE_RESULT_LIFESPAN_SECONDS = 60;
+
     private QueryFactory queryFactory;
 
     public MetadataCacheManager()
@@ -65,6 +85,14 @@ public class MetadataCacheManager
         this.queryFactory = Search.getQueryFactory( metadataKeyCache.getCache() );
     }
 
+    public MetadataCacheManager( CacheHandle<MetadataKey, MetadataInfo> metadataCache,
+                                 CacheHandle<MetadataKey, MetadataKey> metadataKeyCache,
+                                 CacheHandle<MetadataKey, MetadataMergeState> mergeCache )
+    {
+        this( metadataCache, metadataKeyCache );
+        this.mergeCache = mergeCache;
+    }
+
     public void put( MetadataKey metadataKey, MetadataInfo metadataInfo )
     {
         metadataKeyCache.put( metadataKey, metadataKey );
@@ -90,6 +118,111 @@ public class MetadataCacheManager
     {
         metadataKeyCache.remove( metadataKey );
         metadataCache.remove( metadataKey );
+        removeMerge( metadataKey );
+    }
+
+    /**
+     * Try to become the merger of the given group metadata across the cluster. The state is only put if no merge of
+     * it is in flight or published, and expires after the given timeout in case its owner dies while merging.
+     *
+     * @return null if the caller owns the merge now, otherwise the state of the merge started by someone else
+     */
+    public MetadataMergeState startMerge( MetadataKey metadataKey, MetadataMergeState flight, long timeoutSeconds )
+    {
+        if ( mergeCache == null )
+        {
+            return null;
+        }
+
+        return mergeCache.executeCache(
+                        cache -> cache.putIfAbsent( metadataKey, flight, timeoutSeconds, TimeUnit.SECONDS ) );
+    }
+
+    /**
+     * Publish the result of a merge started with {@link #startMerge}. Nothing is published if the merge was dropped
+     * meanwhile, e.g. because the group metadata got invalidated while merging.
+     */
+    public void finishMerge( MetadataKey metadataKey, MetadataMergeState flight, MetadataInfo result )
+    {
+        if ( mergeCache == null )
+        {
+            return;
+        }
+
+        boolean published = mergeCache.executeCache(
+                        cache -> cache.replace( metadataKey, flight, flight.finished( result ),
+                                                MERGE_RESULT_LIFESPAN_SECONDS, TimeUnit.SECONDS ) );
+
+        logger.debug( "Finished merge of {}, published: {}", metadataKey, published );
+    }
+
+    /**
+     * Give up a merge started with {@link #startMerge} without a result, so the waiting nodes merge by themselves.
+     */
+    public void abortMerge( MetadataKey metadataKey, MetadataMergeState flight )
+    {
+        if ( mergeCache != null )
+        {
+            mergeCache.executeCache( cache -> cache.remove( metadataKey, flight ) );
+        }
+    }
+
+    public MetadataMergeState getMerge( MetadataKey metadataKey )
+    {
+        return mergeCache == null ? null : mergeCache.get( metadataKey );
+    }
+
+    public String getMergeOwner()
+    {
+        return indyConfiguration == null ? "local" : indyConfiguration.getNodeId();
+    }
+
+    private void removeMerge( MetadataKey metadataKey )
+    {
+        if ( mergeCache != null )
+        {
+            mergeCache.remove( metadataKey );
+        }
+    }
+
+    /**
+     * Drop what the given member contributed to the merged metadata of a group, while keeping the contributions of
+     * the other members. The next generation of the group metadata then only has to visit this member before
+     * re-merging in memory. If the member is a group itself, or the cached group metadata carries no member
+     * contributions, the group entry is removed completely.
+     */
+    public void removeMemberContribution( StoreKey groupKey, String path, StoreKey memberKey )
+    {
+        final MetadataKey metadataKey = new MetadataKey( groupKey, path );
+        if ( memberKey.getType() == StoreType.group )
+        {
+            remove( metadataKey );
+            return;
+        }
+
+        MetadataInfo remaining = metadataCache.executeCache( cache -> cache.computeIfPresent( metadataKey, ( k, info ) -> {
+            Map<StoreKey, Metadata> contributions = info.getMemberContributions();
+            if ( contributions == null )
+            {
+                return null;
+            }
+
+            Map<StoreKey, Metadata> updated = new HashMap<>( contributions );
+            updated.remove( memberKey );
+
+            MetadataInfo stale = new MetadataInfo( null );
+            stale.setMemberContributions( updated );
+            return stale;
+        } ) );
+
+        if ( remaining == null )
+        {
+            metadataKeyCache.remove( metadataKey );
+        }
+        removeMerge( metadataKey );
+
+        logger.debug( "Removed contribution of {} from metadata {} in {}, kept others: {}", memberKey, path, groupKey,
+                      remaining != null );
     }
 
     public void removeAll( StoreKey key )
@@ -16,11 +16,15 @@
 package org.commonjava.indy.pkg.maven.content;
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.commonjava.indy.model.core.StoreKey;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
- * Used to bind group metadata and its metadata merge info together for caching easily
+ * Used to bind group metadata and its metadata merge info together for caching easily. For groups, it also keeps the
+ * metadata contributed by each concrete member, so a change in one member only needs that member to be re-read
+ * before the group metadata is re-merged (see {@link MetadataCacheManager#removeMemberContribution}).
  */
 public class MetadataInfo
         implements Serializable
@@ -29,6 +33,12 @@ public class MetadataInfo
 
     private String metadataMergeInfo;
 
+    /**
+     * Member metadata used to build the group metadata, keyed by member. A null value means the member was visited
+     * but had nothing to contribute.
+     */
+    private Map<StoreKey, Metadata> memberContributions;
+
     public MetadataInfo( final Metadata metadata )
     {
         this.metadata = metadata;
@@ -53,4 +63,14 @@ public class MetadataInfo
     {
         this.metadataMergeInfo = metadataMergeInfo;
     }
+
+    public Map<StoreKey, Metadata> getMemberContributions()
+    {
+        return memberContributions;
+    }
+
+    public void setMemberContributions( Map<StoreKey, Metadata> memberContributions )
+    {
+        this.memberContributions = memberContributions;
+    }
 }
@@ -30,7 +30,8 @@ import java.util.Set;
 /**
  * This listener will do these tasks:
  * <ul>
- *     <li>When the metadata file changed of a member in a group, delete correspond cache of that file path of the member and group (cascaded)</li>
+ *     <li>When the metadata file changed of a member in a group, delete correspond cache of that file path of the member,
+ *     and drop the member contribution from the cache of the groups (cascaded)</li>
  * </ul>
  */
 @ApplicationScoped
@@ -56,7 +57,7 @@ public class MetadataMergeListener
         logger.debug( "Clear merged path {}, origin: {}, affected: {}", path, originatingStore, affectedGroups );
         cacheManager.remove( new MetadataKey( originatingStore.getKey(), path ) );
         affectedGroups.forEach( group -> {
-            cacheManager.remove( new MetadataKey( group.getKey(), path ) );
+            cacheManager.removeMemberContribution( group.getKey(), path, originatingStore.getKey() );
         } );
     }
 
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.pkg.maven.content;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Marks a group metadata merge that is in flight somewhere in the cluster. The node that manages to put its state
+ * first does the merge and then publishes the resulting {@link MetadataInfo} with the same state, so the other nodes
+ * can wait for it instead of merging the same group metadata again (see {@link MetadataCacheManager#startMerge}).
+ */
+public class MetadataMergeState
+        implements Serializable
+{
+    private final String owner;
+
+    private final String token;
+
+    private final long started;
+
+    private MetadataInfo result;
+
+    public MetadataMergeState( final String owner )
+    {
+        this.owner = owner;
+        this.token = UUID.randomUUID().toString();
+        this.started = System.currentTimeMillis();
+    }
+
+    private MetadataMergeState( final MetadataMergeState flight, final MetadataInfo result )
+    {
+        this.owner = flight.owner;
+        this.token = flight.token;
+        this.started = flight.started;
+        this.result = result;
+    }
+
+    public MetadataMergeState finished( final MetadataInfo result )
+    {
+        return new MetadataMergeState( this, result );
+    }
+
+    public String getOwner()
+    {
+        return owner;
+    }
+
+    public long getStarted()
+    {
+        return started;
+    }
+
+    public MetadataInfo getResult()
+    {
+        return result;
+    }
+
+    public boolean isDone()
+    {
+        return result != null;
+    }
+
+    @Override
+    public boolean equals( final Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        final MetadataMergeState that = (MetadataMergeState) o;
+        return token.equals( that.token ) && isDone() == that.isDone();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( token, isDone() );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MetadataMergeState{owner='" + owner + "', started=" + started + ", done=" + isDone() + '}';
+    }
+}
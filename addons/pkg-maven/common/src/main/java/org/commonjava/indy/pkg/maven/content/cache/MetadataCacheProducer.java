@@ -21,6 +21,7 @@ import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.pkg.maven.content.MetadataKey;
 import org.commonjava.indy.pkg.maven.content.MetadataInfo;
 import org.commonjava.indy.pkg.maven.content.MetadataKeyTransformer;
+import org.commonjava.indy.pkg.maven.content.MetadataMergeState;
 import org.commonjava.indy.subsys.infinispan.CacheHandle;
 import org.commonjava.indy.subsys.infinispan.CacheProducer;
 import org.commonjava.maven.galley.model.Transfer;
@@ -45,6 +46,8 @@ public class MetadataCacheProducer
 
     private static final String METADATA_CACHE = "maven-metadata-cache";
 
+    private static final String METADATA_MERGE_CACHE = "maven-metadata-merge-cache";
+
     @Inject
     private MavenMetadataCacheListener cacheListener;
 
@@ -67,6 +70,15 @@ public class MetadataCacheProducer
         return cacheProducer.getCache( METADATA_KEY_CACHE );
     }
 
+    @MavenMetadataMergeCache
+    @Produces
+    @ApplicationScoped
+    public CacheHandle<MetadataKey, MetadataMergeState> mavenMetadataMergeCacheCfg()
+    {
+        return cacheProducer.getClusterizableCache( METADATA_MERGE_CACHE, MetadataKey.class,
+                                                    MetadataMergeState.class );
+    }
+
     @PostConstruct
     public void initIndexing()
     {
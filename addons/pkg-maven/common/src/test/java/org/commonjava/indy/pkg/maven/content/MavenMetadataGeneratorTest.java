@@ -16,6 +16,9 @@
 package org.commonjava.indy.pkg.maven.content;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.commonjava.cdi.util.weft.PoolWeftExecutorService;
 import org.commonjava.cdi.util.weft.WeftExecutorService;
 import org.commonjava.indy.audit.ChangeSummary;
@@ -28,9 +31,12 @@ import org.commonjava.indy.core.content.DefaultDownloadManager;
 import org.commonjava.indy.core.content.group.GroupMergeHelper;
 import org.commonjava.indy.core.inject.ExpiringMemoryNotFoundCache;
 import org.commonjava.indy.mem.data.MemoryStoreDataManager;
+import org.commonjava.indy.model.core.ArtifactStore;
+import org.commonjava.indy.model.core.Group;
 import org.commonjava.indy.model.core.RemoteRepository;
 import org.commonjava.indy.model.galley.KeyedLocation;
 import org.commonjava.indy.pkg.maven.content.group.MavenMetadataMerger;
+import org.commonjava.indy.subsys.infinispan.CacheProducer;
 import org.commonjava.indy.util.LocationUtils;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.atlas.maven.ident.util.SnapshotUtils;
@@ -53,11 +59,16 @@ import org.commonjava.maven.galley.nfc.MemoryNotFoundCache;
 import org.commonjava.maven.galley.spi.transport.LocationExpander;
 import org.commonjava.maven.galley.testing.core.transport.job.TestListing;
 import org.commonjava.maven.galley.testing.maven.GalleyMavenFixture;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -80,6 +91,10 @@ public class MavenMetadataGeneratorTest
 
     private MavenMetadataReader metadataReader;
 
+    private MetadataCacheManager cacheManager;
+
+    private DefaultDirectContentAccess contentAccess;
+
     private final ChangeSummary summary = new ChangeSummary( "test-user", "test" );
 
     @Before
@@ -106,12 +121,19 @@ public class MavenMetadataGeneratorTest
 
         WeftExecutorService contentAccessService =
                         new PoolWeftExecutorService( "test-content-access-executor", (ThreadPoolExecutor) Executors.newCachedThreadPool(), 2, 10f, false,null, null );
-        DefaultDirectContentAccess contentAccess = new DefaultDirectContentAccess( downloads, contentAccessService );
+        contentAccess = new DefaultDirectContentAccess( downloads, contentAccessService );
 
         WeftExecutorService mdService =
                         new PoolWeftExecutorService( "test-md-executor", (ThreadPoolExecutor) Executors.newCachedThreadPool(), 2, 10f, false,null, null );
 
-        generator = new MavenMetadataGenerator( contentAccess, stores, xml, types, merger, helper, new MemoryNotFoundCache(), mdService );
+        final CacheProducer cacheProducer = new CacheProducer( null, new DefaultCacheManager(
+                        new ConfigurationBuilder().simpleCache( true ).build() ), null );
+        cacheManager = new MetadataCacheManager( cacheProducer.getCache( "maven-metadata-cache" ),
+                                                 cacheProducer.getCache( "maven-metadata-key-cache" ),
+                                                 cacheProducer.getCache( "maven-metadata-merge-cache" ) );
+
+        generator = new MavenMetadataGenerator( contentAccess, stores, xml, types, merger, helper, new MemoryNotFoundCache(), mdService,
+                                                cacheManager );
 
         metadataReader =
             new MavenMetadataReader( xml, locations, fixture.getArtifactMetadataManager(), fixture.getXPathManager() );
@@ -255,6 +277,62 @@ public class MavenMetadataGeneratorTest
         }
     }
 
+    @Test
+    public void generateGroupFileContent_RemergeOnlyChangedMember()
+        throws Exception
+    {
+        final String path = "org/group/artifact/maven-metadata.xml";
+        final RemoteRepository first = new RemoteRepository( MAVEN_PKG_KEY, "first", "http://foo.bar/first" );
+        final RemoteRepository second = new RemoteRepository( MAVEN_PKG_KEY, "second", "http://foo.bar/second" );
+        final Group group = new Group( MAVEN_PKG_KEY, "test", first.getKey(), second.getKey() );
+        stores.storeArtifactStore( first, summary, false, true, new EventMetadata() );
+        stores.storeArtifactStore( second, summary, false, true, new EventMetadata() );
+        stores.storeArtifactStore( group, summary, false, true, new EventMetadata() );
+        final List<ArtifactStore> members = Arrays.asList( first, second );
+
+        cacheManager.put( new MetadataKey( first.getKey(), path ), new MetadataInfo( metadata( "1.0" ) ) );
+        cacheManager.put( new MetadataKey( second.getKey(), path ), new MetadataInfo( metadata( "2.0" ) ) );
+
+        Transfer transfer = generator.generateGroupFileContent( group, members, path, new EventMetadata() );
+        assertThat( readVersions( transfer ), equalTo( Arrays.asList( "1.0", "2.0" ) ) );
+
+        final MetadataInfo cached = cacheManager.get( new MetadataKey( group.getKey(), path ) );
+        assertThat( cached.getMemberContributions().keySet(),
+                    equalTo( new HashSet<>( Arrays.asList( first.getKey(), second.getKey() ) ) ) );
+
+        // the first member changed; the second member's cached metadata also changes, but its contribution is kept
+        cacheManager.put( new MetadataKey( first.getKey(), path ), new MetadataInfo( metadata( "1.0", "1.1" ) ) );
+        cacheManager.put( new MetadataKey( second.getKey(), path ), new MetadataInfo( metadata( "9.9" ) ) );
+        cacheManager.removeMemberContribution( group.getKey(), path, first.getKey() );
+        contentAccess.getTransfer( group, path ).delete();
+
+        transfer = generator.generateGroupFileContent( group, members, path, new EventMetadata() );
+        assertThat( readVersions( transfer ), equalTo( Arrays.asList( "1.0", "1.1", "2.0" ) ) );
+    }
+
+    private Metadata metadata( final String... versions )
+    {
+        final Metadata md = new Metadata();
+        md.setGroupId( "org.group" );
+        md.setArtifactId( "artifact" );
+        md.setVersioning( new Versioning() );
+        for ( final String version : versions )
+        {
+            md.getVersioning().addVersion( version );
+        }
+        return md;
+    }
+
+    private List<String> readVersions( final Transfer transfer )
+        throws Exception
+    {
+        assertThat( transfer, notNullValue() );
+        try (InputStream in = transfer.openInputStream())
+        {
+            return new MetadataXpp3Reader().read( in, false ).getVersioning().getVersions();
+        }
+    }
+
     private StoreResource setupVersionsStructureWith2Versions()
         throws Exception
     {
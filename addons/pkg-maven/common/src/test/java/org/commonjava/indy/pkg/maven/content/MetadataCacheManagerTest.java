@@ -15,6 +15,7 @@
  */
 package org.commonjava.indy.pkg.maven.content;
 
+import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.subsys.infinispan.CacheHandle;
 import org.commonjava.indy.subsys.infinispan.CacheProducer;
@@ -24,9 +25,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -45,7 +49,8 @@ public class MetadataCacheManagerTest
         cacheProducer = new CacheProducer( null, cacheManager, null );
         CacheHandle<MetadataKey, MetadataKey> metadataKeyCache = cacheProducer.getCache( "maven-metadata-key-cache" );
         CacheHandle<MetadataKey, MetadataInfo> metadataCache = cacheProducer.getCache( "maven-metadata-cache" );
-        metadataCacheManager = new MetadataCacheManager( metadataCache, metadataKeyCache );
+        CacheHandle<MetadataKey, MetadataMergeState> mergeCache = cacheProducer.getCache( "maven-metadata-merge-cache" );
+        metadataCacheManager = new MetadataCacheManager( metadataCache, metadataKeyCache, mergeCache );
     }
 
     @Test
@@ -85,6 +90,68 @@ public class MetadataCacheManagerTest
         assertNotNull( ret );
     }
 
+    @Test
+    public void removeMemberContribution() throws Exception
+    {
+        StoreKey group = StoreKey.fromString( "maven:group:test" );
+        StoreKey hosted = StoreKey.fromString( "maven:hosted:test" );
+        StoreKey remote = StoreKey.fromString( "maven:remote:test" );
+        String path = "org/foo/bar/maven-metadata.xml";
+
+        Map<StoreKey, Metadata> contributions = new HashMap<>();
+        contributions.put( hosted, new Metadata() );
+        contributions.put( remote, null );
+
+        MetadataInfo info = new MetadataInfo( new Metadata() );
+        info.setMemberContributions( contributions );
+        metadataCacheManager.put( new MetadataKey( group, path ), info );
+
+        metadataCacheManager.removeMemberContribution( group, path, hosted );
+
+        MetadataInfo ret = metadataCacheManager.get( new MetadataKey( group, path ) );
+        assertNotNull( ret );
+        assertNull( ret.getMetadata() );
+        assertFalse( ret.getMemberContributions().containsKey( hosted ) );
+        assertTrue( ret.getMemberContributions().containsKey( remote ) );
+
+        metadataCacheManager.removeMemberContribution( group, path, StoreKey.fromString( "maven:group:nested" ) );
+        assertNull( metadataCacheManager.get( new MetadataKey( group, path ) ) );
+        assertTrue( metadataCacheManager.getAllPaths( group ).isEmpty() );
+    }
+
+    @Test
+    public void coalesceMerges() throws Exception
+    {
+        MetadataKey key = new MetadataKey( StoreKey.fromString( "maven:group:test" ), "org/foo/bar/maven-metadata.xml" );
+
+        MetadataMergeState first = new MetadataMergeState( "node1" );
+        MetadataMergeState second = new MetadataMergeState( "node2" );
+        assertNull( metadataCacheManager.startMerge( key, first, 60 ) );
+
+        MetadataMergeState inFlight = metadataCacheManager.startMerge( key, second, 60 );
+        assertNotNull( inFlight );
+        assertFalse( inFlight.isDone() );
+
+        MetadataInfo info = new MetadataInfo( new Metadata() );
+        metadataCacheManager.finishMerge( key, first, info );
+        metadataCacheManager.abortMerge( key, first );
+
+        MetadataMergeState done = metadataCacheManager.startMerge( key, second, 60 );
+        assertNotNull( done );
+        assertTrue( done.isDone() );
+        assertNotNull( done.getResult().getMetadata() );
+
+        // invalidating the metadata drops the published merge too
+        metadataCacheManager.remove( key );
+        assertNull( metadataCacheManager.getMerge( key ) );
+
+        // a merge dropped meanwhile is not published
+        assertNull( metadataCacheManager.startMerge( key, second, 60 ) );
+        metadataCacheManager.remove( key );
+        metadataCacheManager.finishMerge( key, second, info );
+        assertNull( metadataCacheManager.getMerge( key ) );
+    }
+
     @After
     public void tearDown() throws Exception
     {
@@ -11,6 +11,7 @@ import org.commonjava.indy.model.core.Group;
 import org.commonjava.indy.model.core.HostedRepository;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.pkg.PackageTypeConstants;
+import org.commonjava.indy.pkg.npm.content.MaskedPackageMetadataCache;
 import org.commonjava.indy.pkg.npm.content.group.PackageMetadataMerger;
 import org.commonjava.maven.galley.event.EventMetadata;
 import org.commonjava.maven.galley.event.FileDeletionEvent;
@@ -48,6 +49,9 @@ public class PackageStoreListener
     @Inject
     private IndyFileEventManager fileEvent;
 
+    @Inject
+    private MaskedPackageMetadataCache maskedMetadataCache;
+
     /**
      * this listener observes {@link org.commonjava.maven.galley.event.FileStorageEvent}
      * for a tarball file, which means package.json will be cleared when a npm package
@@ -117,6 +121,11 @@ public class PackageStoreListener
             boolean isCleared = false;
             logger.info( "Updating merged package metadata file: {} in store: {}", path, store );
 
+            if ( maskedMetadataCache != null )
+            {
+                maskedMetadataCache.invalidate( store.getKey(), path );
+            }
+
             final Transfer[] toDelete = { fileManager.getStorageReference( store, path ),
                             fileManager.getStorageReference( store, path + GroupMergeHelper.MERGEINFO_SUFFIX ) };
 
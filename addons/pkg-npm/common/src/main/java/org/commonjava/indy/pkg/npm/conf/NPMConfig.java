@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.pkg.npm.conf;
+
+import org.commonjava.indy.conf.IndyConfigInfo;
+import org.commonjava.propulsor.config.annotation.ConfigName;
+import org.commonjava.propulsor.config.annotation.SectionName;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.io.InputStream;
+
+@SectionName( NPMConfig.SECTION )
+@ApplicationScoped
+public class NPMConfig
+        implements IndyConfigInfo
+{
+    public static final String SECTION = "npm";
+
+    public static final String METADATA_CACHE_SIZE_MB = "metadata.cache.size.mb";
+
+    public static final String METADATA_CACHE_ENTRY_SIZE_MB = "metadata.cache.entry.size.mb";
+
+    private static final int DEFAULT_METADATA_CACHE_SIZE_MB = 256;
+
+    private static final int DEFAULT_METADATA_CACHE_ENTRY_SIZE_MB = 16;
+
+    private Integer metadataCacheSizeMb;
+
+    private Integer metadataCacheEntrySizeMb;
+
+    public NPMConfig()
+    {
+    }
+
+    /**
+     * Total size of the masked package.json documents kept in memory, 0 disables the cache.
+     */
+    public int getMetadataCacheSizeMb()
+    {
+        return metadataCacheSizeMb == null ? DEFAULT_METADATA_CACHE_SIZE_MB : metadataCacheSizeMb;
+    }
+
+    @ConfigName( NPMConfig.METADATA_CACHE_SIZE_MB )
+    public void setMetadataCacheSizeMb( Integer metadataCacheSizeMb )
+    {
+        this.metadataCacheSizeMb = metadataCacheSizeMb;
+    }
+
+    /**
+     * Masked package.json documents bigger than this are streamed instead of cached.
+     */
+    public int getMetadataCacheEntrySizeMb()
+    {
+        return metadataCacheEntrySizeMb == null ? DEFAULT_METADATA_CACHE_ENTRY_SIZE_MB : metadataCacheEntrySizeMb;
+    }
+
+    @ConfigName( NPMConfig.METADATA_CACHE_ENTRY_SIZE_MB )
+    public void setMetadataCacheEntrySizeMb( Integer metadataCacheEntrySizeMb )
+    {
+        this.metadataCacheEntrySizeMb = metadataCacheEntrySizeMb;
+    }
+
+    @Override
+    public String getDefaultConfigFileName()
+    {
+        return "conf.d/npm.conf";
+    }
+
+    @Override
+    public InputStream getDefaultConfig()
+    {
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream( "default-npm.conf" );
+    }
+}
@@ -69,12 +69,7 @@ public class DecoratorUtils
 
             int nextQuote = raw.indexOf( "\"", quote + 1 );
 
-            String url = raw.substring( quote + 1, nextQuote );
-            String path = getPath( url );
-            if ( path != null )
-            {
-                url = UrlUtils.buildUrl( contextURL, path );
-            }
+            String url = maskTarballUrl( raw.substring( quote + 1, nextQuote ), contextURL );
             final String value = "\"" + url + "\"";
             sb.append( value );
             raw = raw.substring( nextQuote + 1 );
@@ -83,6 +78,16 @@ public class DecoratorUtils
         return sb.toString();
     }
 
+    /**
+     * Rewrite a single tarball url against the context url, leaving it untouched if no package path can be found in it.
+     */
+    static String maskTarballUrl( String url, String contextURL )
+            throws MalformedURLException
+    {
+        String path = getPath( url );
+        return path == null ? url : UrlUtils.buildUrl( contextURL, path );
+    }
+
     private static String getPath( String url )
     {
         URL url1;
@@ -0,0 +1,243 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.pkg.npm.content;
+
+import org.apache.commons.io.IOUtils;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.pkg.npm.conf.NPMConfig;
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.util.UrlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.apache.commons.lang.StringUtils.isBlank;
+import static org.commonjava.indy.content.ContentManager.ENTRY_POINT_BASE_URI;
+import static org.commonjava.indy.pkg.PackageTypeConstants.PKG_TYPE_NPM;
+import static org.commonjava.indy.util.LocationUtils.getKey;
+
+/**
+ * Keeps the masked content of frequently requested package.json files, so repeated GETs for the same store and base
+ * URI don't re-read and re-mask the stored file. Entries are keyed by the transfer's last-modified time and length as
+ * well, so a changed file is never served from here even before {@link #invalidate(StoreKey, String)} is called. The
+ * cache is bounded by the total number of bytes held, evicting the least recently used documents first.
+ */
+@ApplicationScoped
+public class MaskedPackageMetadataCache
+{
+    private static final long MB = 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final LinkedHashMap<CacheKey, ByteBuffer> entries = new LinkedHashMap<>( 64, 0.75f, true );
+
+    @Inject
+    private NPMConfig config;
+
+    private long maxTotalBytes;
+
+    private long maxEntryBytes;
+
+    private long totalBytes;
+
+    protected MaskedPackageMetadataCache()
+    {
+    }
+
+    public MaskedPackageMetadataCache( final NPMConfig config )
+    {
+        this.config = config;
+        init();
+    }
+
+    public MaskedPackageMetadataCache( final long maxTotalBytes, final long maxEntryBytes )
+    {
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        maxTotalBytes = config.getMetadataCacheSizeMb() * MB;
+        maxEntryBytes = Math.min( config.getMetadataCacheEntrySizeMb() * MB, maxTotalBytes );
+    }
+
+    /**
+     * Return the masked content of the given package.json transfer for the entry point base URI in the event metadata,
+     * reading it through the transfer's decorators only on a miss. The returned buffer is read-only and its content is
+     * shared between callers. Returns null if the transfer would not be masked by
+     * {@link NPMPackageMaskingTransferDecorator} or is too big to be cached, in which case the caller should stream the
+     * transfer as usual.
+     * <p>
+     * No file access event is fired for the transfer, whether the content was cached or not. The caller has to fire it
+     * when it serves the returned content, so tracking and timeout resets see every access.
+     */
+    public ByteBuffer getOrLoad( final Transfer transfer, final EventMetadata eventMetadata )
+            throws IOException
+    {
+        final StoreKey storeKey = getKey( transfer );
+        final String baseURI = (String) eventMetadata.get( ENTRY_POINT_BASE_URI );
+        if ( storeKey == null || !PKG_TYPE_NPM.equals( storeKey.getPackageType() ) || isBlank( baseURI )
+                || !transfer.getFullPath().endsWith( "package.json" ) )
+        {
+            return null;
+        }
+
+        long length = transfer.length();
+        if ( length > maxEntryBytes )
+        {
+            return null;
+        }
+
+        final String contextURL = UrlUtils.buildUrl( baseURI, storeKey.getType().name(), storeKey.getName() );
+        final CacheKey key = new CacheKey( storeKey, transfer.getPath(), transfer.lastModified(), length, contextURL );
+
+        ByteBuffer buffer = get( key );
+        if ( buffer != null )
+        {
+            logger.trace( "Serving masked package metadata from cache: {}", key );
+            return buffer;
+        }
+
+        byte[] masked;
+        try (InputStream in = transfer.openInputStream( false, eventMetadata ))
+        {
+            masked = IOUtils.toByteArray( in );
+        }
+
+        buffer = ByteBuffer.wrap( masked ).asReadOnlyBuffer();
+        if ( masked.length <= maxEntryBytes )
+        {
+            put( key, buffer );
+        }
+
+        return buffer.duplicate();
+    }
+
+    /**
+     * Drop all the masked copies of the given path in the given store, whatever context URL they were masked for.
+     */
+    public synchronized void invalidate( final StoreKey storeKey, final String path )
+    {
+        Iterator<Map.Entry<CacheKey, ByteBuffer>> it = entries.entrySet().iterator();
+        while ( it.hasNext() )
+        {
+            Map.Entry<CacheKey, ByteBuffer> entry = it.next();
+            if ( entry.getKey().storeKey.equals( storeKey ) && entry.getKey().path.equals( path ) )
+            {
+                totalBytes -= entry.getValue().capacity();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long getTotalBytes()
+    {
+        return totalBytes;
+    }
+
+    private synchronized ByteBuffer get( final CacheKey key )
+    {
+        ByteBuffer buffer = entries.get( key );
+        return buffer == null ? null : buffer.duplicate();
+    }
+
+    private synchronized void put( final CacheKey key, final ByteBuffer buffer )
+    {
+        ByteBuffer old = entries.put( key, buffer );
+        if ( old != null )
+        {
+            totalBytes -= old.capacity();
+        }
+        totalBytes += buffer.capacity();
+
+        Iterator<ByteBuffer> it = entries.values().iterator();
+        while ( totalBytes > maxTotalBytes && it.hasNext() )
+        {
+            totalBytes -= it.next().capacity();
+            it.remove();
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final StoreKey storeKey;
+
+        private final String path;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final String contextURL;
+
+        private CacheKey( final StoreKey storeKey, final String path, final long lastModified, final long length,
+                          final String contextURL )
+        {
+            this.storeKey = storeKey;
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.contextURL = contextURL;
+        }
+
+        @Override
+        public boolean equals( final Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return lastModified == that.lastModified && length == that.length && storeKey.equals( that.storeKey )
+                    && path.equals( that.path ) && contextURL.equals( that.contextURL );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( storeKey, path, lastModified, length, contextURL );
+        }
+
+        @Override
+        public String toString()
+        {
+            return storeKey + ":" + path + " (" + contextURL + ")";
+        }
+    }
+}
@@ -15,7 +15,6 @@
  */
 package org.commonjava.indy.pkg.npm.content;
 
-import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import org.commonjava.indy.metrics.IndyMetricsManager;
 import org.commonjava.indy.model.core.StoreKey;
@@ -32,14 +31,14 @@ import org.slf4j.LoggerFactory;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.io.ByteArrayOutputStream;
-import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.commonjava.indy.content.ContentManager.ENTRY_POINT_BASE_URI;
 import static org.commonjava.indy.pkg.PackageTypeConstants.PKG_TYPE_NPM;
-import static org.commonjava.indy.pkg.npm.content.DecoratorUtils.updatePackageJson;
+import static org.commonjava.indy.pkg.npm.content.DecoratorUtils.maskTarballUrl;
 import static org.jsoup.helper.StringUtil.isBlank;
 
 @ApplicationScoped
@@ -91,22 +90,57 @@ public class NPMPackageMaskingTransferDecorator
         return new PackageMaskingInputStream( stream, contextURL, metricsManager );
     }
 
+    /**
+     * Rewrites the tarball urls while the package.json is streamed through it. Everything outside of the
+     * <code>"tarball": "..."</code> values is copied byte for byte, so the original formatting is preserved and only the
+     * current chunk plus one url is held in memory at a time.
+     */
     private static class PackageMaskingInputStream
             extends IdempotentCloseInputStream
     {
         private static final String TIMER = "io.npm.metadata.in.filter";
 
-        final Logger logger = LoggerFactory.getLogger( this.getClass() );
+        private static final byte[] TARBALL = "tarball".getBytes( UTF_8 );
 
-        int position;
+        private static final int CHUNK_SIZE = 8192;
 
-        private String contextURL;
+        /**
+         * Anything longer than this can't be a tarball url, so it is passed through as a plain string value.
+         */
+        private static final int MAX_URL_LENGTH = 4096;
 
-        private IndyMetricsManager metricsManager;
+        private enum State
+        {
+            JSON, STRING, AFTER_TARBALL, AFTER_COLON, URL
+        }
+
+        private final Logger logger = LoggerFactory.getLogger( this.getClass() );
+
+        private final String contextURL;
+
+        private final IndyMetricsManager metricsManager;
+
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private final byte[] single = new byte[1];
+
+        private final ByteArrayOutputStream url = new ByteArrayOutputStream();
+
+        private byte[] out = new byte[CHUNK_SIZE];
 
-        private byte[] bytes;
+        private int outPos;
 
-        boolean masked;
+        private int outLimit;
+
+        private State state = State.JSON;
+
+        private int tarballMatch;
+
+        private boolean escaped;
+
+        private boolean eof;
+
+        private Timer.Context timer;
 
         private PackageMaskingInputStream( final InputStream stream, final String contextURL,
                                            final IndyMetricsManager metricsManager )
@@ -117,74 +151,210 @@ public class NPMPackageMaskingTransferDecorator
         }
 
         @Override
-        public synchronized int read() throws IOException
+        public int read() throws IOException
+        {
+            return read( single, 0, 1 ) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) throws IOException
         {
-            if ( !masked )
+            if ( len == 0 )
             {
-                mask( contextURL );
+                return 0;
             }
-            if ( position < bytes.length )
+
+            while ( outPos == outLimit && !eof )
             {
-                return bytes[position++];
+                fill();
+            }
+
+            if ( outPos == outLimit )
+            {
+                return -1;
             }
-            return -1;
+
+            int read = Math.min( len, outLimit - outPos );
+            System.arraycopy( out, outPos, b, off, read );
+            outPos += read;
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException
+        {
+            return outLimit - outPos;
         }
 
         @Override
-        public synchronized int read( byte[] b, int off, int len ) throws IOException
+        public void close() throws IOException
+        {
+            super.close();
+            stopTimer();
+        }
+
+        private void fill() throws IOException
         {
-            if ( !masked )
+            if ( timer == null && metricsManager != null )
             {
-                mask( contextURL );
+                timer = metricsManager.startTimer( TIMER );
             }
-            if ( position >= bytes.length )
+
+            outPos = 0;
+            outLimit = 0;
+
+            int read = in.read( chunk, 0, chunk.length );
+            if ( read < 0 )
             {
-                return -1;
+                eof = true;
+                if ( state == State.URL )
+                {
+                    // unterminated string, give back what was held
+                    write( '"' );
+                    write( url.toByteArray() );
+                }
+                stopTimer();
+                return;
             }
-            int read = 0;
-            for ( int i = 0; i < len; i++ )
+
+            for ( int i = 0; i < read; i++ )
             {
-                if ( position < bytes.length )
+                process( chunk[i] & 0xff );
+            }
+        }
+
+        private void process( int c ) throws IOException
+        {
+            switch ( state )
+            {
+                case JSON:
+                {
+                    write( c );
+                    if ( c == '"' )
+                    {
+                        state = State.STRING;
+                        tarballMatch = 0;
+                        escaped = false;
+                    }
+                    break;
+                }
+                case STRING:
                 {
-                    b[off + i] = bytes[position++];
-                    read++;
+                    write( c );
+                    if ( escaped )
+                    {
+                        escaped = false;
+                        tarballMatch = -1;
+                    }
+                    else if ( c == '\\' )
+                    {
+                        escaped = true;
+                        tarballMatch = -1;
+                    }
+                    else if ( c == '"' )
+                    {
+                        state = tarballMatch == TARBALL.length ? State.AFTER_TARBALL : State.JSON;
+                    }
+                    else if ( tarballMatch >= 0 )
+                    {
+                        tarballMatch = tarballMatch < TARBALL.length && TARBALL[tarballMatch] == c ?
+                                        tarballMatch + 1 :
+                                        -1;
+                    }
+                    break;
                 }
-                else
+                case AFTER_TARBALL:
+                case AFTER_COLON:
                 {
+                    if ( state == State.AFTER_TARBALL && c == ':' )
+                    {
+                        write( c );
+                        state = State.AFTER_COLON;
+                    }
+                    else if ( state == State.AFTER_COLON && c == '"' )
+                    {
+                        url.reset();
+                        escaped = false;
+                        state = State.URL;
+                    }
+                    else if ( isWhitespace( c ) )
+                    {
+                        write( c );
+                    }
+                    else
+                    {
+                        state = State.JSON;
+                        process( c );
+                    }
+                    break;
+                }
+                case URL:
+                {
+                    if ( !escaped && c == '"' )
+                    {
+                        writeUrl();
+                        state = State.JSON;
+                        break;
+                    }
+
+                    escaped = !escaped && c == '\\';
+                    url.write( c );
+                    if ( url.size() > MAX_URL_LENGTH )
+                    {
+                        write( '"' );
+                        write( url.toByteArray() );
+                        tarballMatch = -1;
+                        state = State.STRING;
+                    }
                     break;
                 }
             }
-            return read;
         }
 
-        private void mask( String contextURL ) throws IOException
+        private void writeUrl() throws IOException
         {
-            Timer.Context timer = metricsManager == null ? null : metricsManager.startTimer( TIMER );
-            try
-            {
-                ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                int read;
-                while ( ( read = super.read() ) >= 0 )
-                {
-                    bos.write( read );
-                }
-                byte[] rawBytes = bos.toByteArray();
-                String raw = new String( rawBytes, UTF_8 );
+            String raw = new String( url.toByteArray(), UTF_8 );
+            String masked = raw.indexOf( '\\' ) < 0 ? maskTarballUrl( raw, contextURL ) : raw;
+
+            logger.trace( "Masked tarball url: {} -> {}", raw, masked );
 
-                logger.trace( "Mask for raw:\n{}", raw );
+            write( '"' );
+            write( masked.getBytes( UTF_8 ) );
+            write( '"' );
+        }
 
-                String s = updatePackageJson( raw, contextURL );
+        private void write( int c )
+        {
+            ensureCapacity( 1 );
+            out[outLimit++] = (byte) c;
+        }
 
-                logger.trace( "Masked:\n{}", s );
-                bytes = s.getBytes();
-                masked = true;
+        private void write( byte[] bytes )
+        {
+            ensureCapacity( bytes.length );
+            System.arraycopy( bytes, 0, out, outLimit, bytes.length );
+            outLimit += bytes.length;
+        }
+
+        private void ensureCapacity( int extra )
+        {
+            if ( outLimit + extra > out.length )
+            {
+                out = Arrays.copyOf( out, Math.max( out.length * 2, outLimit + extra ) );
             }
-            finally
+        }
+
+        private static boolean isWhitespace( int c )
+        {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+        }
+
+        private void stopTimer()
+        {
+            if ( timer != null )
             {
-                if ( timer != null )
-                {
-                    metricsManager.stopTimer( TIMER );
-                }
+                timer.stop();
+                timer = null;
             }
         }
     }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.pkg.npm.content;
+
+import org.apache.commons.io.IOUtils;
+import org.commonjava.indy.model.galley.GroupLocation;
+import org.commonjava.indy.model.galley.KeyedLocation;
+import org.commonjava.indy.pkg.npm.conf.NPMConfig;
+import org.commonjava.indy.test.fixture.core.TestCacheProvider;
+import org.commonjava.indy.test.fixture.core.TestFileEventManager;
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.io.TransferDecoratorManager;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Transfer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.commonjava.indy.content.ContentManager.ENTRY_POINT_BASE_URI;
+import static org.commonjava.indy.pkg.PackageTypeConstants.PKG_TYPE_NPM;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MaskedPackageMetadataCacheTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void cachesMaskedContentUntilInvalidated() throws Exception
+    {
+        Transfer transfer = prepareTransfer( "package.json" );
+        EventMetadata metadata = new EventMetadata().set( ENTRY_POINT_BASE_URI, "http://localhost/api/content/npm" );
+
+        MaskedPackageMetadataCache cache = new MaskedPackageMetadataCache( new NPMConfig() );
+
+        String expected = IOUtils.toString( getResourceAsStream( "metadata/package-1-decorated.json" ) );
+        assertThat( toString( cache.getOrLoad( transfer, metadata ) ), equalTo( expected ) );
+
+        long cached = cache.getTotalBytes();
+        assertThat( cached > 0, equalTo( true ) );
+
+        // a hit must not add another copy, and must still hold the full content
+        assertThat( toString( cache.getOrLoad( transfer, metadata ) ), equalTo( expected ) );
+        assertThat( cache.getTotalBytes(), equalTo( cached ) );
+
+        cache.invalidate( ( (KeyedLocation) transfer.getLocation() ).getKey(), transfer.getPath() );
+        assertThat( cache.getTotalBytes(), equalTo( 0L ) );
+    }
+
+    @Test
+    public void skipsUnmaskedAndOversizedContent() throws Exception
+    {
+        Transfer transfer = prepareTransfer( "package.json" );
+
+        MaskedPackageMetadataCache cache = new MaskedPackageMetadataCache( 1024 * 1024, 16 );
+        assertThat( cache.getOrLoad( transfer, new EventMetadata() ), nullValue() );
+        assertThat( cache.getOrLoad( transfer, new EventMetadata().set( ENTRY_POINT_BASE_URI,
+                                                                        "http://localhost/api/content/npm" ) ),
+                    nullValue() );
+        assertThat( cache.getTotalBytes(), equalTo( 0L ) );
+    }
+
+    private Transfer prepareTransfer( String path ) throws Exception
+    {
+        KeyedLocation location = new GroupLocation( PKG_TYPE_NPM, "test" );
+        File file = new File( temp.newFolder( location.getName() ), path );
+
+        IOUtils.copy( getResourceAsStream( "metadata/package-1.json" ), new FileOutputStream( file ) );
+
+        TestCacheProvider provider = new TestCacheProvider( temp.getRoot(), new TestFileEventManager(),
+                                                            new TransferDecoratorManager( new NPMPackageMaskingTransferDecorator() ) );
+        return provider.getTransfer( new ConcreteResource( location, path ) );
+    }
+
+    private String toString( ByteBuffer buffer )
+    {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get( bytes );
+        return new String( bytes, UTF_8 );
+    }
+
+    private InputStream getResourceAsStream( String path )
+    {
+        return getClass().getClassLoader().getResourceAsStream( path );
+    }
+}
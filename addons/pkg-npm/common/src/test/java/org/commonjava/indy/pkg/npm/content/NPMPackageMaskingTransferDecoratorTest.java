@@ -28,10 +28,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.commonjava.indy.content.ContentManager.ENTRY_POINT_BASE_URI;
 import static org.commonjava.indy.pkg.PackageTypeConstants.PKG_TYPE_NPM;
 import static org.junit.Assert.assertEquals;
@@ -88,6 +90,35 @@ public class NPMPackageMaskingTransferDecoratorTest
         assertEquals( expected, ret );
     }
 
+    @Test
+    public void testDecoratorSingleByteReads() throws Exception
+    {
+        String path = "package.json";
+        KeyedLocation location = new GroupLocation( PKG_TYPE_NPM, "test" );
+        File file = new File( temp.newFolder( location.getName() ), path );
+
+        IOUtils.copy( getResourceAsStream( "metadata/package-tar-fs.json" ), new FileOutputStream( file ) );
+
+        ConcreteResource resource = new ConcreteResource( location, path );
+        TestCacheProvider provider = new TestCacheProvider( temp.getRoot(), new TestFileEventManager(),
+                                                            new TransferDecoratorManager( new NPMPackageMaskingTransferDecorator() ) );
+        Transfer transfer = provider.getTransfer( resource );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream stream = transfer.openInputStream( false, new EventMetadata().set( ENTRY_POINT_BASE_URI,
+                                                                                            "http://localhost/api/content/npm" ) ))
+        {
+            int read;
+            while ( ( read = stream.read() ) >= 0 )
+            {
+                out.write( read );
+            }
+        }
+
+        String expected = IOUtils.toString( getResourceAsStream( "metadata/package-tar-fs-decorated.json" ) );
+        assertEquals( expected, new String( out.toByteArray(), UTF_8 ) );
+    }
+
     private InputStream getResourceAsStream( String path )
     {
         return getClass().getClassLoader().getResourceAsStream( path );
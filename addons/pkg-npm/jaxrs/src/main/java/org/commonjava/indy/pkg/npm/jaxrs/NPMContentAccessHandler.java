@@ -29,6 +29,7 @@ import org.commonjava.indy.core.model.StoreHttpExchangeMetadata;
 import org.commonjava.indy.model.core.PackageTypes;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.model.core.StoreType;
+import org.commonjava.indy.pkg.npm.content.MaskedPackageMetadataCache;
 import org.commonjava.indy.pkg.npm.content.group.PackageMetadataMerger;
 import org.commonjava.indy.pkg.npm.inject.NPMContentHandler;
 import org.commonjava.indy.util.AcceptInfo;
@@ -36,6 +37,7 @@ import org.commonjava.indy.util.ApplicationContent;
 import org.commonjava.indy.util.ApplicationHeader;
 import org.commonjava.maven.galley.TransferManager;
 import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.event.FileAccessEvent;
 import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.Transfer;
 import org.commonjava.maven.galley.model.TransferOperation;
@@ -48,10 +50,13 @@ import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -84,6 +89,9 @@ public class NPMContentAccessHandler
     @Inject
     private PackageMetadataMerger packageMetadataMerger;
 
+    @Inject
+    private MaskedPackageMetadataCache maskedMetadataCache;
+
     @Override
     public Response doCreate( String packageType, String type, String name, String path, HttpServletRequest request,
                               EventMetadata eventMetadata, Supplier<URI> uriBuilder )
@@ -345,11 +353,23 @@ public class NPMContentAccessHandler
 //                        }
 
                         logger.info( "RETURNING: retrieval of content: {}:{}", sk, path );
-                        // open the stream here to prevent deletion while waiting for the transfer back to the user to start...
-                        InputStream in = item.openInputStream( true, eventMetadata );
 
-                        final Response.ResponseBuilder builder =
-                                Response.ok( new TransferStreamingOutput( in, metricsManager, metricsConfig ) );
+                        // masked package.json documents are served from memory when we've masked them before
+                        final ByteBuffer masked = maskedMetadataCache.getOrLoad( item, eventMetadata );
+
+                        final Response.ResponseBuilder builder;
+                        if ( masked != null )
+                        {
+                            // nothing opened the transfer stream, which would fire this for folo and timeout resets
+                            fileEventManager.fire( new FileAccessEvent( item, eventMetadata ) );
+                            builder = Response.ok( (StreamingOutput) out -> Channels.newChannel( out ).write( masked ) );
+                        }
+                        else
+                        {
+                            // open the stream here to prevent deletion while waiting for the transfer back to the user to start...
+                            InputStream in = item.openInputStream( true, eventMetadata );
+                            builder = Response.ok( new TransferStreamingOutput( in, metricsManager, metricsConfig ) );
+                        }
 
                         responseHelper.setInfoHeaders( builder, item, sk, path, false, getNPMContentType( path ),
                                         contentController.getHttpMetadata( item ) );
@@ -10,6 +10,8 @@ import org.commonjava.atlas.maven.ident.DependencyScope
 import org.commonjava.maven.galley.maven.rel.ModelProcessorConfig
 import org.slf4j.LoggerFactory
 
+import java.util.concurrent.ConcurrentHashMap
+
 class ArtifactRefAvailability implements ValidationRule {
 
     String validate(ValidationRequest request) {
@@ -21,10 +23,12 @@ class ArtifactRefAvailability implements ValidationRule {
 
         def logger = LoggerFactory.getLogger(ValidationRule.class)
 
+        def targetsByPom = new ConcurrentHashMap()
         tools.paralleledEach(request.getSourcePaths(), { it ->
             if (it.endsWith(".pom")) {
                 def relationships = tools.getRelationshipsForPom(it, dc, request, verifyStoreKeys)
                 if (relationships != null) {
+                    def targets = []
                     tools.forEach(relationships, { rel ->
                         def skip = false
                         if (rel.getType() == RelationshipType.DEPENDENCY) {
@@ -35,48 +39,41 @@ class ArtifactRefAvailability implements ValidationRule {
                         }
 
                         if (!skip) {
-                            def target = rel.getTarget()
-                            def path = tools.toArtifactPath(target)
-                            def pomPath = tools.toArtifactPath(target.asPomArtifact())
-
-                            def found = false
-                            def foundPom = false
+                            targets << rel.getTarget()
+                        }
+                    })
+                    targetsByPom.put(it, targets)
+                }
+            }
+        })
 
-                            tools.forEach(verifyStoreKeys, { verifyStoreKey ->
-                                if (!found) {
-                                    def txfr = tools.getTransfer(verifyStoreKey, path)
-                                    logger.info("{} in {}: {}. Exists? {}", target, verifyStoreKey, txfr, txfr == null ? false : txfr.exists())
-                                    if (txfr != null && txfr.exists()) {
-                                        logger.info("Marking as found: {}", target.asPomArtifact());
-                                        found = true
-                                    }
-                                }
+        // check all the referenced artifacts and POMs at once, instead of one store and path at a time
+        def paths = new HashSet()
+        targetsByPom.values().each { targets ->
+            targets.each { target ->
+                paths << tools.toArtifactPath(target)
+                paths << tools.toArtifactPath(target.asPomArtifact())
+            }
+        }
 
-                                if (!foundPom) {
-                                    def txfr = tools.getTransfer(verifyStoreKey, pomPath)
-                                    logger.info("POM {} in {}: {}. Exists? {}", target.asPomArtifact(), verifyStoreKey, txfr, txfr == null ? false : txfr.exists())
-                                    if (txfr != null && txfr.exists()) {
-                                        logger.info("Marking as found: {}", target.asPomArtifact());
-                                        foundPom = true
-                                    }
-                                }
-                            })
+        def found = tools.getFirstContaining(request, paths, verifyStoreKeys)
+        logger.debug("{} of {} referenced paths are available via: {}", found.size(), paths.size(), verifyStoreKeys)
 
-                            if (!found) {
-                                errors.add(String.format("%s is invalid: %s is not available via: %s",
-                                        it, path, StringUtils.join(verifyStoreKeys, ", ")))
-                            }
+        targetsByPom.each { pom, targets ->
+            targets.each { target ->
+                def path = tools.toArtifactPath(target)
+                if (!found.containsKey(path)) {
+                    errors.add(String.format("%s is invalid: %s is not available via: %s",
+                            pom, path, StringUtils.join(verifyStoreKeys, ", ")))
+                }
 
-                            if (!foundPom) {
-                                errors.add(String.format("%s is invalid: %s is not available via: %s", it,
-                                        tools.toArtifactPath(target.asPomArtifact()),
-                                        StringUtils.join(verifyStoreKeys, ", ")))
-                            }
-                        }
-                    })
+                def pomPath = tools.toArtifactPath(target.asPomArtifact())
+                if (!found.containsKey(pomPath)) {
+                    errors.add(String.format("%s is invalid: %s is not available via: %s", pom,
+                            pomPath, StringUtils.join(verifyStoreKeys, ", ")))
                 }
             }
-        })
+        }
 
         errors.isEmpty() ? null: StringUtils.join(errors, "\n")
     }
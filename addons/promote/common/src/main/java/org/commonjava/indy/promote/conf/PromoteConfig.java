@@ -39,12 +39,16 @@ public class PromoteConfig
 
     private static final String AUTOLOCK_HOSTED_REPOS = "autolock.hosted.repos";
 
+    private static final String STORAGE_COPY_PARAM = "storage.copy";
+
     public static final long DEFAULT_LOCK_TIMEOUT_SECONDS = 30;
 
     public static final boolean DEFAULT_AUTOLOCK = true;
 
     public static final boolean DEFAULT_ENABLED = true;
 
+    public static final boolean DEFAULT_STORAGE_COPY = true;
+
     private String basedir;
 
     private Boolean enabled;
@@ -53,6 +57,8 @@ public class PromoteConfig
 
     private Long lockTimeoutSeconds;
 
+    private Boolean storageCopy;
+
     public PromoteConfig()
     {
     }
@@ -117,6 +123,22 @@ public class PromoteConfig
         this.lockTimeoutSeconds = lockTimeoutSeconds;
     }
 
+    public boolean isStorageCopy()
+    {
+        return storageCopy == null ? DEFAULT_STORAGE_COPY : storageCopy;
+    }
+
+    public Boolean getStorageCopy()
+    {
+        return storageCopy;
+    }
+
+    @ConfigName( PromoteConfig.STORAGE_COPY_PARAM )
+    public void setStorageCopy( final Boolean storageCopy )
+    {
+        this.storageCopy = storageCopy;
+    }
+
     @Override
     public String getDefaultConfigFileName()
     {
@@ -985,15 +985,22 @@ public class PromotionManager
         eventMetadata.set( AFFECTED_GROUPS, new ValuePipe<Set>( affectedGroups ) );
         eventMetadata.set( TARGET_STORE, tgt );
 
-        try (InputStream stream = transfer.openInputStream( true ))
+        if ( config.isStorageCopy() && !promotionHelper.isRemoteTransfer( transfer ) )
         {
-            contentManager.store( tgt, path, stream, UPLOAD, eventMetadata );
+            contentManager.copy( transfer, tgt, path, UPLOAD, eventMetadata );
         }
-        catch ( final IOException e )
+        else
         {
-            String msg = String.format( "Failed to promote: %s. Error: %s", transfer, e.getMessage() );
-            result.error = msg;
-            logger.error( msg, e );
+            try (InputStream stream = transfer.openInputStream( true ))
+            {
+                contentManager.store( tgt, path, stream, UPLOAD, eventMetadata );
+            }
+            catch ( final IOException e )
+            {
+                String msg = String.format( "Failed to promote: %s. Error: %s", transfer, e.getMessage() );
+                result.error = msg;
+                logger.error( msg, e );
+            }
         }
 
         logger.info( "Promotion transfer completed, target: {}, path: {}, timeInMillSeconds: {}", tgt.getKey(), path,
@@ -66,13 +66,20 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -251,40 +258,33 @@ public class PromotionValidationTools
         logger.trace( "Retrieving relationships for POM: {} (using extra locations: {})", path,
                       Arrays.asList( extraLocations ) );
 
-        ArtifactRef artifactRef = getArtifact( path );
-        if ( artifactRef == null )
-        {
-            logger.trace( "{} is not a valid artifact reference. Skipping.", path );
-            return null;
-        }
-
-        StoreKey key = request.getSourceRepository().getKey();
-        Transfer transfer = retrieve( request.getSourceRepository(), path );
-        if ( transfer == null )
-        {
-            logger.trace( "Could not retrieve Transfer instance for: {} (path: {}, extra locations: {})", key, path,
-                          Arrays.asList( extraLocations ) );
-            return null;
-        }
-
-        List<Location> locations = new ArrayList<>( extraLocations.length + 1 );
-        locations.add( transfer.getLocation() );
-        addLocations( locations, extraLocations );
+        // relationships are immutable, so one set is shared by all the rules; each caller gets its own copy of it
+        Object memoKey = Arrays.asList( "relationships", path, config, Arrays.asList( extraLocations ) );
+        Set<ProjectRelationship<?, ?>> relationships = memoize( request, memoKey, () -> {
+            MavenPomView pomView = readPom( path, request, extraLocations );
+            if ( pomView == null )
+            {
+                logger.trace( "{} is not a valid artifact reference or could not be retrieved from: {}. Skipping.",
+                              path, request.getSource() );
+                return null;
+            }
 
-        MavenPomView pomView =
-                pomReader.read( artifactRef.asProjectVersionRef(), transfer, locations, MavenPomView.ALL_PROFILES );
+            StoreKey key = request.getSourceRepository().getKey();
+            try
+            {
+                URI source = new URI( "indy:" + key.getType().name() + ":" + key.getName() );
 
-        try
-        {
-            URI source = new URI( "indy:" + key.getType().name() + ":" + key.getName() );
+                return Collections.unmodifiableSet( new HashSet<>(
+                        modelProcessor.readRelationships( pomView, source, config ).getAllRelationships() ) );
+            }
+            catch ( final URISyntaxException e )
+            {
+                throw new IllegalStateException(
+                        "Failed to construct URI for ArtifactStore: " + key + ". Reason: " + e.getMessage(), e );
+            }
+        } );
 
-            return modelProcessor.readRelationships( pomView, source, config ).getAllRelationships();
-        }
-        catch ( final URISyntaxException e )
-        {
-            throw new IllegalStateException(
-                    "Failed to construct URI for ArtifactStore: " + key + ". Reason: " + e.getMessage(), e );
-        }
+        return relationships == null ? null : new HashSet<>( relationships );
     }
 
     public void addLocations( final List<Location> locations, final StoreKey... extraLocations )
@@ -297,6 +297,11 @@ public class PromotionValidationTools
         }
     }
 
+    /**
+     * Read the POM from the source repository, resolving its parents via the extra locations. A {@link MavenPomView} is
+     * not safe to share between threads, so each thread validating the request keeps the last POMs it read (see
+     * {@link ValidationRequest#memoizeForThread(Object, Callable)}), and the rules run by it get the same view.
+     */
     @Measure
     public MavenPomView readPom( final String path, final ValidationRequest request, final StoreKey... extraLocations )
             throws IndyWorkflowException, GalleyMavenException, IndyDataException
@@ -307,15 +312,25 @@ public class PromotionValidationTools
             return null;
         }
 
-        Transfer transfer = retrieve( request.getSourceRepository(), path );
+        return memoizeForThread( request, Arrays.asList( "pom", path, Arrays.asList( extraLocations ) ), () -> {
+            Transfer transfer = retrieve( request.getSourceRepository(), path );
+            if ( transfer == null )
+            {
+                return null;
+            }
 
-        List<Location> locations = new ArrayList<>( extraLocations.length + 1 );
-        locations.add( transfer.getLocation() );
-        addLocations( locations, extraLocations );
+            List<Location> locations = new ArrayList<>( extraLocations.length + 1 );
+            locations.add( transfer.getLocation() );
+            addLocations( locations, extraLocations );
 
-        return pomReader.read( artifactRef.asProjectVersionRef(), transfer, locations, MavenPomView.ALL_PROFILES );
+            return pomReader.read( artifactRef.asProjectVersionRef(), transfer, locations, MavenPomView.ALL_PROFILES );
+        } );
     }
 
+    /**
+     * Read the POM from the source repository without resolving its parents, kept per thread like
+     * {@link #readPom(String, ValidationRequest, StoreKey...)}.
+     */
     @Measure
     public MavenPomView readLocalPom( final String path, final ValidationRequest request )
             throws IndyWorkflowException, GalleyMavenException
@@ -327,9 +342,75 @@ public class PromotionValidationTools
                                              path );
         }
 
-        Transfer transfer = retrieve( request.getSourceRepository(), path );
+        try
+        {
+            return memoizeForThread( request, Arrays.asList( "local-pom", path ), () -> {
+                Transfer transfer = retrieve( request.getSourceRepository(), path );
+
+                return pomReader.readLocalPom( artifactRef.asProjectVersionRef(), transfer, MavenPomView.ALL_PROFILES );
+            } );
+        }
+        catch ( IndyDataException e )
+        {
+            throw new IndyWorkflowException( "Failed to read POM: %s. Reason: %s", e, path, e.getMessage() );
+        }
+    }
+
+    private <T> T memoize( final ValidationRequest request, final Object key, final Callable<T> loader )
+            throws IndyWorkflowException, GalleyMavenException, IndyDataException
+    {
+        try
+        {
+            return request.memoize( key, loader );
+        }
+        catch ( ExecutionException e )
+        {
+            throw rethrow( key, e );
+        }
+    }
+
+    private <T> T memoizeForThread( final ValidationRequest request, final Object key, final Callable<T> loader )
+            throws IndyWorkflowException, GalleyMavenException, IndyDataException
+    {
+        try
+        {
+            return request.memoizeForThread( key, loader );
+        }
+        catch ( ExecutionException e )
+        {
+            throw rethrow( key, e );
+        }
+    }
 
-        return pomReader.readLocalPom( artifactRef.asProjectVersionRef(), transfer, MavenPomView.ALL_PROFILES );
+    /**
+     * Throw the error of a failed memoized load as it is when the callers declare it, otherwise return it wrapped.
+     */
+    private IndyWorkflowException rethrow( final Object key, final ExecutionException e )
+            throws IndyWorkflowException, GalleyMavenException, IndyDataException
+    {
+        Throwable cause = e.getCause();
+        if ( cause instanceof IndyWorkflowException )
+        {
+            throw (IndyWorkflowException) cause;
+        }
+        if ( cause instanceof GalleyMavenException )
+        {
+            throw (GalleyMavenException) cause;
+        }
+        if ( cause instanceof IndyDataException )
+        {
+            throw (IndyDataException) cause;
+        }
+        if ( cause instanceof RuntimeException )
+        {
+            throw (RuntimeException) cause;
+        }
+        if ( cause instanceof Error )
+        {
+            throw (Error) cause;
+        }
+        return new IndyWorkflowException( "Failed to load: %s for validation. Reason: %s", cause, key,
+                                          cause.getMessage() );
     }
 
     public ArtifactRef getArtifact( final String path )
@@ -521,6 +602,84 @@ public class PromotionValidationTools
         return contentManager.exists( store, path );
     }
 
+    /**
+     * Check if the path is available via the store, i.e. its transfer (see {@link #getTransfer(StoreKey, String)})
+     * exists. Each store and path is checked once per validation request.
+     */
+    public boolean exists( final ValidationRequest request, final StoreKey storeKey, final String path )
+            throws IndyWorkflowException
+    {
+        try
+        {
+            return memoize( request, Arrays.asList( "exists", storeKey, path ), () -> {
+                Transfer txfr = readOnlyWrapper( contentManager.getTransfer( storeKey, path, TransferOperation.DOWNLOAD ) );
+                return txfr != null && txfr.exists();
+            } );
+        }
+        catch ( GalleyMavenException | IndyDataException e )
+        {
+            throw new IndyWorkflowException( "Failed to check: %s in: %s. Reason: %s", e, path, storeKey,
+                                             e.getMessage() );
+        }
+    }
+
+    /**
+     * Find the first of the stores each path is available via, checking the paths in parallel batches. Each store and
+     * path is checked once per validation request (see {@link #exists(ValidationRequest, StoreKey, String)}), and
+     * the stores after the first containing one are not checked. The checks go through the {@link ContentManager},
+     * which answers from the content index first when the index is enabled.
+     *
+     * @return the first containing store of each path, paths not available via any of the stores are left out
+     * @throws IndyWorkflowException if any of the checks failed, as the paths it left unknown can't be reported missing
+     */
+    public Map<String, StoreKey> getFirstContaining( final ValidationRequest request, final Collection<String> paths,
+                                                     final StoreKey... storeKeys )
+            throws IndyWorkflowException
+    {
+        final Map<String, StoreKey> result = new ConcurrentHashMap<>();
+        if ( paths.isEmpty() || storeKeys.length == 0 )
+        {
+            return result;
+        }
+
+        final Queue<IndyWorkflowException> failures = new ConcurrentLinkedQueue<>();
+
+        int batchSize = getParalleledBatchSize( paths.size(), ruleParallelExecutor.getCorePoolSize() );
+        logger.debug( "Checking {} paths in {} stores in batch {}", paths.size(), storeKeys.length, batchSize );
+        runParallelInBatchAndWait( batch( paths, batchSize ), ( String path ) -> {
+            for ( StoreKey key : storeKeys )
+            {
+                try
+                {
+                    if ( exists( request, key, path ) )
+                    {
+                        result.put( path, key );
+                        return;
+                    }
+                }
+                catch ( IndyWorkflowException e )
+                {
+                    logger.warn( "Failed to check: {} in: {}. Reason: {}", path, key, e.getMessage() );
+                    failures.add( e );
+                    return;
+                }
+            }
+        }, logger );
+
+        IndyWorkflowException failure = failures.poll();
+        if ( failure != null )
+        {
+            IndyWorkflowException error =
+                    new IndyWorkflowException( "Failed to check %s of %s paths via: %s. First failure: %s", failure,
+                                               failures.size() + 1, paths.size(), Arrays.asList( storeKeys ),
+                                               failure.getMessage() );
+            failures.forEach( error::addSuppressed );
+            throw error;
+        }
+
+        return result;
+    }
+
     public List<StoreResource> list( final ArtifactStore store, final String path )
             throws IndyWorkflowException
     {
@@ -629,6 +788,11 @@ public class PromotionValidationTools
     }
 
     private <T> void runParallelInBatchAndWait( Collection<Collection<T>> batches, Closure closure, Logger logger )
+    {
+        runParallelInBatchAndWait( batches, (Consumer<T>) closure::call, logger );
+    }
+
+    private <T> void runParallelInBatchAndWait( Collection<Collection<T>> batches, Consumer<T> action, Logger logger )
     {
         final CountDownLatch latch = new CountDownLatch( batches.size() );
         batches.forEach( batch -> ruleParallelExecutor.execute( () -> {
@@ -641,7 +805,7 @@ public class PromotionValidationTools
                     RequestContextHelper.setContext( ITERATION_ITEM, String.valueOf( e ) );
                     try
                     {
-                        closure.call( e );
+                        action.accept( e );
                     }
                     finally
                     {
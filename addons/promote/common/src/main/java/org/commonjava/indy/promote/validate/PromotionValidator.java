@@ -208,6 +208,8 @@ public class PromotionValidator
                 }
                 finally
                 {
+                    req.clearMemos();
+
                     if ( needTempRepo( request ) )
                     {
                         try
@@ -28,8 +28,14 @@ import org.commonjava.indy.promote.validate.PromotionValidationTools;
 import org.commonjava.maven.galley.model.Transfer;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -48,6 +54,19 @@ public class ValidationRequest
 
     private ArtifactStore sourceRepository;
 
+    private static final int THREAD_MEMO_SIZE = 32;
+
+    /**
+     * Immutable results shared by the rules validating this request, e.g. POM relationships and existence checks.
+     */
+    private final ConcurrentHashMap<Object, FutureTask<?>> memos = new ConcurrentHashMap<>();
+
+    /**
+     * Results that are not safe to share between threads, e.g. parsed POMs, kept per thread validating this request.
+     * Each map is only used by its own thread.
+     */
+    private final ConcurrentHashMap<Thread, ThreadMemo> threadMemos = new ConcurrentHashMap<>();
+
     public ValidationRequest( PromoteRequest promoteRequest, ValidationRuleSet ruleSet, PromotionValidationTools tools, ArtifactStore sourceRepository )
     {
         this.promoteRequest = promoteRequest;
@@ -128,6 +147,78 @@ public class ValidationRequest
         }
     }
 
+    /**
+     * Get the value for the key, loading it once for this validation request. Concurrent callers asking for the same
+     * key wait for the first load. A failed load is memoized too, its error is thrown to every caller.
+     *
+     * @throws ExecutionException wrapping the error of the loader
+     */
+    public <T> T memoize( final Object key, final Callable<T> loader )
+            throws ExecutionException
+    {
+        FutureTask<?> task = memos.get( key );
+        if ( task == null )
+        {
+            FutureTask<T> created = new FutureTask<>( loader );
+            task = memos.putIfAbsent( key, created );
+            if ( task == null )
+            {
+                task = created;
+                created.run();
+            }
+        }
+
+        try
+        {
+            return (T) task.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException( e );
+        }
+    }
+
+    /**
+     * Get the value for the key, loading it once for this validation request and the calling thread. Only the last
+     * {@value #THREAD_MEMO_SIZE} values used by each thread are kept. Unlike {@link #memoize(Object, Callable)}, a
+     * failed load is not kept.
+     *
+     * @throws ExecutionException wrapping the error of the loader
+     */
+    public <T> T memoizeForThread( final Object key, final Callable<T> loader )
+            throws ExecutionException
+    {
+        Map<Object, Object> memo = threadMemos.computeIfAbsent( Thread.currentThread(), t -> new ThreadMemo() );
+
+        if ( memo.containsKey( key ) )
+        {
+            return (T) memo.get( key );
+        }
+
+        T value;
+        try
+        {
+            value = loader.call();
+        }
+        catch ( Exception e )
+        {
+            throw new ExecutionException( e );
+        }
+
+        memo.put( key, value );
+        return value;
+    }
+
+    /**
+     * Drop the memoized results, once the validation is done.
+     */
+    public void clearMemos()
+    {
+        memos.clear();
+        threadMemos.clear();
+    }
+
     public PromoteRequest getPromoteRequest()
     {
         return promoteRequest;
@@ -162,4 +253,19 @@ public class ValidationRequest
     {
         return sourceRepository;
     }
+
+    private static final class ThreadMemo
+            extends LinkedHashMap<Object, Object>
+    {
+        private ThreadMemo()
+        {
+            super( 16, 0.75f, true );
+        }
+
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<Object, Object> eldest )
+        {
+            return size() > THREAD_MEMO_SIZE;
+        }
+    }
 }
@@ -31,4 +31,14 @@ public class PromoteConfigTest
     {
         assertThat( new PromoteConfig().isEnabled(), equalTo( true ) );
     }
+
+    @Test
+    public void storageCopyByDefault()
+    {
+        assertThat( new PromoteConfig().isStorageCopy(), equalTo( true ) );
+
+        PromoteConfig config = new PromoteConfig();
+        config.setStorageCopy( false );
+        assertThat( config.isStorageCopy(), equalTo( false ) );
+    }
 }
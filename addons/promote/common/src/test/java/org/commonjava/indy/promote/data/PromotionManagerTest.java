@@ -33,6 +33,7 @@ import org.commonjava.indy.core.content.DefaultContentDigester;
 import org.commonjava.indy.core.content.DefaultContentManager;
 import org.commonjava.indy.core.content.DefaultDirectContentAccess;
 import org.commonjava.indy.core.content.DefaultDownloadManager;
+import org.commonjava.indy.core.change.event.IndyFileEventManager;
 import org.commonjava.indy.core.inject.ExpiringMemoryNotFoundCache;
 import org.commonjava.indy.data.IndyDataException;
 import org.commonjava.indy.data.StoreDataManager;
@@ -53,7 +54,9 @@ import org.commonjava.indy.subsys.template.ScriptEngine;
 import org.commonjava.indy.test.fixture.core.MockContentAdvisor;
 import org.commonjava.indy.test.fixture.core.MockInstance;
 import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.event.FileStorageEvent;
 import org.commonjava.maven.galley.io.SpecialPathManagerImpl;
+import org.commonjava.maven.galley.io.checksum.ContentDigest;
 import org.commonjava.maven.galley.io.checksum.TransferMetadata;
 import org.commonjava.maven.galley.maven.rel.MavenModelProcessor;
 import org.commonjava.maven.galley.model.Transfer;
@@ -75,7 +78,9 @@ import org.junit.rules.TemporaryFolder;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -86,6 +91,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import static org.commonjava.indy.data.StoreDataManager.IGNORE_READONLY;
+import static org.commonjava.indy.data.StoreDataManager.TARGET_STORE;
 import static org.commonjava.indy.pkg.maven.model.MavenPackageTypeDescriptor.MAVEN_PKG_KEY;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -124,6 +131,10 @@ public class PromotionManagerTest
 
     private SpecialPathManager specialPathManager;
 
+    private ContentDigester contentDigester;
+
+    private final List<FileStorageEvent> storageEvents = new ArrayList<>();
+
     @BeforeClass
     public static void setupClass()
     {
@@ -153,14 +164,22 @@ public class PromotionManagerTest
 
         downloadManager = new DefaultDownloadManager( storeManager, galleyParts.getTransferManager(),
                                                       new IndyLocationExpander( storeManager ),
-                                                      new MockInstance<>( new MockContentAdvisor() ), nfc, rescanService );
+                                                      new MockInstance<>( new MockContentAdvisor() ), nfc, rescanService,
+                                                      new IndyFileEventManager()
+                                                      {
+                                                          @Override
+                                                          public void fire( final FileStorageEvent evt )
+                                                          {
+                                                              storageEvents.add( evt );
+                                                          }
+                                                      } );
 
         WeftExecutorService contentAccessService =
                         new PoolWeftExecutorService( "test-content-access-executor", (ThreadPoolExecutor) Executors.newCachedThreadPool(), 2, 10f, false,null, null );
         DirectContentAccess dca =
                 new DefaultDirectContentAccess( downloadManager, contentAccessService );
 
-        ContentDigester contentDigester = new DefaultContentDigester( dca, new CacheHandle<String, TransferMetadata>(
+        contentDigester = new DefaultContentDigester( dca, new CacheHandle<String, TransferMetadata>(
                 "content-metadata", contentMetadata ) );
 
         specialPathManager = new SpecialPathManagerImpl();
@@ -464,6 +483,50 @@ public class PromotionManagerTest
         verifyExistence( true, true, true, true );
     }
 
+    @Test
+    public void promoteAllByPath_HostedSource_VerifyCopiedInStorageWithMetadata()
+            throws Exception
+    {
+        prepareHostedRepos();
+
+        String originalString = "This is a test";
+        Transfer src = contentManager.store( source, first, new ByteArrayInputStream( originalString.getBytes() ),
+                                             TransferOperation.UPLOAD, new EventMetadata() );
+
+        TransferMetadata srcMetadata =
+                new TransferMetadata( Collections.singletonMap( ContentDigest.SHA_256, "0123456789abcdef" ),
+                                      (long) originalString.length() );
+        contentDigester.addMetadata( src, srcMetadata );
+        storageEvents.clear();
+
+        final PathsPromoteResult result =
+                manager.promotePaths( new PathsPromoteRequest( source.getKey(), target.getKey(), first ),
+                                      FAKE_BASE_URL );
+
+        assertThat( result.getError(), nullValue() );
+        assertThat( result.getCompletedPaths(), equalTo( Collections.singleton( first ) ) );
+
+        Transfer ref = downloadManager.getStorageReference( target, first );
+        assertThat( ref.exists(), equalTo( true ) );
+        try (InputStream in = ref.openInputStream())
+        {
+            assertThat( IOUtils.toString( in ), equalTo( originalString ) );
+        }
+
+        // the storage copy writes nothing through a transfer output stream, so the event comes from the copy itself
+        assertThat( storageEvents.size(), equalTo( 1 ) );
+        FileStorageEvent event = storageEvents.get( 0 );
+        assertThat( event.getTransfer().getPath(), equalTo( ref.getPath() ) );
+        assertThat( event.getType(), equalTo( TransferOperation.UPLOAD ) );
+        assertThat( event.getEventMetadata().get( TARGET_STORE ), equalTo( target ) );
+        assertThat( event.getEventMetadata().get( IGNORE_READONLY ), equalTo( true ) );
+
+        TransferMetadata tgtMetadata = contentDigester.getContentMetadata( ref );
+        assertThat( tgtMetadata, notNullValue() );
+        assertThat( tgtMetadata.getDigests(), equalTo( srcMetadata.getDigests() ) );
+        assertThat( tgtMetadata.getSize(), equalTo( srcMetadata.getSize() ) );
+    }
+
     @Test
     public void promoteAllByPath_PushTwoArtifactsToHostedRepo_DryRun_VerifyPendingPathsPopulated()
             throws Exception
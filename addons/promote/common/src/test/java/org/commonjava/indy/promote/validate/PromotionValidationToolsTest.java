@@ -16,21 +16,33 @@
 package org.commonjava.indy.promote.validate;
 
 import groovy.lang.Closure;
+import org.commonjava.indy.IndyWorkflowException;
+import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.promote.conf.PromoteConfig;
+import org.commonjava.indy.promote.validate.model.ValidationRequest;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class PromotionValidationToolsTest
 {
+    private static final StoreKey FIRST = StoreKey.fromString( "maven:hosted:first" );
+
+    private static final StoreKey SECOND = StoreKey.fromString( "maven:remote:second" );
+
     final String[] array = { "this", "is", "a", "err_weird", "test", "err_for", "paralleled", "err_in", "batch" };
 
     @Test
@@ -88,6 +100,73 @@ public class PromotionValidationToolsTest
         verifyIt( errors );
     }
 
+    @Test
+    public void getFirstContaining()
+            throws Exception
+    {
+        Set<String> checked = ConcurrentHashMap.newKeySet();
+        PromotionValidationTools tools = existenceTools( checked, null );
+
+        Map<String, StoreKey> found =
+                tools.getFirstContaining( new ValidationRequest( null, null, tools, null ), Arrays.asList( array ),
+                                          FIRST, SECOND );
+
+        assertThat( found.get( "this" ), equalTo( FIRST ) );
+        assertThat( found.get( "err_weird" ), equalTo( SECOND ) );
+        assertThat( found.containsKey( "paralleled" ), equalTo( false ) );
+        assertThat( found.size(), equalTo( array.length - 1 ) );
+
+        // a path found in the first store is not checked in the second one
+        assertThat( checked.contains( SECOND + ":this" ), equalTo( false ) );
+        assertThat( checked.contains( SECOND + ":paralleled" ), equalTo( true ) );
+    }
+
+    @Test
+    public void getFirstContaining_failedCheckIsThrown()
+            throws Exception
+    {
+        PromotionValidationTools tools = existenceTools( ConcurrentHashMap.newKeySet(), "err_in" );
+
+        try
+        {
+            tools.getFirstContaining( new ValidationRequest( null, null, tools, null ), Arrays.asList( array ), FIRST,
+                                      SECOND );
+            fail( "The failed check of err_in should be thrown instead of reporting it missing" );
+        }
+        catch ( IndyWorkflowException e )
+        {
+            assertThat( e.getCause() instanceof IndyWorkflowException, equalTo( true ) );
+        }
+    }
+
+    /**
+     * Tools finding the paths starting with err_ in the second store, "paralleled" nowhere and everything else in the
+     * first store. Checking the failing path throws.
+     */
+    private PromotionValidationTools existenceTools( final Set<String> checked, final String failing )
+    {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool( 2 );
+        return new PromotionValidationTools( null, null, null, null, null, null, null, null, executor,
+                                             new PromoteConfig() )
+        {
+            @Override
+            public boolean exists( final ValidationRequest request, final StoreKey storeKey, final String path )
+                    throws IndyWorkflowException
+            {
+                checked.add( storeKey + ":" + path );
+                if ( path.equals( failing ) )
+                {
+                    throw new IndyWorkflowException( "Cannot check: %s", path );
+                }
+                if ( path.equals( "paralleled" ) )
+                {
+                    return false;
+                }
+                return storeKey.equals( path.startsWith( "err_" ) ? SECOND : FIRST );
+            }
+        };
+    }
+
     private void verifyIt( List<String> errors )
     {
         assertThat( errors.size(), equalTo( 3 ) );
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.promote.validate.model;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ValidationRequestTest
+{
+    @Test
+    public void loadMemoOnceForConcurrentCallers()
+            throws Exception
+    {
+        ValidationRequest request = new ValidationRequest( null, null, null, null );
+        AtomicInteger loads = new AtomicInteger( 0 );
+        CountDownLatch loading = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            Future<String> first = executor.submit( () -> request.memoize( "key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "value";
+            } ) );
+
+            loading.await( 10, TimeUnit.SECONDS );
+            Future<String> second = executor.submit( () -> request.memoize( "key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            } ) );
+
+            release.countDown();
+            assertThat( first.get( 10, TimeUnit.SECONDS ), equalTo( "value" ) );
+            assertThat( second.get( 10, TimeUnit.SECONDS ), equalTo( "value" ) );
+            assertThat( loads.get(), equalTo( 1 ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void memoizeFailure()
+    {
+        ValidationRequest request = new ValidationRequest( null, null, null, null );
+        for ( int i = 0; i < 2; i++ )
+        {
+            try
+            {
+                request.memoize( "key", () -> {
+                    throw new IllegalStateException( "broken" );
+                } );
+                fail( "Failure should be thrown" );
+            }
+            catch ( ExecutionException e )
+            {
+                assertThat( e.getCause(), instanceOf( IllegalStateException.class ) );
+            }
+        }
+    }
+
+    @Test
+    public void threadMemoIsNotSharedBetweenThreads()
+            throws Exception
+    {
+        ValidationRequest request = new ValidationRequest( null, null, null, null );
+        AtomicInteger loads = new AtomicInteger( 0 );
+
+        Object mine = request.memoizeForThread( "pom", () -> {
+            loads.incrementAndGet();
+            return new Object();
+        } );
+        assertThat( request.memoizeForThread( "pom", Object::new ), sameInstance( mine ) );
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Object theirs = executor.submit( () -> request.memoizeForThread( "pom", () -> {
+                loads.incrementAndGet();
+                return new Object();
+            } ) ).get( 10, TimeUnit.SECONDS );
+
+            assertThat( theirs, not( sameInstance( mine ) ) );
+            assertThat( loads.get(), equalTo( 2 ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void threadMemoKeepsOnlyRecentValues()
+            throws Exception
+    {
+        ValidationRequest request = new ValidationRequest( null, null, null, null );
+        AtomicInteger loads = new AtomicInteger( 0 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            request.memoizeForThread( "pom-" + i, loads::incrementAndGet );
+        }
+
+        // the most recent value is still there, the first one was evicted
+        request.memoizeForThread( "pom-99", loads::incrementAndGet );
+        assertThat( loads.get(), equalTo( 100 ) );
+
+        request.memoizeForThread( "pom-0", loads::incrementAndGet );
+        assertThat( loads.get(), equalTo( 101 ) );
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.commonjava.indy.action;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Some sort of action in the lifecycle of Indy (migration, startup, shutdown).
  */
@@ -23,4 +26,13 @@ public interface IndyLifecycleAction
     /** Used mainly for reporting, this is a unique identifier for this action. */
     String getId();
 
+    /**
+     * Ids of other actions in the same lifecycle phase that must finish before this one runs. Actions of the same
+     * priority that don't depend on each other may run concurrently.
+     */
+    default Collection<String> getDependencies()
+    {
+        return Collections.emptySet();
+    }
+
 }
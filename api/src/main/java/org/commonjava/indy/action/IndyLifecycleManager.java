@@ -20,11 +20,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+
+import org.commonjava.indy.conf.DefaultIndyConfiguration;
+import org.commonjava.indy.conf.IndyConfiguration;
 import org.commonjava.indy.stats.IndyVersioning;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +36,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Handles the startup sequence (managing {@link BootupAction}, {@link MigrationAction}, and {@link StartupAction} instances in order), and the 
  * shutdown sequence (managing {@link ShutdownAction} instances in order.
+ * <br/>
+ * Bootup and startup actions that share a priority may run concurrently when {@link IndyConfiguration#getLifecycleThreads()}
+ * is above 1, unless one declares the other in {@link IndyLifecycleAction#getDependencies()}. Migration actions always run one by
+ * one, since they rewrite persisted data.
  * 
  * @author jdcasey
  */
@@ -62,6 +70,9 @@ public class IndyLifecycleManager
     @Inject
     UserLifecycleManager userLifecycleManager;
 
+    @Inject
+    private IndyConfiguration config;
+
     private List<BootupAction> bootupActions;
 
     private List<MigrationAction> migrationActions;
@@ -78,6 +89,8 @@ public class IndyLifecycleManager
 
     private Iterable<ShutdownAction> shutdownActionInstances;
 
+    private final List<LifecycleActionTiming> actionTimings = new CopyOnWriteArrayList<>();
+
     protected IndyLifecycleManager()
     {
     }
@@ -130,6 +143,7 @@ public class IndyLifecycleManager
      *   <li>Run all {@link MigrationAction} instances, with highest priority executing first.</li>
      *   <li>Run all {@link StartupAction} instances, with highest priority executing first.</li>
      * </ul>
+     * Each phase logs a report of how long its actions took; see also {@link #getActionTimings()}.
      * @throws IndyLifecycleException
      */
     public void start()
@@ -186,15 +200,9 @@ public class IndyLifecycleManager
                                                                           BootupAction.class));
         Collections.sort( bootupActions, BOOT_PRIORITY_COMPARATOR );
 
-        if ( bootupActions != null )
-        {
-            logger.info( "Running bootup actions..." );
-            for ( final BootupAction action : bootupActions )
-            {
-                logger.info( "Running bootup action: '{}'", action.getId() );
-                action.init();
-            }
-        }
+        logger.info( "Running bootup actions..." );
+        actionTimings.addAll( new LifecycleActionScheduler( "bootup", getLifecycleThreads() ).run(
+                bootupActions, BootupAction::getBootPriority, BootupAction::init ) );
     }
 
     private void runMigrationActions()
@@ -209,16 +217,9 @@ public class IndyLifecycleManager
                                                                              MigrationAction.class));
         Collections.sort( migrationActions, MIGRATION_PRIORITY_COMPARATOR );
 
-        boolean changed = false;
-        if ( migrationActions != null )
-        {
-            logger.info( "Running migration actions..." );
-            for ( final MigrationAction action : migrationActions )
-            {
-                logger.info( "Running migration action: '{}'", action.getId() );
-                changed = action.migrate() || changed;
-            }
-        }
+        logger.info( "Running migration actions..." );
+        actionTimings.addAll( new LifecycleActionScheduler( "migration", 1 ).run(
+                migrationActions, MigrationAction::getMigrationPriority, MigrationAction::migrate ) );
     }
 
     private void runStartupActions()
@@ -233,15 +234,22 @@ public class IndyLifecycleManager
                                                                            StartupAction.class));
         Collections.sort( startupActions, START_PRIORITY_COMPARATOR );
 
-        if ( startupActions != null )
-        {
-            logger.info( "Running startup actions..." );
-            for ( final StartupAction action : startupActions )
-            {
-                logger.info( "Running startup action: '{}'", action.getId() );
-                action.start();
-            }
-        }
+        logger.info( "Running startup actions..." );
+        actionTimings.addAll( new LifecycleActionScheduler( "startup", getLifecycleThreads() ).run(
+                startupActions, StartupAction::getStartupPriority, StartupAction::start ) );
+    }
+
+    private int getLifecycleThreads()
+    {
+        return config == null ? DefaultIndyConfiguration.DEFAULT_LIFECYCLE_THREADS : config.getLifecycleThreads();
+    }
+
+    /**
+     * Timings of the bootup, migration and startup actions that have run so far.
+     */
+    public List<LifecycleActionTiming> getActionTimings()
+    {
+        return Collections.unmodifiableList( actionTimings );
     }
 
     private void runShutdownActions()
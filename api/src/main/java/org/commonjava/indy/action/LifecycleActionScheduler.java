@@ -0,0 +1,295 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.action;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs the actions of one lifecycle phase. Actions are grouped into tiers of equal priority, and tiers run one after
+ * another, highest priority first. Within a tier, actions run concurrently on a bounded pool, except that an action
+ * waits for the actions named in its {@link IndyLifecycleAction#getDependencies()}.
+ */
+final class LifecycleActionScheduler
+{
+    @FunctionalInterface
+    interface ActionRunner<T>
+    {
+        void run( T action )
+                throws IndyLifecycleException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final String phase;
+
+    private final int threads;
+
+    private final List<LifecycleActionTiming> timings = new CopyOnWriteArrayList<>();
+
+    LifecycleActionScheduler( final String phase, final int threads )
+    {
+        this.phase = phase;
+        this.threads = Math.max( 1, threads );
+    }
+
+    /**
+     * Run the given actions, which must already be sorted by priority (highest first). Return the timing of every
+     * action that ran. The first failure stops the phase once its tier is done, and is rethrown.
+     */
+    <T extends IndyLifecycleAction> List<LifecycleActionTiming> run( final List<T> actions,
+                                                                     final ToIntFunction<T> priorities,
+                                                                     final ActionRunner<T> runner )
+            throws IndyLifecycleException
+    {
+        final long begin = System.currentTimeMillis();
+        final Set<String> done = new HashSet<>();
+
+        ExecutorService executor = null;
+        try
+        {
+            int start = 0;
+            while ( start < actions.size() )
+            {
+                final int priority = priorities.applyAsInt( actions.get( start ) );
+                int end = start + 1;
+                while ( end < actions.size() && priorities.applyAsInt( actions.get( end ) ) == priority )
+                {
+                    end++;
+                }
+
+                final List<T> tier = orderTier( actions.subList( start, end ), done );
+                if ( threads < 2 || tier.size() < 2 )
+                {
+                    for ( final T action : tier )
+                    {
+                        runTimed( action, priority, runner );
+                    }
+                }
+                else
+                {
+                    if ( executor == null )
+                    {
+                        executor = Executors.newFixedThreadPool( threads, newThreadFactory() );
+                    }
+                    runConcurrently( tier, priority, runner, executor );
+                }
+
+                tier.forEach( action -> done.add( action.getId() ) );
+                start = end;
+            }
+        }
+        finally
+        {
+            if ( executor != null )
+            {
+                executor.shutdownNow();
+            }
+
+            logReport( System.currentTimeMillis() - begin );
+        }
+
+        return new ArrayList<>( timings );
+    }
+
+    /**
+     * Sort a tier so every action comes after the actions it depends on, keeping the original order otherwise.
+     * Dependencies on actions that already ran are satisfied; any other dependency outside the tier can't be honored
+     * without breaking the priority order, so it's ignored with a warning.
+     */
+    private <T extends IndyLifecycleAction> List<T> orderTier( final List<T> tier, final Set<String> done )
+            throws IndyLifecycleException
+    {
+        final Map<String, T> byId = new LinkedHashMap<>();
+        tier.forEach( action -> byId.put( action.getId(), action ) );
+
+        final List<T> ordered = new ArrayList<>( tier.size() );
+        final Set<String> placed = new HashSet<>();
+        final Set<String> warned = new HashSet<>();
+        final List<T> pending = new ArrayList<>( tier );
+        while ( !pending.isEmpty() )
+        {
+            boolean progress = false;
+            for ( final T action : new ArrayList<>( pending ) )
+            {
+                boolean ready = true;
+                for ( final String dep : action.getDependencies() )
+                {
+                    if ( byId.containsKey( dep ) )
+                    {
+                        ready = ready && placed.contains( dep );
+                    }
+                    else if ( !done.contains( dep ) && warned.add( action.getId() + " -> " + dep ) )
+                    {
+                        logger.warn( "{} action: '{}' depends on '{}', which does not run before it. Ignoring.",
+                                     phase, action.getId(), dep );
+                    }
+                }
+
+                if ( ready )
+                {
+                    ordered.add( action );
+                    placed.add( action.getId() );
+                    pending.remove( action );
+                    progress = true;
+                }
+            }
+
+            if ( !progress )
+            {
+                final List<String> ids = new ArrayList<>();
+                pending.forEach( action -> ids.add( action.getId() ) );
+                throw new IndyLifecycleException( "Circular dependencies between {} actions: {}", phase, ids );
+            }
+        }
+
+        return ordered;
+    }
+
+    private <T extends IndyLifecycleAction> void runConcurrently( final List<T> tier, final int priority,
+                                                                  final ActionRunner<T> runner,
+                                                                  final ExecutorService executor )
+            throws IndyLifecycleException
+    {
+        final Map<String, CompletableFuture<Void>> byId = new LinkedHashMap<>();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>( tier.size() );
+        for ( final T action : tier )
+        {
+            final List<CompletableFuture<Void>> deps = new ArrayList<>();
+            action.getDependencies().forEach( dep -> {
+                final CompletableFuture<Void> future = byId.get( dep );
+                if ( future != null )
+                {
+                    deps.add( future );
+                }
+            } );
+
+            final CompletableFuture<Void> future =
+                    CompletableFuture.allOf( deps.toArray( new CompletableFuture[deps.size()] ) ).thenRunAsync( () -> {
+                        try
+                        {
+                            runTimed( action, priority, runner );
+                        }
+                        catch ( final IndyLifecycleException e )
+                        {
+                            throw new CompletionException( e );
+                        }
+                    }, executor );
+
+            byId.put( action.getId(), future );
+            futures.add( future );
+        }
+
+        // wait for the whole tier, so nothing is still running when a failure is reported
+        Throwable error = null;
+        for ( final CompletableFuture<Void> future : futures )
+        {
+            try
+            {
+                future.join();
+            }
+            catch ( final CompletionException e )
+            {
+                if ( error == null )
+                {
+                    error = e.getCause() == null ? e : e.getCause();
+                }
+            }
+        }
+
+        if ( error instanceof IndyLifecycleException )
+        {
+            throw (IndyLifecycleException) error;
+        }
+        else if ( error instanceof RuntimeException )
+        {
+            throw (RuntimeException) error;
+        }
+        else if ( error instanceof Error )
+        {
+            throw (Error) error;
+        }
+        else if ( error != null )
+        {
+            throw new IndyLifecycleException( "Failed to run {} actions: {}", error, phase, error.getMessage() );
+        }
+    }
+
+    private <T extends IndyLifecycleAction> void runTimed( final T action, final int priority,
+                                                           final ActionRunner<T> runner )
+            throws IndyLifecycleException
+    {
+        logger.info( "Running {} action: '{}'", phase, action.getId() );
+
+        final long begin = System.currentTimeMillis();
+        boolean failed = true;
+        try
+        {
+            runner.run( action );
+            failed = false;
+        }
+        finally
+        {
+            timings.add( new LifecycleActionTiming( phase, action.getId(), priority,
+                                                    System.currentTimeMillis() - begin, failed ) );
+        }
+    }
+
+    private void logReport( final long elapsed )
+    {
+        if ( timings.isEmpty() )
+        {
+            return;
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append( String.format( "%d %s actions finished in %d ms (%d threads):", timings.size(), phase, elapsed,
+                                  threads ) );
+
+        final List<LifecycleActionTiming> sorted = new ArrayList<>( timings );
+        sorted.sort( Comparator.comparingLong( LifecycleActionTiming::getElapsedMillis ).reversed() );
+        sorted.forEach( t -> sb.append( String.format( "\n  %8d ms  [%3d] %s%s", t.getElapsedMillis(),
+                                                       t.getPriority(), t.getId(), t.isFailed() ? " FAILED" : "" ) ) );
+
+        logger.info( sb.toString() );
+    }
+
+    private ThreadFactory newThreadFactory()
+    {
+        final AtomicInteger count = new AtomicInteger();
+        return r -> {
+            final Thread t = new Thread( r, "indy-lifecycle-" + phase + "-" + count.incrementAndGet() );
+            t.setDaemon( true );
+            return t;
+        };
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.action;
+
+/**
+ * How long one {@link IndyLifecycleAction} took while Indy was starting, for the startup report and metrics.
+ */
+public final class LifecycleActionTiming
+{
+    private final String phase;
+
+    private final String id;
+
+    private final int priority;
+
+    private final long elapsedMillis;
+
+    private final boolean failed;
+
+    public LifecycleActionTiming( final String phase, final String id, final int priority, final long elapsedMillis,
+                                  final boolean failed )
+    {
+        this.phase = phase;
+        this.id = id;
+        this.priority = priority;
+        this.elapsedMillis = elapsedMillis;
+        this.failed = failed;
+    }
+
+    public String getPhase()
+    {
+        return phase;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public int getPriority()
+    {
+        return priority;
+    }
+
+    public long getElapsedMillis()
+    {
+        return elapsedMillis;
+    }
+
+    public boolean isFailed()
+    {
+        return failed;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "%s action '%s' (priority %d): %d ms%s", phase, id, priority, elapsedMillis,
+                              failed ? " [FAILED]" : "" );
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.change.event;
+
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.maven.galley.event.FileEvent;
+
+import static org.commonjava.indy.util.LocationUtils.getKey;
+
+/**
+ * Second delivery of a file access / storage / deletion event, for listeners whose work doesn't have to finish before
+ * the request that caused it is answered (currently the event audit). Listeners that must see the event inline keep
+ * observing the galley event types directly; listeners observing this type instead are declaring themselves
+ * asynchronous.
+ * <p>
+ * When asynchronous file-event dispatch is enabled (<code>file.event.async.enabled</code>), these events are delivered
+ * from a small set of background lanes, in order for each store. Otherwise they are delivered on the firing thread
+ * right after the inline observers.
+ */
+public class AsyncFileEvent
+{
+    private final FileEvent event;
+
+    public AsyncFileEvent( final FileEvent event )
+    {
+        this.event = event;
+    }
+
+    public FileEvent getEvent()
+    {
+        return event;
+    }
+
+    /**
+     * Store the event's transfer belongs to, which decides the ordering lane. May be null.
+     */
+    public StoreKey getStoreKey()
+    {
+        return getKey( event.getTransfer() );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AsyncFileEvent{" + event + '}';
+    }
+}
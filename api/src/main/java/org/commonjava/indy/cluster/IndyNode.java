@@ -25,7 +25,7 @@ public class IndyNode
 {
     private final String nodeId;
 
-    IndyNode( final String nodeId )
+    public IndyNode( final String nodeId )
     {
         this.nodeId = nodeId;
     }
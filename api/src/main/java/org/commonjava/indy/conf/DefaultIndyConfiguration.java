@@ -46,6 +46,10 @@ public class DefaultIndyConfiguration
 
     public static final int DEFAULT_NFC_MAX_RESULT_SET_SIZE = 5000;
 
+    public static final int DEFAULT_NFC_GROUP_TIMEOUT_SECONDS = 300;
+
+    public static final int DEFAULT_NFC_GROUP_MAX_SIZE = 100000;
+
     public static final Boolean DEFAULT_ALLOW_REMOTE_LIST_DOWNLOAD = false;
 
     public static final int DEFAULT_REMOTE_METADATA_TIMEOUT_SECONDS = 86400;
@@ -62,6 +66,14 @@ public class DefaultIndyConfiguration
 
     public static final String DEFAULT_DISPOSABLE_STORE_PATTERN = ".*test.*";
 
+    public static final boolean DEFAULT_FILE_EVENT_ASYNC_ENABLED = false;
+
+    public static final int DEFAULT_FILE_EVENT_ASYNC_LANES = 8;
+
+    public static final int DEFAULT_FILE_EVENT_ASYNC_QUEUE_SIZE = 1000;
+
+    public static final int DEFAULT_LIFECYCLE_THREADS = 1;
+
     private Integer passthroughTimeoutSeconds;
 
     private Integer notFoundCacheTimeoutSeconds;
@@ -76,6 +88,10 @@ public class DefaultIndyConfiguration
 
     private Integer nfcMaxResultSetSize;
 
+    private Integer nfcGroupTimeoutSeconds;
+
+    private Integer nfcGroupMaxSize;
+
     private Integer remoteMetadataTimeoutSeconds;
 
     private String mdcHeaders;
@@ -100,6 +116,14 @@ public class DefaultIndyConfiguration
 
     private String disposableStorePattern;
 
+    private Boolean fileEventAsyncEnabled;
+
+    private Integer fileEventAsyncLanes;
+
+    private Integer fileEventAsyncQueueSize;
+
+    private Integer lifecycleThreads;
+
     public DefaultIndyConfiguration()
     {
     }
@@ -231,6 +255,30 @@ public class DefaultIndyConfiguration
         return nfcMaxResultSetSize == null ? DEFAULT_NFC_MAX_RESULT_SET_SIZE : nfcMaxResultSetSize;
     }
 
+    @ConfigName( "nfc.group.timeout" )
+    public void setNfcGroupTimeoutSeconds( final int seconds )
+    {
+        this.nfcGroupTimeoutSeconds = seconds;
+    }
+
+    @Override
+    public int getNfcGroupTimeoutSeconds()
+    {
+        return nfcGroupTimeoutSeconds == null ? DEFAULT_NFC_GROUP_TIMEOUT_SECONDS : nfcGroupTimeoutSeconds;
+    }
+
+    @ConfigName( "nfc.group.maxsize" )
+    public void setNfcGroupMaxSize( final int size )
+    {
+        this.nfcGroupMaxSize = size;
+    }
+
+    @Override
+    public int getNfcGroupMaxSize()
+    {
+        return nfcGroupMaxSize == null ? DEFAULT_NFC_GROUP_MAX_SIZE : nfcGroupMaxSize;
+    }
+
     @Override
     public File getIndyHomeDir()
     {
@@ -377,6 +425,54 @@ public class DefaultIndyConfiguration
         this.standalone = standalone;
     }
 
+    @Override
+    public boolean isFileEventAsyncEnabled()
+    {
+        return fileEventAsyncEnabled == null ? DEFAULT_FILE_EVENT_ASYNC_ENABLED : fileEventAsyncEnabled;
+    }
+
+    @ConfigName( "file.event.async.enabled" )
+    public void setFileEventAsyncEnabled( Boolean fileEventAsyncEnabled )
+    {
+        this.fileEventAsyncEnabled = fileEventAsyncEnabled;
+    }
+
+    @Override
+    public int getFileEventAsyncLanes()
+    {
+        return fileEventAsyncLanes == null ? DEFAULT_FILE_EVENT_ASYNC_LANES : fileEventAsyncLanes;
+    }
+
+    @ConfigName( "file.event.async.lanes" )
+    public void setFileEventAsyncLanes( Integer fileEventAsyncLanes )
+    {
+        this.fileEventAsyncLanes = fileEventAsyncLanes;
+    }
+
+    @Override
+    public int getFileEventAsyncQueueSize()
+    {
+        return fileEventAsyncQueueSize == null ? DEFAULT_FILE_EVENT_ASYNC_QUEUE_SIZE : fileEventAsyncQueueSize;
+    }
+
+    @ConfigName( "file.event.async.queue.size" )
+    public void setFileEventAsyncQueueSize( Integer fileEventAsyncQueueSize )
+    {
+        this.fileEventAsyncQueueSize = fileEventAsyncQueueSize;
+    }
+
+    @Override
+    public int getLifecycleThreads()
+    {
+        return lifecycleThreads == null ? DEFAULT_LIFECYCLE_THREADS : lifecycleThreads;
+    }
+
+    @ConfigName( "lifecycle.threads" )
+    public void setLifecycleThreads( Integer lifecycleThreads )
+    {
+        this.lifecycleThreads = lifecycleThreads;
+    }
+
     @Override
     public String getDefaultConfigFileName()
     {
@@ -69,6 +69,19 @@ public interface IndyConfiguration
      */
     int getNfcMaxResultSetSize();
 
+    /**
+     * Number of seconds a group-level "missing in all members" NFC entry is trusted. These let a group miss skip the
+     * per-member NFC probes. Never longer than {@link #getNotFoundCacheTimeoutSeconds()}; 0 disables them.
+     * @since 2.2.0
+     */
+    int getNfcGroupTimeoutSeconds();
+
+    /**
+     * Max number of paths tracked by the node-local group-level NFC entries.
+     * @since 2.2.0
+     */
+    int getNfcGroupMaxSize();
+
     File getIndyHomeDir();
 
     File getIndyConfDir();
@@ -109,4 +122,26 @@ public interface IndyConfiguration
      * @since 2.1.0
      */
     int getFileSystemContainingBatchSize();
+
+    /**
+     * Deliver {@link org.commonjava.indy.change.event.AsyncFileEvent} from background lanes instead of the thread
+     * firing the file event.
+     */
+    boolean isFileEventAsyncEnabled();
+
+    /**
+     * Number of background lanes (threads) delivering async file events. Events for one store always use the same lane.
+     */
+    int getFileEventAsyncLanes();
+
+    /**
+     * Capacity of each async file-event lane. When a lane is full, the event is delivered on the firing thread instead.
+     */
+    int getFileEventAsyncQueueSize();
+
+    /**
+     * Number of threads running bootup and startup actions of the same priority concurrently. 1 (the default) runs them
+     * one by one.
+     */
+    int getLifecycleThreads();
 }
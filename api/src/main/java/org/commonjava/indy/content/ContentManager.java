@@ -151,6 +151,16 @@ public interface ContentManager
     Transfer store( final ArtifactStore store , final String path , final InputStream stream , TransferOperation op , EventMetadata eventMetadata  )
         throws IndyWorkflowException;
 
+    /**
+     * Store the content of an existing {@link Transfer} under the given path within the storage directory for the given
+     * {@link ArtifactStore}, with the same restrictions and maintenance actions as
+     * {@link #store(ArtifactStore, String, InputStream, TransferOperation, EventMetadata)}. Storage is asked to copy the
+     * source directly, which avoids re-reading and re-writing the content where the cache provider supports it. The
+     * content metadata (size, checksums) already known for the source is carried over to the copy.
+     */
+    Transfer copy( Transfer source, ArtifactStore store, String path, TransferOperation op, EventMetadata eventMetadata )
+        throws IndyWorkflowException;
+
 //    /**
 //     * Store the content contained in the {@link InputStream} under the given path within the storage directory for first appropriate instance among
 //     * the given {@link ArtifactStore}'s. Use the given {@link TransferOperation} to trigger the appropriate tangential maintenance, etc. actions.
@@ -113,6 +113,16 @@ public interface DownloadManager
     Transfer store( final ArtifactStore store , final String path , final InputStream stream , TransferOperation op , EventMetadata eventMetadata  )
         throws IndyWorkflowException;
 
+    /**
+     * Store the content of an existing {@link Transfer} under the given path within the storage directory for the given
+     * {@link ArtifactStore}, with the same restrictions as {@link #store(ArtifactStore, String, InputStream, TransferOperation, EventMetadata)}.
+     * The copy is delegated to the cache provider, which may avoid moving content bytes at all (path-mapped storage
+     * just maps the new path onto the existing physical file). Falls back to streaming the source content if the
+     * storage cannot copy it. Storage events are fired as for a regular store.
+     */
+    Transfer copy( Transfer source, ArtifactStore store, String path, TransferOperation op, EventMetadata eventMetadata )
+        throws IndyWorkflowException;
+
     /**
      * Store the content contained in the {@link InputStream} under the given path within the storage directory for first appropriate instance among 
      * the given {@link ArtifactStore}'s. Use the given {@link TransferOperation} to trigger the appropriate tangential maintenance, etc. actions. 
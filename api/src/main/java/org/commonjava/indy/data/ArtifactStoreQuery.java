@@ -91,6 +91,13 @@ public interface ArtifactStoreQuery<T extends ArtifactStore>
     List<RemoteRepository> getRemoteRepositoryByUrl( String url )
             throws IndyDataException;
 
+    /**
+     * Like {@link #getRemoteRepositoryByUrl(String)}, but only falls back to comparing resolved IPs when matchIp is
+     * true.
+     */
+    List<RemoteRepository> getRemoteRepositoryByUrl( String url, boolean matchIp )
+            throws IndyDataException;
+
     List<ArtifactStore> getOrderedConcreteStoresInGroup( String groupName )
             throws IndyDataException;
 
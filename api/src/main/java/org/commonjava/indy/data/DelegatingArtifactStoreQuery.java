@@ -176,6 +176,13 @@ public class DelegatingArtifactStoreQuery<T extends ArtifactStore>
         return delegate.getRemoteRepositoryByUrl( url );
     }
 
+    @Override
+    public List<RemoteRepository> getRemoteRepositoryByUrl( final String url, final boolean matchIp )
+            throws IndyDataException
+    {
+        return delegate.getRemoteRepositoryByUrl( url, matchIp );
+    }
+
     @Override
     public List<ArtifactStore> getOrderedConcreteStoresInGroup( final String groupName )
             throws IndyDataException
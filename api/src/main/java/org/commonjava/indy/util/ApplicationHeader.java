@@ -33,6 +33,13 @@ public enum ApplicationHeader
     content_disposition( "Content-Disposition" ),
     indy_origin( "Indy-Origin" ),
     transfer_encoding( "Transfer-Encoding" ),
+    etag( "ETag" ),
+    if_none_match( "If-None-Match" ),
+    if_modified_since( "If-Modified-Since" ),
+    if_range( "If-Range" ),
+    range( "Range" ),
+    accept_ranges( "Accept-Ranges" ),
+    content_range( "Content-Range" ),
     md5("INDY-MD5"),
     sha1("INDY-SHA1")
     ;
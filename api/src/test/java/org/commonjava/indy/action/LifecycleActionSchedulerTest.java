@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.action;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class LifecycleActionSchedulerTest
+{
+    @Test
+    public void runSamePriorityConcurrentlyAndHonorDependencies()
+            throws Exception
+    {
+        // 'a' and 'b' only finish once both are running, so they deadlock unless they run concurrently
+        CountDownLatch bothRunning = new CountDownLatch( 2 );
+        List<String> order = Collections.synchronizedList( new ArrayList<>() );
+
+        List<TestAction> actions = Arrays.asList( new TestAction( "first", 20 ), new TestAction( "c", 10, "a", "b" ),
+                                                  new TestAction( "a", 10 ), new TestAction( "b", 10 ),
+                                                  new TestAction( "last", 1 ) );
+
+        List<LifecycleActionTiming> timings =
+                new LifecycleActionScheduler( "test", 4 ).run( actions, TestAction::getPriority, action -> {
+                    if ( "a".equals( action.getId() ) || "b".equals( action.getId() ) )
+                    {
+                        bothRunning.countDown();
+                        try
+                        {
+                            if ( !bothRunning.await( 10, TimeUnit.SECONDS ) )
+                            {
+                                throw new IndyLifecycleException( "%s did not run concurrently", action.getId() );
+                            }
+                        }
+                        catch ( InterruptedException e )
+                        {
+                            throw new IndyLifecycleException( "Interrupted", e );
+                        }
+                    }
+                    order.add( action.getId() );
+                } );
+
+        assertThat( timings.size(), equalTo( 5 ) );
+        assertThat( order.get( 0 ), equalTo( "first" ) );
+        assertThat( order.get( 3 ), equalTo( "c" ) );
+        assertThat( order.get( 4 ), equalTo( "last" ) );
+    }
+
+    @Test( expected = IndyLifecycleException.class )
+    public void failOnCircularDependencies()
+            throws Exception
+    {
+        List<TestAction> actions = Arrays.asList( new TestAction( "a", 10, "b" ), new TestAction( "b", 10, "a" ) );
+
+        new LifecycleActionScheduler( "test", 4 ).run( actions, TestAction::getPriority, action -> {
+        } );
+    }
+
+    @Test
+    public void failedActionStopsDependents()
+            throws Exception
+    {
+        List<String> ran = Collections.synchronizedList( new ArrayList<>() );
+        List<TestAction> actions = Arrays.asList( new TestAction( "a", 10 ), new TestAction( "b", 10, "a" ) );
+
+        try
+        {
+            new LifecycleActionScheduler( "test", 4 ).run( actions, TestAction::getPriority, action -> {
+                if ( "a".equals( action.getId() ) )
+                {
+                    throw new IndyLifecycleException( "failed" );
+                }
+                ran.add( action.getId() );
+            } );
+            fail( "Expected the failure of 'a' to be rethrown" );
+        }
+        catch ( IndyLifecycleException e )
+        {
+            assertThat( e.getMessage(), equalTo( "failed" ) );
+        }
+
+        assertThat( ran.isEmpty(), equalTo( true ) );
+    }
+
+    private static final class TestAction
+            implements IndyLifecycleAction
+    {
+        private final String id;
+
+        private final int priority;
+
+        private final List<String> dependencies;
+
+        TestAction( String id, int priority, String... dependencies )
+        {
+            this.id = id;
+            this.priority = priority;
+            this.dependencies = Arrays.asList( dependencies );
+        }
+
+        @Override
+        public String getId()
+        {
+            return id;
+        }
+
+        @Override
+        public Collection<String> getDependencies()
+        {
+            return dependencies;
+        }
+
+        int getPriority()
+        {
+            return priority;
+        }
+    }
+}
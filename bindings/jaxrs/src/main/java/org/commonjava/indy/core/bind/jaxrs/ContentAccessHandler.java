@@ -15,6 +15,7 @@
  */
 package org.commonjava.indy.core.bind.jaxrs;
 
+import org.apache.commons.io.IOUtils;
 import org.commonjava.indy.IndyWorkflowException;
 import org.commonjava.indy.bind.jaxrs.IndyResources;
 import org.commonjava.indy.bind.jaxrs.util.JaxRsRequestHelper;
@@ -22,9 +23,13 @@ import org.commonjava.indy.bind.jaxrs.util.REST;
 import org.commonjava.indy.bind.jaxrs.util.ResponseHelper;
 import org.commonjava.indy.content.ContentDigester;
 import org.commonjava.indy.content.ContentManager;
+import org.commonjava.indy.core.bind.jaxrs.util.ByteRange;
+import org.commonjava.indy.core.bind.jaxrs.util.ByteRangeStreamingOutput;
+import org.commonjava.indy.core.bind.jaxrs.util.FileChannelStreamingOutput;
 import org.commonjava.indy.core.bind.jaxrs.util.RequestUtils;
 import org.commonjava.indy.core.bind.jaxrs.util.TransferCountingInputStream;
 import org.commonjava.indy.core.bind.jaxrs.util.TransferStreamingOutput;
+import org.commonjava.indy.core.change.event.IndyFileEventManager;
 import org.commonjava.indy.core.ctl.ContentController;
 import org.commonjava.indy.metrics.IndyMetricsManager;
 import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
@@ -32,6 +37,7 @@ import org.commonjava.indy.model.core.BatchDeleteRequest;
 import org.commonjava.indy.model.core.PackageTypes;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.model.core.StoreType;
+import org.commonjava.indy.model.util.HttpUtils;
 import org.commonjava.indy.util.AcceptInfo;
 import org.commonjava.indy.util.ApplicationContent;
 import org.commonjava.indy.util.ApplicationHeader;
@@ -39,7 +45,9 @@ import org.commonjava.indy.util.ApplicationStatus;
 import org.commonjava.indy.util.LocationUtils;
 import org.commonjava.indy.util.UriFormatter;
 import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.event.FileAccessEvent;
 import org.commonjava.maven.galley.io.checksum.ContentDigest;
+import org.commonjava.maven.galley.io.checksum.TransferMetadata;
 import org.commonjava.maven.galley.model.SpecialPathInfo;
 import org.commonjava.maven.galley.model.Transfer;
 import org.commonjava.maven.galley.model.TransferOperation;
@@ -56,16 +64,22 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.commonjava.indy.core.bind.jaxrs.util.RequestUtils.isDirectoryPath;
+import static org.commonjava.indy.core.content.ContentMetadataGenerator.FORCE_CHECKSUM_AND_WRITE;
 import static org.commonjava.indy.core.ctl.ContentController.LISTING_HTML_FILE;
 import static org.commonjava.indy.metrics.RequestContextHelper.CONTENT_ENTRY_POINT;
 import static org.commonjava.indy.metrics.RequestContextHelper.HTTP_STATUS;
@@ -107,6 +121,9 @@ public class ContentAccessHandler
     @Inject
     ContentDigester contentDigester;
 
+    @Inject
+    protected IndyFileEventManager fileEventManager;
+
 
     protected ContentAccessHandler()
     {
@@ -378,6 +395,7 @@ public class ContentAccessHandler
                         // Content hashing headers
                         builder.header(ApplicationHeader.md5.key(), contentDigester.digest(sk, path, new EventMetadata()).getDigests().get(ContentDigest.MD5));
                         builder.header(ApplicationHeader.sha1.key(), contentDigester.digest(sk, path, new EventMetadata()).getDigests().get(ContentDigest.SHA_1));
+                        setEntityTag( builder, getEntityTag( item, packageType ) );
                     }
                     
                     if ( builderModifier != null )
@@ -501,18 +519,122 @@ public class ContentAccessHandler
                     else
                     {
                         logger.debug( "RETURNING: retrieval of content: {}:{}", sk, path );
-                        // open the stream here to prevent deletion while waiting for the transfer back to the user to start...
-                        InputStream in = item.openInputStream( true, eventMetadata );
-                        final ResponseBuilder builder = Response.ok(
-                                new TransferStreamingOutput( in, metricsManager, metricsConfig ) );
+                        final String etag = getEntityTag( item, packageType );
+                        final long lastModified = item.lastModified();
+                        if ( RequestUtils.isNotModified( request, etag, lastModified ) )
+                        {
+                            logger.debug( "Content: {}:{} is not modified, returning 304", sk, path );
+                            setContext( HTTP_STATUS, String.valueOf( 304 ) );
+
+                            // the client still uses the content, so tracking and timeout resets have to see this access
+                            if ( fileEventManager != null )
+                            {
+                                fileEventManager.fire( new FileAccessEvent( item, eventMetadata ) );
+                            }
+
+                            final ResponseBuilder builder = Response.notModified()
+                                                                    .header( ApplicationHeader.last_modified.key(),
+                                                                             HttpUtils.formatDateHeader(
+                                                                                     lastModified ) );
+                            setEntityTag( builder, etag );
+                            if ( builderModifier != null )
+                            {
+                                builderModifier.accept( builder );
+                            }
+                            return builder.build();
+                        }
 
-                        responseHelper.setInfoHeaders( builder, item, sk, path, true, contentController.getContentType( path ),
-                                        contentController.getHttpMetadata( item ) );
-                        if ( builderModifier != null )
+                        final String contentType = contentController.getContentType( path );
+
+                        // open the content here to prevent deletion while waiting for the transfer back to the user to start...
+                        final FileChannel channel = openLocalChannel( item, spi, eventMetadata );
+                        try
                         {
-                            builderModifier.accept( builder );
+                            List<ByteRange> ranges = null;
+                            if ( channel != null && RequestUtils.isRangeCurrent( request, etag, lastModified ) )
+                            {
+                                ranges = ByteRange.parse( request.getHeader( ApplicationHeader.range.key() ),
+                                                          channel.size() );
+                            }
+
+                            final ResponseBuilder builder;
+                            if ( ranges != null && ranges.isEmpty() )
+                            {
+                                logger.debug( "Unsatisfiable range: {} for: {}:{}",
+                                              request.getHeader( ApplicationHeader.range.key() ), sk, path );
+                                final long size = channel.size();
+                                channel.close();
+
+                                setContext( HTTP_STATUS, String.valueOf( 416 ) );
+                                builder = Response.status( Status.REQUESTED_RANGE_NOT_SATISFIABLE )
+                                                  .header( ApplicationHeader.content_range.key(), "bytes */" + size );
+                            }
+                            else if ( ranges != null )
+                            {
+                                logger.debug( "Sending range(s): {} of: {}:{}", ranges, sk, path );
+                                fileEventManager.fire( new FileAccessEvent( item, eventMetadata ) );
+
+                                final long size = channel.size();
+                                final String boundary = Long.toHexString( System.nanoTime() );
+                                final ByteRangeStreamingOutput output =
+                                        new ByteRangeStreamingOutput( channel, ranges, size, contentType, boundary,
+                                                                      metricsManager, metricsConfig );
+
+                                setContext( HTTP_STATUS, String.valueOf( 206 ) );
+                                builder = Response.status( Status.PARTIAL_CONTENT ).entity( output );
+                                responseHelper.setInfoHeaders( builder, item, sk, path, false, contentType,
+                                                               contentController.getHttpMetadata( item ) );
+                                builder.header( ApplicationHeader.content_length.key(), output.getResponseLength() );
+                                if ( output.isMultipart() )
+                                {
+                                    builder.header( ApplicationHeader.content_type.key(), null )
+                                           .header( ApplicationHeader.content_type.key(),
+                                                    "multipart/byteranges; boundary=" + boundary );
+                                }
+                                else
+                                {
+                                    builder.header( ApplicationHeader.content_range.key(),
+                                                    ranges.get( 0 ).toContentRange( size ) );
+                                }
+                                setEntityTag( builder, etag );
+                            }
+                            else
+                            {
+                                final StreamingOutput output;
+                                if ( channel != null )
+                                {
+                                    fileEventManager.fire( new FileAccessEvent( item, eventMetadata ) );
+                                    output = new FileChannelStreamingOutput( channel, metricsManager, metricsConfig );
+                                }
+                                else
+                                {
+                                    InputStream in = item.openInputStream( true, eventMetadata );
+                                    output = new TransferStreamingOutput( in, metricsManager, metricsConfig );
+                                }
+
+                                builder = Response.ok( output );
+                                responseHelper.setInfoHeaders( builder, item, sk, path, true, contentType,
+                                                               contentController.getHttpMetadata( item ) );
+                                setEntityTag( builder, etag );
+                            }
+
+                            if ( channel != null )
+                            {
+                                builder.header( ApplicationHeader.accept_ranges.key(), "bytes" );
+                            }
+
+                            if ( builderModifier != null )
+                            {
+                                builderModifier.accept( builder );
+                            }
+                            response = builder.build();
+                        }
+                        catch ( final IOException | IndyWorkflowException | RuntimeException e )
+                        {
+                            // the response doesn't own the channel yet, so it has to be closed here
+                            IOUtils.closeQuietly( channel );
+                            throw e;
                         }
-                        response = builder.build();
                     }
                 }
                 finally
@@ -535,6 +657,68 @@ public class ContentAccessHandler
         return response;
     }
 
+    /**
+     * Content that is stored as a plain local file, and that no read decorator would change, is sent straight from its
+     * file channel, which also allows byte ranges of it to be served. Returns null for everything else, which has to be
+     * streamed through the decorated transfer input stream. The caller fires the access event when it uses the channel,
+     * as opening the transfer stream would do.
+     */
+    FileChannel openLocalChannel( final Transfer item, final SpecialPathInfo spi,
+                                  final EventMetadata eventMetadata )
+            throws IOException
+    {
+        if ( fileEventManager != null && ( spi == null || !spi.isMetadata() )
+                && eventMetadata.get( FORCE_CHECKSUM_AND_WRITE ) == null )
+        {
+            File file = item.getDetachedFile();
+            if ( file != null && file.isFile() && file.length() == item.length() )
+            {
+                logger.trace( "Sending {} directly from local file: {}", item, file );
+                return FileChannel.open( file.toPath(), StandardOpenOption.READ );
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Strong entity tag for the content, taken from the checksums the content digester already has for it (nothing is
+     * digested here). NPM metadata is masked per request URL on the way out, so it gets no entity tag.
+     */
+    private String getEntityTag( final Transfer item, final String packageType )
+    {
+        if ( NPM_PKG_KEY.equals( packageType ) )
+        {
+            return null;
+        }
+
+        TransferMetadata metadata = contentDigester.getContentMetadata( item );
+        if ( metadata == null || metadata.getDigests() == null || !Long.valueOf( item.length() )
+                                                                       .equals( metadata.getSize() ) )
+        {
+            return null;
+        }
+
+        Map<ContentDigest, String> digests = metadata.getDigests();
+        String digest = digests.get( ContentDigest.SHA_256 );
+        if ( digest == null )
+        {
+            digest = digests.get( ContentDigest.SHA_1 );
+        }
+
+        return digest;
+    }
+
+    private void setEntityTag( final ResponseBuilder builder, final String etag )
+    {
+        if ( etag != null )
+        {
+            // replace any tag passed through from the upstream response
+            builder.header( ApplicationHeader.etag.key(), null )
+                   .header( ApplicationHeader.etag.key(), RequestUtils.quote( etag ) );
+        }
+    }
+
     protected Response handleMissingContentQuery( final StoreKey sk, final String path,
                                                   final Consumer<ResponseBuilder> builderModifier )
     {
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.bind.jaxrs.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One satisfiable range out of an HTTP <code>Range: bytes=...</code> request header, resolved against the length of
+ * the content being served. Both ends are inclusive, as they are in the header and in <code>Content-Range</code>.
+ */
+public final class ByteRange
+{
+    private static final String BYTES_UNIT = "bytes=";
+
+    /**
+     * Requests asking for more ranges than this are answered with the full content instead.
+     */
+    public static final int MAX_RANGES = 16;
+
+    private final long first;
+
+    private final long last;
+
+    public ByteRange( final long first, final long last )
+    {
+        this.first = first;
+        this.last = last;
+    }
+
+    public long getFirst()
+    {
+        return first;
+    }
+
+    public long getLast()
+    {
+        return last;
+    }
+
+    public long getLength()
+    {
+        return last - first + 1;
+    }
+
+    public String toContentRange( final long contentLength )
+    {
+        return "bytes " + first + "-" + last + "/" + contentLength;
+    }
+
+    /**
+     * Parse a <code>Range</code> header for content of the given length.
+     *
+     * @return null if the header is missing, malformed, not in bytes or asks for too many ranges (in which case it
+     * should be ignored and the full content served); an empty list if it is well formed but none of its ranges can be
+     * satisfied (416); otherwise the satisfiable ranges, in request order.
+     */
+    public static List<ByteRange> parse( final String header, final long contentLength )
+    {
+        if ( header == null || !header.trim().startsWith( BYTES_UNIT ) )
+        {
+            return null;
+        }
+
+        String[] specs = header.trim().substring( BYTES_UNIT.length() ).split( "," );
+        if ( specs.length > MAX_RANGES )
+        {
+            return null;
+        }
+
+        List<ByteRange> ranges = new ArrayList<>( specs.length );
+        for ( String spec : specs )
+        {
+            spec = spec.trim();
+            int idx = spec.indexOf( '-' );
+            if ( idx < 0 )
+            {
+                return null;
+            }
+
+            String firstPart = spec.substring( 0, idx ).trim();
+            String lastPart = spec.substring( idx + 1 ).trim();
+
+            long first;
+            long last;
+            try
+            {
+                if ( firstPart.isEmpty() )
+                {
+                    // suffix range: the final N bytes
+                    long suffix = Long.parseLong( lastPart );
+                    if ( suffix < 0 )
+                    {
+                        return null;
+                    }
+                    if ( suffix == 0 || contentLength == 0 )
+                    {
+                        continue;
+                    }
+
+                    first = Math.max( 0, contentLength - suffix );
+                    last = contentLength - 1;
+                }
+                else
+                {
+                    first = Long.parseLong( firstPart );
+                    last = lastPart.isEmpty() ? contentLength - 1 : Long.parseLong( lastPart );
+                    if ( first < 0 || last < first )
+                    {
+                        return null;
+                    }
+                    if ( first >= contentLength )
+                    {
+                        continue;
+                    }
+
+                    last = Math.min( last, contentLength - 1 );
+                }
+            }
+            catch ( final NumberFormatException e )
+            {
+                return null;
+            }
+
+            ranges.add( new ByteRange( first, last ) );
+        }
+
+        return ranges.isEmpty() ? Collections.emptyList() : ranges;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ByteRange{" + first + "-" + last + "}";
+    }
+}
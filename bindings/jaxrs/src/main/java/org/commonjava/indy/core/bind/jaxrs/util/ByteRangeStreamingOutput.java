@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.bind.jaxrs.util;
+
+import org.commonjava.indy.measure.annotation.Measure;
+import org.commonjava.indy.metrics.IndyMetricsManager;
+import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.commonjava.indy.core.bind.jaxrs.util.TransferStreamingOutput.markRawRead;
+import static org.commonjava.indy.core.bind.jaxrs.util.TransferStreamingOutput.markTransferRate;
+
+/**
+ * Writes the requested {@link ByteRange}s of a locally stored file using positioned reads on its {@link FileChannel}.
+ * A single range is written as-is; several ranges are written as a <code>multipart/byteranges</code> body using the
+ * given boundary.
+ */
+public class ByteRangeStreamingOutput
+    implements StreamingOutput
+{
+    private static final String CRLF = "\r\n";
+
+    private final FileChannel channel;
+
+    private final List<ByteRange> ranges;
+
+    private final long contentLength;
+
+    private final String contentType;
+
+    private final String boundary;
+
+    private final IndyMetricsManager metricsManager;
+
+    private final IndyMetricsConfig metricsConfig;
+
+    public ByteRangeStreamingOutput( final FileChannel channel, final List<ByteRange> ranges, final long contentLength,
+                                     final String contentType, final String boundary,
+                                     final IndyMetricsManager metricsManager, final IndyMetricsConfig metricsConfig )
+    {
+        this.channel = channel;
+        this.ranges = ranges;
+        this.contentLength = contentLength;
+        this.contentType = contentType;
+        this.boundary = boundary;
+        this.metricsManager = metricsManager;
+        this.metricsConfig = metricsConfig;
+    }
+
+    public boolean isMultipart()
+    {
+        return ranges.size() > 1;
+    }
+
+    /**
+     * The exact number of bytes {@link #write(OutputStream)} will produce, including multipart framing.
+     */
+    public long getResponseLength()
+    {
+        long length = 0;
+        for ( ByteRange range : ranges )
+        {
+            if ( isMultipart() )
+            {
+                length += partHeader( range ).length;
+            }
+            length += range.getLength();
+        }
+
+        if ( isMultipart() )
+        {
+            length += closingBoundary().length;
+        }
+
+        return length;
+    }
+
+    @Override
+    @Measure
+    public void write( final OutputStream out )
+        throws IOException, WebApplicationException
+    {
+        long start = System.nanoTime();
+        try (FileChannel source = channel)
+        {
+            WritableByteChannel target = Channels.newChannel( out );
+            long written = 0;
+            for ( ByteRange range : ranges )
+            {
+                if ( isMultipart() )
+                {
+                    out.write( partHeader( range ) );
+                }
+
+                long position = range.getFirst();
+                long end = range.getLast() + 1;
+                while ( position < end )
+                {
+                    long count = source.transferTo( position, end - position, target );
+                    if ( count <= 0 )
+                    {
+                        throw new IOException( "File was truncated while sending " + range );
+                    }
+                    position += count;
+                }
+
+                written += range.getLength();
+            }
+
+            if ( isMultipart() )
+            {
+                out.write( closingBoundary() );
+            }
+
+            Logger logger = LoggerFactory.getLogger( getClass() );
+            logger.trace( "Wrote: {} bytes in {} range(s)", written, ranges.size() );
+
+            markRawRead( metricsManager, written, start );
+            markTransferRate( metricsManager, metricsConfig, written, start );
+        }
+    }
+
+    private byte[] partHeader( final ByteRange range )
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append( CRLF ).append( "--" ).append( boundary ).append( CRLF );
+        if ( contentType != null )
+        {
+            sb.append( "Content-Type: " ).append( contentType ).append( CRLF );
+        }
+        sb.append( "Content-Range: " ).append( range.toContentRange( contentLength ) ).append( CRLF ).append( CRLF );
+
+        return sb.toString().getBytes( US_ASCII );
+    }
+
+    private byte[] closingBoundary()
+    {
+        return ( CRLF + "--" + boundary + "--" + CRLF ).getBytes( US_ASCII );
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.bind.jaxrs.util;
+
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import org.commonjava.indy.measure.annotation.Measure;
+import org.commonjava.indy.metrics.IndyMetricsManager;
+import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import static org.commonjava.indy.core.bind.jaxrs.util.TransferStreamingOutput.markRawRead;
+import static org.commonjava.indy.core.bind.jaxrs.util.TransferStreamingOutput.markTransferRate;
+
+/**
+ * Sends a locally stored file straight from its {@link FileChannel}. When the response goes directly to Undertow's
+ * servlet stream, the file is handed to {@link ServletOutputStreamImpl#transferFrom(FileChannel)}, which uses sendfile
+ * where the platform supports it. Otherwise the channel is transferred to the output stream without going through an
+ * intermediate heap buffer of ours.
+ * <p>
+ * The channel is opened by the caller while it still holds the transfer's lock, so a concurrent delete doesn't affect
+ * what's sent.
+ */
+public class FileChannelStreamingOutput
+    implements StreamingOutput
+{
+    private final FileChannel channel;
+
+    private final IndyMetricsManager metricsManager;
+
+    private final IndyMetricsConfig metricsConfig;
+
+    public FileChannelStreamingOutput( final FileChannel channel, final IndyMetricsManager metricsManager,
+                                       final IndyMetricsConfig metricsConfig )
+    {
+        this.channel = channel;
+        this.metricsManager = metricsManager;
+        this.metricsConfig = metricsConfig;
+    }
+
+    @Override
+    @Measure
+    public void write( final OutputStream out )
+        throws IOException, WebApplicationException
+    {
+        long start = System.nanoTime();
+        try (FileChannel source = channel)
+        {
+            long size = source.size();
+
+            ServletOutputStreamImpl servletOut = getUndertowOutputStream();
+            if ( servletOut != null )
+            {
+                // commit the response headers through the JAX-RS stream before writing around it
+                out.flush();
+                servletOut.transferFrom( source );
+            }
+            else
+            {
+                WritableByteChannel target = Channels.newChannel( out );
+                long position = 0;
+                while ( position < size )
+                {
+                    position += source.transferTo( position, size - position, target );
+                }
+            }
+
+            Logger logger = LoggerFactory.getLogger( getClass() );
+            logger.trace( "Wrote: {} bytes (sendfile? {})", size, servletOut != null );
+
+            markRawRead( metricsManager, size, start );
+            markTransferRate( metricsManager, metricsConfig, size, start );
+        }
+    }
+
+    private ServletOutputStreamImpl getUndertowOutputStream()
+            throws IOException
+    {
+        HttpServletResponse response = ResteasyProviderFactory.getContextData( HttpServletResponse.class );
+        if ( response != null && response.getOutputStream() instanceof ServletOutputStreamImpl )
+        {
+            return (ServletOutputStreamImpl) response.getOutputStream();
+        }
+
+        return null;
+    }
+}
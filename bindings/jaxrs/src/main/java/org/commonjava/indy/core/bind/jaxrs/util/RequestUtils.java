@@ -33,6 +33,9 @@ import static org.commonjava.indy.IndyRequestConstants.LISTING_HTML_FILE;
 import static org.commonjava.indy.core.ctl.ContentController.BROWSER_USER_AGENT;
 import static org.commonjava.indy.core.ctl.ContentController.CONTENT_BROWSE_API_ROOT;
 import static org.commonjava.indy.core.ctl.ContentController.CONTENT_BROWSE_ROOT;
+import static org.commonjava.indy.util.ApplicationHeader.if_modified_since;
+import static org.commonjava.indy.util.ApplicationHeader.if_none_match;
+import static org.commonjava.indy.util.ApplicationHeader.if_range;
 
 public final class RequestUtils
 {
@@ -109,4 +112,85 @@ public final class RequestUtils
         final String pathInfo = request.getPathInfo().trim();
         return pathInfo.endsWith( "/" ) || pathInfo.endsWith( LISTING_HTML_FILE );
     }
+
+    /**
+     * Evaluate <code>If-None-Match</code> (or, when that is absent, <code>If-Modified-Since</code>) for a GET of
+     * content with the given entity tag (unquoted, may be null) and last-modified time.
+     *
+     * @return true if the client's copy is current and a 304 should be sent
+     */
+    public static boolean isNotModified( final HttpServletRequest request, final String etag, final long lastModified )
+    {
+        final String ifNoneMatch = request.getHeader( if_none_match.key() );
+        if ( ifNoneMatch != null )
+        {
+            if ( etag == null )
+            {
+                return false;
+            }
+
+            for ( String tag : ifNoneMatch.split( "," ) )
+            {
+                tag = tag.trim();
+                if ( tag.startsWith( "W/" ) )
+                {
+                    // If-None-Match uses the weak comparison
+                    tag = tag.substring( 2 );
+                }
+
+                if ( "*".equals( tag ) || quote( etag ).equals( tag ) )
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        final long ifModifiedSince = getDateHeader( request, if_modified_since.key() );
+        return ifModifiedSince > -1 && lastModified > 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Evaluate <code>If-Range</code> for content with the given entity tag (unquoted, may be null) and last-modified
+     * time.
+     *
+     * @return true if there is no <code>If-Range</code> header or it still matches, so a <code>Range</code> header can
+     * be honored
+     */
+    public static boolean isRangeCurrent( final HttpServletRequest request, final String etag, final long lastModified )
+    {
+        final String ifRange = request.getHeader( if_range.key() );
+        if ( ifRange == null )
+        {
+            return true;
+        }
+
+        final String value = ifRange.trim();
+        if ( value.startsWith( "\"" ) || value.startsWith( "W/" ) )
+        {
+            // If-Range uses the strong comparison, so weak tags never match
+            return etag != null && quote( etag ).equals( value );
+        }
+
+        final long date = getDateHeader( request, if_range.key() );
+        return date > -1 && lastModified / 1000 == date / 1000;
+    }
+
+    public static String quote( final String etag )
+    {
+        return "\"" + etag + "\"";
+    }
+
+    private static long getDateHeader( final HttpServletRequest request, final String name )
+    {
+        try
+        {
+            return request.getDateHeader( name );
+        }
+        catch ( final IllegalArgumentException e )
+        {
+            return -1;
+        }
+    }
 }
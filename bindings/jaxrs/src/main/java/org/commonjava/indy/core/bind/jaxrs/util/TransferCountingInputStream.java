@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.function.Function;
 
 import static org.commonjava.indy.IndyContentConstants.NANOS_PER_SEC;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.METER;
@@ -38,6 +39,10 @@ public class TransferCountingInputStream
 
     private static final String TRANSFER_UPLOAD_METRIC_NAME = "indy.transferred.content.upload";
 
+    private static final Function<String, String> TRANSFER_UPLOAD_METER =
+            nodePrefix -> getName( nodePrefix, TRANSFER_UPLOAD_METRIC_NAME,
+                                   getDefaultName( TransferCountingInputStream.class, "read" ), METER );
+
     private IndyMetricsManager metricsManager;
 
     private IndyMetricsConfig metricsConfig;
@@ -71,13 +76,10 @@ public class TransferCountingInputStream
 
             if ( metricsConfig != null && metricsManager != null )
             {
-                String name = getName( metricsConfig.getNodePrefix(), TRANSFER_UPLOAD_METRIC_NAME,
-                                       getDefaultName( TransferCountingInputStream.class, "read" ), METER );
-
                 long end = System.nanoTime();
                 double elapsed = (end-start)/NANOS_PER_SEC;
 
-                Meter meter = metricsManager.getMeter( name );
+                Meter meter = metricsManager.getBoundMeter( TRANSFER_UPLOAD_METER );
                 meter.mark( Math.round( stream.getByteCount() / elapsed ) );
             }
         }
@@ -20,6 +20,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.CountingOutputStream;
 import org.commonjava.indy.measure.annotation.Measure;
 import org.commonjava.indy.metrics.IndyMetricsManager;
+import org.commonjava.indy.metrics.RequestContextHelper;
 import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +30,10 @@ import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+import static org.commonjava.indy.IndyContentConstants.NANOS_PER_MILLISECOND;
 import static org.commonjava.indy.IndyContentConstants.NANOS_PER_SEC;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.METER;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.getDefaultName;
@@ -41,6 +45,17 @@ public class TransferStreamingOutput
 
     private static final String TRANSFER_METRIC_NAME = "indy.transferred.content";
 
+    private static final Function<String, String> TRANSFER_METER =
+            nodePrefix -> getName( nodePrefix, TRANSFER_METRIC_NAME,
+                                   getDefaultName( TransferStreamingOutput.class, "write" ), METER );
+
+    // same names as the filer's TimingInputStream, which records these when content is read through the transfer
+    private static final String RAW_IO_READ = "io.raw.read";
+
+    private static final String RAW_IO_READ_TIMER = RAW_IO_READ + ".timer";
+
+    private static final String RAW_IO_READ_RATE = RAW_IO_READ + ".rate";
+
     private InputStream stream;
 
     private IndyMetricsManager metricsManager;
@@ -69,14 +84,7 @@ public class TransferStreamingOutput
             Logger logger = LoggerFactory.getLogger( getClass() );
             logger.trace( "Wrote: {} bytes", cout.getByteCount() );
 
-            String name = getName( metricsConfig.getNodePrefix(), TRANSFER_METRIC_NAME,
-                                   getDefaultName( TransferStreamingOutput.class, "write" ), METER );
-
-            long end = System.nanoTime();
-            double elapsed = (end-start)/NANOS_PER_SEC;
-
-            Meter meter = metricsManager.getMeter( name );
-            meter.mark( Math.round( cout.getByteCount() / elapsed ) );
+            markTransferRate( metricsManager, metricsConfig, cout.getByteCount(), start );
         }
         finally
         {
@@ -84,4 +92,45 @@ public class TransferStreamingOutput
         }
     }
 
+    /**
+     * Mark the transferred-content meter with the rate of a transfer that started at the given {@link System#nanoTime()}.
+     */
+    static void markTransferRate( final IndyMetricsManager metricsManager, final IndyMetricsConfig metricsConfig,
+                                  final long bytes, final long start )
+    {
+        if ( !metricsConfig.isMetricsEnabled() )
+        {
+            return;
+        }
+
+        long end = System.nanoTime();
+        double elapsed = (end-start)/NANOS_PER_SEC;
+
+        Meter meter = metricsManager.getBoundMeter( TRANSFER_METER );
+        meter.mark( Math.round( bytes / elapsed ) );
+    }
+
+    /**
+     * Record the raw read metrics for content that was sent straight from its file channel, starting at the given
+     * {@link System#nanoTime()}. The channel bypasses the transfer's decorators, so the ones the filer's
+     * IOLatencyDecorator records for a read through the transfer stream are recorded here instead.
+     */
+    static void markRawRead( final IndyMetricsManager metricsManager, final long bytes, final long start )
+    {
+        long elapsed = System.nanoTime() - start;
+        RequestContextHelper.setContext( RequestContextHelper.RAW_IO_WRITE_NANOS, elapsed );
+
+        if ( metricsManager == null )
+        {
+            return;
+        }
+
+        metricsManager.getMetricRegistry().timer( RAW_IO_READ_TIMER ).update( elapsed, TimeUnit.NANOSECONDS );
+        if ( elapsed > 0 )
+        {
+            metricsManager.getMeter( RAW_IO_READ_RATE ).mark( (long) ( bytes / ( elapsed / NANOS_PER_SEC ) ) );
+        }
+        metricsManager.accumulate( RAW_IO_READ, elapsed / NANOS_PER_MILLISECOND );
+    }
+
 }
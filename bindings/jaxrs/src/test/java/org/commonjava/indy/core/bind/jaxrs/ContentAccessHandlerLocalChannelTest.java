@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.bind.jaxrs;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.indy.core.change.event.IndyFileEventManager;
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.FilePatternMatcher;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.commonjava.maven.galley.model.SpecialPathInfo;
+import org.commonjava.maven.galley.model.Transfer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.commonjava.indy.core.content.ContentMetadataGenerator.FORCE_CHECKSUM_AND_WRITE;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ContentAccessHandlerLocalChannelTest
+{
+    private static final String PATH = "org/foo/bar/1/bar-1.jar";
+
+    private static final String CONTENT = "This is the jar content";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private ContentAccessHandler handler;
+
+    private File file;
+
+    @Before
+    public void setup()
+            throws Exception
+    {
+        handler = new ContentAccessHandler( null, null, null );
+        handler.fileEventManager = new IndyFileEventManager();
+
+        file = new File( temp.newFolder(), PATH );
+        FileUtils.write( file, CONTENT, UTF_8 );
+    }
+
+    @Test
+    public void plainLocalFileIsSentFromChannel()
+            throws Exception
+    {
+        try (FileChannel channel = handler.openLocalChannel( transfer( file.length() ), null, new EventMetadata() ))
+        {
+            assertThat( channel, notNullValue() );
+            assertThat( channel.size(), equalTo( (long) CONTENT.length() ) );
+        }
+    }
+
+    @Test
+    public void metadataPathIsStreamed()
+            throws Exception
+    {
+        SpecialPathInfo spi = SpecialPathInfo.from( new FilePatternMatcher( ".+\\.jar" ) ).setMetadata( true ).build();
+
+        assertThat( handler.openLocalChannel( transfer( file.length() ), spi, new EventMetadata() ), nullValue() );
+    }
+
+    @Test
+    public void forcedChecksumRepairIsStreamed()
+            throws Exception
+    {
+        EventMetadata eventMetadata = new EventMetadata().set( FORCE_CHECKSUM_AND_WRITE, Boolean.TRUE );
+
+        assertThat( handler.openLocalChannel( transfer( file.length() ), null, eventMetadata ), nullValue() );
+    }
+
+    @Test
+    public void lengthMismatchIsStreamed()
+            throws Exception
+    {
+        assertThat( handler.openLocalChannel( transfer( file.length() + 1 ), null, new EventMetadata() ),
+                    nullValue() );
+    }
+
+    /**
+     * A transfer of the test file, reporting the given length as if a storage layer in between changed it.
+     */
+    private Transfer transfer( final long length )
+    {
+        ConcreteResource resource = new ConcreteResource( new SimpleLocation( "test" ), PATH );
+        return new Transfer( resource, null, null, null )
+        {
+            @Override
+            public File getDetachedFile()
+            {
+                return file;
+            }
+
+            @Override
+            public long length()
+            {
+                return length;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.bind.jaxrs.util;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ByteRangeTest
+{
+    @Test
+    public void parseSingleAndSuffixRanges()
+    {
+        List<ByteRange> ranges = ByteRange.parse( "bytes=0-99, 500-, -10", 1000 );
+
+        assertThat( ranges.size(), equalTo( 3 ) );
+        assertThat( ranges.get( 0 ).toContentRange( 1000 ), equalTo( "bytes 0-99/1000" ) );
+        assertThat( ranges.get( 1 ).toContentRange( 1000 ), equalTo( "bytes 500-999/1000" ) );
+        assertThat( ranges.get( 2 ).toContentRange( 1000 ), equalTo( "bytes 990-999/1000" ) );
+        assertThat( ranges.get( 2 ).getLength(), equalTo( 10L ) );
+    }
+
+    @Test
+    public void clampLastBytePosition()
+    {
+        List<ByteRange> ranges = ByteRange.parse( "bytes=900-5000", 1000 );
+
+        assertThat( ranges.size(), equalTo( 1 ) );
+        assertThat( ranges.get( 0 ).getLast(), equalTo( 999L ) );
+    }
+
+    @Test
+    public void unsatisfiableRangesGiveEmptyList()
+    {
+        assertThat( ByteRange.parse( "bytes=1000-1100, -0", 1000 ).isEmpty(), equalTo( true ) );
+    }
+
+    @Test
+    public void malformedOrForeignRangesAreIgnored()
+    {
+        assertThat( ByteRange.parse( null, 1000 ), nullValue() );
+        assertThat( ByteRange.parse( "items=0-1", 1000 ), nullValue() );
+        assertThat( ByteRange.parse( "bytes=5-1", 1000 ), nullValue() );
+        assertThat( ByteRange.parse( "bytes=a-b", 1000 ), nullValue() );
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.change;
+
+import org.commonjava.indy.change.event.ArtifactStoreDeletePostEvent;
+import org.commonjava.indy.change.event.ArtifactStoreEnablementEvent;
+import org.commonjava.indy.change.event.ArtifactStorePostUpdateEvent;
+import org.commonjava.indy.core.inject.AbstractNotFoundCache;
+import org.commonjava.maven.galley.spi.nfc.NotFoundCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import static org.commonjava.indy.change.event.ArtifactStoreUpdateType.ADD;
+
+/**
+ * Drops group-level "missing in all members" NFC entries (see {@link AbstractNotFoundCache#isMissingInGroup}) when
+ * group membership may have changed. We clear all of them rather than computing affected groups, because the
+ * affected-by calculation honors the exclude filter (temp build groups) and store updates are rare compared to reads.
+ * Newly added stores can't be a member of anything with an entry yet, so ADD is ignored.
+ */
+@ApplicationScoped
+public class GroupMissingNfcListener
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    @Inject
+    private NotFoundCache nfc;
+
+    public void onStoreUpdate( @Observes final ArtifactStorePostUpdateEvent event )
+    {
+        if ( event.getType() != ADD )
+        {
+            clear( event );
+        }
+    }
+
+    public void onStoreEnablement( @Observes final ArtifactStoreEnablementEvent event )
+    {
+        if ( !event.isPreprocessing() )
+        {
+            clear( event );
+        }
+    }
+
+    public void onStoreDeletion( @Observes final ArtifactStoreDeletePostEvent event )
+    {
+        clear( event );
+    }
+
+    private void clear( final Object event )
+    {
+        if ( nfc instanceof AbstractNotFoundCache )
+        {
+            logger.debug( "Clearing group-level NFC entries after: {}", event );
+            ( (AbstractNotFoundCache) nfc ).clearAllMissingInGroups();
+        }
+    }
+}
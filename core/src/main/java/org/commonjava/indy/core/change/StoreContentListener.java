@@ -25,6 +25,7 @@ import org.commonjava.indy.change.event.ArtifactStoreEnablementEvent;
 import org.commonjava.indy.change.event.ArtifactStorePreUpdateEvent;
 import org.commonjava.indy.content.DirectContentAccess;
 import org.commonjava.indy.content.StoreContentAction;
+import org.commonjava.indy.core.content.group.MergedPathRegistry;
 import org.commonjava.indy.data.IndyDataException;
 import org.commonjava.indy.data.StoreDataManager;
 import org.commonjava.indy.measure.annotation.Measure;
@@ -32,8 +33,11 @@ import org.commonjava.indy.model.core.ArtifactStore;
 import org.commonjava.indy.model.core.Group;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.model.core.StoreType;
+import org.commonjava.indy.util.LocationUtils;
+import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.SpecialPathInfo;
 import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.spi.nfc.NotFoundCache;
 import org.commonjava.maven.galley.spi.io.SpecialPathManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,8 +46,12 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -54,6 +62,7 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static org.commonjava.indy.change.event.ArtifactStoreUpdateType.UPDATE;
+import static org.commonjava.indy.core.content.group.GroupMergeHelper.MERGEINFO_SUFFIX;
 import static org.commonjava.indy.core.change.StoreChangeUtil.delete;
 import static org.commonjava.indy.core.change.StoreChangeUtil.getDiffMembers;
 import static org.commonjava.indy.core.change.StoreChangeUtil.listPathsAnd;
@@ -85,6 +94,38 @@ public class StoreContentListener
     @Inject
     private StoreDataManager storeDataManager;
 
+    @Inject
+    private MergedPathRegistry mergedPathRegistry;
+
+    @Inject
+    private NotFoundCache nfc;
+
+    private static final int CLEANUP_BATCH_SIZE = 500;
+
+    /**
+     * Files stored next to a merged file, which are registered only by the merged file itself.
+     */
+    private static final String[] MERGED_SIBLING_SUFFIXES = { ".md5", ".sha1", ".sha256", MERGEINFO_SUFFIX };
+
+    protected StoreContentListener()
+    {
+    }
+
+    public StoreContentListener( final DirectContentAccess directContentAccess,
+                                 final Instance<StoreContentAction> storeContentActions,
+                                 final SpecialPathManager specialPathManager,
+                                 final WeftExecutorService cleanupExecutor, final StoreDataManager storeDataManager,
+                                 final MergedPathRegistry mergedPathRegistry, final NotFoundCache nfc )
+    {
+        this.directContentAccess = directContentAccess;
+        this.storeContentActions = storeContentActions;
+        this.specialPathManager = specialPathManager;
+        this.cleanupExecutor = cleanupExecutor;
+        this.storeDataManager = storeDataManager;
+        this.mergedPathRegistry = mergedPathRegistry;
+        this.nfc = nfc;
+    }
+
     /**
      * Handles store disable/enablement.
      */
@@ -95,7 +136,7 @@ public class StoreContentListener
         if ( event.isPreprocessing() )
         {
             Set<StoreKey> keys = event.getStores().stream().map( ArtifactStore::getKey ).collect( Collectors.toSet() );
-            clearPaths( keys, mergablePath(), false );
+            clearPaths( keys, true, false );
         }
     }
 
@@ -104,7 +145,8 @@ public class StoreContentListener
     {
         logger.trace( "Got store-delete event: {}", event );
         Set<StoreKey> keys = event.getStores().stream().map( ArtifactStore::getKey ).collect( Collectors.toSet() );
-        clearPaths( keys, allPath(), true );
+        clearPaths( keys, false, true );
+        keys.stream().filter( key -> key.getType() == group ).forEach( mergedPathRegistry::clear );
     }
 
     @Measure
@@ -156,8 +198,8 @@ public class StoreContentListener
 
         final boolean deleteOriginPath = false;
 
-        clearPaths( added, mergablePath(), groups, deleteOriginPath );
-        clearPaths( removed, allPath(), groups, deleteOriginPath );
+        clearPaths( added, true, groups, deleteOriginPath );
+        clearPaths( removed, false, groups, deleteOriginPath );
     }
 
     private int clearPath( String path, ArtifactStore store )
@@ -221,26 +263,35 @@ public class StoreContentListener
         return cleared.get();
     }
 
-    private void clearPaths( Set<StoreKey> keys, Predicate<? super String> pathFilter, boolean deleteOriginPath )
+    private void clearPaths( Set<StoreKey> keys, boolean mergableOnly, boolean deleteOriginPath )
     {
-        clearPaths( keys, pathFilter, null, deleteOriginPath );
+        clearPaths( keys, mergableOnly, null, deleteOriginPath );
     }
 
     /**
-     * List the paths in target store and clean up the paths in affected groups.
+     * Clean up the paths of the target stores in affected groups. If only mergable paths are cleared (or the origin is
+     * a remote repo), the files merged in the affected groups are listed from the group storage, extended by the
+     * {@link MergedPathRegistry}, and each group is cleared once, in batches. Otherwise, the paths in target store are
+     * listed and cleaned up in affected groups.
      *
      * If groups are given, use them (for group update since all members share same group hierarchy). Otherwise,
      * query the affected groups (for store deletion and dis/enable event).
      */
-    private void clearPaths( final Set<StoreKey> keys, Predicate<? super String> pathFilter, final Set<Group> groups,
+    private void clearPaths( final Set<StoreKey> keys, final boolean mergableOnly, final Set<Group> groups,
                             final boolean deleteOriginPath )
     {
+        final Predicate<? super String> pathFilter = mergableOnly ? mergablePath() : allPath();
+
         //NOSSUP-76 we still need to use synchronized/drain way to clean the paths now, because sometimes the new used metadata
         //          not updated in time when some builds want to consume them as the obsolete metadata not cleared under
         //          async way.
         DrainingExecutorCompletionService<Integer> clearService =
                 new DrainingExecutorCompletionService<>( cleanupExecutor );
 
+        // the merged files of a group only need to be cleared once, whatever the number of origins affecting it
+        Map<StoreKey, Group> mergedGroups = new LinkedHashMap<>();
+        Map<StoreKey, Set<ArtifactStore>> mergedOrigins = new LinkedHashMap<>();
+
         keys.forEach( key -> {
             ArtifactStore origin;
             try
@@ -267,11 +318,24 @@ public class StoreContentListener
                 }
             }
 
+            if ( mergableOnly || origin.getType() == StoreType.remote )
+            {
+                affected.forEach( g -> {
+                    mergedGroups.putIfAbsent( g.getKey(), g );
+                    mergedOrigins.computeIfAbsent( g.getKey(), k -> new LinkedHashSet<>() ).add( origin );
+                } );
+                return;
+            }
+
             logger.debug( "Submit clean job for origin: {}", origin );
             final Set<Group> affectedGroups = affected;
-            clearService.submit( clearPathsProcessor( origin, pathFilter, affectedGroups, deleteOriginPath ) );
+            clearService.submit( () -> listPathsAnd( origin.getKey(), pathFilter,
+                                                     p -> clearPath( p, origin, affectedGroups, deleteOriginPath ),
+                                                     this.directContentAccess ) );
         } );
 
+        mergedGroups.forEach( ( key, g ) -> submitMergedPaths( clearService, g, mergedOrigins.get( key ) ) );
+
         drainAndCount( clearService, "stores: " + keys );
     }
 
@@ -293,26 +357,103 @@ public class StoreContentListener
     }
 
     /**
-     * We do clean-up in different ways. If the origin is hosted repo, we list it and clean the paths in affected groups.
-     * If the origin is a remote repo, we find the affected groups, list them and clear ALL mergable paths. If the
-     * origin is a group, we list it (cached files) and clean the paths from affected groups.
+     * Submit the clean-up of the mergable paths merged in the group, in batches. If any origin is a remote repo, ALL
+     * of them are cleared. Otherwise (hosted repos or groups), only the paths stored by at least one origin (cached
+     * files for a group) are cleared, which is checked per path instead of listing the origins.
      */
-    private Callable<Integer> clearPathsProcessor( ArtifactStore origin, Predicate<? super String> pathFilter,
-                                                   Set<Group> affectedGroups, boolean deleteOriginPath )
+    private void submitMergedPaths( final DrainingExecutorCompletionService<Integer> clearService, final Group group,
+                                    final Set<ArtifactStore> origins )
     {
-        if ( origin.getType() == StoreType.remote )
+        final Predicate<? super String> mergable = mergablePath();
+
+        Set<String> paths = new LinkedHashSet<>();
+        mergedPathRegistry.getMergedPaths( group.getKey(), this::listStoredPaths ).forEach( p -> {
+            paths.add( p );
+            for ( String suffix : MERGED_SIBLING_SUFFIXES )
+            {
+                paths.add( p + suffix );
+            }
+        } );
+        paths.removeIf( p -> !mergable.test( p ) );
+
+        logger.debug( "Submit clean jobs for {} merged paths in: {}, origins: {}", paths.size(), group.getKey(),
+                      origins.stream().map( ArtifactStore::getKey ).collect( Collectors.toList() ) );
+
+        // misses of the group are not registered, but the origin may provide them now
+        Set<String> missing = nfc.getMissing( LocationUtils.toLocation( group ) );
+        if ( missing != null )
         {
-            return () -> listPathsAnd( affectedGroups, mergablePath(), this::clearPath,
-                                       this.directContentAccess );
+            missing.stream()
+                   .filter( mergable )
+                   .forEach( p -> nfc.clearMissing(
+                                   new ConcreteResource( LocationUtils.toLocation( group ), p ) ) );
         }
-        else
+
+        List<String> all = new ArrayList<>( paths );
+        for ( int i = 0; i < all.size(); i += CLEANUP_BATCH_SIZE )
         {
-            return () -> listPathsAnd( origin.getKey(), pathFilter,
-                                       p -> clearPath( p, origin, affectedGroups, deleteOriginPath ),
-                                       this.directContentAccess );
+            final List<String> batch = all.subList( i, Math.min( i + CLEANUP_BATCH_SIZE, all.size() ) );
+            clearService.submit( clearMergedPaths( batch, group, origins ) );
         }
     }
 
+    private Callable<Integer> clearMergedPaths( final List<String> batch, final Group group,
+                                                final Set<ArtifactStore> origins )
+    {
+        final boolean anyRemote = origins.stream().anyMatch( origin -> origin.getType() == StoreType.remote );
+        return () -> {
+            int cleared = 0;
+            List<String> done = new ArrayList<>();
+            Set<Group> affectedGroups = Collections.singleton( group );
+            for ( String path : batch )
+            {
+                if ( anyRemote )
+                {
+                    cleared += clearPath( path, group );
+                }
+                else
+                {
+                    List<ArtifactStore> storing =
+                            origins.stream().filter( origin -> isStored( origin, path ) ).collect( Collectors.toList() );
+                    if ( storing.isEmpty() )
+                    {
+                        continue;
+                    }
+
+                    for ( ArtifactStore origin : storing )
+                    {
+                        cleared += clearPath( path, origin, affectedGroups, false );
+                    }
+                }
+                done.add( path );
+            }
+
+            mergedPathRegistry.unregister( group.getKey(), done );
+            return cleared;
+        };
+    }
+
+    private boolean isStored( final ArtifactStore store, final String path )
+    {
+        try
+        {
+            Transfer transfer = directContentAccess.getTransfer( store, path );
+            return transfer != null && transfer.exists();
+        }
+        catch ( IndyWorkflowException e )
+        {
+            logger.warn( "Failed to retrieve transfer for: {} in: {}", path, store.getKey(), e );
+            return false;
+        }
+    }
+
+    private Set<String> listStoredPaths( final StoreKey key )
+    {
+        Set<String> paths = new HashSet<>();
+        listPathsAnd( key, allPath(), paths::add, this.directContentAccess );
+        return paths;
+    }
+
     private Predicate<? super String> mergablePath()
     {
         return ( path ) -> {
@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.change.event;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.commonjava.indy.change.event.AsyncFileEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link AsyncFileEvent}s from a fixed number of lanes, each a single thread draining a bounded queue. The
+ * lane is chosen from the event's store key, so events for one store are delivered in the order they were fired.
+ * <p>
+ * Backpressure: a producer waits briefly for room in a full lane, then delivers the event itself. That (like events
+ * fired from a lane thread, which are never queued, to avoid a lane waiting on itself) can overtake events already
+ * queued for the same store. {@link #stop(long)} stops accepting events and drains what's queued before returning; an
+ * event that lands in a lane after that is taken back and delivered by its producer.
+ */
+public class AsyncFileEventDispatcher
+        implements MetricSet
+{
+    private static final long OFFER_TIMEOUT_MILLIS = 50;
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final Consumer<AsyncFileEvent> delivery;
+
+    private final Lane[] lanes;
+
+    private final LongAdder dispatched = new LongAdder();
+
+    private final LongAdder inline = new LongAdder();
+
+    private volatile boolean stopped;
+
+    public AsyncFileEventDispatcher( final String name, final int laneCount, final int queueSize,
+                                     final Consumer<AsyncFileEvent> delivery )
+    {
+        this.delivery = delivery;
+        this.lanes = new Lane[Math.max( 1, laneCount )];
+        for ( int i = 0; i < lanes.length; i++ )
+        {
+            lanes[i] = new Lane( name + "-" + i, queueSize );
+            lanes[i].start();
+        }
+    }
+
+    public void dispatch( final AsyncFileEvent event )
+    {
+        if ( stopped || Thread.currentThread() instanceof Lane )
+        {
+            deliverInline( event );
+            return;
+        }
+
+        Lane lane = lanes[Math.floorMod( Objects.hashCode( event.getStoreKey() ), lanes.length )];
+        try
+        {
+            if ( lane.queue.offer( event, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS ) )
+            {
+                // stop() may have drained this lane for the last time while we were offering; if the event is still
+                // there, nobody else will deliver it
+                if ( !stopped || !lane.queue.remove( event ) )
+                {
+                    return;
+                }
+            }
+            else
+            {
+                logger.debug( "File-event lane {} is full; delivering inline: {}", lane.getName(), event );
+            }
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        deliverInline( event );
+    }
+
+    /**
+     * Stop accepting new events and wait up to the given time for the lanes to drain. Anything still queued after
+     * that is delivered on the calling thread.
+     */
+    public void stop( final long timeoutMillis )
+    {
+        stopped = true;
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for ( Lane lane : lanes )
+        {
+            try
+            {
+                lane.join( Math.max( 1, deadline - System.currentTimeMillis() ) );
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<AsyncFileEvent> remaining = new ArrayList<>();
+        for ( Lane lane : lanes )
+        {
+            lane.interrupt();
+            lane.queue.drainTo( remaining );
+        }
+
+        if ( !remaining.isEmpty() )
+        {
+            logger.info( "Delivering {} remaining async file events inline on shutdown", remaining.size() );
+            remaining.forEach( this::deliverInline );
+        }
+    }
+
+    public int getQueued()
+    {
+        int queued = 0;
+        for ( Lane lane : lanes )
+        {
+            queued += lane.queue.size();
+        }
+        return queued;
+    }
+
+    public int getMaxLaneDepth()
+    {
+        int max = 0;
+        for ( Lane lane : lanes )
+        {
+            max = Math.max( max, lane.queue.size() );
+        }
+        return max;
+    }
+
+    public long getDispatchedCount()
+    {
+        return dispatched.sum();
+    }
+
+    public long getInlineCount()
+    {
+        return inline.sum();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics()
+    {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put( "queued", (Gauge<Integer>) this::getQueued );
+        gauges.put( "max-lane-depth", (Gauge<Integer>) this::getMaxLaneDepth );
+        gauges.put( "dispatched", (Gauge<Long>) this::getDispatchedCount );
+        gauges.put( "inline", (Gauge<Long>) this::getInlineCount );
+        return gauges;
+    }
+
+    private void deliverInline( final AsyncFileEvent event )
+    {
+        inline.increment();
+        deliver( event );
+    }
+
+    private void deliver( final AsyncFileEvent event )
+    {
+        try
+        {
+            delivery.accept( event );
+        }
+        catch ( final RuntimeException e )
+        {
+            logger.error( String.format( "Error delivering async file event: %s. Reason: %s", event, e.getMessage() ),
+                          e );
+        }
+        finally
+        {
+            dispatched.increment();
+        }
+    }
+
+    private final class Lane
+            extends Thread
+    {
+        private final BlockingQueue<AsyncFileEvent> queue;
+
+        private Lane( final String name, final int queueSize )
+        {
+            super( name );
+            setDaemon( true );
+            this.queue = new LinkedBlockingQueue<>( Math.max( 1, queueSize ) );
+        }
+
+        @Override
+        public void run()
+        {
+            while ( !stopped || !queue.isEmpty() )
+            {
+                try
+                {
+                    AsyncFileEvent event = queue.poll( POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS );
+                    if ( event != null )
+                    {
+                        deliver( event );
+                    }
+                }
+                catch ( final InterruptedException e )
+                {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.change.event;
+
+import com.codahale.metrics.MetricRegistry;
+import org.commonjava.indy.metrics.MetricSetProvider;
+import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Registers queue-depth and inline-delivery gauges for async file-event dispatch, when it's enabled.
+ */
+@ApplicationScoped
+public class FileEventDispatchMetricSetProvider
+        implements MetricSetProvider
+{
+    private static final String FILE_EVENT_DISPATCH = "file-event.async-dispatch";
+
+    @Inject
+    private IndyFileEventManager fileEventManager;
+
+    @Inject
+    private IndyMetricsConfig metricsConfig;
+
+    @Override
+    public void registerMetricSet( final MetricRegistry registry )
+    {
+        AsyncFileEventDispatcher dispatcher = fileEventManager.getAsyncDispatcher();
+        if ( dispatcher != null )
+        {
+            Logger logger = LoggerFactory.getLogger( getClass() );
+            logger.info( "Adding async file-event dispatch gauges to registry: {}", registry );
+
+            registry.register( name( metricsConfig.getNodePrefix(), FILE_EVENT_DISPATCH ), dispatcher );
+        }
+    }
+}
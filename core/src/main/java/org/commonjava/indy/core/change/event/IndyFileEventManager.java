@@ -15,17 +15,23 @@
  */
 package org.commonjava.indy.core.change.event;
 
+import org.commonjava.indy.change.event.AsyncFileEvent;
+import org.commonjava.indy.change.event.CoreEventManagerConstants;
 import org.commonjava.indy.change.event.IndyStoreErrorEvent;
+import org.commonjava.indy.conf.IndyConfiguration;
 import org.commonjava.indy.content.ContentManager;
 import org.commonjava.maven.galley.event.EventMetadata;
 import org.commonjava.maven.galley.event.FileAccessEvent;
 import org.commonjava.maven.galley.event.FileDeletionEvent;
 import org.commonjava.maven.galley.event.FileErrorEvent;
+import org.commonjava.maven.galley.event.FileEvent;
 import org.commonjava.maven.galley.event.FileNotFoundEvent;
 import org.commonjava.maven.galley.event.FileStorageEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
@@ -40,6 +46,8 @@ public class IndyFileEventManager
         implements org.commonjava.maven.galley.spi.event.FileEventManager
 {
 
+    private static final long SHUTDOWN_DRAIN_MILLIS = 30000;
+
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
     @Inject
@@ -60,12 +68,45 @@ public class IndyFileEventManager
     @Inject
     private Event<IndyStoreErrorEvent> storeErrorEvent;
 
-//    @ExecutorConfig( named = CoreEventManagerConstants.DISPATCH_EXECUTOR_NAME,
-//                     threads = CoreEventManagerConstants.DISPATCH_EXECUTOR_THREADS,
-//                     priority = CoreEventManagerConstants.DISPATCH_EXECUTOR_PRIORITY )
-//    @WeftManaged
-//    @Inject
-//    private Executor executor;
+    @Inject
+    private Event<AsyncFileEvent> asyncEvent;
+
+    @Inject
+    private IndyConfiguration config;
+
+    private AsyncFileEventDispatcher asyncDispatcher;
+
+    @PostConstruct
+    public void start()
+    {
+        if ( config != null && config.isFileEventAsyncEnabled() )
+        {
+            logger.info( "Starting async file-event dispatch with {} lanes (queue size: {})",
+                         config.getFileEventAsyncLanes(), config.getFileEventAsyncQueueSize() );
+
+            asyncDispatcher = new AsyncFileEventDispatcher( CoreEventManagerConstants.DISPATCH_EXECUTOR_NAME,
+                                                            config.getFileEventAsyncLanes(),
+                                                            config.getFileEventAsyncQueueSize(),
+                                                            evt -> fireEvent( asyncEvent, evt ) );
+        }
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        if ( asyncDispatcher != null )
+        {
+            asyncDispatcher.stop( SHUTDOWN_DRAIN_MILLIS );
+        }
+    }
+
+    /**
+     * Null unless async file-event dispatch is enabled.
+     */
+    public AsyncFileEventDispatcher getAsyncDispatcher()
+    {
+        return asyncDispatcher;
+    }
 
     @Override
     public void fire( final FileNotFoundEvent evt )
@@ -81,6 +122,7 @@ public class IndyFileEventManager
         if ( shouldFireEvent( evt.getEventMetadata() ) )
         {
             fireEvent( storageEvent, evt );
+            fireAsync( evt );
         }
     }
 
@@ -90,6 +132,7 @@ public class IndyFileEventManager
         if ( shouldFireEvent( evt.getEventMetadata() ) )
         {
             fireEvent( accessEvent, evt );
+            fireAsync( evt );
         }
     }
 
@@ -99,6 +142,7 @@ public class IndyFileEventManager
         if ( shouldFireEvent( evt.getEventMetadata() ) )
         {
             fireEvent( deleteEvent, evt );
+            fireAsync( evt );
         }
     }
 
@@ -116,6 +160,24 @@ public class IndyFileEventManager
         fireEvent( storeErrorEvent, evt );
     }
 
+    private void fireAsync( final FileEvent evt )
+    {
+        if ( asyncEvent == null )
+        {
+            return;
+        }
+
+        AsyncFileEvent async = new AsyncFileEvent( evt );
+        if ( asyncDispatcher != null )
+        {
+            asyncDispatcher.dispatch( async );
+        }
+        else
+        {
+            fireEvent( asyncEvent, async );
+        }
+    }
+
     private boolean shouldFireEvent( EventMetadata eventMetadata )
     {
         return ( eventMetadata == null || !Boolean.TRUE.equals( eventMetadata.get( ContentManager.SUPPRESS_EVENTS ) ) );
@@ -42,6 +42,10 @@ public class IndySchedulerConfig
 
     private static final String CLUSTER_LOCK_EXPIRATION = "schedule.cluster.lock.expiration.sec";
 
+    private static final String CONTENT_EXPIRATION_WHEEL_ENABLED = "content.expiration.wheel.enabled";
+
+    private static final String CONTENT_EXPIRATION_WHEEL_TICK = "content.expiration.wheel.tick.sec";
+
 //    @Deprecated
 //    private static final String QUARTZ_DATASOURCE_PREFIX = "org.quartz.dataSource.ds.";
 //
@@ -66,10 +70,18 @@ public class IndySchedulerConfig
 
     private static final int DEFAULT_CLUSTER_LOCK_EXPIRATION = 3600;
 
+    private static final boolean DEFAULT_CONTENT_EXPIRATION_WHEEL_ENABLED = false;
+
+    private static final int DEFAULT_CONTENT_EXPIRATION_WHEEL_TICK = 60;
+
     private Boolean enabled;
 
     private Integer clusterLockExpiration;
 
+    private Boolean contentExpirationWheelEnabled;
+
+    private Integer contentExpirationWheelTick;
+
 //    @Deprecated
 //    private transient boolean dbDetailsParsed;
 //
@@ -145,6 +157,44 @@ public class IndySchedulerConfig
         return clusterLockExpiration == null ? DEFAULT_CLUSTER_LOCK_EXPIRATION : clusterLockExpiration;
     }
 
+    /**
+     * Whether content expirations are kept in per-store timing wheels (see
+     * {@link org.commonjava.indy.core.expire.ContentExpirationWheel}) instead of one schedule cache entry per file.
+     */
+    public boolean isContentExpirationWheelEnabled()
+    {
+        return contentExpirationWheelEnabled == null ?
+                DEFAULT_CONTENT_EXPIRATION_WHEEL_ENABLED :
+                contentExpirationWheelEnabled;
+    }
+
+    /**
+     * Width in seconds of the finest buckets of the content expiration wheel, i.e. how late an expiration may fire.
+     */
+    public int getContentExpirationWheelTick()
+    {
+        return contentExpirationWheelTick == null ? DEFAULT_CONTENT_EXPIRATION_WHEEL_TICK : contentExpirationWheelTick;
+    }
+
+    @Override
+    public void parameter( final String name, final String value )
+            throws ConfigurationException
+    {
+        super.parameter( name, value );
+
+        switch ( name )
+        {
+            case CONTENT_EXPIRATION_WHEEL_ENABLED:
+                this.contentExpirationWheelEnabled = Boolean.valueOf( value.trim() );
+                break;
+            case CONTENT_EXPIRATION_WHEEL_TICK:
+                this.contentExpirationWheelTick = Integer.valueOf( value.trim() );
+                break;
+            default:
+                break;
+        }
+    }
+
 //    @Deprecated
 //    public String getDdlFile()
 //    {
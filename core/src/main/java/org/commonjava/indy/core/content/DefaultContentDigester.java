@@ -15,7 +15,7 @@
  */
 package org.commonjava.indy.core.content;
 
-import org.apache.commons.io.IOUtils;
+import org.commonjava.cdi.util.weft.Locker;
 import org.commonjava.indy.IndyWorkflowException;
 import org.commonjava.indy.content.ContentDigester;
 import org.commonjava.indy.content.DirectContentAccess;
@@ -34,6 +34,7 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.commonjava.maven.galley.io.ChecksummingTransferDecorator.FORCE_CHECKSUM;
 
@@ -57,6 +58,15 @@ public class DefaultContentDigester
 
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    private static final int DIGEST_LOCK_TIMEOUT_SECONDS = 300;
+
+    // don't need to inject since it's only used internally
+    private final Locker<String> digestLocks = new Locker<>();
+
+    private final ThreadLocal<byte[]> digestBuffer = ThreadLocal.withInitial( () -> new byte[DIGEST_BUFFER_SIZE] );
+
     protected DefaultContentDigester()
     {
     }
@@ -135,24 +145,68 @@ public class DefaultContentDigester
         }
 
         String cacheKey = generateCacheKey( transfer );
-        logger.debug( "TransferMetadata missing for: {}. Re-reading with FORCE_CHECKSUM now to calculate it.",
-                      cacheKey );
+        AtomicReference<IndyWorkflowException> wfError = new AtomicReference<>();
+
+        // concurrent requests for the same content wait for the first one to calculate the checksums, then pick them
+        // up from the cache instead of reading the content again.
+        TransferMetadata result = digestLocks.lockAnd( cacheKey, DIGEST_LOCK_TIMEOUT_SECONDS, k -> {
+            TransferMetadata calculated = getContentMetadata( transfer );
+            if ( calculated != null )
+            {
+                logger.debug( "TransferMetadata for: {} was calculated while waiting for lock", cacheKey );
+                return calculated;
+            }
+
+            logger.debug( "TransferMetadata missing for: {}. Re-reading with FORCE_CHECKSUM now to calculate it.",
+                          cacheKey );
+
+            try
+            {
+                readForChecksums( transfer, eventMetadata );
+            }
+            catch ( IndyWorkflowException e )
+            {
+                wfError.set( e );
+                return null;
+            }
+
+            logger.debug( "Retrying TransferMetadata retrieval from cache for: {} after recalculating", cacheKey );
+
+            return getContentMetadata( transfer );
+        }, ( k, lock ) -> {
+            logger.error( "Failed to acquire checksum calculation lock on: {} in {} seconds.", k,
+                          DIGEST_LOCK_TIMEOUT_SECONDS );
+            return false;
+        } );
+
+        IndyWorkflowException error = wfError.get();
+        if ( error != null )
+        {
+            throw error;
+        }
 
+        return result;
+    }
+
+    private void readForChecksums( final Transfer transfer, final EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
         EventMetadata forcedEventMetadata = new EventMetadata( eventMetadata ).set( FORCE_CHECKSUM, Boolean.TRUE );
         try(InputStream stream = transfer.openInputStream( false, forcedEventMetadata ) )
         {
             // depend on ChecksummingTransferDecorator to calculate / store metadata as this gets read, using
-            // the FORCE_CHECKSUM metadata key to control its generation.
-            IOUtils.toByteArray( stream );
+            // the FORCE_CHECKSUM metadata key to control its generation. The content itself is not needed, so just
+            // stream it through a reused buffer rather than holding it all in memory.
+            final byte[] buffer = digestBuffer.get();
+            while ( stream.read( buffer ) != -1 )
+            {
+                // nothing to do, the decorator sees every byte as it goes by
+            }
         }
         catch ( IOException e )
         {
             throw new IndyWorkflowException( "Failed to calculate checksums (MD5, SHA-256, etc.) for: %s. Reason: %s",
                                              e, transfer, e.getMessage() );
         }
-
-        logger.debug( "Retrying TransferMetadata retrieval from cache for: {} after recalculating", cacheKey );
-
-        return getContentMetadata( transfer );
     }
 }
@@ -24,6 +24,7 @@ import org.commonjava.indy.content.ContentManager;
 import org.commonjava.indy.content.DownloadManager;
 import org.commonjava.indy.content.StoreResource;
 import org.commonjava.indy.core.content.group.GroupRepositoryFilterManager;
+import org.commonjava.indy.core.inject.AbstractNotFoundCache;
 import org.commonjava.indy.data.IndyDataException;
 import org.commonjava.indy.data.StoreDataManager;
 import org.commonjava.indy.measure.annotation.Measure;
@@ -222,8 +223,10 @@ public class DefaultContentManager
 
             if ( !generated )
             {
-                if ( PathMaskChecker.checkMask( store, path ) )
+                if ( PathMaskChecker.checkMask( store, path ) && !isMissingInGroup( store.getKey(), path ) )
                 {
+                    final long missingStamp = getGroupMissingStamp( path );
+                    boolean failed = false;
                     for ( final ArtifactStore member : members )
                     {
                         try
@@ -232,6 +235,7 @@ public class DefaultContentManager
                         }
                         catch ( IndyWorkflowException e )
                         {
+                            failed = true;
                             logger.error( "Failed to retrieve artifact from for path {} from {} in group {}, error is: {}",
                                           path, member, store, e.getMessage() );
                         }
@@ -241,6 +245,11 @@ public class DefaultContentManager
                             break;
                         }
                     }
+
+                    if ( item == null && !failed )
+                    {
+                        addMissingInGroup( store.getKey(), members, path, missingStamp );
+                    }
                 }
             }
         }
@@ -261,6 +270,60 @@ public class DefaultContentManager
         return item;
     }
 
+    private boolean isMissingInGroup( final StoreKey groupKey, final String path )
+    {
+        if ( nfc instanceof AbstractNotFoundCache && ( (AbstractNotFoundCache) nfc ).isMissingInGroup( groupKey, path ) )
+        {
+            logger.trace( "Path {} is known to be missing in all members of {}", path, groupKey );
+            return true;
+        }
+
+        return false;
+    }
+
+    private long getGroupMissingStamp( final String path )
+    {
+        return nfc instanceof AbstractNotFoundCache ? ( (AbstractNotFoundCache) nfc ).getGroupMissingStamp( path ) : 0;
+    }
+
+    /**
+     * Only record the group-level miss if every member miss is authoritative: path-masked misses are, while a remote
+     * miss only counts once it made it into the NFC (a timeout or bad gateway leaves no NFC entry). For remote
+     * members that were just probed, this hits the NFC's local cache.
+     * <p>
+     * A hosted miss only counts when running standalone. The group layer is node-local, and an upload to the hosted
+     * member on another node only clears the NFC of that node, so this node would keep answering 404 for the group.
+     */
+    private void addMissingInGroup( final StoreKey groupKey, final List<ArtifactStore> members, final String path,
+                                    final long missingStamp )
+    {
+        if ( !( nfc instanceof AbstractNotFoundCache ) || members.isEmpty() )
+        {
+            return;
+        }
+
+        final List<ConcreteResource> resources = new ArrayList<>( members.size() );
+        for ( final ArtifactStore member : members )
+        {
+            final ConcreteResource resource = new ConcreteResource( LocationUtils.toLocation( member ), path );
+            if ( PathMaskChecker.checkMask( member, path ) )
+            {
+                if ( member.getType() == hosted ? !isStandalone() : !nfc.isMissing( resource ) )
+                {
+                    return;
+                }
+            }
+            resources.add( resource );
+        }
+
+        ( (AbstractNotFoundCache) nfc ).addMissingInGroup( groupKey, path, resources, missingStamp );
+    }
+
+    private boolean isStandalone()
+    {
+        return indyConfig != null && Boolean.TRUE.equals( indyConfig.isStandalone() );
+    }
+
     private List<ArtifactStore> getOrderedConcreteStoresAndFilter( Group group, String path ) throws IndyWorkflowException
     {
         List<ArtifactStore> members;
@@ -360,6 +423,46 @@ public class DefaultContentManager
 
         logger.debug( "Storing: {} for: {} with event metadata: {}", path, store.getKey(), eventMetadata );
         final Transfer txfr = downloadManager.store( store, path, stream, op, eventMetadata );
+        handleStorage( store, path, txfr, eventMetadata );
+
+        return txfr;
+    }
+
+    @Override
+    @Measure
+    public Transfer copy( final Transfer source, final ArtifactStore store, final String path,
+                          final TransferOperation op, final EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
+        if ( group == store.getKey().getType() )
+        {
+            // group storage picks its hosted member inside store(); just stream into it
+            try (InputStream stream = source.openInputStream( true ))
+            {
+                return store( store, path, stream, op, eventMetadata );
+            }
+            catch ( final IOException e )
+            {
+                throw new IndyWorkflowException( "Failed to read: %s. Reason: %s", e, source, e.getMessage() );
+            }
+        }
+
+        logger.debug( "Copying: {} to: {} in: {} with event metadata: {}", source, path, store.getKey(),
+                      eventMetadata );
+        final Transfer txfr = downloadManager.copy( source, store, path, op, eventMetadata );
+        if ( txfr != null )
+        {
+            contentDigester.addMetadata( txfr, contentDigester.getContentMetadata( source ) );
+        }
+        handleStorage( store, path, txfr, eventMetadata );
+
+        return txfr;
+    }
+
+    private void handleStorage( final ArtifactStore store, final String path, final Transfer txfr,
+                                final EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
         if ( txfr != null )
         {
             final KeyedLocation kl = (KeyedLocation) txfr.getLocation();
@@ -383,8 +486,6 @@ public class DefaultContentManager
             storeManager.asyncGroupAffectedBy(
                     new StoreDataManager.ContextualTask( name, context, () -> clearNFCEntries( kl, path, eventMetadata ) ) );
         }
-
-        return txfr;
     }
 
     @Measure
@@ -51,6 +51,7 @@ import org.commonjava.maven.galley.TransferManager;
 import org.commonjava.maven.galley.TransferTimeoutException;
 import org.commonjava.maven.galley.event.EventMetadata;
 import org.commonjava.maven.galley.event.FileAccessEvent;
+import org.commonjava.maven.galley.event.FileStorageEvent;
 import org.commonjava.maven.galley.io.SpecialPathManagerImpl;
 import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.ListingResult;
@@ -62,6 +63,7 @@ import org.commonjava.maven.galley.model.VirtualResource;
 import org.commonjava.maven.galley.spi.io.SpecialPathManager;
 import org.commonjava.maven.galley.spi.nfc.NotFoundCache;
 import org.commonjava.maven.galley.spi.transport.LocationExpander;
+import org.commonjava.maven.galley.transport.htcli.model.HttpExchangeMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -161,6 +163,16 @@ public class DefaultDownloadManager
         this(storeManager, transfers, locationExpander, contentAdvisors, rescanService);
         this.nfc = nfc;
     }
+
+    public DefaultDownloadManager( final StoreDataManager storeManager, final TransferManager transfers,
+                                   final LocationExpander locationExpander, Instance<ContentAdvisor> contentAdvisors,
+                                   final NotFoundCache nfc, WeftExecutorService rescanService,
+                                   final IndyFileEventManager fileEventManager )
+    {
+        this(storeManager, transfers, locationExpander, contentAdvisors, nfc, rescanService);
+        this.fileEventManager = fileEventManager;
+    }
+
     @Override
     public List<StoreResource> list( final ArtifactStore store, final String path )
             throws IndyWorkflowException
@@ -573,47 +585,7 @@ public class DefaultDownloadManager
             return null;
         }
 
-        if ( store.getKey().getType() != hosted )
-        {
-            throw new IndyWorkflowException( ApplicationStatus.BAD_REQUEST.code(),
-                                             "Cannot deploy to non-deploy point artifact store: {}.", store.getKey() );
-        }
-
-        if ( !isIgnoreReadonly( eventMetadata ) && storeManager.isReadonly( store ) )
-        {
-            throw new IndyWorkflowException( ApplicationStatus.METHOD_NOT_ALLOWED.code(),
-                                             "The store {} is readonly. If you want to store any content to this store, please modify it to non-readonly",
-                                             store.getKey() );
-        }
-
-
-        if ( store instanceof HostedRepository )
-        {
-            final HostedRepository deploy = (HostedRepository) store;
-
-//            final ArtifactPathInfo pathInfo = ArtifactPathInfo.parse( path );
-            final ContentQuality quality = getQuality( path );
-            if ( quality != ContentQuality.METADATA )
-            {
-                if ( quality == ContentQuality.SNAPSHOT )
-                {
-                    if ( !deploy.isAllowSnapshots() )
-                    {
-                        logger.error( "Cannot store snapshot in non-snapshot deploy point: {}", deploy.getName() );
-                        throw new IndyWorkflowException( ApplicationStatus.BAD_REQUEST.code(),
-                                                         "Cannot store snapshot in non-snapshot deploy point: {}",
-                                                         deploy.getName() );
-                    }
-                }
-                else if ( !deploy.isAllowReleases() )
-                {
-                    logger.error( "Cannot store release in snapshot-only deploy point: {}", deploy.getName() );
-                    throw new IndyWorkflowException( ApplicationStatus.BAD_REQUEST.code(),
-                                                     "Cannot store release in snapshot-only deploy point: {}",
-                                                     deploy.getName() );
-                }
-            }
-        }
+        checkStorable( store, path, eventMetadata );
 
         //        final Transfer target = getStorageReference( deploy, path );
 
@@ -680,6 +652,133 @@ public class DefaultDownloadManager
         }
     }
 
+    @Override
+    @Measure
+    public Transfer copy( final Transfer source, final ArtifactStore store, final String path,
+                          final TransferOperation op, final EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
+        if ( store.getKey().getType() == StoreType.group )
+        {
+            return null;
+        }
+
+        checkStorable( store, path, eventMetadata );
+
+        KeyedLocation loc = LocationUtils.toLocation( store );
+        boolean resetReadonly = ( !loc.allowsStoring() && isIgnoreReadonly( eventMetadata ) && loc instanceof CacheOnlyLocation );
+        try
+        {
+            if ( resetReadonly )
+            {
+                ( (CacheOnlyLocation) loc ).setReadonly( false );
+            }
+            final ConcreteResource resource = new ConcreteResource( loc, path );
+            final Transfer target = transfers.getCacheReference( resource );
+
+            try
+            {
+                // the cache provider decides how cheap this is; path-mapped storage only maps the new path onto the
+                // existing physical file, so no content bytes are moved.
+                target.copyFrom( source );
+            }
+            catch ( final IOException e )
+            {
+                logger.debug( "Cannot copy {} to {} in storage, falling back to streamed store. Reason: {}", source,
+                              resource, e.getMessage() );
+                try (InputStream stream = source.openInputStream( true ))
+                {
+                    return store( store, path, stream, op, eventMetadata );
+                }
+                catch ( final IOException ioe )
+                {
+                    throw new IndyWorkflowException( "Failed to store: %s in: %s. Reason: %s", ioe, path,
+                                                     store.getKey(), ioe.getMessage() );
+                }
+            }
+
+            copyHttpMetadata( source, loc, path );
+
+            // nothing was written through the transfer output stream, so fire what its close() would have fired
+            fileEventManager.fire( new FileStorageEvent( op, target, eventMetadata ) );
+            nfc.clearMissing( resource );
+            return target;
+        }
+        finally
+        {
+            if ( resetReadonly )
+            {
+                ( (CacheOnlyLocation) loc ).setReadonly( true );
+            }
+        }
+    }
+
+    private void copyHttpMetadata( final Transfer source, final KeyedLocation loc, final String path )
+    {
+        final Transfer sourceMeta = source.getSiblingMeta( HttpExchangeMetadata.FILE_EXTENSION );
+        if ( sourceMeta == null || !sourceMeta.exists() )
+        {
+            return;
+        }
+
+        final Transfer targetMeta =
+                transfers.getCacheReference( new ConcreteResource( loc, path + HttpExchangeMetadata.FILE_EXTENSION ) );
+        try
+        {
+            targetMeta.copyFrom( sourceMeta );
+        }
+        catch ( final IOException e )
+        {
+            logger.debug( "Failed to copy HTTP exchange metadata: " + sourceMeta, e );
+        }
+    }
+
+    private void checkStorable( final ArtifactStore store, final String path, final EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
+        if ( store.getKey().getType() != hosted )
+        {
+            throw new IndyWorkflowException( ApplicationStatus.BAD_REQUEST.code(),
+                                             "Cannot deploy to non-deploy point artifact store: {}.", store.getKey() );
+        }
+
+        if ( !isIgnoreReadonly( eventMetadata ) && storeManager.isReadonly( store ) )
+        {
+            throw new IndyWorkflowException( ApplicationStatus.METHOD_NOT_ALLOWED.code(),
+                                             "The store {} is readonly. If you want to store any content to this store, please modify it to non-readonly",
+                                             store.getKey() );
+        }
+
+
+        if ( store instanceof HostedRepository )
+        {
+            final HostedRepository deploy = (HostedRepository) store;
+
+//            final ArtifactPathInfo pathInfo = ArtifactPathInfo.parse( path );
+            final ContentQuality quality = getQuality( path );
+            if ( quality != ContentQuality.METADATA )
+            {
+                if ( quality == ContentQuality.SNAPSHOT )
+                {
+                    if ( !deploy.isAllowSnapshots() )
+                    {
+                        logger.error( "Cannot store snapshot in non-snapshot deploy point: {}", deploy.getName() );
+                        throw new IndyWorkflowException( ApplicationStatus.BAD_REQUEST.code(),
+                                                         "Cannot store snapshot in non-snapshot deploy point: {}",
+                                                         deploy.getName() );
+                    }
+                }
+                else if ( !deploy.isAllowReleases() )
+                {
+                    logger.error( "Cannot store release in snapshot-only deploy point: {}", deploy.getName() );
+                    throw new IndyWorkflowException( ApplicationStatus.BAD_REQUEST.code(),
+                                                     "Cannot store release in snapshot-only deploy point: {}",
+                                                     deploy.getName() );
+                }
+            }
+        }
+    }
+
     private boolean isIgnoreReadonly( EventMetadata eventMetadata )
     {
         return Boolean.TRUE.equals( eventMetadata.get( IGNORE_READONLY ) );
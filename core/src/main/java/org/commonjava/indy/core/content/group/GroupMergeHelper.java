@@ -51,6 +51,9 @@ public class GroupMergeHelper
     @Inject
     private DownloadManager downloadManager;
 
+    @Inject
+    private MergedPathRegistry mergedPathRegistry;
+
     protected GroupMergeHelper()
     {
     }
@@ -67,6 +70,11 @@ public class GroupMergeHelper
         final Transfer targetMd5 = downloadManager.getStorageReference( group, path + MD5_SUFFIX );
         final Transfer targetInfo = downloadManager.getStorageReference( group, path + MERGEINFO_SUFFIX );
 
+        if ( mergedPathRegistry != null )
+        {
+            mergedPathRegistry.unregister( group.getKey(), path );
+        }
+
         if ( targetSha != null )
         {
             logger.debug( "Deleting: {}", targetSha );
@@ -123,8 +131,22 @@ public class GroupMergeHelper
         return mergeInfoBuilder.toString();
     }
 
+    /**
+     * Record a file merged in the group, so the group content cleanup finds it without walking the storage. This is
+     * done by {@link #writeMergeInfo(String, Group, String)}, generators which don't write merge info call it directly.
+     */
+    public final void registerMergedPath( final Group group, final String path )
+    {
+        if ( mergedPathRegistry != null )
+        {
+            mergedPathRegistry.register( group.getKey(), path );
+        }
+    }
+
     public final void writeMergeInfo( final String mergeInfo, final Group group, final String path )
     {
+        registerMergedPath( group, path );
+
         final String infoPath = path+MERGEINFO_SUFFIX;
         logger.trace( ".info file path is {} for group {} (members: {}), content is {}", infoPath, group.getKey(),
                       group.getConstituents(), mergeInfo );
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.content.group;
+
+import org.commonjava.indy.model.core.StoreKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the paths merged (generated) in each group, as registered by {@link GroupMergeHelper} when a merged file is
+ * written. Group content cleanup uses it, together with the group storage, to find the merged files to delete instead
+ * of walking the storage of every member.
+ * <br/>
+ * The registry is kept in memory, so it knows nothing of the files merged before a restart or by other nodes. It only
+ * extends what the group storage lists (groups only store merged files), which stays the source of the paths.
+ */
+@ApplicationScoped
+public class MergedPathRegistry
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final Map<StoreKey, Set<String>> mergedPaths = new ConcurrentHashMap<>();
+
+    public void register( final StoreKey group, final String path )
+    {
+        mergedPaths.computeIfAbsent( group, k -> ConcurrentHashMap.newKeySet() ).add( path );
+    }
+
+    public void unregister( final StoreKey group, final String path )
+    {
+        Set<String> paths = mergedPaths.get( group );
+        if ( paths != null )
+        {
+            paths.remove( path );
+        }
+    }
+
+    public void unregister( final StoreKey group, final Collection<String> paths )
+    {
+        Set<String> registered = mergedPaths.get( group );
+        if ( registered != null )
+        {
+            registered.removeAll( paths );
+        }
+    }
+
+    /**
+     * Forget everything about the group, e.g. when it is deleted.
+     */
+    public void clear( final StoreKey group )
+    {
+        mergedPaths.remove( group );
+    }
+
+    /**
+     * Get the merged paths of the group: the ones stored in it, plus the ones registered here that the storage doesn't
+     * list (yet).
+     *
+     * @param loader lists the paths stored in the group, called on every call
+     */
+    public Set<String> getMergedPaths( final StoreKey group, final Function<StoreKey, Set<String>> loader )
+    {
+        Set<String> paths = new HashSet<>( loader.apply( group ) );
+        int stored = paths.size();
+
+        Set<String> registered = mergedPaths.get( group );
+        if ( registered != null )
+        {
+            paths.addAll( registered );
+        }
+
+        logger.debug( "Got {} stored and {} more registered merged paths of: {}", stored, paths.size() - stored, group );
+        return paths;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.expire;
+
+import org.commonjava.indy.model.core.StoreKey;
+
+import java.util.Set;
+
+/**
+ * Payload of {@link ScheduleManager#CONTENT_BATCH_JOB_TYPE} trigger events: several paths of one store that expired
+ * together in a bucket of the {@link ContentExpirationWheel}.
+ */
+public class ContentExpirationBatch
+{
+
+    private StoreKey key;
+
+    private Set<String> paths;
+
+    protected ContentExpirationBatch()
+    {
+    }
+
+    public ContentExpirationBatch( final StoreKey key, final Set<String> paths )
+    {
+        this.key = key;
+        this.paths = paths;
+    }
+
+    public StoreKey getKey()
+    {
+        return key;
+    }
+
+    public Set<String> getPaths()
+    {
+        return paths;
+    }
+
+    protected void setKey( final StoreKey key )
+    {
+        this.key = key;
+    }
+
+    protected void setPaths( final Set<String> paths )
+    {
+        this.paths = paths;
+    }
+
+}
@@ -0,0 +1,461 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.expire;
+
+import org.commonjava.indy.cluster.IndyNode;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.subsys.infinispan.CacheHandle;
+import org.infinispan.commons.api.BasicCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static org.commonjava.indy.core.expire.ScheduleManager.JOB_TYPE;
+import static org.commonjava.indy.core.expire.ScheduleManager.SCHEDULE_TIME;
+
+/**
+ * Content expiration engine used by {@link ScheduleManager} when
+ * {@link org.commonjava.indy.core.conf.IndySchedulerConfig#isContentExpirationWheelEnabled()} is set. Instead of one
+ * schedule cache entry with its own lifespan per cached file, the expirations of each store are kept in a
+ * hierarchical timing wheel:
+ * <ul>
+ *     <li>deadlines within {@link #SLOTS} ticks go into buckets one tick wide;</li>
+ *     <li>farther deadlines go into buckets {@link #SLOTS} (or {@link #SLOTS}^2) times as wide, which are cascaded into
+ *     finer buckets when they come due;</li>
+ *     <li>each bucket is a single schedule cache entry, of type {@link #BUCKET_JOB_TYPE} and without lifespan, holding
+ *     the deadlines of its paths. The heap only keeps the start times of the buckets of each store;</li>
+ *     <li>a due bucket of a store is fired through the expiration handler as one batch, once per cluster thanks to a
+ *     lock entry in the schedule event lock cache.</li>
+ * </ul>
+ * Rescheduling a path does not look for its previous bucket, since that would need an index entry per path. The old
+ * entry stays behind and is dropped when its bucket comes due, if a later bucket holds a more recent schedule of the
+ * same path (see {@link #dropSuperseded}). Cancelling only rewrites the buckets that hold a matching path.
+ */
+public class ContentExpirationWheel
+{
+    public static final String BUCKET_JOB_TYPE = "CONTENT_BUCKET";
+
+    static final String BUCKET_PATHS = "BUCKET_PATHS";
+
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int LEVELS = 3;
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final CacheHandle<ScheduleKey, Map> scheduleCache;
+
+    private final CacheHandle<ScheduleKey, IndyNode> scheduleEventLockCache;
+
+    private final IndyNode localNode;
+
+    private final long tickMillis;
+
+    private final int lockExpirationSeconds;
+
+    private final BiConsumer<StoreKey, Set<String>> expirationHandler;
+
+    // store -> start millis of its buckets in the schedule cache
+    private final Map<StoreKey, NavigableSet<Long>> bucketsByStore = new ConcurrentHashMap<>();
+
+    private final Timer timer = new Timer( "Content-Expiration-Wheel", true );
+
+    public ContentExpirationWheel( final CacheHandle<ScheduleKey, Map> scheduleCache,
+                                   final CacheHandle<ScheduleKey, IndyNode> scheduleEventLockCache,
+                                   final IndyNode localNode, final int tickSeconds, final int lockExpirationSeconds,
+                                   final BiConsumer<StoreKey, Set<String>> expirationHandler )
+    {
+        this.scheduleCache = scheduleCache;
+        this.scheduleEventLockCache = scheduleEventLockCache;
+        this.localNode = localNode;
+        this.tickMillis = TimeUnit.SECONDS.toMillis( tickSeconds );
+        this.lockExpirationSeconds = lockExpirationSeconds;
+        this.expirationHandler = expirationHandler;
+    }
+
+    public void start()
+    {
+        load();
+        timer.schedule( new TimerTask()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    advance( System.currentTimeMillis() );
+                }
+                catch ( RuntimeException e )
+                {
+                    logger.error( "Failed to advance content expiration wheel", e );
+                }
+            }
+        }, tickMillis, tickMillis );
+    }
+
+    public void stop()
+    {
+        timer.cancel();
+    }
+
+    public void schedule( final StoreKey key, final String path, final int timeoutSeconds )
+    {
+        final long now = System.currentTimeMillis();
+        add( key, path, new Deadline( now, now + TimeUnit.SECONDS.toMillis( timeoutSeconds ) ), now );
+    }
+
+    public boolean cancel( final StoreKey key, final String path )
+    {
+        return !removeFromBuckets( key, path::equals, deadline -> true ).isEmpty();
+    }
+
+    public Set<String> cancelAll( final StoreKey key )
+    {
+        return cancelAllBefore( key, Long.MAX_VALUE );
+    }
+
+    /**
+     * Cancel the expiration of all paths of the store that expire within the given timeout, returning these paths.
+     */
+    public Set<String> cancelAllBefore( final StoreKey key, final long timeoutSeconds )
+    {
+        final long limit = timeoutSeconds == Long.MAX_VALUE ?
+                Long.MAX_VALUE :
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis( timeoutSeconds );
+
+        return removeFromBuckets( key, path -> true, deadline -> deadline.deadline <= limit );
+    }
+
+    /**
+     * Current deadline (millis) of each path of the store held by the wheel. Only the most recent schedule of a path
+     * counts, as when its buckets come due.
+     */
+    public Map<String, Long> getExpirations( final StoreKey key )
+    {
+        final Map<String, Deadline> current = new HashMap<>();
+        final NavigableSet<Long> starts = bucketsByStore.get( key );
+        if ( starts != null )
+        {
+            new ArrayList<>( starts ).forEach( start -> {
+                final Map data = scheduleCache.get( bucketKey( key, start ) );
+                if ( data != null )
+                {
+                    pathsOf( data ).forEach( ( path, deadline ) -> current.merge( path, deadline, ( known, other ) ->
+                            other.isNewerThan( known ) ? other : known ) );
+                }
+            } );
+        }
+
+        final Map<String, Long> expirations = new HashMap<>( current.size() );
+        current.forEach( ( path, deadline ) -> expirations.put( path, deadline.deadline ) );
+        return expirations;
+    }
+
+    /**
+     * Fire the buckets that came due, and cascade the coarser ones into finer buckets.
+     */
+    void advance( final long now )
+    {
+        new ArrayList<>( bucketsByStore.keySet() ).forEach( key -> {
+            final NavigableSet<Long> starts = bucketsByStore.get( key );
+            Long start;
+            while ( starts != null && ( start = pollDue( starts, now ) ) != null )
+            {
+                final Map<String, Deadline> bucket = takeBucket( key, start );
+                if ( bucket == null )
+                {
+                    continue;
+                }
+
+                final Map<String, Deadline> due = new HashMap<>();
+                bucket.forEach( ( path, deadline ) -> {
+                    if ( deadline.deadline <= now )
+                    {
+                        due.put( path, deadline );
+                    }
+                    else
+                    {
+                        // coarse bucket came due before this path did, cascade it into a finer bucket
+                        add( key, path, deadline, now );
+                    }
+                } );
+
+                dropSuperseded( key, start, due );
+                if ( !due.isEmpty() )
+                {
+                    fire( key, start, due, now );
+                }
+            }
+
+            // drop the index of stores that have nothing left, so they don't pile up for stores that are gone
+            bucketsByStore.computeIfPresent( key, ( k, s ) -> s.isEmpty() ? null : s );
+        } );
+    }
+
+    /**
+     * Rebuild the bucket index of the stores from the bucket entries in the schedule cache. Buckets that came due
+     * while this node was down are fired by the next tick.
+     */
+    void load()
+    {
+        final List<ScheduleKey> bucketKeys = new ArrayList<>();
+        scheduleCache.execute( BasicCache::keySet ).forEach( key -> {
+            if ( key != null && key.exists() && BUCKET_JOB_TYPE.equals( key.getType() ) )
+            {
+                bucketKeys.add( key );
+            }
+        } );
+
+        bucketKeys.forEach( bucketKey -> {
+            try
+            {
+                indexBucket( bucketKey.getStoreKey(), Long.parseLong( bucketKey.getName() ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                logger.warn( "Dropping content expiration bucket with invalid name: {}", bucketKey );
+                scheduleCache.remove( bucketKey );
+            }
+        } );
+
+        logger.info( "Loaded {} content expiration buckets for {} stores", bucketKeys.size(), bucketsByStore.size() );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void add( final StoreKey key, final String path, final Deadline deadline, final long now )
+    {
+        final long start = bucketFor( deadline.deadline, now );
+        scheduleCache.executeCache( cache -> cache.compute( bucketKey( key, start ), ( k, data ) -> {
+            Map result = data;
+            if ( result == null )
+            {
+                result = new HashMap<>( 3 );
+                result.put( JOB_TYPE, BUCKET_JOB_TYPE );
+                result.put( SCHEDULE_TIME, now );
+                result.put( BUCKET_PATHS, new HashMap<String, Deadline>() );
+            }
+            pathsOf( result ).put( path, deadline );
+            return result;
+        } ) );
+
+        indexBucket( key, start );
+    }
+
+    private void indexBucket( final StoreKey key, final long start )
+    {
+        bucketsByStore.compute( key, ( k, starts ) -> {
+            NavigableSet<Long> result = starts == null ? new ConcurrentSkipListSet<>() : starts;
+            result.add( start );
+            return result;
+        } );
+    }
+
+    private Long pollDue( final NavigableSet<Long> starts, final long now )
+    {
+        final Long first = starts.ceiling( Long.MIN_VALUE );
+        return first != null && first <= now && starts.remove( first ) ? first : null;
+    }
+
+    private Map<String, Deadline> takeBucket( final StoreKey key, final long start )
+    {
+        final Map data = scheduleCache.remove( bucketKey( key, start ) );
+        return data == null ? null : pathsOf( data );
+    }
+
+    /**
+     * Drop the due paths that were rescheduled since, i.e. that have a more recent schedule in a later bucket. Stale
+     * entries of the due paths in later buckets are removed instead, so they don't fire again.
+     */
+    private void dropSuperseded( final StoreKey key, final long start, final Map<String, Deadline> due )
+    {
+        final NavigableSet<Long> starts = bucketsByStore.get( key );
+        if ( due.isEmpty() || starts == null )
+        {
+            return;
+        }
+
+        new ArrayList<>( starts.tailSet( start, false ) ).forEach( later -> {
+            final ScheduleKey laterKey = bucketKey( key, later );
+            if ( !holdsAny( laterKey, path -> due.containsKey( path ), deadline -> true ) )
+            {
+                return;
+            }
+
+            scheduleCache.executeCache( cache -> cache.computeIfPresent( laterKey, ( k, data ) -> {
+                final Map<String, Deadline> paths = pathsOf( data );
+                new ArrayList<>( due.keySet() ).forEach( path -> {
+                    final Deadline other = paths.get( path );
+                    if ( other != null )
+                    {
+                        if ( other.isNewerThan( due.get( path ) ) )
+                        {
+                            due.remove( path );
+                        }
+                        else
+                        {
+                            paths.remove( path );
+                        }
+                    }
+                } );
+                return paths.isEmpty() ? null : data;
+            } ) );
+        } );
+    }
+
+    /**
+     * Hand the due paths to the expiration handler, unless another node holds the lock of this bucket. In that case
+     * the paths are put back for another try once the lock expired, so they still expire if that node dies before
+     * handling them. If it did handle them, deleting them again is a no-op.
+     */
+    private void fire( final StoreKey key, final long start, final Map<String, Deadline> due, final long now )
+    {
+        final ScheduleKey lockKey = bucketKey( key, start );
+        final IndyNode owner = scheduleEventLockCache.executeCache(
+                cache -> cache.putIfAbsent( lockKey, localNode, lockExpirationSeconds, TimeUnit.SECONDS ) );
+        if ( owner != null )
+        {
+            logger.debug( "Expiration of {} paths in bucket: {} is handled by: {}, will retry in {}s", due.size(),
+                          lockKey, owner, lockExpirationSeconds );
+            final long retry = now + TimeUnit.SECONDS.toMillis( lockExpirationSeconds );
+            due.forEach( ( path, deadline ) -> add( key, path, new Deadline( deadline.scheduled, retry ), now ) );
+            return;
+        }
+
+        logger.debug( "Firing expiration of {} paths in: {}", due.size(), key );
+        expirationHandler.accept( key, new HashSet<>( due.keySet() ) );
+    }
+
+    private Set<String> removeFromBuckets( final StoreKey key, final Predicate<String> pathFilter,
+                                           final Predicate<Deadline> deadlineFilter )
+    {
+        final Set<String> removed = new HashSet<>();
+        final NavigableSet<Long> starts = bucketsByStore.get( key );
+        if ( starts == null )
+        {
+            return removed;
+        }
+
+        new ArrayList<>( starts ).forEach( start -> {
+            final ScheduleKey bucketKey = bucketKey( key, start );
+            if ( !holdsAny( bucketKey, pathFilter, deadlineFilter ) )
+            {
+                // nothing to remove, so don't rewrite (and persist) the whole bucket
+                return;
+            }
+
+            scheduleCache.executeCache( cache -> cache.computeIfPresent( bucketKey, ( k, data ) -> {
+                final Map<String, Deadline> paths = pathsOf( data );
+                paths.entrySet().removeIf( e -> {
+                    if ( pathFilter.test( e.getKey() ) && deadlineFilter.test( e.getValue() ) )
+                    {
+                        removed.add( e.getKey() );
+                        return true;
+                    }
+                    return false;
+                } );
+                return paths.isEmpty() ? null : data;
+            } ) );
+        } );
+
+        return removed;
+    }
+
+    /**
+     * Whether the bucket holds a path matching both filters. A plain read, so buckets are only rewritten when they
+     * actually change.
+     */
+    private boolean holdsAny( final ScheduleKey bucketKey, final Predicate<String> pathFilter,
+                              final Predicate<Deadline> deadlineFilter )
+    {
+        final Map data = scheduleCache.get( bucketKey );
+        return data != null && pathsOf( data ).entrySet()
+                                              .stream()
+                                              .anyMatch( e -> pathFilter.test( e.getKey() )
+                                                      && deadlineFilter.test( e.getValue() ) );
+    }
+
+    private ScheduleKey bucketKey( final StoreKey key, final long start )
+    {
+        return new ScheduleKey( key, BUCKET_JOB_TYPE, String.valueOf( start ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Map<String, Deadline> pathsOf( final Map data )
+    {
+        return (Map<String, Deadline>) data.get( BUCKET_PATHS );
+    }
+
+    /**
+     * Start millis of the bucket for a deadline: one tick wide if it is less than {@link #SLOTS} ticks away, then
+     * {@link #SLOTS} times as wide per level. A one-tick bucket starts at the first tick boundary not before the
+     * deadline; the start of a coarse bucket lies ahead of now, because the deadline is at least one bucket width away.
+     */
+    private long bucketFor( final long deadline, final long now )
+    {
+        final long deadlineTick = ( deadline + tickMillis - 1 ) / tickMillis;
+        final long delta = deadlineTick - now / tickMillis;
+        int level = 0;
+        while ( level < LEVELS - 1 && delta >= ( 1L << ( SLOT_BITS * ( level + 1 ) ) ) )
+        {
+            level++;
+        }
+
+        final int shift = SLOT_BITS * level;
+        return ( ( deadlineTick >> shift ) << shift ) * tickMillis;
+    }
+
+    /**
+     * Expiration of one path in a bucket. The schedule time tells which of two entries of the same path is the current
+     * one.
+     */
+    static final class Deadline
+            implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long scheduled;
+
+        private final long deadline;
+
+        Deadline( final long scheduled, final long deadline )
+        {
+            this.scheduled = scheduled;
+            this.deadline = deadline;
+        }
+
+        private boolean isNewerThan( final Deadline other )
+        {
+            return scheduled > other.scheduled || ( scheduled == other.scheduled && deadline > other.deadline );
+        }
+    }
+}
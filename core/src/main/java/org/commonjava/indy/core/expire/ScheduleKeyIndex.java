@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.expire;
+
+import org.commonjava.indy.model.core.StoreKey;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the schedule cache keys by store and job type (see {@link ScheduleKey#groupName()}), so the jobs
+ * of one store can be found without scanning the key set of the whole schedule cache. It is maintained from the cache
+ * listeners in {@link ScheduleManager}, so it may briefly hold keys that are already gone from the cache; callers are
+ * expected to check the cache for the keys they get back.
+ */
+class ScheduleKeyIndex
+{
+    private final Map<String, Set<ScheduleKey>> keysByGroup = new ConcurrentHashMap<>();
+
+    void add( final ScheduleKey key )
+    {
+        if ( key == null || !key.exists() )
+        {
+            return;
+        }
+
+        keysByGroup.compute( key.groupName(), ( group, keys ) -> {
+            Set<ScheduleKey> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            result.add( key );
+            return result;
+        } );
+    }
+
+    void remove( final ScheduleKey key )
+    {
+        if ( key == null || !key.exists() )
+        {
+            return;
+        }
+
+        keysByGroup.computeIfPresent( key.groupName(), ( group, keys ) -> {
+            keys.remove( key );
+            return keys.isEmpty() ? null : keys;
+        } );
+    }
+
+    Set<ScheduleKey> get( final StoreKey storeKey, final String jobType )
+    {
+        final Set<ScheduleKey> keys = keysByGroup.get( ScheduleManager.groupName( storeKey, jobType ) );
+        return keys == null ? Collections.emptySet() : new HashSet<>( keys );
+    }
+
+    int size()
+    {
+        return keysByGroup.values().stream().mapToInt( Set::size ).sum();
+    }
+}
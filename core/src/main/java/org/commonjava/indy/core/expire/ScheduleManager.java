@@ -42,6 +42,7 @@ import org.commonjava.indy.util.LocationUtils;
 import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.SpecialPathInfo;
 import org.commonjava.maven.galley.spi.io.SpecialPathManager;
+import org.infinispan.commons.api.BasicCache;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.Listener;
@@ -75,6 +76,7 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static org.commonjava.indy.change.EventUtils.fireEvent;
@@ -102,6 +104,8 @@ public class ScheduleManager
 
     public static final String CONTENT_JOB_TYPE = "CONTENT";
 
+    public static final String CONTENT_BATCH_JOB_TYPE = "CONTENT_BATCH";
+
     public static final String JOB_TYPE = "JOB_TYPE";
 
     public static final String SCHEDULE_TIME = "SCHEDULE_TIME";
@@ -141,6 +145,10 @@ public class ScheduleManager
     @Inject
     private LocalIndyNodeProvider nodeHolder;
 
+    private final ScheduleKeyIndex keyIndex = new ScheduleKeyIndex();
+
+    private ContentExpirationWheel contentExpirationWheel;
+
     @PostConstruct
     public void init()
     {
@@ -152,6 +160,40 @@ public class ScheduleManager
 
         // register this producer as schedule cache listener
         registerCacheListener( scheduleCache );
+
+        // the listener keeps the index up to date from now on, so only the jobs already scheduled need to be indexed
+        scheduleCache.execute( BasicCache::keySet ).forEach( keyIndex::add );
+        logger.info( "Indexed {} scheduled jobs", keyIndex.size() );
+
+        if ( schedulerConfig.isContentExpirationWheelEnabled() )
+        {
+            contentExpirationWheel = new ContentExpirationWheel( scheduleCache, scheduleEventLockCache,
+                                                                 nodeHolder.getLocalIndyNode(),
+                                                                 schedulerConfig.getContentExpirationWheelTick(),
+                                                                 schedulerConfig.getClusterLockExpiration(),
+                                                                 this::fireContentExpirations );
+            contentExpirationWheel.start();
+            logger.info( "Content expiration wheel started" );
+        }
+    }
+
+    private void fireContentExpirations( final StoreKey key, final Set<String> paths )
+    {
+        try
+        {
+            final String payload = objectMapper.writeValueAsString( new ContentExpirationBatch( key, paths ) );
+            fireEvent( eventDispatcher, new SchedulerTriggerEvent( CONTENT_BATCH_JOB_TYPE, payload ) );
+        }
+        catch ( final JsonProcessingException e )
+        {
+            logger.error( String.format( "Failed to serialize expiration of %d paths in: %s", paths.size(), key ), e );
+        }
+    }
+
+    private boolean isWheelContentMatcher( final CacheKeyMatcher<ScheduleKey> matcher )
+    {
+        return contentExpirationWheel != null && matcher instanceof StoreKeyMatcher
+                && CONTENT_JOB_TYPE.equals( ( (StoreKeyMatcher) matcher ).getEventType() );
     }
 
     private <K,V> void registerCacheListener(CacheHandle<K, V> cache){
@@ -285,7 +327,16 @@ public class ScheduleManager
         {
             //            logger.info( "[PROXY TIMEOUT SET] {}/{}; {}", repo.getKey(), path, new Date( System.currentTimeMillis()
             //                + timeout ) );
-            cancel( new StoreKeyMatcher( key, CONTENT_JOB_TYPE ), path );
+            if ( contentExpirationWheel == null )
+            {
+                cancel( new StoreKeyMatcher( key, CONTENT_JOB_TYPE ), path );
+            }
+            else
+            {
+                // the wheel drops the superseded deadline itself when its bucket comes due, so only a job scheduled
+                // before the wheel was enabled has to go
+                removeCache( new ScheduleKey( key, CONTENT_JOB_TYPE, path ) );
+            }
 
             scheduleContentExpiration( key, path, timeout );
         }
@@ -333,6 +384,12 @@ public class ScheduleManager
         logger.info( "Scheduling timeout for: {} in: {} in: {} seconds (at: {}).", path, key, timeoutSeconds,
                      new Date( System.currentTimeMillis() + ( timeoutSeconds * 1000 ) ) );
 
+        if ( contentExpirationWheel != null )
+        {
+            contentExpirationWheel.schedule( key, path, timeoutSeconds );
+            return;
+        }
+
         scheduleForStore( key, CONTENT_JOB_TYPE, path, new ContentExpiration( key, path ), timeoutSeconds );
     }
 
@@ -478,8 +535,15 @@ public class ScheduleManager
 
         final Set<ScheduleKey> canceled = new HashSet<>();
 
+        if ( isWheelContentMatcher( matcher ) )
+        {
+            final StoreKey storeKey = ( (StoreKeyMatcher) matcher ).getStoreKey();
+            contentExpirationWheel.cancelAllBefore( storeKey, timeout )
+                                  .forEach( path -> canceled.add( new ScheduleKey( storeKey, CONTENT_JOB_TYPE, path ) ) );
+        }
+
         final Date to = new Date( System.currentTimeMillis() + ( timeout * 1000 ) );
-        matcher.matches( scheduleCache ).forEach( key -> {
+        matches( matcher ).forEach( key -> {
             final Date nextFire = getNextExpireTime( key );
             if ( nextFire == null || !nextFire.after( to ) )
             {
@@ -509,8 +573,38 @@ public class ScheduleManager
             return Collections.emptySet();
         }
 
-        Set<ScheduleKey> canceled = new HashSet<>();
-        final Set<ScheduleKey> keys = matcher.matches( scheduleCache );
+        Set<ScheduleKey> wheelCanceled = Collections.emptySet();
+        if ( isWheelContentMatcher( matcher ) )
+        {
+            // jobs scheduled before the wheel was enabled may still live in the cache, so look there too
+            final StoreKey storeKey = ( (StoreKeyMatcher) matcher ).getStoreKey();
+            final Set<String> paths = ANY.equals( name ) ?
+                    contentExpirationWheel.cancelAll( storeKey ) :
+                    contentExpirationWheel.cancel( storeKey, name ) ?
+                            Collections.singleton( name ) :
+                            Collections.emptySet();
+
+            wheelCanceled = paths.stream()
+                                 .map( path -> new ScheduleKey( storeKey, CONTENT_JOB_TYPE, path ) )
+                                 .collect( Collectors.toSet() );
+        }
+
+        if ( !ANY.equals( name ) && matcher instanceof StoreKeyMatcher )
+        {
+            // the job name is part of the cache key, no need to look for it
+            final StoreKeyMatcher storeKeyMatcher = (StoreKeyMatcher) matcher;
+            final ScheduleKey key = new ScheduleKey( storeKeyMatcher.getStoreKey(), storeKeyMatcher.getEventType(), name );
+            final Set<ScheduleKey> canceled = new HashSet<>( wheelCanceled );
+            if ( scheduleCache.remove( key ) != null )
+            {
+                canceled.add( key );
+            }
+
+            return canceled;
+        }
+
+        final Set<ScheduleKey> canceled = new HashSet<>( wheelCanceled );
+        final Set<ScheduleKey> keys = matches( matcher );
         if ( keys != null && !keys.isEmpty() )
         {
             Set<ScheduleKey> unscheduled = null;
@@ -537,7 +631,7 @@ public class ScheduleManager
 
             if ( unscheduled != null )
             {
-                canceled = unscheduled;
+                canceled.addAll( unscheduled );
             }
         }
 
@@ -552,13 +646,24 @@ public class ScheduleManager
             return null;
         }
 
-        final Set<ScheduleKey> keys = matcher.matches( scheduleCache );
+        final Set<ScheduleKey> keys = matches( matcher );
         if ( keys != null && !keys.isEmpty() )
         {
             ScheduleKey triggerKey = keys.iterator().next();
             return toExpiration( triggerKey );
         }
 
+        if ( isWheelContentMatcher( matcher ) )
+        {
+            final StoreKey storeKey = matcher.getStoreKey();
+            return contentExpirationWheel.getExpirations( storeKey )
+                                         .entrySet()
+                                         .stream()
+                                         .findFirst()
+                                         .map( e -> toWheelExpiration( storeKey, e.getKey(), e.getValue() ) )
+                                         .orElse( null );
+        }
+
         return null;
     }
 
@@ -570,24 +675,77 @@ public class ScheduleManager
             return null;
         }
 
-        final Set<ScheduleKey> keys = matcher.matches( scheduleCache );
+        final Set<ScheduleKey> keys = matches( matcher );
         Set<Expiration> expirations = new HashSet<>( keys.size() );
+
+        // content expirations held by the wheel live in bucket entries, so list the paths of their stores instead
+        final Set<StoreKey> wheelStores = new HashSet<>();
+        if ( isWheelContentMatcher( matcher ) )
+        {
+            wheelStores.add( ( (StoreKeyMatcher) matcher ).getStoreKey() );
+        }
+
         if ( !keys.isEmpty() )
         {
             for ( ScheduleKey key : keys )
             {
-                expirations.add( toExpiration( key ) );
+                if ( ContentExpirationWheel.BUCKET_JOB_TYPE.equals( key.getType() ) )
+                {
+                    if ( contentExpirationWheel != null )
+                    {
+                        wheelStores.add( key.getStoreKey() );
+                    }
+                }
+                else
+                {
+                    expirations.add( toExpiration( key ) );
+                }
             }
         }
 
+        wheelStores.forEach( storeKey -> contentExpirationWheel.getExpirations( storeKey )
+                                                               .forEach( ( path, deadline ) -> expirations.add(
+                                                                       toWheelExpiration( storeKey, path,
+                                                                                          deadline ) ) ) );
+
         return new ExpirationSet( expirations );
     }
 
+    /**
+     * Store key matchers are answered from the index, checking that the keys are still in the cache. Any other
+     * matcher gets to scan the cache itself.
+     */
+    private Set<ScheduleKey> matches( final CacheKeyMatcher<ScheduleKey> matcher )
+    {
+        if ( matcher instanceof StoreKeyMatcher )
+        {
+            final StoreKeyMatcher storeKeyMatcher = (StoreKeyMatcher) matcher;
+            final Set<ScheduleKey> keys = keyIndex.get( storeKeyMatcher.getStoreKey(), storeKeyMatcher.getEventType() );
+            keys.removeIf( key -> {
+                if ( !scheduleCache.containsKey( key ) )
+                {
+                    keyIndex.remove( key );
+                    return true;
+                }
+                return false;
+            } );
+
+            return keys;
+        }
+
+        return matcher.matches( scheduleCache );
+    }
+
     private Expiration toExpiration( final ScheduleKey cacheKey )
     {
         return new Expiration( cacheKey.groupName(), cacheKey.getName(), getNextExpireTime( cacheKey ) );
     }
 
+    private Expiration toWheelExpiration( final StoreKey key, final String path, final long deadline )
+    {
+        return new Expiration( groupName( key, CONTENT_JOB_TYPE ), path, new Date( deadline ) );
+    }
+
     private Date getNextExpireTime( final ScheduleKey cacheKey )
     {
 
@@ -629,7 +787,7 @@ public class ScheduleManager
             return null;
         }
 
-        final Set<ScheduleKey> keys = matcher.matches( scheduleCache );
+        final Set<ScheduleKey> keys = matches( matcher );
         if ( keys != null && !keys.isEmpty() )
         {
             return keys.iterator().next();
@@ -702,6 +860,11 @@ public class ScheduleManager
             return;
         }
 
+        if ( contentExpirationWheel != null )
+        {
+            contentExpirationWheel.stop();
+        }
+
         scheduleCache.stop();
     }
 
@@ -725,6 +888,8 @@ public class ScheduleManager
         if ( !e.isPre() )
         {
             final ScheduleKey expiredKey = e.getKey();
+            keyIndex.add( expiredKey );
+
             final Map expiredContent = e.getValue();
             if ( expiredKey != null && expiredContent != null )
             {
@@ -748,6 +913,7 @@ public class ScheduleManager
         if ( !e.isPre() )
         {
             final ScheduleKey expiredKey = e.getKey();
+            keyIndex.remove( expiredKey );
 /*
             if ( scheduleEventLockCache.containsKey( expiredKey ) )
             {
@@ -781,6 +947,10 @@ public class ScheduleManager
             return;
         }
         logger.trace( "Cache removed to cancel scheduling, Key is {}, Value is {}", e.getKey(), e.getValue() );
+        if ( !e.isPre() )
+        {
+            keyIndex.remove( e.getKey() );
+        }
     }
 
     // This method is only used to check clustered schedule expire cache nodes topology changing
@@ -24,15 +24,14 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * A key matcher which is used to match the cache key with store key.
+ * A key matcher which is used to match the cache key with store key. {@link ScheduleManager} answers it from its
+ * index of schedule keys by store and job type; {@link #matches(CacheHandle)} is the full scan of the cache keys.
  *
  */
 public class StoreKeyMatcher
         implements CacheKeyMatcher<ScheduleKey>
 {
 
-    //TODO: will have a thought to replace this type of matcher with a ISPN query API in the future to get better performance.
-
     private final StoreKey storeKey;
 
     private final String eventType;
@@ -43,6 +42,16 @@ public class StoreKeyMatcher
         this.eventType = eventType;
     }
 
+    public StoreKey getStoreKey()
+    {
+        return storeKey;
+    }
+
+    public String getEventType()
+    {
+        return eventType;
+    }
+
     @Override
     public Set<ScheduleKey> matches( CacheHandle<ScheduleKey, ?> cacheHandle )
     {
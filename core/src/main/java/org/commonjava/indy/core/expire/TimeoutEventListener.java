@@ -69,6 +69,13 @@ public class TimeoutEventListener
 
     public void onExpirationEvent( @Observes final SchedulerEvent event )
     {
+        if ( event instanceof SchedulerTriggerEvent && ScheduleManager.CONTENT_BATCH_JOB_TYPE.equals(
+                event.getJobType() ) )
+        {
+            onBatchExpirationEvent( event );
+            return;
+        }
+
         if ( !( event instanceof SchedulerTriggerEvent ) || !event.getJobType()
                                                                   .equals( ScheduleManager.CONTENT_JOB_TYPE ) )
         {
@@ -116,6 +123,61 @@ public class TimeoutEventListener
         }
     }
 
+    /**
+     * Expired paths of one store coming from the {@link ContentExpirationWheel}: the store is looked up once for the
+     * whole batch.
+     */
+    private void onBatchExpirationEvent( final SchedulerEvent event )
+    {
+        ContentExpirationBatch batch;
+        try
+        {
+            batch = objectMapper.readValue( event.getPayload(), ContentExpirationBatch.class );
+        }
+        catch ( final IOException e )
+        {
+            logger.error( "Failed to read ContentExpirationBatch from event payload.", e );
+            return;
+        }
+
+        final StoreKey key = batch.getKey();
+        ArtifactStore store;
+        try
+        {
+            store = storeManager.getArtifactStore( key );
+        }
+        catch ( IndyDataException e )
+        {
+            logger.error(
+                    String.format( "Failed to retrieve ArtifactStore for: %s (for content timeout). Reason: %s", key, e ), e );
+            return;
+        }
+
+        if ( store == null )
+        {
+            logger.warn( "Store: {} is no longer available. Nothing to do for {} paths.", key, batch.getPaths().size() );
+            return;
+        }
+
+        logger.debug( "Deleting {} expired paths in: {}", batch.getPaths().size(), key );
+        for ( final String path : batch.getPaths() )
+        {
+            try
+            {
+                if ( !contentManager.delete( store, path ) )
+                {
+                    logger.error( "Failed to delete Transfer for: {} in: {} (for content timeout).", path, key );
+                }
+            }
+            catch ( IndyWorkflowException e )
+            {
+                logger.error(
+                        String.format( "Failed to retrieve Transfer for: %s in: %s (for content timeout). Reason: %s",
+                                       path, key, e ), e );
+            }
+        }
+    }
+
     public void onFileStorageEvent( @Observes final FileStorageEvent event )
     {
         final StoreKey key = getKey( event );
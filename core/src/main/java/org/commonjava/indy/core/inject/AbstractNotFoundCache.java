@@ -17,20 +17,25 @@ package org.commonjava.indy.core.inject;
 
 import org.commonjava.indy.conf.IndyConfiguration;
 import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.model.galley.KeyedLocation;
 import org.commonjava.indy.model.galley.RepositoryLocation;
 import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.Location;
 import org.commonjava.maven.galley.spi.nfc.NotFoundCache;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.commonjava.indy.model.core.StoreType.group;
+
 /**
  * Created by ruhan on 12/1/17.
  */
 public abstract class AbstractNotFoundCache implements NotFoundCache
 {
+    private final GroupMissingIndex groupMissing = new GroupMissingIndex();
 
     public Map<Location, Set<String>> getAllMissing( int pageIndex, int pageSize )
     {
@@ -60,4 +65,74 @@ public abstract class AbstractNotFoundCache implements NotFoundCache
 
     protected abstract IndyConfiguration getIndyConfiguration();
 
+    /**
+     * Check whether every concrete member of the group is already known to be missing the path. This is a single
+     * node-local lookup, used to skip the per-member {@link #isMissing(ConcreteResource)} probes.
+     */
+    public boolean isMissingInGroup( final StoreKey group, final String path )
+    {
+        return groupMissing.isMissing( group, path );
+    }
+
+    /**
+     * Stamp to read before probing the members of a group for the path, and to hand back to
+     * {@link #addMissingInGroup(StoreKey, String, List, long)}.
+     */
+    public long getGroupMissingStamp( final String path )
+    {
+        return groupMissing.getStamp( path );
+    }
+
+    /**
+     * Record that every concrete member of the group is missing the path. The entry never outlives the NFC timeout of
+     * any member, and is dropped by any clearMissing() touching the path, the group, or a member location.
+     */
+    public void addMissingInGroup( final StoreKey group, final String path, final List<ConcreteResource> members,
+                                   final long probeStamp )
+    {
+        IndyConfiguration config = getIndyConfiguration();
+        int timeout = config.getNfcGroupTimeoutSeconds();
+        for ( ConcreteResource member : members )
+        {
+            timeout = Math.min( timeout, getTimeoutInSeconds( member ) );
+        }
+
+        if ( timeout > 0 )
+        {
+            groupMissing.addMissing( group, path, probeStamp, timeout, config.getNfcGroupMaxSize() );
+        }
+    }
+
+    /**
+     * Drop all group-level entries, e.g. when group membership changed.
+     */
+    public void clearAllMissingInGroups()
+    {
+        groupMissing.clearAllMissing();
+    }
+
+    /**
+     * Implementations call this from {@link #clearMissing(ConcreteResource)}. We don't know which groups contain the
+     * resource's store, so the path is cleared for all groups.
+     */
+    protected void clearGroupMissing( final ConcreteResource resource )
+    {
+        groupMissing.clearMissing( resource.getPath() );
+    }
+
+    /**
+     * Implementations call this from {@link #clearMissing(Location)}.
+     */
+    protected void clearGroupMissing( final Location location )
+    {
+        if ( location instanceof KeyedLocation && ( (KeyedLocation) location ).getKey().getType() == group )
+        {
+            groupMissing.clearMissing( ( (KeyedLocation) location ).getKey() );
+        }
+        else
+        {
+            groupMissing.clearAllMissing();
+        }
+    }
+
 }
@@ -216,6 +216,7 @@ public class CassandraNotFoundCache
     @Measure
     public void clearMissing( final Location location )
     {
+        clearGroupMissing( location );
         StoreKey key = ( (KeyedLocation) location ).getKey();
         BoundStatement bound = preparedDeleteByStore.bind( key.toString() );
         session.execute( bound );
@@ -245,6 +246,7 @@ public class CassandraNotFoundCache
     @Measure
     public void clearMissing( final ConcreteResource resource )
     {
+        clearGroupMissing( resource );
         StoreKey key = getResourceKey( resource );
         BoundStatement bound = preparedDelete.bind( key.toString(), resource.getPath() );
         session.execute( bound );
@@ -255,6 +257,7 @@ public class CassandraNotFoundCache
     @Measure
     public void clearAllMissing()
     {
+        clearAllMissingInGroups();
         session.execute( "TRUNCATE " + keyspace + ".nfc;" );
         clearInMemoryCache();
     }
@@ -132,6 +132,7 @@ public class ExpiringMemoryNotFoundCache
     @Override
     public void clearMissing( final Location location )
     {
+        clearGroupMissing( location );
         Set<ConcreteResource> paths = keys().stream()
                     .filter( r -> r != null && r.getLocation().equals( location ) )
                     .collect( Collectors.toSet() );
@@ -145,12 +146,14 @@ public class ExpiringMemoryNotFoundCache
     @Override
     public void clearMissing( final ConcreteResource resource )
     {
+        clearGroupMissing( resource );
         missingWithTimeout.remove( resource );
     }
 
     @Override
     public void clearAllMissing()
     {
+        clearAllMissingInGroups();
         this.missingWithTimeout.clear();
     }
 
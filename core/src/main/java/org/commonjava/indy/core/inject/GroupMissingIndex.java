@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.inject;
+
+import org.commonjava.indy.model.core.StoreKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Node-local record of paths that ALL concrete members of a group are known to be missing. A hit lets a group
+ * retrieval skip the per-member NFC probes entirely.
+ * <p>
+ * Entries are keyed by path first, because the common invalidation is "path P appeared in some store", and we
+ * don't know (or want to compute) which groups contain that store. Any clear also bumps a stamp, so a group miss
+ * that was computed concurrently with a clear will not be recorded (see {@link #addMissing}). Path clears only bump
+ * the stamp stripe of that path, so a steady stream of uploads doesn't keep unrelated group misses from being
+ * recorded; group and full clears bump an epoch shared by all paths.
+ */
+public class GroupMissingIndex
+{
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Map<String, Map<StoreKey, Long>> missingByPath = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray pathStamps = new AtomicLongArray( STAMP_STRIPES );
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    public boolean isMissing( final StoreKey group, final String path )
+    {
+        Map<StoreKey, Long> groups = missingByPath.get( path );
+        if ( groups == null )
+        {
+            return false;
+        }
+
+        Long expiration = groups.get( group );
+        if ( expiration == null )
+        {
+            return false;
+        }
+
+        if ( expiration < System.currentTimeMillis() )
+        {
+            groups.remove( group, expiration );
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Read this BEFORE probing the group members, and pass it to {@link #addMissing}. Both counters only grow, so
+     * their sum changes whenever either of them does.
+     */
+    public long getStamp( final String path )
+    {
+        return epoch.get() + pathStamps.get( stripe( path ) );
+    }
+
+    /**
+     * Record that all members of the group are missing the path, unless something was cleared since the given stamp
+     * was read or the index is full of live entries.
+     */
+    public void addMissing( final StoreKey group, final String path, final long probeStamp, final int timeoutSeconds,
+                            final int maxPaths )
+    {
+        if ( probeStamp != getStamp( path ) )
+        {
+            return;
+        }
+
+        if ( missingByPath.size() >= maxPaths && !missingByPath.containsKey( path ) )
+        {
+            clearExpired();
+            if ( missingByPath.size() >= maxPaths )
+            {
+                return;
+            }
+        }
+
+        missingByPath.computeIfAbsent( path, p -> new ConcurrentHashMap<>() )
+                     .put( group, System.currentTimeMillis() + timeoutSeconds * 1000L );
+
+        // lost a race with a clear; don't leave a possibly stale entry behind
+        if ( probeStamp != getStamp( path ) )
+        {
+            clearMissing( path );
+        }
+    }
+
+    public void clearMissing( final String path )
+    {
+        pathStamps.incrementAndGet( stripe( path ) );
+        missingByPath.remove( path );
+    }
+
+    public void clearMissing( final StoreKey group )
+    {
+        epoch.incrementAndGet();
+        missingByPath.values().forEach( groups -> groups.remove( group ) );
+    }
+
+    public void clearAllMissing()
+    {
+        epoch.incrementAndGet();
+        missingByPath.clear();
+    }
+
+    public int size()
+    {
+        return missingByPath.size();
+    }
+
+    private static int stripe( final String path )
+    {
+        return ( path.hashCode() & Integer.MAX_VALUE ) % STAMP_STRIPES;
+    }
+
+    private void clearExpired()
+    {
+        long now = System.currentTimeMillis();
+        missingByPath.values().forEach( groups -> groups.values().removeIf( expiration -> expiration < now ) );
+        missingByPath.values().removeIf( Map::isEmpty );
+    }
+}
@@ -156,6 +156,7 @@ public class IspnNotFoundCache
     @Measure
     public void clearMissing( final Location location )
     {
+        clearGroupMissing( location );
         nfcCache.execute( (cache) -> {
             Set<String> paths = getMissing( location );
             paths.forEach( path -> cache.remove( getResourceKey( new ConcreteResource( location, path ) ) ) );
@@ -167,6 +168,7 @@ public class IspnNotFoundCache
     @Measure
     public void clearMissing( final ConcreteResource resource )
     {
+        clearGroupMissing( resource );
         String key = getResourceKey( resource );
         nfcCache.execute( cache -> cache.remove( key ) );
     }
@@ -175,6 +177,7 @@ public class IspnNotFoundCache
     @Measure
     public void clearAllMissing()
     {
+        clearAllMissingInGroups();
         nfcCache.execute( (cache) -> { cache.clear(); return null; } );
     }
 
@@ -0,0 +1,213 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.change;
+
+import org.commonjava.cdi.util.weft.PoolWeftExecutorService;
+import org.commonjava.cdi.util.weft.WeftExecutorService;
+import org.commonjava.indy.audit.ChangeSummary;
+import org.commonjava.indy.change.event.ArtifactStorePreUpdateEvent;
+import org.commonjava.indy.change.event.ArtifactStoreUpdateType;
+import org.commonjava.indy.content.DirectContentAccess;
+import org.commonjava.indy.content.IndyLocationExpander;
+import org.commonjava.indy.content.StoreContentAction;
+import org.commonjava.indy.core.content.DefaultDirectContentAccess;
+import org.commonjava.indy.core.content.DefaultDownloadManager;
+import org.commonjava.indy.core.content.group.MergedPathRegistry;
+import org.commonjava.indy.data.StoreDataManager;
+import org.commonjava.indy.mem.data.MemoryStoreDataManager;
+import org.commonjava.indy.model.core.ArtifactStore;
+import org.commonjava.indy.model.core.Group;
+import org.commonjava.indy.model.core.HostedRepository;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.maven.galley.GalleyCore;
+import org.commonjava.maven.galley.GalleyCoreBuilder;
+import org.commonjava.maven.galley.cache.FileCacheProviderFactory;
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.io.SpecialPathManagerImpl;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.model.TransferOperation;
+import org.commonjava.maven.galley.nfc.MemoryNotFoundCache;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.util.TypeLiteral;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.commonjava.indy.pkg.maven.model.MavenPackageTypeDescriptor.MAVEN_PKG_KEY;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class StoreContentListenerTest
+{
+    private static final String FIRST_PATH = "org/foo/first/maven-metadata.xml";
+
+    private static final String SECOND_PATH = "org/foo/second/maven-metadata.xml";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private StoreDataManager storeManager;
+
+    private DefaultDownloadManager downloadManager;
+
+    private StoreContentListener listener;
+
+    private final Set<StoreKey> clearedOrigins = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setup()
+            throws Exception
+    {
+        GalleyCore core = new GalleyCoreBuilder( new FileCacheProviderFactory( temp.newFolder( "cache" ) ) ).build();
+
+        storeManager = new MemoryStoreDataManager( true );
+
+        WeftExecutorService executor =
+                new PoolWeftExecutorService( "test-cleanup-executor", (ThreadPoolExecutor) Executors.newCachedThreadPool(), 2, 10f, false,null, null );
+
+        downloadManager = new DefaultDownloadManager( storeManager, core.getTransferManager(),
+                                                      new IndyLocationExpander( storeManager ), null,
+                                                      new MemoryNotFoundCache(), executor );
+
+        DirectContentAccess dca = new DefaultDirectContentAccess( downloadManager, executor );
+
+        StoreContentAction recorder = ( path, store, affectedGroups, clearOriginPath ) -> clearedOrigins.add(
+                store.getKey() );
+
+        listener = new StoreContentListener( dca, new ActionInstance( recorder ), new SpecialPathManagerImpl(),
+                                             executor, storeManager, new MergedPathRegistry(),
+                                             new MemoryNotFoundCache() );
+    }
+
+    /**
+     * Each new member provides metadata the other one doesn't, so the merged files of both have to go.
+     */
+    @Test
+    public void addTwoMembers_ClearMergedPathsOfBoth()
+            throws Exception
+    {
+        HostedRepository first = new HostedRepository( MAVEN_PKG_KEY, "first" );
+        HostedRepository second = new HostedRepository( MAVEN_PKG_KEY, "second" );
+        Group group = new Group( MAVEN_PKG_KEY, "group" );
+
+        ChangeSummary summary = new ChangeSummary( ChangeSummary.SYSTEM_USER, "test setup" );
+        storeManager.storeArtifactStore( first, summary, false, true, new EventMetadata() );
+        storeManager.storeArtifactStore( second, summary, false, true, new EventMetadata() );
+        storeManager.storeArtifactStore( group, summary, false, true, new EventMetadata() );
+
+        write( first, FIRST_PATH );
+        write( second, SECOND_PATH );
+        write( group, FIRST_PATH );
+        write( group, SECOND_PATH );
+
+        Group updated = group.copyOf();
+        updated.addConstituent( first );
+        updated.addConstituent( second );
+
+        listener.onStoreUpdate( new ArtifactStorePreUpdateEvent( ArtifactStoreUpdateType.UPDATE, new EventMetadata(),
+                                                                 Collections.singletonMap( updated, group ) ) );
+
+        assertThat( downloadManager.getStorageReference( group, FIRST_PATH ).exists(), equalTo( false ) );
+        assertThat( downloadManager.getStorageReference( group, SECOND_PATH ).exists(), equalTo( false ) );
+        assertThat( clearedOrigins, equalTo( new HashSet<>( Arrays.asList( first.getKey(), second.getKey() ) ) ) );
+
+        // the members keep their own files
+        assertThat( downloadManager.getStorageReference( first, FIRST_PATH ).exists(), equalTo( true ) );
+        assertThat( downloadManager.getStorageReference( second, SECOND_PATH ).exists(), equalTo( true ) );
+    }
+
+    private void write( final ArtifactStore store, final String path )
+            throws Exception
+    {
+        Transfer transfer = downloadManager.getStorageReference( store, path );
+        try (OutputStream out = transfer.openOutputStream( TransferOperation.UPLOAD ))
+        {
+            out.write( "<metadata/>".getBytes() );
+        }
+    }
+
+    private static final class ActionInstance
+            implements Instance<StoreContentAction>
+    {
+        private final StoreContentAction action;
+
+        ActionInstance( final StoreContentAction action )
+        {
+            this.action = action;
+        }
+
+        @Override
+        public Instance<StoreContentAction> select( final Annotation... qualifiers )
+        {
+            return this;
+        }
+
+        @Override
+        public <U extends StoreContentAction> Instance<U> select( final Class<U> subtype,
+                                                                 final Annotation... qualifiers )
+        {
+            return null;
+        }
+
+        @Override
+        public <U extends StoreContentAction> Instance<U> select( final TypeLiteral<U> subtype,
+                                                                 final Annotation... qualifiers )
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isUnsatisfied()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isAmbiguous()
+        {
+            return false;
+        }
+
+        @Override
+        public void destroy( final StoreContentAction instance )
+        {
+        }
+
+        @Override
+        public Iterator<StoreContentAction> iterator()
+        {
+            return Collections.singletonList( action ).iterator();
+        }
+
+        @Override
+        public StoreContentAction get()
+        {
+            return action;
+        }
+    }
+}
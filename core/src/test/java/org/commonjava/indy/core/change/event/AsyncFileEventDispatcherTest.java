@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.change.event;
+
+import org.commonjava.indy.change.event.AsyncFileEvent;
+import org.commonjava.indy.model.core.StoreKey;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.commonjava.indy.model.core.StoreType.hosted;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class AsyncFileEventDispatcherTest
+{
+    @Test
+    public void deliversInOrderPerStoreAndDrainsOnStop()
+    {
+        final StoreKey first = new StoreKey( "maven", hosted, "first" );
+        final StoreKey second = new StoreKey( "maven", hosted, "second" );
+
+        final List<AsyncFileEvent> delivered = Collections.synchronizedList( new ArrayList<>() );
+        AsyncFileEventDispatcher dispatcher = new AsyncFileEventDispatcher( "test-file-events", 2, 1000, delivered::add );
+
+        List<AsyncFileEvent> fired = new ArrayList<>();
+        for ( int i = 0; i < 500; i++ )
+        {
+            AsyncFileEvent event = new TestEvent( i % 2 == 0 ? first : second );
+            fired.add( event );
+            dispatcher.dispatch( event );
+        }
+
+        dispatcher.stop( 10000 );
+
+        assertThat( delivered.size(), equalTo( fired.size() ) );
+        assertThat( byStore( delivered ), equalTo( byStore( fired ) ) );
+        assertThat( dispatcher.getQueued(), equalTo( 0 ) );
+    }
+
+    @Test
+    public void deliversEventsDispatchedAfterStop()
+    {
+        final List<AsyncFileEvent> delivered = Collections.synchronizedList( new ArrayList<>() );
+        AsyncFileEventDispatcher dispatcher = new AsyncFileEventDispatcher( "test-file-events", 2, 1000, delivered::add );
+
+        dispatcher.stop( 10000 );
+
+        AsyncFileEvent event = new TestEvent( new StoreKey( "maven", hosted, "late" ) );
+        dispatcher.dispatch( event );
+
+        assertThat( delivered, equalTo( Collections.singletonList( event ) ) );
+        assertThat( dispatcher.getQueued(), equalTo( 0 ) );
+    }
+
+    private Map<StoreKey, List<AsyncFileEvent>> byStore( final List<AsyncFileEvent> events )
+    {
+        Map<StoreKey, List<AsyncFileEvent>> result = new HashMap<>();
+        new ArrayList<>( events ).forEach(
+                        e -> result.computeIfAbsent( e.getStoreKey(), k -> new ArrayList<>() ).add( e ) );
+        return result;
+    }
+
+    private static final class TestEvent
+            extends AsyncFileEvent
+    {
+        private final StoreKey key;
+
+        private TestEvent( final StoreKey key )
+        {
+            super( null );
+            this.key = key;
+        }
+
+        @Override
+        public StoreKey getStoreKey()
+        {
+            return key;
+        }
+    }
+}
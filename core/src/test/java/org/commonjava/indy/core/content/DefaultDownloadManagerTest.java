@@ -15,6 +15,7 @@
  */
 package org.commonjava.indy.core.content;
 
+import org.apache.commons.io.IOUtils;
 import org.commonjava.cdi.util.weft.PoolWeftExecutorService;
 import org.commonjava.cdi.util.weft.WeftExecutorService;
 import org.commonjava.indy.IndyWorkflowException;
@@ -31,6 +32,7 @@ import org.commonjava.indy.data.StoreDataManager;
 import org.commonjava.indy.mem.data.MemoryStoreDataManager;
 import org.commonjava.indy.model.core.HostedRepository;
 import org.commonjava.indy.model.core.io.IndyObjectMapper;
+import org.commonjava.indy.util.LocationUtils;
 import org.commonjava.indy.subsys.infinispan.CacheHandle;
 import org.commonjava.maven.galley.GalleyCore;
 import org.commonjava.maven.galley.GalleyCoreBuilder;
@@ -39,6 +41,7 @@ import org.commonjava.maven.galley.cache.FileCacheProviderFactory;
 import org.commonjava.maven.galley.event.EventMetadata;
 import org.commonjava.maven.galley.io.SpecialPathManagerImpl;
 import org.commonjava.maven.galley.io.checksum.TransferMetadata;
+import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.Transfer;
 import org.commonjava.maven.galley.model.TransferOperation;
 import org.commonjava.maven.galley.nfc.MemoryNotFoundCache;
@@ -55,6 +58,7 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collections;
@@ -184,4 +188,39 @@ public class DefaultDownloadManagerTest
 
         transfer.delete();
     }
+
+    @Test
+    public void copyFromMissingStorageFile_FallBackToStreamedStore()
+            throws Exception
+    {
+        ChangeSummary summary = new ChangeSummary( ChangeSummary.SYSTEM_USER, "Test setup" );
+        HostedRepository hosted1 = new HostedRepository( MAVEN_PKG_KEY, "one" );
+        HostedRepository hosted2 = new HostedRepository( MAVEN_PKG_KEY, "two" );
+
+        storeManager.storeArtifactStore( hosted1, summary, false, true, new EventMetadata() );
+        storeManager.storeArtifactStore( hosted2, summary, false, true, new EventMetadata() );
+
+        String originalString = "This is a test";
+        final String path = "/path/path";
+
+        // nothing is stored behind the source, so the storage copy fails and only the streamed store can succeed
+        Transfer source =
+                new Transfer( new ConcreteResource( LocationUtils.toLocation( hosted1 ), path ), null, null, null )
+                {
+                    @Override
+                    public InputStream openInputStream( final boolean fireEvents )
+                    {
+                        return new ByteArrayInputStream( originalString.getBytes() );
+                    }
+                };
+
+        Transfer transfer =
+                downloadManager.copy( source, hosted2, path, TransferOperation.UPLOAD, new EventMetadata() );
+
+        assertThat( transfer.exists(), equalTo( true ) );
+        try (InputStream in = transfer.openInputStream())
+        {
+            assertThat( IOUtils.toString( in ), equalTo( originalString ) );
+        }
+    }
 }
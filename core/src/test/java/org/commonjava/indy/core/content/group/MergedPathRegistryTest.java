@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.content.group;
+
+import org.commonjava.indy.model.core.StoreKey;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MergedPathRegistryTest
+{
+    private final StoreKey group = StoreKey.fromString( "maven:group:test" );
+
+    private final MergedPathRegistry registry = new MergedPathRegistry();
+
+    @Test
+    public void storedPathsAreListedOnEveryCall()
+    {
+        AtomicInteger loads = new AtomicInteger( 0 );
+        registry.register( group, "org/foo/bar/maven-metadata.xml" );
+
+        Set<String> paths = registry.getMergedPaths( group, k -> {
+            loads.incrementAndGet();
+            return new HashSet<>( Arrays.asList( "org/foo/baz/maven-metadata.xml" ) );
+        } );
+        assertEquals( 2, paths.size() );
+
+        // merged by another node, or before a restart: only the storage knows it
+        paths = registry.getMergedPaths( group, k -> {
+            loads.incrementAndGet();
+            return new HashSet<>( Arrays.asList( "org/foo/baz/maven-metadata.xml", "org/foo/qux/maven-metadata.xml" ) );
+        } );
+        assertEquals( 2, loads.get() );
+        assertEquals( 3, paths.size() );
+        assertTrue( paths.contains( "org/foo/qux/maven-metadata.xml" ) );
+    }
+
+    @Test
+    public void unregisteredPathIsOnlyListedIfStored()
+    {
+        registry.register( group, "org/foo/bar/maven-metadata.xml" );
+        registry.register( group, "org/foo/baz/maven-metadata.xml" );
+        registry.unregister( group, "org/foo/baz/maven-metadata.xml" );
+
+        Set<String> paths = registry.getMergedPaths( group, k -> new HashSet<>() );
+        assertEquals( 1, paths.size() );
+        assertTrue( paths.contains( "org/foo/bar/maven-metadata.xml" ) );
+    }
+
+    @Test
+    public void clearForgetsGroup()
+    {
+        registry.register( group, "org/foo/bar/maven-metadata.xml" );
+        registry.clear( group );
+
+        Set<String> paths = registry.getMergedPaths( group, k -> new HashSet<>() );
+        assertTrue( paths.isEmpty() );
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.expire;
+
+import org.commonjava.indy.cluster.IndyNode;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.model.core.StoreType;
+import org.commonjava.indy.subsys.infinispan.CacheHandle;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ContentExpirationWheelTest
+{
+    private static final int TICK_SECONDS = 1;
+
+    private static final int LOCK_EXPIRATION_SECONDS = 600;
+
+    private final StoreKey store = new StoreKey( "maven", StoreType.remote, "central" );
+
+    private final List<Set<String>> fired = new ArrayList<>();
+
+    private DefaultCacheManager cacheManager;
+
+    private CacheHandle<ScheduleKey, Map> scheduleCache;
+
+    private CacheHandle<ScheduleKey, IndyNode> lockCache;
+
+    @Before
+    public void setup()
+    {
+        cacheManager = new DefaultCacheManager( new ConfigurationBuilder().simpleCache( true ).build() );
+        scheduleCache = new CacheHandle<>( "schedule-expire-cache", cacheManager.getCache( "schedule-expire-cache" ) );
+        lockCache = new CacheHandle<>( "schedule-event-lock-cache", cacheManager.getCache( "schedule-event-lock-cache" ) );
+    }
+
+    @After
+    public void teardown()
+    {
+        cacheManager.stop();
+    }
+
+    @Test
+    public void fireDueBucketOnce()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        wheel.schedule( store, "/a.jar", 2 );
+        wheel.schedule( store, "/b.jar", 2 );
+        final long now = System.currentTimeMillis();
+
+        wheel.advance( now );
+        assertThat( fired.isEmpty(), equalTo( true ) );
+
+        wheel.advance( now + 4000 );
+        assertThat( fired, equalTo( Collections.singletonList( paths( "/a.jar", "/b.jar" ) ) ) );
+
+        wheel.advance( now + 8000 );
+        assertThat( fired.size(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void cascadeCoarseBucket()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        final long now = System.currentTimeMillis();
+        wheel.schedule( store, "/a.jar", 200 );
+
+        // the coarse bucket starts before the deadline, the path must be cascaded instead of fired
+        wheel.advance( now + 195000 );
+        assertThat( fired.isEmpty(), equalTo( true ) );
+
+        wheel.advance( now + 203000 );
+        assertThat( fired, equalTo( Collections.singletonList( paths( "/a.jar" ) ) ) );
+    }
+
+    @Test
+    public void rescheduleSupersedesEarlierDeadline()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        final long now = System.currentTimeMillis();
+        wheel.schedule( store, "/a.jar", 2 );
+        wheel.schedule( store, "/a.jar", 30 );
+
+        wheel.advance( now + 4000 );
+        assertThat( fired.isEmpty(), equalTo( true ) );
+
+        wheel.advance( now + 32000 );
+        assertThat( fired, equalTo( Collections.singletonList( paths( "/a.jar" ) ) ) );
+    }
+
+    @Test
+    public void cancelRemovesPath()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        final long now = System.currentTimeMillis();
+        wheel.schedule( store, "/a.jar", 2 );
+        wheel.schedule( store, "/b.jar", 100 );
+
+        assertThat( wheel.cancel( store, "/a.jar" ), equalTo( true ) );
+        assertThat( wheel.cancel( store, "/a.jar" ), equalTo( false ) );
+        assertThat( wheel.cancelAllBefore( store, 10 ).isEmpty(), equalTo( true ) );
+        assertThat( wheel.cancelAll( store ), equalTo( paths( "/b.jar" ) ) );
+
+        wheel.advance( now + 200000 );
+        assertThat( fired.isEmpty(), equalTo( true ) );
+    }
+
+    @Test
+    public void expirationsListMostRecentSchedule()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        final long now = System.currentTimeMillis();
+        wheel.schedule( store, "/a.jar", 2 );
+        wheel.schedule( store, "/a.jar", 3000 );
+        wheel.schedule( store, "/b.jar", 100 );
+
+        Map<String, Long> expirations = wheel.getExpirations( store );
+        assertThat( expirations.keySet(), equalTo( paths( "/a.jar", "/b.jar" ) ) );
+        assertThat( expirations.get( "/a.jar" ) >= now + 3000000, equalTo( true ) );
+        assertThat( expirations.get( "/b.jar" ) < now + 3000000, equalTo( true ) );
+
+        // cancelling a path the wheel doesn't hold leaves the buckets alone
+        assertThat( wheel.cancel( store, "/c.jar" ), equalTo( false ) );
+        assertThat( wheel.getExpirations( store ).keySet(), equalTo( paths( "/a.jar", "/b.jar" ) ) );
+    }
+
+    @Test
+    public void restoreFromScheduleCache()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        final long now = System.currentTimeMillis();
+        wheel.schedule( store, "/a.jar", 2 );
+        wheel.schedule( store, "/b.jar", 200 );
+        wheel.stop();
+
+        ContentExpirationWheel restarted = newWheel( "node1" );
+        restarted.load();
+
+        restarted.advance( now + 4000 );
+        assertThat( fired, equalTo( Collections.singletonList( paths( "/a.jar" ) ) ) );
+
+        restarted.advance( now + 203000 );
+        assertThat( fired, equalTo( Arrays.asList( paths( "/a.jar" ), paths( "/b.jar" ) ) ) );
+    }
+
+    @Test
+    public void retryWhenBucketLockedByOtherNode()
+    {
+        ContentExpirationWheel wheel = newWheel( "node1" );
+        final long now = System.currentTimeMillis();
+        wheel.schedule( store, "/a.jar", 2 );
+
+        lockCache.put( new ScheduleKey( store, ContentExpirationWheel.BUCKET_JOB_TYPE, dueBucketName() ),
+                       new IndyNode( "node2" ) );
+
+        wheel.advance( now + 4000 );
+        assertThat( fired.isEmpty(), equalTo( true ) );
+
+        // node2 died without handling the bucket, the path still expires once its lock is gone
+        wheel.advance( now + 4000 + LOCK_EXPIRATION_SECONDS * 1000L + 2000 );
+        assertThat( fired, equalTo( Collections.singletonList( paths( "/a.jar" ) ) ) );
+    }
+
+    private String dueBucketName()
+    {
+        return scheduleCache.execute( cache -> cache.keySet() )
+                            .stream()
+                            .filter( key -> ContentExpirationWheel.BUCKET_JOB_TYPE.equals( key.getType() ) )
+                            .findFirst()
+                            .get()
+                            .getName();
+    }
+
+    private ContentExpirationWheel newWheel( final String node )
+    {
+        return new ContentExpirationWheel( scheduleCache, lockCache, new IndyNode( node ), TICK_SECONDS,
+                                           LOCK_EXPIRATION_SECONDS, ( key, paths ) -> fired.add( paths ) );
+    }
+
+    private Set<String> paths( final String... paths )
+    {
+        return new HashSet<>( Arrays.asList( paths ) );
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.core.expire;
+
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.model.core.StoreType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.commonjava.indy.core.expire.ScheduleManager.CONTENT_JOB_TYPE;
+import static org.commonjava.indy.core.expire.ScheduleManager.JOB_TYPE;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ScheduleKeyIndexTest
+{
+    private final StoreKey repo1 = new StoreKey( "maven", StoreType.remote, "repo1" );
+
+    private final StoreKey repo2 = new StoreKey( "maven", StoreType.remote, "repo2" );
+
+    @Test
+    public void getByStoreAndJobType()
+    {
+        ScheduleKeyIndex index = new ScheduleKeyIndex();
+        ScheduleKey a = new ScheduleKey( repo1, CONTENT_JOB_TYPE, "/a" );
+        ScheduleKey b = new ScheduleKey( repo1, CONTENT_JOB_TYPE, "/b" );
+        ScheduleKey other = new ScheduleKey( repo2, CONTENT_JOB_TYPE, "/a" );
+        ScheduleKey otherType = new ScheduleKey( repo1, JOB_TYPE, "disable-timeout" );
+
+        Arrays.asList( a, b, other, otherType ).forEach( index::add );
+
+        assertThat( index.get( repo1, CONTENT_JOB_TYPE ), equalTo( new HashSet<>( Arrays.asList( a, b ) ) ) );
+        assertThat( index.get( repo2, CONTENT_JOB_TYPE ), equalTo( Collections.singleton( other ) ) );
+        assertThat( index.get( repo1, JOB_TYPE ), equalTo( Collections.singleton( otherType ) ) );
+        assertThat( index.get( repo2, JOB_TYPE ).isEmpty(), equalTo( true ) );
+        assertThat( index.size(), equalTo( 4 ) );
+    }
+
+    @Test
+    public void removeDropsKeyAndEmptyGroup()
+    {
+        ScheduleKeyIndex index = new ScheduleKeyIndex();
+        ScheduleKey a = new ScheduleKey( repo1, CONTENT_JOB_TYPE, "/a" );
+        ScheduleKey b = new ScheduleKey( repo1, CONTENT_JOB_TYPE, "/b" );
+        index.add( a );
+        index.add( b );
+
+        index.remove( a );
+        assertThat( index.get( repo1, CONTENT_JOB_TYPE ), equalTo( Collections.singleton( b ) ) );
+
+        index.remove( b );
+        index.remove( b );
+        assertThat( index.get( repo1, CONTENT_JOB_TYPE ).isEmpty(), equalTo( true ) );
+        assertThat( index.size(), equalTo( 0 ) );
+    }
+
+    @Test
+    public void getReturnsSnapshot()
+    {
+        ScheduleKeyIndex index = new ScheduleKeyIndex();
+        ScheduleKey a = new ScheduleKey( repo1, CONTENT_JOB_TYPE, "/a" );
+        index.add( a );
+
+        Set<ScheduleKey> keys = index.get( repo1, CONTENT_JOB_TYPE );
+        index.remove( a );
+        index.add( new ScheduleKey( repo1, CONTENT_JOB_TYPE, "/b" ) );
+
+        assertThat( keys, equalTo( Collections.singleton( a ) ) );
+    }
+
+    @Test
+    public void ignoreIncompleteKeys()
+    {
+        ScheduleKeyIndex index = new ScheduleKeyIndex();
+        index.add( null );
+        index.add( new ScheduleKey() );
+        index.add( new ScheduleKey( null, CONTENT_JOB_TYPE, "/a" ) );
+        index.remove( new ScheduleKey() );
+
+        assertThat( index.size(), equalTo( 0 ) );
+    }
+}
@@ -16,13 +16,17 @@
 package org.commonjava.indy.core.inject;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.commonjava.indy.pkg.maven.model.MavenPackageTypeDescriptor.MAVEN_PKG_KEY;
 import static org.junit.Assert.assertThat;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.commonjava.indy.conf.DefaultIndyConfiguration;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.model.core.StoreType;
 import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.Location;
 import org.commonjava.maven.galley.model.SimpleLocation;
@@ -88,4 +92,61 @@ public class ExpiringMemoryNotFoundCacheTest
         assertThat( allMissing == null || allMissing.isEmpty(), equalTo( true ) );
     }
 
+    @Test
+    public void groupMissingClearedWhenMemberPathCleared()
+        throws Exception
+    {
+        final DefaultIndyConfiguration config = new DefaultIndyConfiguration();
+        final ExpiringMemoryNotFoundCache nfc = new ExpiringMemoryNotFoundCache( config );
+
+        final StoreKey groupKey = new StoreKey( MAVEN_PKG_KEY, StoreType.group, "public" );
+        final String path = "/path/to/missing/object";
+        final ConcreteResource res = new ConcreteResource( new SimpleLocation( "test:uri" ), path );
+
+        nfc.addMissing( res );
+        nfc.addMissingInGroup( groupKey, path, Collections.singletonList( res ), nfc.getGroupMissingStamp( path ) );
+        assertThat( nfc.isMissingInGroup( groupKey, path ), equalTo( true ) );
+
+        nfc.clearMissing( res );
+        assertThat( nfc.isMissingInGroup( groupKey, path ), equalTo( false ) );
+    }
+
+    @Test
+    public void groupMissingNotRecordedIfClearedWhileProbing()
+        throws Exception
+    {
+        final DefaultIndyConfiguration config = new DefaultIndyConfiguration();
+        final ExpiringMemoryNotFoundCache nfc = new ExpiringMemoryNotFoundCache( config );
+
+        final StoreKey groupKey = new StoreKey( MAVEN_PKG_KEY, StoreType.group, "public" );
+        final String path = "/path/to/missing/object";
+        final ConcreteResource res = new ConcreteResource( new SimpleLocation( "test:uri" ), path );
+
+        final long stamp = nfc.getGroupMissingStamp( path );
+        nfc.clearMissing( res );
+        nfc.addMissingInGroup( groupKey, path, Collections.singletonList( res ), stamp );
+
+        assertThat( nfc.isMissingInGroup( groupKey, path ), equalTo( false ) );
+    }
+
+    @Test
+    public void groupMissingRecordedDespiteClearOfOtherPath()
+        throws Exception
+    {
+        final DefaultIndyConfiguration config = new DefaultIndyConfiguration();
+        final ExpiringMemoryNotFoundCache nfc = new ExpiringMemoryNotFoundCache( config );
+
+        final StoreKey groupKey = new StoreKey( MAVEN_PKG_KEY, StoreType.group, "public" );
+        final String path = "/path/to/missing/object";
+        final ConcreteResource res = new ConcreteResource( new SimpleLocation( "test:uri" ), path );
+        final ConcreteResource other = new ConcreteResource( new SimpleLocation( "test:uri" ), "/path/to/uploaded" );
+
+        nfc.addMissing( res );
+        final long stamp = nfc.getGroupMissingStamp( path );
+        nfc.clearMissing( other );
+        nfc.addMissingInGroup( groupKey, path, Collections.singletonList( res ), stamp );
+
+        assertThat( nfc.isMissingInGroup( groupKey, path ), equalTo( true ) );
+    }
+
 }
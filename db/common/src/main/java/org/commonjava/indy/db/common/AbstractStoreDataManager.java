@@ -34,6 +34,7 @@ import org.commonjava.indy.measure.annotation.Measure;
 import org.commonjava.indy.model.core.ArtifactStore;
 import org.commonjava.indy.model.core.Group;
 import org.commonjava.indy.model.core.HostedRepository;
+import org.commonjava.indy.model.core.RemoteRepository;
 import org.commonjava.indy.model.core.StoreKey;
 import org.commonjava.indy.model.core.StoreType;
 import org.commonjava.indy.util.ApplicationStatus;
@@ -44,13 +45,10 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import javax.inject.Inject;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
@@ -67,6 +65,7 @@ import static org.commonjava.indy.db.common.StoreUpdateAction.DELETE;
 import static org.commonjava.indy.db.common.StoreUpdateAction.STORE;
 import static org.commonjava.indy.model.core.StoreType.group;
 import static org.commonjava.indy.model.core.StoreType.hosted;
+import static org.commonjava.indy.model.core.StoreType.remote;
 
 public abstract class AbstractStoreDataManager
         implements StoreDataManager
@@ -77,6 +76,12 @@ public abstract class AbstractStoreDataManager
 
     protected final Locker<StoreKey> opLocks = new Locker<>(); // used internally
 
+    private final GroupMembershipCache groupMembershipCache = new GroupMembershipCache();
+
+    private final ReverseGroupMembershipIndex reverseMembershipIndex = new ReverseGroupMembershipIndex();
+
+    private final RemoteRepositoryUrlIndex remoteUrlIndex = new RemoteRepositoryUrlIndex();
+
     abstract protected StoreEventDispatcher getStoreEventDispatcher();
 
     @Inject
@@ -111,6 +116,44 @@ public abstract class AbstractStoreDataManager
         return new DefaultArtifactStoreQuery<>( this );
     }
 
+    /**
+     * Flattened group membership results used by {@link DefaultArtifactStoreQuery}, invalidated on every store change.
+     */
+    public GroupMembershipCache getGroupMembershipCache()
+    {
+        return groupMembershipCache;
+    }
+
+    /**
+     * Groups containing each store, used by {@link #affectedByFromStores(Collection)}.
+     */
+    public ReverseGroupMembershipIndex getReverseMembershipIndex()
+    {
+        return reverseMembershipIndex;
+    }
+
+    /**
+     * Remote repositories by URL, used by {@link DefaultArtifactStoreQuery#getRemoteRepositoryByUrl(String, boolean)}.
+     * Built on first use.
+     */
+    public RemoteRepositoryUrlIndex getRemoteUrlIndex()
+    {
+        remoteUrlIndex.buildIfNecessary( this::getAllRemotesInternal );
+        return remoteUrlIndex;
+    }
+
+    /**
+     * Bump the store-data generation so cached group memberships are recomputed, and drop the reverse membership and
+     * remote URL indexes so they're rebuilt on next use. Implementations must call this when they change stores
+     * outside of {@link #postStore} / {@link #postDelete}, e.g. in {@link #clear(ChangeSummary)}.
+     */
+    protected void storeDataChanged()
+    {
+        groupMembershipCache.invalidate();
+        reverseMembershipIndex.invalidate();
+        remoteUrlIndex.invalidate();
+    }
+
     protected abstract ArtifactStore getArtifactStoreInternal( final StoreKey key );
 
     @Override
@@ -160,6 +203,17 @@ public abstract class AbstractStoreDataManager
                               final boolean exists, final boolean fireEvents, final EventMetadata eventMetadata )
             throws IndyDataException
     {
+        // listeners of the post-update event may query group membership, so update these before firing
+        groupMembershipCache.invalidate();
+        if ( store instanceof Group )
+        {
+            reverseMembershipIndex.groupStored( (Group) store, (Group) original );
+        }
+        else if ( store instanceof RemoteRepository )
+        {
+            remoteUrlIndex.remoteStored( (RemoteRepository) store );
+        }
+
         StoreEventDispatcher dispatcher = getStoreEventDispatcher();
         if ( dispatcher != null && isStarted() && fireEvents )
         {
@@ -202,6 +256,16 @@ public abstract class AbstractStoreDataManager
                                final EventMetadata eventMetadata )
             throws IndyDataException
     {
+        groupMembershipCache.invalidate();
+        if ( store instanceof Group )
+        {
+            reverseMembershipIndex.groupRemoved( (Group) store );
+        }
+        else if ( store instanceof RemoteRepository )
+        {
+            remoteUrlIndex.remoteRemoved( store.getKey() );
+        }
+
         StoreEventDispatcher dispatcher = getStoreEventDispatcher();
         if ( dispatcher != null && isStarted() && fireEvents )
         {
@@ -436,6 +500,7 @@ public abstract class AbstractStoreDataManager
             {
                 logger.error( "postStore() failed for {}. Rollback to old value: {}", store, old );
                 putArtifactStoreInternal( old.getKey(), old );
+                storeDataChanged();
             }
             error.set( e );
             return false;
@@ -517,48 +582,23 @@ public abstract class AbstractStoreDataManager
         Logger logger = LoggerFactory.getLogger( getClass() );
         logger.debug( "Getting groups affected by: {}", keys );
 
-        List<StoreKey> toProcess = new ArrayList<>( new HashSet<>( keys ) );
-
         Set<Group> groups = new HashSet<>();
-        if ( toProcess.isEmpty() )
+        if ( keys.isEmpty() )
         {
             return groups;
         }
 
-        Set<StoreKey> processed = new HashSet<>();
-        final String packageType = toProcess.get( 0 ).getPackageType();
+        reverseMembershipIndex.buildIfNecessary( this::getAllGroupsInternal );
 
-        Set<ArtifactStore> all = this.getStoreKeysByPkgAndType( packageType, group )
-                                     .stream()
-                                     .map( this::getArtifactStoreInternal )
-                                     .filter( Objects::nonNull )
-                                     .collect( Collectors.toSet() );
-
-        while ( !toProcess.isEmpty() )
+        final String packageType = keys.iterator().next().getPackageType();
+        for ( StoreKey groupKey : reverseMembershipIndex.getAffectedGroups( keys ) )
         {
-            // as long as we have another key to process, pop it off the list (remove it) and process it.
-            StoreKey next = toProcess.remove( 0 );
-            if ( processed.contains( next ) )
-            {
-                // if we've already handled this group (via another branch in the group membership tree, etc. then don't bother.
-                continue;
-            }
-
-            // use this to avoid reprocessing groups we've already encountered.
-            processed.add( next );
-
-            for ( ArtifactStore store : all )
+            if ( packageType.equals( groupKey.getPackageType() ) )
             {
-                if ( ( store instanceof Group ) && !processed.contains( store.getKey() )  )
+                ArtifactStore store = getArtifactStoreInternal( groupKey );
+                if ( store instanceof Group )
                 {
-                    Group g = (Group) store;
-                    if ( g.getConstituents() != null && g.getConstituents().contains( next ) )
-                    {
-                        groups.add( g );
-
-                        // add this group as another one to process for groups that contain it...and recurse upwards
-                        toProcess.add( g.getKey() );
-                    }
+                    groups.add( (Group) store );
                 }
             }
         }
@@ -566,6 +606,24 @@ public abstract class AbstractStoreDataManager
         return filterAffectedGroups( groups );
     }
 
+    private Collection<Group> getAllGroupsInternal()
+    {
+        return streamArtifactStoreKeys().filter( k -> k.getType() == group )
+                                        .map( this::getArtifactStoreInternal )
+                                        .filter( s -> s instanceof Group )
+                                        .map( s -> (Group) s )
+                                        .collect( Collectors.toList() );
+    }
+
+    private Collection<RemoteRepository> getAllRemotesInternal()
+    {
+        return streamArtifactStoreKeys().filter( k -> k.getType() == remote )
+                                        .map( this::getArtifactStoreInternal )
+                                        .filter( s -> s instanceof RemoteRepository )
+                                        .map( s -> (RemoteRepository) s )
+                                        .collect( Collectors.toList() );
+    }
+
     /**
      * Filter unnecessary affected groups in clean-up process. Most likely to exclude all the temp groups.
      */
@@ -269,6 +269,14 @@ public class DefaultArtifactStoreQuery<T extends ArtifactStore>
     @Measure
     public List<RemoteRepository> getRemoteRepositoryByUrl( String url )
             throws IndyDataException
+    {
+        return getRemoteRepositoryByUrl( url, true );
+    }
+
+    @Override
+    @Measure
+    public List<RemoteRepository> getRemoteRepositoryByUrl( String url, boolean matchIp )
+            throws IndyDataException
     {
         /*
            This filter does these things:
@@ -287,6 +295,12 @@ public class DefaultArtifactStoreQuery<T extends ArtifactStore>
 
         final UrlInfo urlInfo = temp;
 
+        final RemoteRepositoryUrlIndex urlIndex = getRemoteUrlIndex();
+        if ( urlIndex != null && urlInfo != null )
+        {
+            return getRemoteRepositoryByUrl( urlIndex, url, urlInfo, matchIp );
+        }
+
         List<RemoteRepository> result;
 
         // first try to find the remote repo by urlWithNoSchemeAndLastSlash
@@ -324,7 +338,7 @@ public class DefaultArtifactStoreQuery<T extends ArtifactStore>
         /* @formatter:on */
 
 
-        if ( result.isEmpty() )
+        if ( result.isEmpty() && matchIp )
         {
             // ...if not found by hostname try to search by IP
             /* @formatter:off */
@@ -526,7 +540,24 @@ public class DefaultArtifactStoreQuery<T extends ArtifactStore>
             throw new IndyDataException( "packageType must be set on the query before calling this method!" );
         }
 
-        final Group master = (Group) dataManager.getArtifactStore( new StoreKey( packageType, group, groupName ) );
+        final StoreKey groupKey = new StoreKey( packageType, group, groupName );
+        final boolean enabledOnly = Boolean.TRUE.equals( enabled );
+
+        final GroupMembershipCache membershipCache = getMembershipCache();
+        long generation = 0;
+        if ( membershipCache != null )
+        {
+            List<ArtifactStore> cached = membershipCache.get( groupKey, includeGroups, enabledOnly );
+            if ( cached != null )
+            {
+                return cached;
+            }
+
+            // read the generation before walking, so a concurrent store change can only make the result stale
+            generation = membershipCache.generation();
+        }
+
+        final Group master = (Group) dataManager.getArtifactStore( groupKey );
         if ( master == null )
         {
             return Collections.emptyList();
@@ -591,7 +622,85 @@ public class DefaultArtifactStoreQuery<T extends ArtifactStore>
             }
         }
 
+        if ( membershipCache != null )
+        {
+            return membershipCache.put( groupKey, includeGroups, enabledOnly, generation, result );
+        }
+
+        return result;
+    }
+
+    /**
+     * Same matching as the scan in {@link #getRemoteRepositoryByUrl(String, boolean)}, answered from the data manager's URL
+     * index: first by host, port and path, then by the resolved IP.
+     */
+    private List<RemoteRepository> getRemoteRepositoryByUrl( final RemoteRepositoryUrlIndex urlIndex, final String url,
+                                                             final UrlInfo urlInfo, final boolean matchIp )
+            throws IndyDataException
+    {
+        List<RemoteRepository> result = getRemoteRepositories( urlIndex.getByUrl( urlInfo ) );
+        if ( !result.isEmpty() || !matchIp )
+        {
+            logger.debug( "Repository found because of same host, url is {}, store keys are {}", url, result );
+            return result;
+        }
+
+        String ip;
+        try
+        {
+            ip = urlInfo.getIpForUrl();
+        }
+        catch ( UnknownHostException ue )
+        {
+            logger.warn( "Failed to filter remote: ip fetch error.", ue );
+            return result;
+        }
+
+        result = getRemoteRepositories( urlIndex.getByIp( ip, urlInfo ) );
+        logger.debug( "Repositories found because of same ip ({}), url is {}: {}", ip, url, result );
+        return result;
+    }
+
+    private List<RemoteRepository> getRemoteRepositories( final Set<StoreKey> keys )
+            throws IndyDataException
+    {
+        List<RemoteRepository> result = new ArrayList<>();
+        for ( StoreKey key : keys )
+        {
+            ArtifactStore store = dataManager.getArtifactStore( key );
+            if ( store instanceof RemoteRepository && ( enabled == null || enabled != store.isDisabled() )
+                    && ( packageType == null || packageType.equals( store.getPackageType() ) ) )
+            {
+                result.add( (RemoteRepository) store );
+            }
+        }
+
         return result;
     }
 
+    private RemoteRepositoryUrlIndex getRemoteUrlIndex()
+    {
+        if ( dataManager instanceof AbstractStoreDataManager )
+        {
+            return ( (AbstractStoreDataManager) dataManager ).getRemoteUrlIndex();
+        }
+
+        return null;
+    }
+
+    /**
+     * Membership caching is only safe when the data manager invalidates it on every store change, which
+     * {@link AbstractStoreDataManager} does. Cache slots are chosen by includeGroups alone, since recurseGroups is always
+     * its inverse for the callers in this class.
+     */
+    private GroupMembershipCache getMembershipCache()
+    {
+        if ( dataManager instanceof AbstractStoreDataManager )
+        {
+            return ( (AbstractStoreDataManager) dataManager ).getGroupMembershipCache();
+        }
+
+        return null;
+    }
+
 }
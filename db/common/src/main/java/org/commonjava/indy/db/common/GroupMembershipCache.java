@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.db.common;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.commonjava.indy.model.core.ArtifactStore;
+import org.commonjava.indy.model.core.StoreKey;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the flattened, ordered membership of groups as computed by {@link DefaultArtifactStoreQuery}. Entries are
+ * stamped with the store-data generation that was current when the membership walk started. Any store add / update /
+ * delete bumps the generation (see {@link AbstractStoreDataManager#postStore} and
+ * {@link AbstractStoreDataManager#postDelete}), which makes every cached entry stale at once without having to work
+ * out which groups contain the changed store.
+ * <p>
+ * Each group key has one slot per membership variant (concrete vs. including groups, any vs. enabled-only), so a hit
+ * is a single map lookup plus an array read and does not allocate.
+ */
+public class GroupMembershipCache
+        implements MetricSet
+{
+    private static final int VARIANTS = 4;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<StoreKey, AtomicReferenceArray<Membership>> memberships = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Current store-data generation. Callers must read this BEFORE walking the group tree, and pass it to
+     * {@link #put(StoreKey, boolean, boolean, long, List)}, so that a concurrent store change results in a stale entry
+     * rather than a wrong one.
+     */
+    public long generation()
+    {
+        return generation.get();
+    }
+
+    /**
+     * Invalidate all cached memberships. Called whenever any store or group definition changes.
+     */
+    public void invalidate()
+    {
+        generation.incrementAndGet();
+        memberships.clear();
+    }
+
+    public List<ArtifactStore> get( final StoreKey groupKey, final boolean includeGroups, final boolean enabledOnly )
+    {
+        AtomicReferenceArray<Membership> slots = memberships.get( groupKey );
+        if ( slots != null )
+        {
+            Membership membership = slots.get( slot( includeGroups, enabledOnly ) );
+            if ( membership != null && membership.generation == generation.get() )
+            {
+                hits.increment();
+                return membership.stores;
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Store a membership result, returning the unmodifiable list that was cached. If the generation has moved on since
+     * the walk started, the result is returned without being cached.
+     */
+    public List<ArtifactStore> put( final StoreKey groupKey, final boolean includeGroups, final boolean enabledOnly,
+                                    final long walkGeneration, final List<ArtifactStore> stores )
+    {
+        List<ArtifactStore> result = Collections.unmodifiableList( stores );
+        if ( walkGeneration == generation.get() )
+        {
+            memberships.computeIfAbsent( groupKey, k -> new AtomicReferenceArray<>( VARIANTS ) )
+                       .set( slot( includeGroups, enabledOnly ), new Membership( walkGeneration, result ) );
+        }
+
+        return result;
+    }
+
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    public int size()
+    {
+        return memberships.size();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics()
+    {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put( "hits", (Gauge<Long>) this::getHitCount );
+        gauges.put( "misses", (Gauge<Long>) this::getMissCount );
+        gauges.put( "groups", (Gauge<Integer>) this::size );
+        gauges.put( "generation", (Gauge<Long>) this::generation );
+        return gauges;
+    }
+
+    private static int slot( final boolean includeGroups, final boolean enabledOnly )
+    {
+        return ( includeGroups ? 2 : 0 ) + ( enabledOnly ? 1 : 0 );
+    }
+
+    private static final class Membership
+    {
+        private final long generation;
+
+        private final List<ArtifactStore> stores;
+
+        private Membership( final long generation, final List<ArtifactStore> stores )
+        {
+            this.generation = generation;
+            this.stores = stores;
+        }
+    }
+}
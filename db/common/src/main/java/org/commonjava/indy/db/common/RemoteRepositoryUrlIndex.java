@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.db.common;
+
+import org.commonjava.indy.model.core.RemoteRepository;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.util.UrlInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Maps remote repository URLs to store keys, so
+ * {@link DefaultArtifactStoreQuery#getRemoteRepositoryByUrl(String, boolean)}
+ * doesn't have to parse the URL of every remote repository on each call. URLs are keyed without their scheme and
+ * trailing slash (see {@link UrlInfo#getUrlWithNoSchemeAndLastSlash()}), and the scheme is checked on lookup.
+ * <p>
+ * Each entry also caches the IP its host resolved to, which the fallback lookup by IP uses. A host is resolved at most
+ * once for as long as its store is unchanged, including when resolution fails.
+ * <p>
+ * Like {@link ReverseGroupMembershipIndex}, the index is maintained by {@link AbstractStoreDataManager#postStore} and
+ * {@link AbstractStoreDataManager#postDelete}, (re)built lazily after {@link #invalidate()}, and drops updates that
+ * arrive while it is not built.
+ */
+public class RemoteRepositoryUrlIndex
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final Map<StoreKey, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<StoreKey>> byUrl = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<StoreKey>> byIp = new ConcurrentHashMap<>();
+
+    private volatile boolean built;
+
+    public boolean isBuilt()
+    {
+        return built;
+    }
+
+    public synchronized void invalidate()
+    {
+        built = false;
+        entries.clear();
+        byUrl.clear();
+        byIp.clear();
+    }
+
+    /**
+     * Build the index from the given remote repositories, unless another caller has already done it.
+     */
+    public synchronized void buildIfNecessary( final Supplier<Collection<RemoteRepository>> remotes )
+    {
+        if ( built )
+        {
+            return;
+        }
+
+        entries.clear();
+        byUrl.clear();
+        byIp.clear();
+        remotes.get().forEach( this::add );
+        built = true;
+    }
+
+    public synchronized void remoteStored( final RemoteRepository remote )
+    {
+        if ( !built )
+        {
+            return;
+        }
+
+        remove( remote.getKey() );
+        add( remote );
+    }
+
+    public synchronized void remoteRemoved( final StoreKey key )
+    {
+        if ( !built )
+        {
+            return;
+        }
+
+        remove( key );
+    }
+
+    /**
+     * Remote repositories with the same scheme, host, port and path (ignoring a trailing slash) as the given URL.
+     */
+    public Set<StoreKey> getByUrl( final UrlInfo urlInfo )
+    {
+        Set<StoreKey> keys = byUrl.get( urlInfo.getUrlWithNoSchemeAndLastSlash() );
+        if ( keys == null )
+        {
+            return Collections.emptySet();
+        }
+
+        Set<StoreKey> result = new HashSet<>();
+        for ( StoreKey key : keys )
+        {
+            Entry entry = entries.get( key );
+            if ( entry != null && urlInfo.getProtocol().equals( entry.urlInfo.getProtocol() ) )
+            {
+                result.add( key );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Remote repositories whose host resolves to the given IP, with the same port and path as the given URL. Hosts not
+     * resolved yet are resolved first, so the first call after a (re)build can be slow.
+     */
+    public Set<StoreKey> getByIp( final String ip, final UrlInfo urlInfo )
+    {
+        if ( ip == null )
+        {
+            return Collections.emptySet();
+        }
+
+        entries.values().forEach( this::resolve );
+
+        Set<StoreKey> keys = byIp.get( ipKey( ip, urlInfo ) );
+        return keys == null ? Collections.emptySet() : new HashSet<>( keys );
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    private void add( final RemoteRepository remote )
+    {
+        UrlInfo urlInfo;
+        try
+        {
+            urlInfo = new UrlInfo( remote.getUrl() );
+        }
+        catch ( final IllegalArgumentException | NullPointerException e )
+        {
+            logger.warn( "Not indexing URL of: {}. Reason: {}", remote.getKey(), e.getMessage() );
+            return;
+        }
+
+        entries.put( remote.getKey(), new Entry( remote.getKey(), urlInfo ) );
+        byUrl.computeIfAbsent( urlInfo.getUrlWithNoSchemeAndLastSlash(), k -> ConcurrentHashMap.newKeySet() )
+             .add( remote.getKey() );
+    }
+
+    private void remove( final StoreKey key )
+    {
+        Entry entry = entries.remove( key );
+        if ( entry == null )
+        {
+            return;
+        }
+
+        removeFrom( byUrl, entry.urlInfo.getUrlWithNoSchemeAndLastSlash(), key );
+        if ( entry.ip != null )
+        {
+            removeFrom( byIp, ipKey( entry.ip, entry.urlInfo ), key );
+        }
+    }
+
+    private void resolve( final Entry entry )
+    {
+        if ( entry.resolved )
+        {
+            return;
+        }
+
+        String ip = null;
+        try
+        {
+            ip = entry.urlInfo.getIpForUrl();
+        }
+        catch ( final UnknownHostException e )
+        {
+            logger.warn( "Failed to resolve remote host: {}. Reason: {}", entry.urlInfo.getHost(), e.getMessage() );
+        }
+
+        synchronized ( this )
+        {
+            // skip it if the store was changed or removed meanwhile
+            if ( entry.resolved || entries.get( entry.key ) != entry )
+            {
+                return;
+            }
+
+            entry.ip = ip;
+            entry.resolved = true;
+            if ( ip != null )
+            {
+                byIp.computeIfAbsent( ipKey( ip, entry.urlInfo ), k -> ConcurrentHashMap.newKeySet() )
+                    .add( entry.key );
+            }
+        }
+    }
+
+    private static void removeFrom( final Map<String, Set<StoreKey>> index, final String indexKey, final StoreKey key )
+    {
+        index.computeIfPresent( indexKey, ( k, keys ) -> {
+            keys.remove( key );
+            return keys.isEmpty() ? null : keys;
+        } );
+    }
+
+    private static String ipKey( final String ip, final UrlInfo urlInfo )
+    {
+        return ip + ':' + urlInfo.getPort() + urlInfo.getFileWithNoLastSlash();
+    }
+
+    private static final class Entry
+    {
+        private final StoreKey key;
+
+        private final UrlInfo urlInfo;
+
+        private volatile String ip;
+
+        private volatile boolean resolved;
+
+        private Entry( final StoreKey key, final UrlInfo urlInfo )
+        {
+            this.key = key;
+            this.urlInfo = urlInfo;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.db.common;
+
+import org.commonjava.indy.model.core.Group;
+import org.commonjava.indy.model.core.StoreKey;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Maps each store to the groups that list it directly as a constituent, so the groups affected by a store can be found
+ * by walking up the membership graph instead of scanning every group definition. The index is maintained
+ * incrementally by {@link AbstractStoreDataManager#postStore} and {@link AbstractStoreDataManager#postDelete}, and is
+ * (re)built lazily from the full group list after {@link #invalidate()}.
+ * <p>
+ * Reads are lock-free. Updates and rebuilds are serialized on the index, and updates arriving while the index is not
+ * built are dropped, since the next rebuild will read the store they were made for.
+ */
+public class ReverseGroupMembershipIndex
+{
+    private final Map<StoreKey, Set<StoreKey>> containingGroups = new ConcurrentHashMap<>();
+
+    private volatile boolean built;
+
+    public boolean isBuilt()
+    {
+        return built;
+    }
+
+    public synchronized void invalidate()
+    {
+        built = false;
+        containingGroups.clear();
+    }
+
+    /**
+     * Build the index from the given groups, unless another caller has already done it.
+     */
+    public synchronized void buildIfNecessary( final Supplier<Collection<Group>> groups )
+    {
+        if ( built )
+        {
+            return;
+        }
+
+        containingGroups.clear();
+        groups.get().forEach( g -> addMembers( g.getKey(), g.getConstituents() ) );
+        built = true;
+    }
+
+    /**
+     * Replace the membership edges of a stored group. The original group (null if it's new) gives the edges to drop.
+     */
+    public synchronized void groupStored( final Group group, final Group original )
+    {
+        if ( !built )
+        {
+            return;
+        }
+
+        if ( original != null )
+        {
+            removeMembers( original.getKey(), original.getConstituents() );
+        }
+        addMembers( group.getKey(), group.getConstituents() );
+    }
+
+    public synchronized void groupRemoved( final Group group )
+    {
+        if ( !built )
+        {
+            return;
+        }
+
+        removeMembers( group.getKey(), group.getConstituents() );
+    }
+
+    /**
+     * Groups listing the given store directly as a constituent.
+     */
+    public Set<StoreKey> getContainingGroups( final StoreKey key )
+    {
+        Set<StoreKey> groups = containingGroups.get( key );
+        return groups == null ? Collections.emptySet() : Collections.unmodifiableSet( groups );
+    }
+
+    /**
+     * Transitive closure of {@link #getContainingGroups(StoreKey)} over the given stores, not including the stores
+     * themselves unless they are reachable from one another.
+     */
+    public Set<StoreKey> getAffectedGroups( final Collection<StoreKey> keys )
+    {
+        Set<StoreKey> result = new HashSet<>();
+        Deque<StoreKey> toProcess = new ArrayDeque<>( keys );
+        while ( !toProcess.isEmpty() )
+        {
+            for ( StoreKey groupKey : getContainingGroups( toProcess.removeFirst() ) )
+            {
+                if ( result.add( groupKey ) )
+                {
+                    toProcess.addLast( groupKey );
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public int size()
+    {
+        return containingGroups.size();
+    }
+
+    private void addMembers( final StoreKey groupKey, final Collection<StoreKey> members )
+    {
+        if ( members != null )
+        {
+            members.forEach( m -> containingGroups.computeIfAbsent( m, k -> ConcurrentHashMap.newKeySet() )
+                                                  .add( groupKey ) );
+        }
+    }
+
+    private void removeMembers( final StoreKey groupKey, final Collection<StoreKey> members )
+    {
+        if ( members != null )
+        {
+            members.forEach( m -> containingGroups.computeIfPresent( m, ( k, groups ) -> {
+                groups.remove( groupKey );
+                return groups.isEmpty() ? null : groups;
+            } ) );
+        }
+    }
+}
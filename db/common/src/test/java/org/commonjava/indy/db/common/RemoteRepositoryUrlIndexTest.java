@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.db.common;
+
+import org.commonjava.indy.model.core.RemoteRepository;
+import org.commonjava.indy.model.core.StoreKey;
+import org.commonjava.indy.util.UrlInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.commonjava.indy.pkg.PackageTypeConstants.PKG_TYPE_MAVEN;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class RemoteRepositoryUrlIndexTest
+{
+    private static final String URL = "http://repo.example.com:8080/maven2";
+
+    private static final String SECURE_URL = "https://repo.example.com:8080/maven2";
+
+    private RemoteRepositoryUrlIndex index;
+
+    private RemoteRepository central;
+
+    private RemoteRepository mirror;
+
+    @Before
+    public void setup()
+    {
+        index = new RemoteRepositoryUrlIndex();
+        central = new RemoteRepository( PKG_TYPE_MAVEN, "central", URL );
+        mirror = new RemoteRepository( PKG_TYPE_MAVEN, "mirror", URL + "/" );
+    }
+
+    @Test
+    public void lookupIgnoresTrailingSlash()
+    {
+        index.buildIfNecessary( () -> Arrays.asList( central, mirror ) );
+
+        assertThat( index.isBuilt(), equalTo( true ) );
+        assertThat( index.getByUrl( new UrlInfo( URL + "/" ) ), equalTo( setOf( central, mirror ) ) );
+        assertThat( index.getByUrl( new UrlInfo( URL ) ), equalTo( setOf( central, mirror ) ) );
+    }
+
+    @Test
+    public void lookupChecksScheme()
+    {
+        RemoteRepository secure = new RemoteRepository( PKG_TYPE_MAVEN, "secure", SECURE_URL );
+        index.buildIfNecessary( () -> Arrays.asList( central, secure ) );
+
+        assertThat( index.getByUrl( new UrlInfo( SECURE_URL ) ), equalTo( setOf( secure ) ) );
+        assertThat( index.getByUrl( new UrlInfo( URL ) ), equalTo( setOf( central ) ) );
+        assertThat( index.getByUrl( new UrlInfo( "http://repo.example.com:8080/other" ) ).isEmpty(),
+                    equalTo( true ) );
+    }
+
+    @Test
+    public void storedRemoteMovesToItsNewUrl()
+    {
+        index.buildIfNecessary( () -> Collections.singletonList( central ) );
+
+        RemoteRepository moved = new RemoteRepository( PKG_TYPE_MAVEN, "central", "http://other.example.com/maven2" );
+        index.remoteStored( moved );
+
+        assertThat( index.getByUrl( new UrlInfo( URL ) ).isEmpty(),
+                    equalTo( true ) );
+        assertThat( index.getByUrl( new UrlInfo( "http://other.example.com/maven2" ) ), equalTo( setOf( moved ) ) );
+        assertThat( index.size(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void removedRemoteIsDropped()
+    {
+        index.buildIfNecessary( () -> Arrays.asList( central, mirror ) );
+
+        index.remoteRemoved( central.getKey() );
+
+        assertThat( index.getByUrl( new UrlInfo( URL ) ), equalTo( setOf( mirror ) ) );
+        assertThat( index.size(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void invalidUrlIsNotIndexed()
+    {
+        RemoteRepository broken = new RemoteRepository( PKG_TYPE_MAVEN, "broken", "not a url" );
+        index.buildIfNecessary( () -> Arrays.asList( central, broken ) );
+
+        assertThat( index.size(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void updatesAreDroppedUntilRebuilt()
+    {
+        index.buildIfNecessary( () -> Collections.singletonList( central ) );
+        index.invalidate();
+
+        index.remoteStored( mirror );
+
+        assertThat( index.isBuilt(), equalTo( false ) );
+        assertThat( index.size(), equalTo( 0 ) );
+
+        // a built index isn't rebuilt from another supplier
+        index.buildIfNecessary( () -> Collections.singletonList( mirror ) );
+        index.buildIfNecessary( () -> Collections.singletonList( central ) );
+
+        assertThat( index.getByUrl( new UrlInfo( URL ) ), equalTo( setOf( mirror ) ) );
+    }
+
+    @Test
+    public void lookupByIpMatchesPortAndPath()
+    {
+        RemoteRepository byAddress = new RemoteRepository( PKG_TYPE_MAVEN, "local", "http://127.0.0.1:8080/maven2/" );
+        RemoteRepository otherPort = new RemoteRepository( PKG_TYPE_MAVEN, "other", "http://127.0.0.1:9090/maven2" );
+        index.buildIfNecessary( () -> Arrays.asList( byAddress, otherPort ) );
+
+        assertThat( index.getByIp( "127.0.0.1", new UrlInfo( "http://some.alias:8080/maven2" ) ),
+                    equalTo( setOf( byAddress ) ) );
+        assertThat( index.getByIp( null, new UrlInfo( "http://some.alias:8080/maven2" ) ).isEmpty(),
+                    equalTo( true ) );
+
+        index.remoteRemoved( byAddress.getKey() );
+
+        assertThat( index.getByIp( "127.0.0.1", new UrlInfo( "http://some.alias:8080/maven2" ) ).isEmpty(),
+                    equalTo( true ) );
+    }
+
+    private static Set<StoreKey> setOf( final RemoteRepository... remotes )
+    {
+        return Arrays.stream( remotes ).map( RemoteRepository::getKey ).collect( toSet() );
+    }
+}
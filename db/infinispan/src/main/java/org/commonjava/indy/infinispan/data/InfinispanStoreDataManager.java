@@ -124,6 +124,7 @@ public class InfinispanStoreDataManager
         storesByPkg.clear();
         affectedByStores.clear();
         storesByPkg.clear();
+        storeDataChanged();
     }
 
     @Override
@@ -220,7 +221,6 @@ public class InfinispanStoreDataManager
     public Set<Group> affectedBy( final Collection<StoreKey> keys )
     {
         logger.debug( "Calculate affectedBy for keys: {}", keys );
-        checkAffectedByCacheHealth();
 
         final Set<Group> result = new HashSet<>();
 
@@ -98,6 +98,7 @@ public class MemoryStoreDataManager
             throws IndyDataException
     {
         stores.clear();
+        storeDataChanged();
     }
 
     @Override
@@ -396,6 +396,33 @@ public class MeasuringStoreQuery<T extends ArtifactStore>
         return result;
     }
 
+    @Override
+    public List<RemoteRepository> getRemoteRepositoryByUrl( final String url, final boolean matchIp )
+            throws IndyDataException
+    {
+        AtomicReference<IndyDataException> errorRef = new AtomicReference<>();
+        List<RemoteRepository> result = metricsManager.wrapWithStandardMetrics( ()->{
+            try
+            {
+                return query.getRemoteRepositoryByUrl( url, matchIp );
+            }
+            catch ( IndyDataException e )
+            {
+                errorRef.set( e );
+            }
+
+            return null;
+        }, ()-> "getRemoteRepositoryByUrl" );
+
+        IndyDataException error = errorRef.get();
+        if ( error != null )
+        {
+            throw error;
+        }
+
+        return result;
+    }
+
     @Override
     public List<ArtifactStore> getOrderedConcreteStoresInGroup( final String groupName )
             throws IndyDataException
@@ -91,6 +91,14 @@ public class MockDownloadManager implements DownloadManager
         return null;
     }
 
+    @Override
+    public Transfer copy( Transfer source, ArtifactStore store, String path, TransferOperation op,
+                          EventMetadata eventMetadata )
+            throws IndyWorkflowException
+    {
+        return null;
+    }
+
     @Override
     public Transfer store( List<? extends ArtifactStore> stores, String path, InputStream stream, TransferOperation op )
             throws IndyWorkflowException
@@ -40,14 +40,14 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -55,9 +55,11 @@ import static org.apache.commons.lang.StringUtils.isNotBlank;
 import static org.commonjava.indy.IndyContentConstants.NANOS_PER_MILLISECOND;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.DEFAULT;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.EXCEPTION;
+import static org.commonjava.indy.metrics.IndyMetricsConstants.METER;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.SKIP_METRIC;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.TIMER;
 import static org.commonjava.indy.metrics.IndyMetricsConstants.getDefaultName;
+import static org.commonjava.indy.metrics.IndyMetricsConstants.getName;
 import static org.commonjava.indy.metrics.RequestContextHelper.CUMULATIVE_COUNTS;
 import static org.commonjava.indy.metrics.RequestContextHelper.CUMULATIVE_TIMINGS;
 import static org.commonjava.indy.metrics.RequestContextHelper.IS_METERED;
@@ -101,6 +103,12 @@ public class IndyMetricsManager
 
     private Random random = new Random();
 
+    private final Map<String, StandardMetrics> standardMetrics = new ConcurrentHashMap<>();
+
+    private final Map<Method, StandardMetrics> measuredMetrics = new ConcurrentHashMap<>();
+
+    private final Map<Function<String, String>, Meter> boundMeters = new ConcurrentHashMap<>();
+
     @Produces
     public TransportMetricConfig getTransportMetricConfig()
     {
@@ -266,6 +274,15 @@ public class IndyMetricsManager
         return metricRegistry.meter( name );
     }
 
+    /**
+     * Get a meter bound once for the given naming function, which builds the meter name from the node prefix. The
+     * function is the key, so it should be a constant of the caller.
+     */
+    public Meter getBoundMeter( final Function<String, String> naming )
+    {
+        return boundMeters.computeIfAbsent( naming, n -> getMeter( n.apply( config.getNodePrefix() ) ) );
+    }
+
     public void accumulate( String name, final double elapsed )
     {
         ThreadContext ctx = ThreadContext.getContext( true );
@@ -304,42 +321,63 @@ public class IndyMetricsManager
             return method.get();
         }
 
-        String nodePrefix = config.getNodePrefix();
-
-        String metricName = name( nodePrefix, name );
-        String startName = name( metricName, "starts"  );
-
-        String timerName = name( metricName, TIMER );
-        String errorName = name( name, EXCEPTION );
-        String eClassName = null;
-
-        Timer.Context timer = startTimer( timerName );
-        logger.trace( "START: {} ({})", metricName, timer );
+        return measure( method, getStandardMetrics( name ) );
+    }
 
+    /**
+     * Time the call and mark its meters with the given pre-bound metrics, then accumulate its elapsed time for the
+     * request.
+     */
+    public <T> T measure( final Supplier<T> method, final StandardMetrics metrics )
+    {
         long start = System.nanoTime();
+        Timer.Context timer = metrics.start();
+        logger.trace( "START: {} ({})", metrics.getName(), timer );
         try
         {
-            mark( Arrays.asList( startName ) );
-
             return method.get();
         }
         catch ( Throwable e )
         {
-            eClassName = name( name, EXCEPTION, e.getClass().getSimpleName() );
-            mark( Arrays.asList( errorName, eClassName ) );
+            metrics.markError( e );
 
             throw e;
         }
         finally
         {
-            stopTimers( Collections.singletonMap( timerName, timer ) );
-            mark( Arrays.asList( metricName ) );
+            metrics.stop( timer );
 
             double elapsed = (System.nanoTime() - start) / NANOS_PER_MILLISECOND;
-            accumulate( metricName, elapsed );
+            accumulate( metrics.getName(), elapsed );
         }
     }
 
+    /**
+     * Get the metrics used by {@link #wrapWithStandardMetrics(Supplier, Supplier)} for the classifier, bound once.
+     */
+    public StandardMetrics getStandardMetrics( final String classifier )
+    {
+        return standardMetrics.computeIfAbsent( classifier, c -> {
+            String metricName = name( config.getNodePrefix(), c );
+            return new StandardMetrics( metricRegistry, metricName, name( metricName, TIMER ), metricName,
+                                        name( c, EXCEPTION ) );
+        } );
+    }
+
+    /**
+     * Get the metrics of a method annotated with {@link org.commonjava.indy.measure.annotation.Measure}, bound once.
+     */
+    public StandardMetrics getMeasuredMetrics( final Method method )
+    {
+        return measuredMetrics.computeIfAbsent( method, m -> {
+            String nodePrefix = config.getNodePrefix();
+            String defaultName = getDefaultName( m.getDeclaringClass(), m.getName() );
+            return new StandardMetrics( metricRegistry, defaultName, getName( nodePrefix, DEFAULT, defaultName, TIMER ),
+                                        getName( nodePrefix, DEFAULT, defaultName, METER ),
+                                        getName( nodePrefix, DEFAULT, defaultName, EXCEPTION ) );
+        } );
+    }
+
     public boolean checkMetered()
     {
         return checkMetered( null );
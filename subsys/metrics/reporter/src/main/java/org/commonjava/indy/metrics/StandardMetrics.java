@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.metrics;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * The timer and meters of one measured operation, bound once from the {@link MetricRegistry} so measuring a call
+ * needs no metric name building or registry lookup. Bundles are interned by {@link IndyMetricsManager}, see
+ * {@link IndyMetricsManager#getStandardMetrics(String)} and {@link IndyMetricsManager#getMeasuredMetrics}.
+ */
+public final class StandardMetrics
+{
+    private final MetricRegistry registry;
+
+    private final String name;
+
+    private final Timer timer;
+
+    private final Meter starts;
+
+    private final Meter calls;
+
+    private final String errorName;
+
+    private final Meter errors;
+
+    private final Map<Class<?>, Meter> errorsByType = new ConcurrentHashMap<>();
+
+    StandardMetrics( final MetricRegistry registry, final String name, final String timerName,
+                     final String callsName, final String errorName )
+    {
+        this.registry = registry;
+        this.name = name;
+        this.timer = registry.timer( timerName );
+        this.starts = registry.meter( name( callsName, "starts" ) );
+        this.calls = registry.meter( callsName );
+        this.errorName = errorName;
+        this.errors = registry.meter( errorName );
+    }
+
+    /**
+     * The name the elapsed time of the operation is accumulated with for the request.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    public Timer.Context start()
+    {
+        starts.mark();
+        return timer.time();
+    }
+
+    public long stop( final Timer.Context context )
+    {
+        calls.mark();
+        return context.stop();
+    }
+
+    public void markError( final Throwable error )
+    {
+        errors.mark();
+        errorsByType.computeIfAbsent( error.getClass(),
+                                      cls -> registry.meter( name( errorName, cls.getSimpleName() ) ) ).mark();
+    }
+}
@@ -17,8 +17,8 @@ package org.commonjava.indy.metrics.jaxrs.interceptor;
 
 import com.codahale.metrics.Timer;
 import org.commonjava.indy.measure.annotation.Measure;
-import org.commonjava.indy.measure.annotation.MetricNamed;
 import org.commonjava.indy.metrics.IndyMetricsManager;
+import org.commonjava.indy.metrics.StandardMetrics;
 import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,21 +28,8 @@ import javax.interceptor.AroundInvoke;
 import javax.interceptor.Interceptor;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import static com.codahale.metrics.MetricRegistry.name;
 import static org.commonjava.indy.IndyContentConstants.NANOS_PER_MILLISECOND;
-import static org.commonjava.indy.metrics.IndyMetricsConstants.DEFAULT;
-import static org.commonjava.indy.metrics.IndyMetricsConstants.EXCEPTION;
-import static org.commonjava.indy.metrics.IndyMetricsConstants.METER;
-import static org.commonjava.indy.metrics.IndyMetricsConstants.TIMER;
-import static org.commonjava.indy.metrics.IndyMetricsConstants.getDefaultName;
-import static org.commonjava.indy.metrics.IndyMetricsConstants.getName;
 
 @Interceptor
 @Measure
@@ -76,68 +63,30 @@ public class MetricsInterceptor
             return context.proceed();
         }
 
-        String defaultName = getDefaultName( context.getMethod().getDeclaringClass(), context.getMethod().getName() );
-        logger.trace( "Gathering metrics for: {} using context: {}", defaultName, context.getContextData() );
-
-        Map<String, Timer.Context> timers = initTimers( measure, defaultName );
-        List<String> exceptionMeters = initMeters( measure, EXCEPTION, defaultName );
-        List<String> meters = initMeters( measure, METER, defaultName );
-
-        List<String> startMeters = meters.stream().map( name -> name( name, "starts" ) ).collect( Collectors.toList() );
+        // the timer and meters are bound once per method, so no metric names are built here
+        StandardMetrics metrics = metricsManager.getMeasuredMetrics( method );
+        logger.trace( "Gathering metrics for: {} using context: {}", metrics.getName(), context.getContextData() );
 
         long start = System.nanoTime();
-
+        Timer.Context timer = metrics.start();
         try
         {
-            metricsManager.mark( startMeters );
-
             return context.proceed();
         }
         catch ( Exception e )
         {
-            metricsManager.mark( exceptionMeters );
-
-            List<String> eClassMeters = exceptionMeters.stream()
-                                                       .map( name -> name( name, e.getClass().getSimpleName() ) )
-                                                       .filter( name -> !exceptionMeters.contains( name ) )
-                                                       .collect( Collectors.toList() );
-
-            metricsManager.mark( eClassMeters );
+            metrics.markError( e );
 
             throw e;
         }
         finally
         {
-            metricsManager.stopTimers( timers );
-            metricsManager.mark( meters );
+            metrics.stop( timer );
 
             double elapsed = (System.nanoTime() - start) / NANOS_PER_MILLISECOND;
 
-            metricsManager.accumulate( defaultName, elapsed );
+            metricsManager.accumulate( metrics.getName(), elapsed );
         }
     }
 
-    private List<String> initMeters( final Measure measure, String classifier,
-                                     final String defaultName )
-    {
-        List<String> meters = new ArrayList<>();
-
-        meters.add( getName( config.getNodePrefix(), DEFAULT, defaultName, classifier ) );
-
-        logger.trace( "Got meter for {} with classifier: {}: {}", defaultName, classifier, meters );
-
-        return meters;
-    }
-
-    private Map<String, Timer.Context> initTimers( final Measure measure, String defaultName )
-    {
-        Map<String, Timer.Context> timers = new HashMap<>();
-
-        String name = getName( config.getNodePrefix(), DEFAULT, defaultName, TIMER );
-        timers.put(name,
-                metricsManager.startTimer( name ) );
-
-        return timers;
-    }
-
 }
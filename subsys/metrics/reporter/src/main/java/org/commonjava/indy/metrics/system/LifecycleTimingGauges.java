@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.metrics.system;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.commonjava.indy.action.IndyLifecycleManager;
+import org.commonjava.indy.action.LifecycleActionTiming;
+import org.commonjava.indy.change.event.IndyLifecycleEvent;
+import org.commonjava.indy.metrics.conf.IndyMetricsConfig;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Publishes how long each bootup, migration and startup action took, once Indy has started.
+ */
+@ApplicationScoped
+public class LifecycleTimingGauges
+{
+    private static final String LIFECYCLE = "lifecycle";
+
+    private static final String ELAPSED = "elapsed";
+
+    @Inject
+    private IndyLifecycleManager lifecycleManager;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Inject
+    private IndyMetricsConfig metricsConfig;
+
+    public void onStarted( @Observes final IndyLifecycleEvent event )
+    {
+        if ( event.getType() != IndyLifecycleEvent.Type.started || !metricsConfig.isMetricsEnabled() )
+        {
+            return;
+        }
+
+        final Map<String, Long> phaseTotals = new HashMap<>();
+        for ( final LifecycleActionTiming timing : lifecycleManager.getActionTimings() )
+        {
+            final long elapsed = timing.getElapsedMillis();
+            register( name( metricsConfig.getNodePrefix(), LIFECYCLE, timing.getPhase(), toMetricPart( timing.getId() ),
+                            ELAPSED ), elapsed );
+
+            phaseTotals.merge( timing.getPhase(), elapsed, Long::sum );
+        }
+
+        phaseTotals.forEach( ( phase, total ) -> register(
+                name( metricsConfig.getNodePrefix(), LIFECYCLE, phase, "sum", ELAPSED ), total ) );
+    }
+
+    private void register( final String name, final long value )
+    {
+        metricRegistry.remove( name );
+        metricRegistry.register( name, (Gauge<Long>) () -> value );
+    }
+
+    private static String toMetricPart( final String id )
+    {
+        return id.trim().replaceAll( "[^A-Za-z0-9_-]+", "-" );
+    }
+}
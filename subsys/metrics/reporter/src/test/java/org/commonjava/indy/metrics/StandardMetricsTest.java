@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2011-2020 Red Hat, Inc. (https://github.com/Commonjava/indy)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.indy.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class StandardMetricsTest
+{
+    @Test
+    public void markBoundMetrics()
+    {
+        MetricRegistry registry = new MetricRegistry();
+        StandardMetrics metrics = new StandardMetrics( registry, "node.op", "node.op.timer", "node.op", "op.exception" );
+
+        Timer.Context timer = metrics.start();
+        metrics.markError( new IllegalStateException() );
+        metrics.stop( timer );
+
+        timer = metrics.start();
+        metrics.markError( new IllegalStateException() );
+        metrics.stop( timer );
+
+        assertThat( registry.timer( "node.op.timer" ).getCount(), equalTo( 2L ) );
+        assertThat( registry.meter( "node.op.starts" ).getCount(), equalTo( 2L ) );
+        assertThat( registry.meter( "node.op" ).getCount(), equalTo( 2L ) );
+        assertThat( registry.meter( "op.exception" ).getCount(), equalTo( 2L ) );
+        assertThat( registry.meter( "op.exception.IllegalStateException" ).getCount(), equalTo( 2L ) );
+    }
+}
@@ -187,6 +187,34 @@ public abstract class GroupDataManagerTCK
                          .getName(), equalTo( "central" ) );
     }
 
+    @Test
+    public void updateNestedGroupAndRetrieveNewOrderedRepos()
+        throws Exception
+    {
+        final StoreDataManager manager = getFixtureProvider().getDataManager();
+
+        final Group inner = new Group( "inner", new StoreKey( remote, "repo2" ) );
+        final Group outer = new Group( "outer", new StoreKey( remote, "central" ), inner.getKey() );
+
+        store( inner, outer );
+
+        List<ArtifactStore> repos = manager.query().packageType( MAVEN_PKG_KEY ).getOrderedConcreteStoresInGroup( outer.getName() );
+        assertThat( repos.size(), equalTo( 2 ) );
+
+        // ask again to exercise the membership cache, then change the nested group
+        repos = manager.query().packageType( MAVEN_PKG_KEY ).getOrderedConcreteStoresInGroup( outer.getName() );
+        assertThat( repos.size(), equalTo( 2 ) );
+
+        final Group updated = inner.copyOf();
+        updated.removeConstituent( new StoreKey( remote, "repo2" ) );
+        store( updated );
+
+        repos = manager.query().packageType( MAVEN_PKG_KEY ).getOrderedConcreteStoresInGroup( outer.getName() );
+
+        assertThat( repos.size(), equalTo( 1 ) );
+        assertThat( repos.get( 0 ).getName(), equalTo( "central" ) );
+    }
+
     @Test
     public void createGroupAndRetrieveRepositoryConstituents()
         throws Exception